@@ -19,7 +19,11 @@ package com.arangodb;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 import javax.net.ssl.SSLContext;
@@ -28,6 +32,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.arangodb.http.BatchHttpManager;
+import com.arangodb.http.RequestLimit;
+import com.arangodb.http.RetryPolicy;
+import com.arangodb.util.GraphTopologyCache;
 import com.arangodb.util.IOUtils;
 
 /**
@@ -54,8 +61,19 @@ public class ArangoConfigure {
 	/** default property file */
 	private static final String DEFAULT_PROPERTY_FILE = "/arangodb.properties";
 
-	private List<ArangoHost> arangoHosts;
-	private int currentArangoHost;
+	/** endpoint prefix of unix domain sockets */
+	private static final String UNIX_SOCKET_PREFIX = "unix://";
+
+	/** property prefixes of the request limits */
+	private static final String RATE_LIMIT_PREFIX = "rateLimit.";
+	private static final String CONCURRENCY_LIMIT_PREFIX = "concurrencyLimit.";
+
+	/**
+	 * the hosts, the list is replaced as a whole when hosts are added or the
+	 * host list is acquired from the server
+	 */
+	private volatile List<ArangoHost> arangoHosts;
+	private volatile int currentArangoHost;
 
 	/** connection timeout(ms) */
 	private int connectionTimeout = -1;
@@ -77,7 +95,7 @@ public class ArangoConfigure {
 	/** proxy-port */
 	private int proxyPort;
 
-	/** http retry count */
+	/** number of retries of failed requests (except failed connects) */
 	private int retryCount = 3;
 
 	/**
@@ -86,10 +104,63 @@ public class ArangoConfigure {
 	private int connectRetryCount = 3;
 
 	/**
-	 * milliseconds
+	 * milliseconds, the maximum wait before the first retry
 	 */
 	private int connectRetryWait = 1000;
 
+	/**
+	 * maximum wait in milliseconds before a retry
+	 */
+	private int retryMaxWait = 10000;
+
+	/**
+	 * retries per successful request
+	 */
+	private double retryBudget = 0.1;
+
+	/**
+	 * time in milliseconds for a request including its retries (0 means no
+	 * limit)
+	 */
+	private int retryTimeout = 0;
+
+	/**
+	 * decides which requests are retried (null for the DefaultRetryPolicy)
+	 */
+	private RetryPolicy retryPolicy;
+
+	/**
+	 * client side limits of the requests by database, endpoint class or tag
+	 */
+	private final Map<String, RequestLimit> requestLimits = new LinkedHashMap<String, RequestLimit>();
+
+	/**
+	 * send slow reads a second time to the next host
+	 */
+	private boolean hedgedReads = false;
+
+	/**
+	 * time in milliseconds before a read is hedged (0 for the 95th percentile
+	 * of the latency)
+	 */
+	private int hedgeDelay = 0;
+
+	/**
+	 * hedged requests per read
+	 */
+	private double hedgeBudget = 0.05;
+
+	/**
+	 * replace the hosts by the coordinators of the cluster
+	 */
+	private boolean acquireHostList = false;
+
+	/**
+	 * time in milliseconds between the updates of the host list (0 to acquire
+	 * the host list only once)
+	 */
+	private int acquireHostListInterval = 60000;
+
 	/** Default Database */
 	String defaultDatabase;
 
@@ -103,13 +174,79 @@ public class ArangoConfigure {
 
 	private String sslTrustStore = null;
 
+	/**
+	 * path of the unix domain socket of the server (null to use TCP)
+	 */
+	private String unixSocket = null;
+
+	/**
+	 * use the NIO HTTP client instead of the Apache HttpClient
+	 */
+	private boolean useNioHttpClient = false;
+
+	/**
+	 * authenticate with a JSON Web Token instead of basic auth
+	 */
+	private boolean useJwt = false;
+
+	/**
+	 * maximum number of requests in an automatic batch (0 to disable)
+	 */
+	private int autoBatchSize = 0;
+
+	/**
+	 * time in milliseconds to wait for more requests of an automatic batch
+	 */
+	private int autoBatchWindow = 1;
+
+	/**
+	 * time in milliseconds between two polls for finished async jobs
+	 */
+	private int asyncJobPollInterval = 100;
+
+	/**
+	 * maximum number of fire-and-forget requests in flight (0 for no limit)
+	 */
+	private int fireAndForgetMaxInFlight = 0;
+
+	/**
+	 * track the completion of every n-th fire-and-forget request
+	 */
+	private int fireAndForgetSampleRate = 0;
+
+	/**
+	 * reject fire-and-forget requests at the limit instead of waiting
+	 */
+	private boolean fireAndForgetShed = false;
+
+	/**
+	 * the wire protocol (HTTP or VST)
+	 */
+	private Protocol protocol = Protocol.HTTP;
+
+	/**
+	 * number of multiplexed VelocyStream connections
+	 */
+	private int vstConnections = 2;
+
 	/**
 	 * the default ArangoDB cursor batch size
 	 */
 	private int batchSize = 20;
 
+	/**
+	 * client side cache of graph topologies (disabled by default)
+	 */
+	private final GraphTopologyCache graphTopologyCache = new GraphTopologyCache(0L);
+
 	BatchHttpManager httpManager;
 
+	/**
+	 * the base url of the current host, the hosts are mutable, so the cache
+	 * is checked on every call
+	 */
+	private volatile BaseUrl cachedBaseUrl;
+
 	public ArangoConfigure() {
 		init(DEFAULT_PROPERTY_FILE);
 	}
@@ -176,7 +313,9 @@ public class ArangoConfigure {
 		}
 
 		final String arangoHost = prop.getProperty("arangoHost");
-		if (arangoHost != null) {
+		if (arangoHost != null && arangoHost.startsWith(UNIX_SOCKET_PREFIX)) {
+			setUnixSocket(arangoHost.substring(UNIX_SOCKET_PREFIX.length()));
+		} else if (arangoHost != null) {
 			final ArangoHost ah = parseArangoHost(arangoHost);
 			if (ah != null) {
 				arangoHosts.get(0).setHost(ah.getHost());
@@ -237,6 +376,55 @@ public class ArangoConfigure {
 			setConnectRetryWait(Integer.parseInt(connectRetryWaitProperty));
 		}
 
+		final String retryMaxWaitProperty = prop.getProperty("retryMaxWait");
+		if (retryMaxWaitProperty != null) {
+			setRetryMaxWait(Integer.parseInt(retryMaxWaitProperty));
+		}
+
+		final String retryBudgetProperty = prop.getProperty("retryBudget");
+		if (retryBudgetProperty != null) {
+			setRetryBudget(Double.parseDouble(retryBudgetProperty));
+		}
+
+		final String retryTimeoutProperty = prop.getProperty("retryTimeout");
+		if (retryTimeoutProperty != null) {
+			setRetryTimeout(Integer.parseInt(retryTimeoutProperty));
+		}
+
+		final String hedgedReadsProperty = prop.getProperty("hedgedReads");
+		if (hedgedReadsProperty != null) {
+			setHedgedReads(Boolean.parseBoolean(hedgedReadsProperty));
+		}
+
+		final String hedgeDelayProperty = prop.getProperty("hedgeDelay");
+		if (hedgeDelayProperty != null) {
+			setHedgeDelay(Integer.parseInt(hedgeDelayProperty));
+		}
+
+		final String hedgeBudgetProperty = prop.getProperty("hedgeBudget");
+		if (hedgeBudgetProperty != null) {
+			setHedgeBudget(Double.parseDouble(hedgeBudgetProperty));
+		}
+
+		final String acquireHostListProperty = prop.getProperty("acquireHostList");
+		if (acquireHostListProperty != null) {
+			setAcquireHostList(Boolean.parseBoolean(acquireHostListProperty));
+		}
+
+		final String acquireHostListIntervalProperty = prop.getProperty("acquireHostListInterval");
+		if (acquireHostListIntervalProperty != null) {
+			setAcquireHostListInterval(Integer.parseInt(acquireHostListIntervalProperty));
+		}
+
+		for (final String name : prop.stringPropertyNames()) {
+			if (name.startsWith(RATE_LIMIT_PREFIX)) {
+				setRateLimit(name.substring(RATE_LIMIT_PREFIX.length()), Double.parseDouble(prop.getProperty(name)));
+			} else if (name.startsWith(CONCURRENCY_LIMIT_PREFIX)) {
+				setConcurrencyLimit(name.substring(CONCURRENCY_LIMIT_PREFIX.length()),
+					Integer.parseInt(prop.getProperty(name)));
+			}
+		}
+
 		final String userProperty = prop.getProperty("user");
 		if (userProperty != null) {
 			setUser(userProperty);
@@ -276,6 +464,66 @@ public class ArangoConfigure {
 		if (sslTrustStoreProperty != null) {
 			setSslTrustStore(sslTrustStoreProperty);
 		}
+
+		final String unixSocketProperty = prop.getProperty("unixSocket");
+		if (unixSocketProperty != null) {
+			setUnixSocket(unixSocketProperty);
+		}
+
+		final String useNioHttpClientProperty = prop.getProperty("useNioHttpClient");
+		if (useNioHttpClientProperty != null) {
+			setUseNioHttpClient(Boolean.parseBoolean(useNioHttpClientProperty));
+		}
+
+		final String useJwtProperty = prop.getProperty("useJwt");
+		if (useJwtProperty != null) {
+			setUseJwt(Boolean.parseBoolean(useJwtProperty));
+		}
+
+		final String autoBatchSizeProperty = prop.getProperty("autoBatchSize");
+		if (autoBatchSizeProperty != null) {
+			setAutoBatchSize(Integer.parseInt(autoBatchSizeProperty));
+		}
+
+		final String autoBatchWindowProperty = prop.getProperty("autoBatchWindow");
+		if (autoBatchWindowProperty != null) {
+			setAutoBatchWindow(Integer.parseInt(autoBatchWindowProperty));
+		}
+
+		final String asyncJobPollIntervalProperty = prop.getProperty("asyncJobPollInterval");
+		if (asyncJobPollIntervalProperty != null) {
+			setAsyncJobPollInterval(Integer.parseInt(asyncJobPollIntervalProperty));
+		}
+
+		final String fireAndForgetMaxInFlightProperty = prop.getProperty("fireAndForgetMaxInFlight");
+		if (fireAndForgetMaxInFlightProperty != null) {
+			setFireAndForgetMaxInFlight(Integer.parseInt(fireAndForgetMaxInFlightProperty));
+		}
+
+		final String fireAndForgetSampleRateProperty = prop.getProperty("fireAndForgetSampleRate");
+		if (fireAndForgetSampleRateProperty != null) {
+			setFireAndForgetSampleRate(Integer.parseInt(fireAndForgetSampleRateProperty));
+		}
+
+		final String fireAndForgetShedProperty = prop.getProperty("fireAndForgetShed");
+		if (fireAndForgetShedProperty != null) {
+			setFireAndForgetShed(Boolean.parseBoolean(fireAndForgetShedProperty));
+		}
+
+		final String protocolProperty = prop.getProperty("protocol");
+		if (protocolProperty != null) {
+			setProtocol(Protocol.valueOf(protocolProperty.toUpperCase()));
+		}
+
+		final String vstConnectionsProperty = prop.getProperty("vstConnections");
+		if (vstConnectionsProperty != null) {
+			setVstConnections(Integer.parseInt(vstConnectionsProperty));
+		}
+
+		final String graphTopologyCacheTtlProperty = prop.getProperty("graphTopologyCacheTtl");
+		if (graphTopologyCacheTtlProperty != null) {
+			setGraphTopologyCacheTtl(Long.parseLong(graphTopologyCacheTtlProperty));
+		}
 	}
 
 	private ArangoHost parseArangoHost(final String str) {
@@ -306,17 +554,39 @@ public class ArangoConfigure {
 	public String getBaseUrl() {
 		final ArangoHost currentHost = getCurrentHost();
 
-		return (useSsl ? "https://" : "http://") + currentHost.getHost() + ":" + currentHost.getPort();
+		BaseUrl baseUrl = cachedBaseUrl;
+		if (baseUrl == null || !baseUrl.matches(currentHost, useSsl)) {
+			baseUrl = new BaseUrl(currentHost, useSsl);
+			cachedBaseUrl = baseUrl;
+		}
+		return baseUrl.url;
 	}
 
 	public String getEndpoint() {
+		if (unixSocket != null) {
+			return UNIX_SOCKET_PREFIX + unixSocket;
+		}
 		final ArangoHost currentHost = getCurrentHost();
 
 		return (useSsl ? "ssl://" : "tcp://") + currentHost.getHost() + ":" + currentHost.getPort();
 	}
 
 	private ArangoHost getCurrentHost() {
-		return arangoHosts.get(currentArangoHost);
+		final List<ArangoHost> hosts = arangoHosts;
+		return hosts.get(currentArangoHost % hosts.size());
+	}
+
+	/**
+	 * @return the base url of the host after the current one, null without
+	 *         fallback host
+	 */
+	public String getNextBaseUrl() {
+		final List<ArangoHost> hosts = arangoHosts;
+		if (hosts.size() < 2) {
+			return null;
+		}
+		final ArangoHost nextHost = hosts.get((currentArangoHost + 1) % hosts.size());
+		return new BaseUrl(nextHost, useSsl).url;
 	}
 
 	public boolean hasFallbackHost() {
@@ -324,13 +594,45 @@ public class ArangoConfigure {
 	}
 
 	public ArangoHost changeCurrentHost() {
-		currentArangoHost++;
+		final List<ArangoHost> hosts = arangoHosts;
+		final int next = (currentArangoHost + 1) % hosts.size();
+		currentArangoHost = next;
+		return hosts.get(next);
+	}
 
-		if (currentArangoHost >= arangoHosts.size()) {
-			currentArangoHost = 0;
-		}
+	/**
+	 * @return the hosts, the first one is the default host
+	 */
+	public List<ArangoHost> getArangoHosts() {
+		return Collections.unmodifiableList(arangoHosts);
+	}
 
-		return getCurrentHost();
+	/**
+	 * Replaces the hosts, e.g. by the coordinators acquired from the server.
+	 * The current host is kept, if it is still in the list. Running requests
+	 * are not affected, they are finished on their host.
+	 * 
+	 * @param hosts
+	 *            the new hosts, at least one
+	 * @return the hosts, which were removed
+	 */
+	public synchronized List<ArangoHost> updateArangoHosts(final List<ArangoHost> hosts) {
+		if (hosts.isEmpty()) {
+			throw new IllegalArgumentException("the host list is empty");
+		}
+		final List<ArangoHost> previous = arangoHosts;
+		final ArangoHost current = previous.get(currentArangoHost % previous.size());
+		final List<ArangoHost> updated = new ArrayList<ArangoHost>(hosts);
+		arangoHosts = updated;
+		currentArangoHost = Math.max(0, updated.indexOf(current));
+
+		final List<ArangoHost> removed = new ArrayList<ArangoHost>();
+		for (final ArangoHost host : previous) {
+			if (!updated.contains(host)) {
+				removed.add(host);
+			}
+		}
+		return removed;
 	}
 
 	public static String getDefaultHost() {
@@ -396,8 +698,10 @@ public class ArangoConfigure {
 	 * @param arangoHost
 	 *            the host name and port
 	 */
-	public void addFallbackArangoHost(final ArangoHost arangoHost) {
-		arangoHosts.add(arangoHost);
+	public synchronized void addFallbackArangoHost(final ArangoHost arangoHost) {
+		final List<ArangoHost> hosts = new ArrayList<ArangoHost>(arangoHosts);
+		hosts.add(arangoHost);
+		arangoHosts = hosts;
 	}
 
 	public void setConnectionTimeout(final int connectionTimeout) {
@@ -428,6 +732,15 @@ public class ArangoConfigure {
 		return retryCount;
 	}
 
+	/**
+	 * Set the number of retries of a request, which failed with a reset
+	 * connection, 503 service unavailable, 1004 write-locked or a timeout of
+	 * the cluster. Only idempotent requests are retried after a reset
+	 * connection or a timeout.
+	 * 
+	 * @param retryCount
+	 *            number of retries (default 3)
+	 */
 	public void setRetryCount(final int retryCount) {
 		this.retryCount = retryCount;
 	}
@@ -505,7 +818,8 @@ public class ArangoConfigure {
 	}
 
 	/**
-	 * Set wait time for a connect retry
+	 * Set wait time for the first retry. The wait is doubled with every
+	 * retry, the actual wait is a random time up to this wait.
 	 * 
 	 * @param connectRetryWait
 	 *            milliseconds to wait
@@ -514,6 +828,199 @@ public class ArangoConfigure {
 		this.connectRetryWait = connectRetryWait;
 	}
 
+	public int getRetryMaxWait() {
+		return retryMaxWait;
+	}
+
+	/**
+	 * @param retryMaxWait
+	 *            maximum wait in milliseconds before a retry (default 10000)
+	 */
+	public void setRetryMaxWait(final int retryMaxWait) {
+		this.retryMaxWait = retryMaxWait;
+	}
+
+	public double getRetryBudget() {
+		return retryBudget;
+	}
+
+	/**
+	 * Limits the retries, if many requests fail: every successful request
+	 * allows this fraction of a retry, up to 10 saved retries.
+	 * 
+	 * @param retryBudget
+	 *            retries per successful request (default 0.1, 0 disables the
+	 *            budget)
+	 */
+	public void setRetryBudget(final double retryBudget) {
+		this.retryBudget = retryBudget;
+	}
+
+	public int getRetryTimeout() {
+		return retryTimeout;
+	}
+
+	/**
+	 * A request is not retried, if the retry would start after this time
+	 * 
+	 * @param retryTimeout
+	 *            time in milliseconds for a request including its retries
+	 *            (default 0, no limit)
+	 */
+	public void setRetryTimeout(final int retryTimeout) {
+		this.retryTimeout = retryTimeout;
+	}
+
+	public RetryPolicy getRetryPolicy() {
+		return retryPolicy;
+	}
+
+	/**
+	 * Set a custom retry policy, it replaces the DefaultRetryPolicy and its
+	 * settings (connectRetryCount, retryCount, connectRetryWait,
+	 * retryMaxWait, retryBudget). Must be set before init().
+	 * 
+	 * @param retryPolicy
+	 *            the policy (null for the DefaultRetryPolicy)
+	 */
+	public void setRetryPolicy(final RetryPolicy retryPolicy) {
+		this.retryPolicy = retryPolicy;
+	}
+
+	public Collection<RequestLimit> getRequestLimits() {
+		return requestLimits.values();
+	}
+
+	/**
+	 * Limits the rate of the requests of a database, an endpoint class or a
+	 * tag, with a burst of one second. The key is "database.&lt;name&gt;",
+	 * "endpoint.&lt;class&gt;" (document, cursor, import, graph or other) or
+	 * "tag.&lt;tag&gt;". The requests wait for admission before they lease a
+	 * connection, waiting requests are admitted by priority. Must be set
+	 * before init().
+	 * 
+	 * @param key
+	 *            the requests of the limit
+	 * @param requestsPerSecond
+	 *            maximum number of requests per second (0 for no limit)
+	 * @see com.arangodb.util.RequestOptions#setPriority(com.arangodb.util.RequestOptions.Priority)
+	 */
+	public void setRateLimit(final String key, final double requestsPerSecond) {
+		setRateLimit(key, requestsPerSecond, (int) Math.ceil(requestsPerSecond));
+	}
+
+	/**
+	 * Limits the rate of the requests of a database, an endpoint class or a
+	 * tag, see setRateLimit(String, double)
+	 * 
+	 * @param key
+	 *            the requests of the limit
+	 * @param requestsPerSecond
+	 *            maximum number of requests per second (0 for no limit)
+	 * @param burst
+	 *            maximum number of requests sent at once after an idle time
+	 */
+	public void setRateLimit(final String key, final double requestsPerSecond, final int burst) {
+		final RequestLimit limit = requestLimits.get(key);
+		requestLimits.put(key,
+			new RequestLimit(key, requestsPerSecond, burst, limit != null ? limit.getMaxConcurrent() : 0));
+	}
+
+	/**
+	 * Limits the number of concurrent requests of a database, an endpoint
+	 * class or a tag, see setRateLimit(String, double) for the keys. Must be
+	 * set before init().
+	 * 
+	 * @param key
+	 *            the requests of the limit
+	 * @param maxConcurrent
+	 *            maximum number of concurrent requests (0 for no limit)
+	 */
+	public void setConcurrencyLimit(final String key, final int maxConcurrent) {
+		final RequestLimit limit = requestLimits.get(key);
+		requestLimits.put(key, new RequestLimit(key, limit != null ? limit.getRate() : 0.0,
+				limit != null ? limit.getBurst() : 1, maxConcurrent));
+	}
+
+	public boolean getHedgedReads() {
+		return hedgedReads;
+	}
+
+	/**
+	 * Hedged reads: with a fallback host, getDocument(...), getDocumentRaw(...),
+	 * checkDocument(...) and the first batch of read-only queries (see
+	 * AqlQueryOptions.setReadOnly(Boolean)) are sent a second time to the next
+	 * host, if they are not answered within the hedge delay. The first
+	 * successful response is used, the other request is aborted. Not
+	 * supported with VelocyStream. Must be set before init().
+	 * 
+	 * @param hedgedReads
+	 *            true to enable hedged reads (default false)
+	 */
+	public void setHedgedReads(final boolean hedgedReads) {
+		this.hedgedReads = hedgedReads;
+	}
+
+	public int getHedgeDelay() {
+		return hedgeDelay;
+	}
+
+	/**
+	 * @param hedgeDelay
+	 *            time in milliseconds before a read is hedged (default 0, the
+	 *            95th percentile of the observed latency of the reads)
+	 */
+	public void setHedgeDelay(final int hedgeDelay) {
+		this.hedgeDelay = hedgeDelay;
+	}
+
+	public double getHedgeBudget() {
+		return hedgeBudget;
+	}
+
+	/**
+	 * Limits the extra load of hedged reads: every read allows this fraction
+	 * of a hedged request, up to 10 saved requests.
+	 * 
+	 * @param hedgeBudget
+	 *            hedged requests per read (default 0.05)
+	 */
+	public void setHedgeBudget(final double hedgeBudget) {
+		this.hedgeBudget = hedgeBudget;
+	}
+
+	public boolean getAcquireHostList() {
+		return acquireHostList;
+	}
+
+	/**
+	 * Acquires the endpoints of the coordinators from the cluster
+	 * (/_api/cluster/endpoints) on init() and then periodically. The hosts are
+	 * replaced by the coordinators, the configured hosts are only used to
+	 * reach the cluster. Connections to removed coordinators are closed when
+	 * they are idle. Single servers keep the configured hosts. Must be set
+	 * before init().
+	 * 
+	 * @param acquireHostList
+	 *            true to acquire the host list (default false)
+	 */
+	public void setAcquireHostList(final boolean acquireHostList) {
+		this.acquireHostList = acquireHostList;
+	}
+
+	public int getAcquireHostListInterval() {
+		return acquireHostListInterval;
+	}
+
+	/**
+	 * @param acquireHostListInterval
+	 *            time in milliseconds between the updates of the host list
+	 *            (default 60000, 0 to acquire the host list only on init())
+	 */
+	public void setAcquireHostListInterval(final int acquireHostListInterval) {
+		this.acquireHostListInterval = acquireHostListInterval;
+	}
+
 	public int getBatchSize() {
 		return batchSize;
 	}
@@ -536,6 +1043,186 @@ public class ArangoConfigure {
 		this.useSsl = useSsl;
 	}
 
+	public String getUnixSocket() {
+		return unixSocket;
+	}
+
+	/**
+	 * Connect to the server over a unix domain socket instead of TCP. The host
+	 * and port are still used in the HTTP requests, but all connections are
+	 * opened to the socket file. Requires junixsocket on the classpath. Can
+	 * also be set with arangoHost=unix:///path/to/socket in the properties.
+	 * 
+	 * @param unixSocket
+	 *            path of the unix domain socket (null to use TCP)
+	 */
+	public void setUnixSocket(final String unixSocket) {
+		this.unixSocket = unixSocket;
+	}
+
+	public boolean getUseNioHttpClient() {
+		return useNioHttpClient;
+	}
+
+	/**
+	 * Use a minimal NIO HTTP/1.1 client instead of the Apache HttpClient. It
+	 * does not support HTTPS, proxies and unix domain sockets, in these cases
+	 * the Apache HttpClient is used anyway.
+	 * 
+	 * @param useNioHttpClient
+	 *            set true to use the NIO HTTP client (default false)
+	 */
+	public void setUseNioHttpClient(final boolean useNioHttpClient) {
+		this.useNioHttpClient = useNioHttpClient;
+	}
+
+	public boolean getUseJwt() {
+		return useJwt;
+	}
+
+	/**
+	 * Authenticate with a JSON Web Token instead of basic auth. The driver
+	 * requests the token with the configured user and password once, sends it
+	 * in every request and renews it before it expires or when the server
+	 * rejects it. The server does not have to check the password for every
+	 * request. Only used with HTTP, VelocyStream connections are authenticated
+	 * once anyway.
+	 * 
+	 * @param useJwt
+	 *            set true to use JSON Web Tokens (default false)
+	 */
+	public void setUseJwt(final boolean useJwt) {
+		this.useJwt = useJwt;
+	}
+
+	public int getAutoBatchSize() {
+		return autoBatchSize;
+	}
+
+	/**
+	 * Collect small synchronous requests of concurrent threads into batch
+	 * requests. A request is sent on its own if a connection is free, requests
+	 * that arrive while all connections are busy are sent together. Only used
+	 * outside of batch mode and async mode. The retry policy applies to every
+	 * part of a batch, a part to retry is sent again with a following batch.
+	 * 
+	 * @param autoBatchSize
+	 *            maximum number of requests in one batch (default 0, disabled)
+	 */
+	public void setAutoBatchSize(final int autoBatchSize) {
+		this.autoBatchSize = autoBatchSize;
+	}
+
+	public int getAutoBatchWindow() {
+		return autoBatchWindow;
+	}
+
+	/**
+	 * If several requests are waiting, the driver waits up to this time for
+	 * more requests before the batch is sent.
+	 * 
+	 * @param autoBatchWindow
+	 *            time in milliseconds (default 1)
+	 */
+	public void setAutoBatchWindow(final int autoBatchWindow) {
+		this.autoBatchWindow = autoBatchWindow;
+	}
+
+	public int getAsyncJobPollInterval() {
+		return asyncJobPollInterval;
+	}
+
+	/**
+	 * The results of calls in async mode are collected in the background: the
+	 * driver asks for the finished jobs in this interval and fetches their
+	 * results in batches.
+	 * 
+	 * @param asyncJobPollInterval
+	 *            time in milliseconds (default 100)
+	 */
+	public void setAsyncJobPollInterval(final int asyncJobPollInterval) {
+		this.asyncJobPollInterval = asyncJobPollInterval;
+	}
+
+	public int getFireAndForgetMaxInFlight() {
+		return fireAndForgetMaxInFlight;
+	}
+
+	/**
+	 * Limits the number of requests of the fire-and-forget mode, which are
+	 * accepted by the server but not executed yet. At the limit a request
+	 * waits (up to the timeout) or is rejected, see
+	 * setFireAndForgetShed(boolean).
+	 * 
+	 * @param fireAndForgetMaxInFlight
+	 *            maximum number of requests (default 0, no limit)
+	 */
+	public void setFireAndForgetMaxInFlight(final int fireAndForgetMaxInFlight) {
+		this.fireAndForgetMaxInFlight = fireAndForgetMaxInFlight;
+	}
+
+	public int getFireAndForgetSampleRate() {
+		return fireAndForgetSampleRate;
+	}
+
+	/**
+	 * Every n-th request of the fire-and-forget mode is stored by the server
+	 * and its completion is tracked, to estimate the queued requests and the
+	 * lag of the server. With a limit, at least every (limit / 2)-th request
+	 * is tracked.
+	 * 
+	 * @param fireAndForgetSampleRate
+	 *            n (default 0, only as many as needed by the limit)
+	 */
+	public void setFireAndForgetSampleRate(final int fireAndForgetSampleRate) {
+		this.fireAndForgetSampleRate = fireAndForgetSampleRate;
+	}
+
+	public boolean getFireAndForgetShed() {
+		return fireAndForgetShed;
+	}
+
+	/**
+	 * @param fireAndForgetShed
+	 *            if true, requests of the fire-and-forget mode are rejected
+	 *            with an ArangoException at the limit, otherwise they wait
+	 *            (default false)
+	 */
+	public void setFireAndForgetShed(final boolean fireAndForgetShed) {
+		this.fireAndForgetShed = fireAndForgetShed;
+	}
+
+	public Protocol getProtocol() {
+		return protocol;
+	}
+
+	/**
+	 * Set the wire protocol. VelocyStream multiplexes the requests over a few
+	 * connections and uses VelocyPack payloads, it requires ArangoDB 3.1 or
+	 * later.
+	 * 
+	 * @param protocol
+	 *            HTTP (default) or VST
+	 */
+	public void setProtocol(final Protocol protocol) {
+		this.protocol = protocol;
+	}
+
+	public int getVstConnections() {
+		return vstConnections;
+	}
+
+	/**
+	 * Set the number of connections, the VelocyStream requests are multiplexed
+	 * over
+	 * 
+	 * @param vstConnections
+	 *            number of connections (default 2)
+	 */
+	public void setVstConnections(final int vstConnections) {
+		this.vstConnections = vstConnections;
+	}
+
 	public SSLContext getSslContext() {
 		return sslContext;
 	}
@@ -566,4 +1253,46 @@ public class ArangoConfigure {
 		this.sslTrustStore = sslTrustStore;
 	}
 
+	public long getGraphTopologyCacheTtl() {
+		return graphTopologyCache.getTtl();
+	}
+
+	/**
+	 * Set the time to live of cached graph topologies (edge definitions,
+	 * vertex and orphan collections). The driver uses the cached topology
+	 * instead of asking the server for the vertex collections of a graph
+	 * when building graph queries.
+	 * 
+	 * @param graphTopologyCacheTtl
+	 *            milliseconds (0 disables the cache, default)
+	 */
+	public void setGraphTopologyCacheTtl(final long graphTopologyCacheTtl) {
+		graphTopologyCache.setTtl(graphTopologyCacheTtl);
+	}
+
+	public GraphTopologyCache getGraphTopologyCache() {
+		return graphTopologyCache;
+	}
+
+	private static class BaseUrl {
+
+		private final String host;
+		private final int port;
+		private final boolean useSsl;
+		private final String url;
+
+		BaseUrl(final ArangoHost arangoHost, final boolean useSsl) {
+			this.host = arangoHost.getHost();
+			this.port = arangoHost.getPort();
+			this.useSsl = useSsl;
+			this.url = (useSsl ? "https://" : "http://") + host + ":" + port;
+		}
+
+		boolean matches(final ArangoHost arangoHost, final boolean ssl) {
+			return port == arangoHost.getPort() && useSsl == ssl
+					&& (host == null ? arangoHost.getHost() == null : host.equals(arangoHost.getHost()));
+		}
+
+	}
+
 }
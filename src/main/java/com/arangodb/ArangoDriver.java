@@ -17,16 +17,28 @@
 
 package com.arangodb;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Proxy;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.arangodb.entity.AdminLogEntity;
 import com.arangodb.entity.AqlFunctionsEntity;
 import com.arangodb.entity.ArangoUnixTime;
 import com.arangodb.entity.ArangoVersion;
+import com.arangodb.entity.BaseDocument;
+import com.arangodb.entity.BaseEntity;
 import com.arangodb.entity.BatchResponseEntity;
 import com.arangodb.entity.BooleanResultEntity;
 import com.arangodb.entity.CollectionEntity;
@@ -40,6 +52,7 @@ import com.arangodb.entity.DeletedEntity;
 import com.arangodb.entity.DocumentEntity;
 import com.arangodb.entity.EdgeDefinitionEntity;
 import com.arangodb.entity.EdgeEntity;
+import com.arangodb.entity.EntityFactory;
 import com.arangodb.entity.Endpoint;
 import com.arangodb.entity.GraphEntity;
 import com.arangodb.entity.GraphsEntity;
@@ -48,6 +61,8 @@ import com.arangodb.entity.IndexEntity;
 import com.arangodb.entity.IndexType;
 import com.arangodb.entity.IndexesEntity;
 import com.arangodb.entity.JobsEntity;
+import com.arangodb.entity.NeighborsEntity;
+import com.arangodb.entity.PathEntity;
 import com.arangodb.entity.PlainEdgeEntity;
 import com.arangodb.entity.QueriesResultEntity;
 import com.arangodb.entity.QueryCachePropertiesEntity;
@@ -70,23 +85,33 @@ import com.arangodb.entity.TransactionResultEntity;
 import com.arangodb.entity.TraversalEntity;
 import com.arangodb.entity.UserEntity;
 import com.arangodb.entity.marker.VertexEntity;
+import com.arangodb.http.AdmissionStatistics;
 import com.arangodb.http.BatchHttpManager;
 import com.arangodb.http.BatchPart;
+import com.arangodb.http.FireAndForgetStatistics;
 import com.arangodb.http.HttpManager;
-import com.arangodb.http.InvocationHandlerImpl;
 import com.arangodb.impl.ImplFactory;
 import com.arangodb.impl.InternalBatchDriverImpl;
 import com.arangodb.util.AqlQueryOptions;
+import com.arangodb.util.CsrGraph;
+import com.arangodb.util.CsrGraphBuilder;
 import com.arangodb.util.DumpHandler;
 import com.arangodb.util.GraphEdgesOptions;
+import com.arangodb.util.GraphExportOptions;
 import com.arangodb.util.GraphQueryUtil;
+import com.arangodb.util.GraphTopologyCache;
+import com.arangodb.util.GraphTopologyCache.GraphTopology;
 import com.arangodb.util.GraphVerticesOptions;
 import com.arangodb.util.ImportOptions;
 import com.arangodb.util.ImportOptionsJson;
 import com.arangodb.util.ImportOptionsRaw;
 import com.arangodb.util.MapBuilder;
+import com.arangodb.util.RequestOptions;
+import com.arangodb.util.ScanHandler;
 import com.arangodb.util.ShortestPathOptions;
 import com.arangodb.util.TraversalQueryOptions;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 
 /**
  * ArangoDB driver. All of the functionality to use ArangoDB is provided via
@@ -109,24 +134,29 @@ public class ArangoDriver extends BaseArangoDriver {
 	private final ArangoConfigure configure;
 	private final BatchHttpManager httpManager;
 
-	private InternalCursorDriver cursorDriver;
+	private volatile InternalCursorDriver cursorDriver;
 	private InternalBatchDriverImpl batchDriver;
-	private InternalCollectionDriver collectionDriver;
-	private InternalDocumentDriver documentDriver;
-	private InternalIndexDriver indexDriver;
-	private InternalAdminDriver adminDriver;
-	private InternalJobsDriver jobsDriver;
-	private InternalAqlFunctionsDriver aqlFunctionsDriver;
-	private InternalSimpleDriver simpleDriver;
-	private InternalUsersDriver usersDriver;
-	private InternalImportDriver importDriver;
-	private InternalDatabaseDriver databaseDriver;
-	private InternalEndpointDriver endpointDriver;
-	private InternalReplicationDriver replicationDriver;
-	private InternalGraphDriver graphDriver;
-	private InternalTransactionDriver transactionDriver;
-	private InternalTraversalDriver traversalDriver;
-	private InternalQueryCacheDriver queryCacheDriver;
+
+	/**
+	 * the typed results of the last executed batch by request id
+	 */
+	private Map<String, DeferredResult<?>> batchResults = new HashMap<String, DeferredResult<?>>();
+	private volatile InternalCollectionDriver collectionDriver;
+	private volatile InternalDocumentDriver documentDriver;
+	private volatile InternalIndexDriver indexDriver;
+	private volatile InternalAdminDriver adminDriver;
+	private volatile InternalJobsDriver jobsDriver;
+	private volatile InternalAqlFunctionsDriver aqlFunctionsDriver;
+	private volatile InternalSimpleDriver simpleDriver;
+	private volatile InternalUsersDriver usersDriver;
+	private volatile InternalImportDriver importDriver;
+	private volatile InternalDatabaseDriver databaseDriver;
+	private volatile InternalEndpointDriver endpointDriver;
+	private volatile InternalReplicationDriver replicationDriver;
+	private volatile InternalGraphDriver graphDriver;
+	private volatile InternalTransactionDriver transactionDriver;
+	private volatile InternalTraversalDriver traversalDriver;
+	private volatile InternalQueryCacheDriver queryCacheDriver;
 
 	private String database;
 
@@ -159,7 +189,38 @@ public class ArangoDriver extends BaseArangoDriver {
 
 		this.configure = configure;
 		this.httpManager = configure.getHttpManager();
-		this.createModuleDrivers(false);
+		this.batchDriver = ImplFactory.createBatchDriver(configure, this.httpManager);
+	}
+
+	/**
+	 * Prepares the driver for the first requests: creates the module drivers,
+	 * resolves the serializers of the common entities and of the given
+	 * document classes and opens the given number of pooled connections
+	 * (including the TLS handshake and the authentication). Without warm-up
+	 * this is done lazily by the first requests.
+	 *
+	 * @param connections
+	 *            the number of connections to open (at most maxPerConnection)
+	 * @param documentClasses
+	 *            the classes of the documents to resolve
+	 * @throws ArangoException
+	 *             if the connections could not be opened
+	 */
+	public void warmUp(final int connections, final Class<?>... documentClasses) throws ArangoException {
+		documentDriver();
+		collectionDriver();
+		cursorDriver();
+		simpleDriver();
+		graphDriver();
+		indexDriver();
+		adminDriver();
+		databaseDriver();
+		EntityFactory.warmUp(DefaultEntity.class, DocumentEntity.class, BaseDocument.class, CursorEntity.class,
+			CollectionEntity.class, IndexEntity.class, ArangoVersion.class, EdgeEntity.class, DeletedEntity.class);
+		EntityFactory.warmUp(documentClasses);
+		if (connections > 0) {
+			this.httpManager.warmUp(connections);
+		}
 	}
 
 	/**
@@ -180,15 +241,15 @@ public class ArangoDriver extends BaseArangoDriver {
 		}
 		this.httpManager.emptyCallStack();
 		this.httpManager.setBatchModeActive(true);
-		this.createModuleDrivers(true);
-
 	}
 
 	/**
 	 * This method sets the driver to asynchronous execution. If the parameter
 	 * 'fireAndforget' is set to true each call to ArangoDB will be send without
 	 * a return value. If set to false the return value will be the 'job id'.
-	 * Each job result can be received by the method 'getJobResult'.
+	 * Each job result can be received by the method 'getJobResult'. The
+	 * number of fire-and-forget requests in flight can be limited with
+	 * ArangoConfigure.setFireAndForgetMaxInFlight(int).
 	 *
 	 * @param fireAndForget
 	 *            if set to true the asynchronous mode is set to 'fire and
@@ -209,7 +270,6 @@ public class ArangoDriver extends BaseArangoDriver {
 		final HttpManager.HttpMode mode = fireAndForget ? HttpManager.HttpMode.FIREANDFORGET
 				: HttpManager.HttpMode.ASYNC;
 		this.httpManager.setHttpMode(mode);
-		this.createModuleDrivers(true);
 		this.httpManager.resetJobs();
 	}
 
@@ -229,7 +289,6 @@ public class ArangoDriver extends BaseArangoDriver {
 			throw new ArangoException("Arango driver already set to synchronous mode.");
 		}
 		this.httpManager.setHttpMode(HttpManager.HttpMode.SYNC);
-		this.createModuleDrivers(false);
 	}
 
 	/**
@@ -248,6 +307,46 @@ public class ArangoDriver extends BaseArangoDriver {
 		return this.httpManager.getLastJobId();
 	}
 
+	/**
+	 * Returns the counters of the fire-and-forget mode: accepted and rejected
+	 * requests, the estimated number of requests queued by the server and the
+	 * lag of the last tracked request.
+	 *
+	 * @return the counters
+	 * @see ArangoDriver#startAsyncMode(boolean)
+	 * @see com.arangodb.ArangoConfigure#setFireAndForgetMaxInFlight(int)
+	 */
+	public FireAndForgetStatistics getFireAndForgetStatistics() {
+		return this.httpManager.getFireAndForgetStatistics();
+	}
+
+	/**
+	 * Sets the options of the following calls of the current thread, e.g. the
+	 * tag and the priority of a batch job. The timeout of the options applies
+	 * to each request. The options of a single call replace them for the
+	 * call.
+	 *
+	 * @param options
+	 *            the options, null for none
+	 * @return the previous options of the thread
+	 * @see com.arangodb.ArangoConfigure#setRateLimit(String, double)
+	 */
+	public RequestOptions setRequestOptions(final RequestOptions options) {
+		return this.httpManager.setRequestOptions(options);
+	}
+
+	/**
+	 * Returns the counters of the client side admission control: admitted,
+	 * delayed and rejected requests and their time in the queue.
+	 *
+	 * @return the counters, null if no request limits are configured
+	 * @see com.arangodb.ArangoConfigure#setRateLimit(String, double)
+	 * @see com.arangodb.ArangoConfigure#setConcurrencyLimit(String, int)
+	 */
+	public AdmissionStatistics getAdmissionStatistics() {
+		return this.httpManager.getAdmissionStatistics();
+	}
+
 	/**
 	 * Returns a list of all job identifiers of asynchronous executed jobs.
 	 *
@@ -281,7 +380,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @see ArangoDriver#getLastJobId()
 	 */
 	public List<String> getJobs(final JobsEntity.JobState jobState, final int count) throws ArangoException {
-		return this.jobsDriver.getJobs(getDefaultDatabase(), jobState, count);
+		return jobsDriver().getJobs(getDefaultDatabase(), jobState, count);
 	}
 
 	/**
@@ -300,7 +399,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @see ArangoDriver#getLastJobId()
 	 */
 	public List<String> getJobs(final JobsEntity.JobState jobState) throws ArangoException {
-		return this.jobsDriver.getJobs(getDefaultDatabase(), jobState);
+		return jobsDriver().getJobs(getDefaultDatabase(), jobState);
 	}
 
 	/**
@@ -314,7 +413,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @see ArangoDriver#getLastJobId()
 	 */
 	public void deleteAllJobs() throws ArangoException {
-		this.jobsDriver.deleteAllJobs(getDefaultDatabase());
+		jobsDriver().deleteAllJobs(getDefaultDatabase());
 		this.httpManager.resetJobs();
 	}
 
@@ -331,7 +430,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @see ArangoDriver#getLastJobId()
 	 */
 	public void deleteJobById(final String jobId) throws ArangoException {
-		this.jobsDriver.deleteJobById(getDefaultDatabase(), jobId);
+		jobsDriver().deleteJobById(getDefaultDatabase(), jobId);
 	}
 
 	/**
@@ -347,11 +446,12 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @see ArangoDriver#getLastJobId()
 	 */
 	public void deleteExpiredJobs(final int timeStamp) throws ArangoException {
-		this.jobsDriver.deleteExpiredJobs(getDefaultDatabase(), timeStamp);
+		jobsDriver().deleteExpiredJobs(getDefaultDatabase(), timeStamp);
 	}
 
 	/**
-	 * Returns the job result for a given job id.
+	 * Returns the job result for a given job id. Waits until the result is
+	 * collected, if the job is not finished.
 	 *
 	 * @param jobId
 	 *            the job id.
@@ -364,7 +464,33 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @see ArangoDriver#getLastJobId()
 	 */
 	public <T> T getJobResult(final String jobId) throws ArangoException {
-		return this.jobsDriver.getJobResult(getDefaultDatabase(), jobId);
+		return jobsDriver().getJobResult(getDefaultDatabase(), jobId);
+	}
+
+	/**
+	 * Returns the typed result of a call in async mode. The results of the
+	 * jobs are collected in the background (see
+	 * ArangoConfigure.setAsyncJobPollInterval(int)), several results are
+	 * fetched with one batch request. The entity is created directly from the
+	 * stored response, without replaying the call like getJobResult(String);
+	 * post-processing of the call is not applied.
+	 *
+	 * @param jobId
+	 *            the job id.
+	 * @return the handle of the result, DeferredResult.get() waits for the
+	 *         result
+	 * @see ArangoDriver#startAsyncMode(boolean)
+	 * @see ArangoDriver#getLastJobId()
+	 * @throws ArangoException
+	 *             if the job id is unknown
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends BaseEntity> DeferredResult<T> getAsyncResult(final String jobId) throws ArangoException {
+		final DeferredResult<?> result = this.httpManager.getAsyncResult(jobId);
+		if (result == null) {
+			throw new ArangoException("No result for JobId.");
+		}
+		return (DeferredResult<T>) result;
 	}
 
 	/**
@@ -380,7 +506,64 @@ public class ArangoDriver extends BaseArangoDriver {
 		}
 		final List<BatchPart> callStack = this.httpManager.getCallStack();
 		this.cancelBatchMode();
-		return this.batchDriver.executeBatch(callStack, this.getDefaultDatabase());
+
+		final Map<String, DeferredResult<?>> results = new HashMap<String, DeferredResult<?>>(callStack.size() * 2);
+		for (final BatchPart batchPart : callStack) {
+			if (batchPart.getDeferredResult() != null) {
+				results.put(batchPart.getId(), batchPart.getDeferredResult());
+			}
+		}
+		this.batchResults = results;
+
+		final DefaultEntity entity;
+		try {
+			entity = this.batchDriver.executeBatch(callStack, this.getDefaultDatabase());
+		} catch (final ArangoException e) {
+			for (final DeferredResult<?> result : results.values()) {
+				result.fail(e);
+			}
+			throw e;
+		}
+
+		// complete the typed results directly from the parts of the response
+		for (final BatchResponseEntity batchResponseEntity : this.batchDriver.getBatchResponseListEntity()
+				.getBatchResponseEntities()) {
+			final DeferredResult<?> result = results.get(batchResponseEntity.getRequestId());
+			if (result != null) {
+				result.complete(batchResponseEntity.getHttpResponseEntity());
+			}
+		}
+		for (final DeferredResult<?> result : results.values()) {
+			if (!result.isDone()) {
+				result.fail(new ArangoException("RequestId not found in batch."));
+			}
+		}
+		return entity;
+	}
+
+	/**
+	 * Returns the typed result of a call of the last executed batch. The
+	 * entity is created directly from the response of the batch part, without
+	 * replaying the call like getBatchResponseByRequestId(String). It is the
+	 * entity as returned by the server, post-processing of the call (e.g.
+	 * setting the document object of a DocumentEntity, or extracting a list
+	 * from the entity) is not applied.
+	 *
+	 * @param requestId
+	 *            the id of a request (the request id of the entity returned
+	 *            by the call in batch mode)
+	 * @return the handle of the result
+	 * @see ArangoDriver#executeBatch()
+	 * @throws ArangoException
+	 *             if the request id is unknown
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends BaseEntity> DeferredResult<T> getBatchResult(final String requestId) throws ArangoException {
+		final DeferredResult<?> result = this.batchResults.get(requestId);
+		if (result == null) {
+			throw new ArangoException("RequestId not found in batch.");
+		}
+		return (DeferredResult<T>) result;
 	}
 
 	/**
@@ -399,22 +582,13 @@ public class ArangoDriver extends BaseArangoDriver {
 	public <T> T getBatchResponseByRequestId(final String requestId) throws ArangoException {
 		final BatchResponseEntity batchResponseEntity = this.batchDriver.getBatchResponseListEntity()
 				.getResponseFromRequestId(requestId);
-		try {
-			this.httpManager.setPreDefinedResponse(batchResponseEntity.getHttpResponseEntity());
-
-			final T result = (T) batchResponseEntity.getInvocationObject().getMethod().invoke(
-				batchResponseEntity.getInvocationObject().getArangoDriver(),
-				batchResponseEntity.getInvocationObject().getArgs());
-			this.httpManager.setPreDefinedResponse(null);
-			return result;
-		} catch (final InvocationTargetException e) {
-			final T result = (T) createEntity(batchResponseEntity.getHttpResponseEntity(), DefaultEntity.class);
-			this.httpManager.setPreDefinedResponse(null);
-			return result;
-		} catch (final Exception e) {
-			this.httpManager.setPreDefinedResponse(null);
-			throw new ArangoException(e);
+
+		final DeferredResult<?> result = this.batchResults.get(requestId);
+		if (result != null) {
+			return (T) result.getResult();
 		}
+		// the call did not create an entity
+		return (T) createEntity(batchResponseEntity.getHttpResponseEntity(), DefaultEntity.class);
 	}
 
 	/**
@@ -430,9 +604,7 @@ public class ArangoDriver extends BaseArangoDriver {
 			throw new ArangoException("BatchMode is not active.");
 		}
 		this.httpManager.setBatchModeActive(false);
-		this.createModuleDrivers(false);
 		this.httpManager.emptyCallStack();
-		this.httpManager.setPreDefinedResponse(null);
 	}
 
 	/**
@@ -462,7 +634,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public CollectionEntity createCollection(final String name) throws ArangoException {
-		return collectionDriver.createCollection(getDefaultDatabase(), name, new CollectionOptions());
+		return collectionDriver().createCollection(getDefaultDatabase(), name, new CollectionOptions());
 	}
 
 	/**
@@ -477,7 +649,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 */
 	public CollectionEntity createCollection(final String name, final CollectionOptions collectionOptions)
 			throws ArangoException {
-		return collectionDriver.createCollection(getDefaultDatabase(), name, collectionOptions);
+		return collectionDriver().createCollection(getDefaultDatabase(), name, collectionOptions);
 	}
 
 	/**
@@ -501,7 +673,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public CollectionEntity getCollection(final String name) throws ArangoException {
-		return collectionDriver.getCollection(getDefaultDatabase(), name);
+		return collectionDriver().getCollection(getDefaultDatabase(), name);
 	}
 
 	/**
@@ -525,7 +697,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public CollectionEntity getCollectionProperties(final String name) throws ArangoException {
-		return collectionDriver.getCollectionProperties(getDefaultDatabase(), name);
+		return collectionDriver().getCollectionProperties(getDefaultDatabase(), name);
 	}
 
 	/**
@@ -549,7 +721,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public CollectionEntity getCollectionRevision(final String name) throws ArangoException {
-		return collectionDriver.getCollectionRevision(getDefaultDatabase(), name);
+		return collectionDriver().getCollectionRevision(getDefaultDatabase(), name);
 	}
 
 	/**
@@ -573,7 +745,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public CollectionEntity getCollectionCount(final String name) throws ArangoException {
-		return collectionDriver.getCollectionCount(getDefaultDatabase(), name);
+		return collectionDriver().getCollectionCount(getDefaultDatabase(), name);
 	}
 
 	/**
@@ -598,7 +770,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public CollectionEntity getCollectionFigures(final String name) throws ArangoException {
-		return collectionDriver.getCollectionFigures(getDefaultDatabase(), name);
+		return collectionDriver().getCollectionFigures(getDefaultDatabase(), name);
 	}
 
 	/**
@@ -618,7 +790,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final String name,
 		final Boolean withRevisions,
 		final Boolean withData) throws ArangoException {
-		return collectionDriver.getCollectionChecksum(getDefaultDatabase(), name, withRevisions, withData);
+		return collectionDriver().getCollectionChecksum(getDefaultDatabase(), name, withRevisions, withData);
 	}
 
 	/**
@@ -628,7 +800,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public CollectionsEntity getCollections() throws ArangoException {
-		return collectionDriver.getCollections(getDefaultDatabase(), null);
+		return collectionDriver().getCollections(getDefaultDatabase(), null);
 	}
 
 	/**
@@ -641,7 +813,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public CollectionsEntity getCollections(final Boolean excludeSystem) throws ArangoException {
-		return collectionDriver.getCollections(getDefaultDatabase(), excludeSystem);
+		return collectionDriver().getCollections(getDefaultDatabase(), excludeSystem);
 	}
 
 	/**
@@ -653,7 +825,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public CollectionEntity loadCollection(final long id) throws ArangoException {
-		return collectionDriver.loadCollection(getDefaultDatabase(), String.valueOf(id), null);
+		return collectionDriver().loadCollection(getDefaultDatabase(), String.valueOf(id), null);
 	}
 
 	/**
@@ -665,7 +837,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public CollectionEntity loadCollection(final String name) throws ArangoException {
-		return collectionDriver.loadCollection(getDefaultDatabase(), name, null);
+		return collectionDriver().loadCollection(getDefaultDatabase(), name, null);
 	}
 
 	/**
@@ -679,7 +851,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public CollectionEntity loadCollection(final long id, final Boolean count) throws ArangoException {
-		return collectionDriver.loadCollection(getDefaultDatabase(), String.valueOf(id), count);
+		return collectionDriver().loadCollection(getDefaultDatabase(), String.valueOf(id), count);
 	}
 
 	/**
@@ -693,7 +865,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public CollectionEntity loadCollection(final String name, final Boolean count) throws ArangoException {
-		return collectionDriver.loadCollection(getDefaultDatabase(), name, count);
+		return collectionDriver().loadCollection(getDefaultDatabase(), name, count);
 	}
 
 	/**
@@ -717,7 +889,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public CollectionEntity unloadCollection(final String name) throws ArangoException {
-		return collectionDriver.unloadCollection(getDefaultDatabase(), name);
+		return collectionDriver().unloadCollection(getDefaultDatabase(), name);
 	}
 
 	/**
@@ -741,7 +913,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public CollectionEntity truncateCollection(final String name) throws ArangoException {
-		return collectionDriver.truncateCollection(getDefaultDatabase(), name);
+		return collectionDriver().truncateCollection(getDefaultDatabase(), name);
 	}
 
 	/**
@@ -758,7 +930,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 */
 	public CollectionEntity setCollectionProperties(final long id, final Boolean newWaitForSync, final Long journalSize)
 			throws ArangoException {
-		return collectionDriver.setCollectionProperties(getDefaultDatabase(), String.valueOf(id), newWaitForSync,
+		return collectionDriver().setCollectionProperties(getDefaultDatabase(), String.valueOf(id), newWaitForSync,
 			journalSize);
 	}
 
@@ -778,7 +950,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final String name,
 		final Boolean newWaitForSync,
 		final Long journalSize) throws ArangoException {
-		return collectionDriver.setCollectionProperties(getDefaultDatabase(), name, newWaitForSync, journalSize);
+		return collectionDriver().setCollectionProperties(getDefaultDatabase(), name, newWaitForSync, journalSize);
 	}
 
 	/**
@@ -806,7 +978,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public CollectionEntity renameCollection(final String name, final String newName) throws ArangoException {
-		return collectionDriver.renameCollection(getDefaultDatabase(), name, newName);
+		return collectionDriver().renameCollection(getDefaultDatabase(), name, newName);
 	}
 
 	/**
@@ -830,7 +1002,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public CollectionEntity deleteCollection(final String name) throws ArangoException {
-		return collectionDriver.deleteCollection(getDefaultDatabase(), name);
+		return collectionDriver().deleteCollection(getDefaultDatabase(), name);
 	}
 
 	/**
@@ -858,7 +1030,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public <T> DocumentEntity<T> createDocument(final String collectionName, final T value) throws ArangoException {
-		return documentDriver.createDocument(getDefaultDatabase(), collectionName, null, value, null);
+		return documentDriver().createDocument(getDefaultDatabase(), collectionName, null, value, null);
 	}
 
 	/**
@@ -898,7 +1070,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 */
 	public <T> DocumentEntity<T> createDocument(final String collectionName, final String documentKey, final T value)
 			throws ArangoException {
-		return documentDriver.createDocument(getDefaultDatabase(), collectionName, documentKey, value, null);
+		return documentDriver().createDocument(getDefaultDatabase(), collectionName, documentKey, value, null);
 	}
 
 	/**
@@ -936,7 +1108,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 */
 	public <T> DocumentEntity<T> createDocument(final String collectionName, final T value, final Boolean waitForSync)
 			throws ArangoException {
-		return documentDriver.createDocument(getDefaultDatabase(), collectionName, null, value, waitForSync);
+		return documentDriver().createDocument(getDefaultDatabase(), collectionName, null, value, waitForSync);
 	}
 
 	/**
@@ -988,7 +1160,42 @@ public class ArangoDriver extends BaseArangoDriver {
 		final String documentKey,
 		final T value,
 		final Boolean waitForSync) throws ArangoException {
-		return documentDriver.createDocument(getDefaultDatabase(), collectionName, documentKey, value, waitForSync);
+		return documentDriver().createDocument(getDefaultDatabase(), collectionName, documentKey, value, waitForSync);
+	}
+
+	/**
+	 * Creates a document in the collection defined by the collection's name.
+	 * This method allows to define to documents key. Note that the collection's
+	 * property CollectionKeyOption.allowUserKeys has to be set accordingly.
+	 *
+	 * @param collectionName
+	 *            The name of the collection
+	 * @param documentKey
+	 *            the desired document key
+	 * @param value
+	 *            An object containing the documents attributes
+	 * @param waitForSync
+	 *            if set to true the response is returned when the server has
+	 *            finished.
+	 * @param options
+	 *            the options of the call, e.g. a timeout
+	 * @return DocumentEntity<?>
+	 * @throws ArangoException
+	 * @see CollectionKeyOption#allowUserKeys
+	 */
+	public <T> DocumentEntity<T> createDocument(
+		final String collectionName,
+		final String documentKey,
+		final T value,
+		final Boolean waitForSync,
+		final RequestOptions options) throws ArangoException {
+		final RequestOptions previous = setCallOptions(options);
+		try {
+			return documentDriver().createDocument(getDefaultDatabase(), collectionName, documentKey, value,
+				waitForSync);
+		} finally {
+			httpManager.setRequestOptions(previous);
+		}
 	}
 
 	/**
@@ -1071,7 +1278,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public <T> DocumentEntity<T> replaceDocument(final String documentHandle, final T value) throws ArangoException {
-		return documentDriver.replaceDocument(getDefaultDatabase(), documentHandle, value, null, null);
+		return documentDriver().replaceDocument(getDefaultDatabase(), documentHandle, value, null, null);
 	}
 
 	/**
@@ -1214,7 +1421,41 @@ public class ArangoDriver extends BaseArangoDriver {
 		final T value,
 		final Long rev,
 		final Boolean waitForSync) throws ArangoException {
-		return documentDriver.replaceDocument(getDefaultDatabase(), documentHandle, value, rev, waitForSync);
+		return documentDriver().replaceDocument(getDefaultDatabase(), documentHandle, value, rev, waitForSync);
+	}
+
+	/**
+	 * This method replaces the content of the document defined by
+	 * documentHandle. This method offers a parameter rev (revision). If the
+	 * revision of the document on the server does not match the given revision
+	 * an error is thrown.
+	 *
+	 * @param documentHandle
+	 *            The document's handle.
+	 * @param value
+	 *            An object containing the new attributes of the document.
+	 * @param rev
+	 *            the desired revision.
+	 * @param waitForSync
+	 *            if set to true the response is returned when the server has
+	 *            finished.
+	 * @param options
+	 *            the options of the call, e.g. a timeout
+	 * @return a DocumentEntity object
+	 * @throws ArangoException
+	 */
+	public <T> DocumentEntity<T> replaceDocument(
+		final String documentHandle,
+		final T value,
+		final Long rev,
+		final Boolean waitForSync,
+		final RequestOptions options) throws ArangoException {
+		final RequestOptions previous = setCallOptions(options);
+		try {
+			return documentDriver().replaceDocument(getDefaultDatabase(), documentHandle, value, rev, waitForSync);
+		} finally {
+			httpManager.setRequestOptions(previous);
+		}
 	}
 
 	/**
@@ -1297,7 +1538,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public <T> DocumentEntity<T> updateDocument(final String documentHandle, final T value) throws ArangoException {
-		return documentDriver.updateDocument(getDefaultDatabase(), documentHandle, value, null, null, null);
+		return documentDriver().updateDocument(getDefaultDatabase(), documentHandle, value, null, null, null);
 	}
 
 	/**
@@ -1404,7 +1645,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 */
 	public <T> DocumentEntity<T> updateDocument(final String documentHandle, final T value, final Boolean keepNull)
 			throws ArangoException {
-		return documentDriver.updateDocument(getDefaultDatabase(), documentHandle, value, null, null, keepNull);
+		return documentDriver().updateDocument(getDefaultDatabase(), documentHandle, value, null, null, keepNull);
 	}
 
 	/**
@@ -1558,7 +1799,44 @@ public class ArangoDriver extends BaseArangoDriver {
 		final Long rev,
 		final Boolean waitForSync,
 		final Boolean keepNull) throws ArangoException {
-		return documentDriver.updateDocument(getDefaultDatabase(), documentHandle, value, rev, waitForSync, keepNull);
+		return documentDriver().updateDocument(getDefaultDatabase(), documentHandle, value, rev, waitForSync, keepNull);
+	}
+
+	/**
+	 * This method updates a document defined by documentHandle. This method
+	 * offers a parameter rev (revision). If the revision of the document on the
+	 * server does not match the given revision an error is thrown.
+	 *
+	 * @param documentHandle
+	 *            The document handle.
+	 * @param value
+	 *            An object containing the documents attributes
+	 * @param rev
+	 *            The desired revision
+	 * @param waitForSync
+	 *            if set to true the response is returned when the server has
+	 *            finished.
+	 * @param keepNull
+	 *            If true null values are kept.
+	 * @param options
+	 *            the options of the call, e.g. a timeout
+	 * @return DocumentEntity<?>
+	 * @throws ArangoException
+	 */
+	public <T> DocumentEntity<T> updateDocument(
+		final String documentHandle,
+		final T value,
+		final Long rev,
+		final Boolean waitForSync,
+		final Boolean keepNull,
+		final RequestOptions options) throws ArangoException {
+		final RequestOptions previous = setCallOptions(options);
+		try {
+			return documentDriver().updateDocument(getDefaultDatabase(), documentHandle, value, rev, waitForSync,
+				keepNull);
+		} finally {
+			httpManager.setRequestOptions(previous);
+		}
 	}
 
 	/**
@@ -1570,7 +1848,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public List<String> getDocuments(final String collectionName) throws ArangoException {
-		return documentDriver.getDocuments(getDefaultDatabase(), collectionName);
+		return documentDriver().getDocuments(getDefaultDatabase(), collectionName);
 	}
 
 	/**
@@ -1654,7 +1932,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 */
 	public boolean exists(final String documentHandle) throws ArangoException {
 		try {
-			documentDriver.checkDocument(getDefaultDatabase(), documentHandle);
+			documentDriver().checkDocument(getDefaultDatabase(), documentHandle);
 		} catch (final ArangoException e) {
 			if (e.getCode() == ErrorNums.ERROR_HTTP_NOT_FOUND) {
 				return false;
@@ -1729,7 +2007,26 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public long checkDocument(final String documentHandle) throws ArangoException {
-		return documentDriver.checkDocument(getDefaultDatabase(), documentHandle);
+		return documentDriver().checkDocument(getDefaultDatabase(), documentHandle);
+	}
+
+	/**
+	 * This method returns the current revision of a document.
+	 *
+	 * @param documentHandle
+	 *            The document handle
+	 * @param options
+	 *            the options of the call, e.g. a timeout
+	 * @return the document revision number
+	 * @throws ArangoException
+	 */
+	public long checkDocument(final String documentHandle, final RequestOptions options) throws ArangoException {
+		final RequestOptions previous = setCallOptions(options);
+		try {
+			return documentDriver().checkDocument(getDefaultDatabase(), documentHandle);
+		} finally {
+			httpManager.setRequestOptions(previous);
+		}
 	}
 
 	/**
@@ -1818,7 +2115,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public <T> DocumentEntity<T> getDocument(final String documentHandle, final Class<T> clazz) throws ArangoException {
-		return documentDriver.getDocument(getDefaultDatabase(), documentHandle, clazz, null, null);
+		return documentDriver().getDocument(getDefaultDatabase(), documentHandle, clazz, null, null);
 	}
 
 	/**
@@ -1845,10 +2142,46 @@ public class ArangoDriver extends BaseArangoDriver {
 		final Class<T> clazz,
 		final Long ifNoneMatchRevision,
 		final Long ifMatchRevision) throws ArangoException {
-		return documentDriver.getDocument(getDefaultDatabase(), documentHandle, clazz, ifNoneMatchRevision,
+		return documentDriver().getDocument(getDefaultDatabase(), documentHandle, clazz, ifNoneMatchRevision,
 			ifMatchRevision);
 	}
 
+	/**
+	 * Returns a document entity. Note that the *ifNoneMatchRevision* and
+	 * *ifMatchRevision* can not be used at the same time, one of these two has
+	 * to be null.
+	 *
+	 * @param documentHandle
+	 *            The document handle
+	 * @param clazz
+	 *            The expected class, the result from the server request is
+	 *            deserialized to an instance of this class.
+	 * @param ifNoneMatchRevision
+	 *            if set the document is only returned id it has a different
+	 *            revision.
+	 * @param ifMatchRevision
+	 *            if set the document is only returned id it has the same
+	 *            revision.
+	 * @param options
+	 *            the options of the call, e.g. a timeout
+	 * @return a DocumentEntity object
+	 * @throws ArangoException
+	 */
+	public <T> DocumentEntity<T> getDocument(
+		final String documentHandle,
+		final Class<T> clazz,
+		final Long ifNoneMatchRevision,
+		final Long ifMatchRevision,
+		final RequestOptions options) throws ArangoException {
+		final RequestOptions previous = setCallOptions(options);
+		try {
+			return documentDriver().getDocument(getDefaultDatabase(), documentHandle, clazz, ifNoneMatchRevision,
+				ifMatchRevision);
+		} finally {
+			httpManager.setRequestOptions(previous);
+		}
+	}
+
 	/**
 	 * Deletes a document from the database.
 	 * 
@@ -1915,7 +2248,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public DocumentEntity<?> deleteDocument(final String documentHandle) throws ArangoException {
-		return documentDriver.deleteDocument(getDefaultDatabase(), documentHandle, null);
+		return documentDriver().deleteDocument(getDefaultDatabase(), documentHandle, null);
 	}
 
 	/**
@@ -2007,9 +2340,10 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public DocumentEntity<?> deleteDocument(final String documentHandle, final Long rev) throws ArangoException {
-		return documentDriver.deleteDocument(getDefaultDatabase(), documentHandle, rev);
+		return documentDriver().deleteDocument(getDefaultDatabase(), documentHandle, rev);
 	}
 
+
 	/**
 	 * This method validates a given AQL query string and returns a CursorEntity
 	 *
@@ -2019,7 +2353,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public CursorEntity<?> validateQuery(final String query) throws ArangoException {
-		return cursorDriver.validateQuery(getDefaultDatabase(), query);
+		return cursorDriver().validateQuery(getDefaultDatabase(), query);
 	}
 
 	/**
@@ -2034,7 +2368,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public <T> CursorEntity<T> continueQuery(final long cursorId, final Class<?>... clazz) throws ArangoException {
-		return cursorDriver.continueQuery(getDefaultDatabase(), cursorId, clazz);
+		return cursorDriver().continueQuery(getDefaultDatabase(), cursorId, clazz);
 	}
 
 	/**
@@ -2046,7 +2380,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public DefaultEntity finishQuery(final long cursorId) throws ArangoException {
-		return cursorDriver.finishQuery(getDefaultDatabase(), cursorId);
+		return cursorDriver().finishQuery(getDefaultDatabase(), cursorId);
 	}
 
 	/**
@@ -2081,7 +2415,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final AqlQueryOptions aqlQueryOptions = new AqlQueryOptions().setCount(calcCount).setBatchSize(batchSize)
 				.setFullCount(fullCount);
 
-		return cursorDriver.executeCursorEntityQuery(getDefaultDatabase(), query, bindVars, aqlQueryOptions, clazz);
+		return cursorDriver().executeCursorEntityQuery(getDefaultDatabase(), query, bindVars, aqlQueryOptions, clazz);
 	}
 
 	/**
@@ -2115,7 +2449,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final Class<T> clazz) throws ArangoException {
 
 		@SuppressWarnings("unchecked")
-		final DocumentCursorResult<T, DocumentEntity<T>> baseCursor = cursorDriver.executeBaseCursorQuery(
+		final DocumentCursorResult<T, DocumentEntity<T>> baseCursor = cursorDriver().executeBaseCursorQuery(
 			getDefaultDatabase(), query, bindVars, getAqlQueryOptions(aqlQueryOptions), DocumentEntity.class, clazz);
 		return new DocumentCursor<T>(baseCursor);
 	}
@@ -2141,8 +2475,39 @@ public class ArangoDriver extends BaseArangoDriver {
 		final AqlQueryOptions aqlQueryOptions,
 		final Class<T> clazz) throws ArangoException {
 
-		return cursorDriver.executeAqlQuery(getDefaultDatabase(), query, bindVars, getAqlQueryOptions(aqlQueryOptions),
-			clazz);
+		return cursorDriver().executeAqlQuery(getDefaultDatabase(), query, bindVars,
+			getAqlQueryOptions(aqlQueryOptions), clazz);
+	}
+
+	/**
+	 * Returns a Reactive Streams publisher for an AQL query. The query is
+	 * executed when a subscriber subscribes, further batches are fetched only
+	 * on demand and the cursor is removed when the subscription is cancelled.
+	 * Requires reactive-streams on the classpath.
+	 *
+	 * @param query
+	 *            an AQL query as string
+	 * @param bindVars
+	 *            a map containing all bind variables,
+	 * @param aqlQueryOptions
+	 *            AQL query options (null for default values)
+	 * @param clazz
+	 *            the expected class, the result from the server request is
+	 *            deserialized to an instance of this class.
+	 * @param executor
+	 *            the executor of the requests to the server (null to execute
+	 *            them in the thread calling subscribe() or request())
+	 * @return CursorPublisher<T>
+	 */
+	public <T> CursorPublisher<T> executeAqlQueryPublisher(
+		final String query,
+		final Map<String, Object> bindVars,
+		final AqlQueryOptions aqlQueryOptions,
+		final Class<T> clazz,
+		final Executor executor) {
+
+		return new CursorPublisher<T>(getDefaultDatabase(), cursorDriver(), query, bindVars,
+				getAqlQueryOptions(aqlQueryOptions), executor, clazz);
 	}
 
 	/**
@@ -2162,7 +2527,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final Map<String, Object> bindVars,
 		final AqlQueryOptions aqlQueryOptions) throws ArangoException {
 
-		return cursorDriver.executeAqlQueryJSON(getDefaultDatabase(), query, bindVars,
+		return cursorDriver().executeAqlQueryJSON(getDefaultDatabase(), query, bindVars,
 			getAqlQueryOptions(aqlQueryOptions));
 	}
 
@@ -2191,7 +2556,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final Class<S> classDocumentEntity,
 		final Class<T> clazz) throws ArangoException {
 
-		return cursorDriver.executeBaseCursorQuery(getDefaultDatabase(), query, bindVars,
+		return cursorDriver().executeBaseCursorQuery(getDefaultDatabase(), query, bindVars,
 			getAqlQueryOptions(aqlQueryOptions), classDocumentEntity, clazz);
 	}
 
@@ -2261,7 +2626,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final IndexType type,
 		final boolean unique,
 		final String... fields) throws ArangoException {
-		return indexDriver.createIndex(getDefaultDatabase(), collectionName, type, unique, fields);
+		return indexDriver().createIndex(getDefaultDatabase(), collectionName, type, unique, fields);
 	}
 
 	/**
@@ -2286,7 +2651,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final boolean unique,
 		final boolean sparse,
 		final String... fields) throws ArangoException {
-		return indexDriver.createIndex(getDefaultDatabase(), collectionName, type, unique, sparse, fields);
+		return indexDriver().createIndex(getDefaultDatabase(), collectionName, type, unique, sparse, fields);
 	}
 
 	/**
@@ -2303,7 +2668,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 */
 	public IndexEntity createHashIndex(final String collectionName, final boolean unique, final String... fields)
 			throws ArangoException {
-		return indexDriver.createIndex(getDefaultDatabase(), collectionName, IndexType.HASH, unique, fields);
+		return indexDriver().createIndex(getDefaultDatabase(), collectionName, IndexType.HASH, unique, fields);
 	}
 
 	/**
@@ -2325,7 +2690,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final boolean unique,
 		final boolean sparse,
 		final String... fields) throws ArangoException {
-		return indexDriver.createIndex(getDefaultDatabase(), collectionName, IndexType.HASH, unique, sparse, fields);
+		return indexDriver().createIndex(getDefaultDatabase(), collectionName, IndexType.HASH, unique, sparse, fields);
 	}
 
 	/**
@@ -2342,7 +2707,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 */
 	public IndexEntity createGeoIndex(final String collectionName, final boolean unique, final String... fields)
 			throws ArangoException {
-		return indexDriver.createIndex(getDefaultDatabase(), collectionName, IndexType.GEO, unique, fields);
+		return indexDriver().createIndex(getDefaultDatabase(), collectionName, IndexType.GEO, unique, fields);
 	}
 
 	/**
@@ -2359,7 +2724,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 */
 	public IndexEntity createSkipListIndex(final String collectionName, final boolean unique, final String... fields)
 			throws ArangoException {
-		return indexDriver.createIndex(getDefaultDatabase(), collectionName, IndexType.SKIPLIST, unique, fields);
+		return indexDriver().createIndex(getDefaultDatabase(), collectionName, IndexType.SKIPLIST, unique, fields);
 	}
 
 	/**
@@ -2381,7 +2746,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final boolean unique,
 		final boolean sparse,
 		final String... fields) throws ArangoException {
-		return indexDriver.createIndex(getDefaultDatabase(), collectionName, IndexType.SKIPLIST, unique, sparse,
+		return indexDriver().createIndex(getDefaultDatabase(), collectionName, IndexType.SKIPLIST, unique, sparse,
 			fields);
 	}
 
@@ -2444,7 +2809,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 */
 	public IndexEntity createFulltextIndex(final String collectionName, final Integer minLength, final String... fields)
 			throws ArangoException {
-		return indexDriver.createFulltextIndex(getDefaultDatabase(), collectionName, minLength, fields);
+		return indexDriver().createFulltextIndex(getDefaultDatabase(), collectionName, minLength, fields);
 	}
 
 	/**
@@ -2456,7 +2821,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public IndexEntity deleteIndex(final String indexHandle) throws ArangoException {
-		return indexDriver.deleteIndex(getDefaultDatabase(), indexHandle);
+		return indexDriver().deleteIndex(getDefaultDatabase(), indexHandle);
 	}
 
 	/**
@@ -2468,7 +2833,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public IndexEntity getIndex(final String indexHandle) throws ArangoException {
-		return indexDriver.getIndex(getDefaultDatabase(), indexHandle);
+		return indexDriver().getIndex(getDefaultDatabase(), indexHandle);
 	}
 
 	/**
@@ -2492,7 +2857,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public IndexesEntity getIndexes(final String collectionName) throws ArangoException {
-		return indexDriver.getIndexes(getDefaultDatabase(), collectionName);
+		return indexDriver().getIndexes(getDefaultDatabase(), collectionName);
 	}
 
 	/**
@@ -2529,7 +2894,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final Integer offset,
 		final Boolean sortAsc,
 		final String text) throws ArangoException {
-		return adminDriver.getServerLog(logLevel, logLevelUpTo, start, size, offset, sortAsc, text);
+		return adminDriver().getServerLog(logLevel, logLevelUpTo, start, size, offset, sortAsc, text);
 	}
 
 	/**
@@ -2539,7 +2904,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public StatisticsEntity getStatistics() throws ArangoException {
-		return adminDriver.getStatistics();
+		return adminDriver().getStatistics();
 	}
 
 	/**
@@ -2549,7 +2914,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public StatisticsDescriptionEntity getStatisticsDescription() throws ArangoException {
-		return adminDriver.getStatisticsDescription();
+		return adminDriver().getStatisticsDescription();
 	}
 
 	/**
@@ -2559,7 +2924,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public ArangoVersion getVersion() throws ArangoException {
-		return adminDriver.getVersion();
+		return adminDriver().getVersion();
 	}
 
 	/**
@@ -2569,7 +2934,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public ArangoUnixTime getTime() throws ArangoException {
-		return adminDriver.getTime();
+		return adminDriver().getTime();
 	}
 
 	/**
@@ -2579,7 +2944,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public DefaultEntity reloadRouting() throws ArangoException {
-		return adminDriver.reloadRouting();
+		return adminDriver().reloadRouting();
 	}
 
 	/**
@@ -2591,7 +2956,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public DefaultEntity executeScript(final String jsCode) throws ArangoException {
-		return adminDriver.executeScript(getDefaultDatabase(), jsCode);
+		return adminDriver().executeScript(getDefaultDatabase(), jsCode);
 	}
 
 	/**
@@ -2618,8 +2983,8 @@ public class ArangoDriver extends BaseArangoDriver {
 		final int skip,
 		final int limit,
 		final Class<T> clazz) throws ArangoException {
-		return simpleDriver.executeSimpleByExampleDocuments(getDefaultDatabase(), collectionName, example, skip, limit,
-			clazz);
+		return simpleDriver().executeSimpleByExampleDocuments(getDefaultDatabase(), collectionName, example, skip,
+			limit, clazz);
 	}
 
 	/**
@@ -2643,7 +3008,145 @@ public class ArangoDriver extends BaseArangoDriver {
 		final int skip,
 		final int limit,
 		final Class<T> clazz) throws ArangoException {
-		return simpleDriver.executeSimpleAllDocuments(getDefaultDatabase(), collectionName, skip, limit, clazz);
+		return simpleDriver().executeSimpleAllDocuments(getDefaultDatabase(), collectionName, skip, limit, clazz);
+	}
+
+	/**
+	 * Scans all documents of a collection in parallel. The collection is split
+	 * into disjoint partitions by a hash of the document key and every
+	 * partition is read with its own cursor in its own thread. The documents
+	 * are passed to the handler as soon as a batch arrives.
+	 *
+	 * The scan requires the synchronous http mode and must not be called in
+	 * batch mode. The number of partitions should not exceed the number of
+	 * connections per host (maxPerConnection).
+	 *
+	 * @param collectionName
+	 *            The collection name.
+	 * @param clazz
+	 *            the expected class, the result from the server request is
+	 *            deserialized to an instance of this class.
+	 * @param partitions
+	 *            the number of partitions (and threads)
+	 * @param handler
+	 *            the handler of the documents, called concurrently
+	 * @param aqlQueryOptions
+	 *            AQL query options (null for default values)
+	 * @return the number of documents passed to the handler
+	 * @throws ArangoException
+	 */
+	public <T> long executeParallelScan(
+		final String collectionName,
+		final Class<T> clazz,
+		final int partitions,
+		final ScanHandler<T> handler,
+		final AqlQueryOptions aqlQueryOptions) throws ArangoException {
+
+		validateCollectionName(collectionName);
+		if (partitions < 1) {
+			throw new ArangoException("partitions must be greater than 0");
+		}
+		if (httpManager.isBatchModeActive() || httpManager.getHttpMode() != HttpManager.HttpMode.SYNC) {
+			throw new ArangoException("parallel scans require the synchronous http mode");
+		}
+
+		final String query = "FOR d IN @@collection FILTER HASH(d._key) % @partitions == @partition RETURN d";
+		final AtomicBoolean stopped = new AtomicBoolean(false);
+		final AtomicLong count = new AtomicLong();
+
+		final ExecutorService executor = Executors.newFixedThreadPool(partitions, new ThreadFactory() {
+			private final AtomicInteger threadNumber = new AtomicInteger();
+
+			@Override
+			public Thread newThread(final Runnable r) {
+				final Thread thread = new Thread(r, "arangodb-scan-" + collectionName + "-"
+						+ threadNumber.getAndIncrement());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+
+		try {
+			final List<Future<Void>> futures = new ArrayList<Future<Void>>(partitions);
+			for (int i = 0; i < partitions; i++) {
+				final int partition = i;
+				futures.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws ArangoException {
+						final Map<String, Object> bindVars = new MapBuilder().put("@collection", collectionName)
+								.put("partitions", partitions).put("partition", partition).get();
+						DocumentCursor<T> cursor = null;
+						boolean completed = false;
+						try {
+							cursor = executeDocumentQuery(query, bindVars, aqlQueryOptions, clazz);
+							for (final DocumentEntity<T> document : cursor) {
+								if (stopped.get()) {
+									break;
+								}
+								count.incrementAndGet();
+								if (!handler.handle(partition, document)) {
+									stopped.set(true);
+									break;
+								}
+							}
+							completed = true;
+						} finally {
+							if (!completed) {
+								// the other partitions stop at their next document
+								stopped.set(true);
+							}
+							closeScanCursor(cursor, completed);
+						}
+						return null;
+					}
+				}));
+			}
+
+			// all partitions are awaited, no handler is called after the
+			// method returned
+			ExecutionException failure = null;
+			for (final Future<Void> future : futures) {
+				try {
+					future.get();
+				} catch (final ExecutionException e) {
+					if (failure == null) {
+						failure = e;
+					}
+				}
+			}
+			if (failure != null) {
+				if (failure.getCause() instanceof ArangoException) {
+					throw (ArangoException) failure.getCause();
+				}
+				throw new ArangoException(failure.getCause());
+			}
+		} catch (final InterruptedException e) {
+			stopped.set(true);
+			Thread.currentThread().interrupt();
+			throw new ArangoException(e);
+		} finally {
+			executor.shutdownNow();
+		}
+
+		return count.get();
+	}
+
+	/**
+	 * Removes the cursor of a partition from the server, if it is not
+	 * exhausted. After a failure the error of the partition is kept.
+	 */
+	private static void closeScanCursor(final DocumentCursor<?> cursor, final boolean completed)
+			throws ArangoException {
+		if (cursor == null) {
+			return;
+		}
+		try {
+			cursor.close();
+		} catch (final ArangoException e) {
+			if (completed) {
+				throw e;
+			}
+		}
 	}
 
 	/**
@@ -2663,7 +3166,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final String collectionName,
 		final Map<String, Object> example,
 		final Class<T> clazz) throws ArangoException {
-		return simpleDriver.executeSimpleFirstExample(getDefaultDatabase(), collectionName, example, clazz);
+		return simpleDriver().executeSimpleFirstExample(getDefaultDatabase(), collectionName, example, clazz);
 	}
 
 	/**
@@ -2679,7 +3182,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 */
 	public <T> ScalarExampleEntity<T> executeSimpleAny(final String collectionName, final Class<T> clazz)
 			throws ArangoException {
-		return simpleDriver.executeSimpleAny(getDefaultDatabase(), collectionName, clazz);
+		return simpleDriver().executeSimpleAny(getDefaultDatabase(), collectionName, clazz);
 	}
 
 	/**
@@ -2716,7 +3219,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final int skip,
 		final int limit,
 		final Class<T> clazz) throws ArangoException {
-		return simpleDriver.executeSimpleRangeWithDocuments(getDefaultDatabase(), collectionName, attribute, left,
+		return simpleDriver().executeSimpleRangeWithDocuments(getDefaultDatabase(), collectionName, attribute, left,
 			right, closed, skip, limit, clazz);
 	}
 
@@ -2751,7 +3254,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final int limit,
 		final String index,
 		final Class<T> clazz) throws ArangoException {
-		return simpleDriver.executeSimpleFulltextWithDocuments(getDefaultDatabase(), collectionName, attribute, query,
+		return simpleDriver().executeSimpleFulltextWithDocuments(getDefaultDatabase(), collectionName, attribute, query,
 			skip, limit, index, clazz);
 	}
 
@@ -2776,7 +3279,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final Map<String, Object> example,
 		final Boolean waitForSync,
 		final Integer limit) throws ArangoException {
-		return simpleDriver.executeSimpleRemoveByExample(getDefaultDatabase(), collectionName, example, waitForSync,
+		return simpleDriver().executeSimpleRemoveByExample(getDefaultDatabase(), collectionName, example, waitForSync,
 			limit);
 	}
 
@@ -2804,7 +3307,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final Map<String, Object> newValue,
 		final Boolean waitForSync,
 		final Integer limit) throws ArangoException {
-		return simpleDriver.executeSimpleReplaceByExample(getDefaultDatabase(), collectionName, example, newValue,
+		return simpleDriver().executeSimpleReplaceByExample(getDefaultDatabase(), collectionName, example, newValue,
 			waitForSync, limit);
 	}
 
@@ -2835,7 +3338,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final Boolean keepNull,
 		final Boolean waitForSync,
 		final Integer limit) throws ArangoException {
-		return simpleDriver.executeSimpleUpdateByExample(getDefaultDatabase(), collectionName, example, newValue,
+		return simpleDriver().executeSimpleUpdateByExample(getDefaultDatabase(), collectionName, example, newValue,
 			keepNull, waitForSync, limit);
 	}
 
@@ -2858,7 +3361,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final String passwd,
 		final Boolean active,
 		final Map<String, Object> extra) throws ArangoException {
-		return usersDriver.createUser(username, passwd, active, extra);
+		return usersDriver().createUser(username, passwd, active, extra);
 	}
 
 	/**
@@ -2880,7 +3383,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final String passwd,
 		final Boolean active,
 		final Map<String, Object> extra) throws ArangoException {
-		return usersDriver.replaceUser(username, passwd, active, extra);
+		return usersDriver().replaceUser(username, passwd, active, extra);
 	}
 
 	/**
@@ -2902,7 +3405,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final String passwd,
 		final Boolean active,
 		final Map<String, Object> extra) throws ArangoException {
-		return usersDriver.updateUser(username, passwd, active, extra);
+		return usersDriver().updateUser(username, passwd, active, extra);
 	}
 
 	/**
@@ -2914,7 +3417,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public DefaultEntity deleteUser(final String username) throws ArangoException {
-		return usersDriver.deleteUser(username);
+		return usersDriver().deleteUser(username);
 	}
 
 	/**
@@ -2926,7 +3429,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public UserEntity getUser(final String username) throws ArangoException {
-		return usersDriver.getUser(username);
+		return usersDriver().getUser(username);
 	}
 
 	/**
@@ -2939,7 +3442,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public DefaultEntity grantDatabaseAccess(String username, String database) throws ArangoException {
-		return usersDriver.grantDatabaseAccess(username, database);
+		return usersDriver().grantDatabaseAccess(username, database);
 	}
 
 	/**
@@ -2949,7 +3452,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public List<DocumentEntity<UserEntity>> getUsersDocument() throws ArangoException {
-		final DocumentCursor<UserEntity> documentCursor = simpleDriver.executeSimpleAllDocuments(DATABASE_SYSTEM,
+		final DocumentCursor<UserEntity> documentCursor = simpleDriver().executeSimpleAllDocuments(DATABASE_SYSTEM,
 			COLLECTION_USERS, 0, 0, UserEntity.class);
 		return documentCursor.asList();
 	}
@@ -2961,7 +3464,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public List<UserEntity> getUsers() throws ArangoException {
-		final DocumentCursor<UserEntity> documentCursor = simpleDriver.executeSimpleAllDocuments(DATABASE_SYSTEM,
+		final DocumentCursor<UserEntity> documentCursor = simpleDriver().executeSimpleAllDocuments(DATABASE_SYSTEM,
 			COLLECTION_USERS, 0, 0, UserEntity.class);
 		return documentCursor.asEntityList();
 	}
@@ -2978,7 +3481,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 */
 	public ImportResultEntity importDocuments(final String collection, final Collection<?> values)
 			throws ArangoException {
-		return importDriver.importDocuments(getDefaultDatabase(), collection, values, new ImportOptionsJson());
+		return importDriver().importDocuments(getDefaultDatabase(), collection, values, new ImportOptionsJson());
 	}
 
 	/**
@@ -2997,7 +3500,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final String collection,
 		final Collection<?> values,
 		final ImportOptionsJson importOptionsJson) throws ArangoException {
-		return importDriver.importDocuments(getDefaultDatabase(), collection, values, importOptionsJson);
+		return importDriver().importDocuments(getDefaultDatabase(), collection, values, importOptionsJson);
 	}
 
 	/**
@@ -3016,7 +3519,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final String collection,
 		final String values,
 		final ImportOptionsRaw importOptionsRaw) throws ArangoException {
-		return importDriver.importDocumentsRaw(getDefaultDatabase(), collection, values, importOptionsRaw);
+		return importDriver().importDocumentsRaw(getDefaultDatabase(), collection, values, importOptionsRaw);
 	}
 
 	/**
@@ -3032,7 +3535,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	public ImportResultEntity importDocumentsByHeaderValues(
 		final String collection,
 		final Collection<? extends Collection<?>> headerValues) throws ArangoException {
-		return importDriver.importDocumentsByHeaderValues(getDefaultDatabase(), collection, headerValues,
+		return importDriver().importDocumentsByHeaderValues(getDefaultDatabase(), collection, headerValues,
 			new ImportOptions());
 	}
 
@@ -3052,7 +3555,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final String collection,
 		final Collection<? extends Collection<?>> headerValues,
 		ImportOptions importOptions) throws ArangoException {
-		return importDriver.importDocumentsByHeaderValues(getDefaultDatabase(), collection, headerValues,
+		return importDriver().importDocumentsByHeaderValues(getDefaultDatabase(), collection, headerValues,
 			importOptions);
 	}
 
@@ -3073,7 +3576,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final String collection,
 		String headerValues,
 		ImportOptions importOptions) throws ArangoException {
-		return importDriver.importDocumentsByHeaderValuesRaw(getDefaultDatabase(), collection, headerValues,
+		return importDriver().importDocumentsByHeaderValuesRaw(getDefaultDatabase(), collection, headerValues,
 			importOptions);
 	}
 
@@ -3084,7 +3587,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public DatabaseEntity getCurrentDatabase() throws ArangoException {
-		return databaseDriver.getCurrentDatabase();
+		return databaseDriver().getCurrentDatabase();
 	}
 
 	/**
@@ -3107,7 +3610,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public StringsResultEntity getDatabases(final boolean currentUserAccessableOnly) throws ArangoException {
-		return databaseDriver.getDatabases(currentUserAccessableOnly, null, null);
+		return databaseDriver().getDatabases(currentUserAccessableOnly, null, null);
 	}
 
 	/**
@@ -3121,7 +3624,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public StringsResultEntity getDatabases(final String username, final String password) throws ArangoException {
-		return databaseDriver.getDatabases(true, username, password);
+		return databaseDriver().getDatabases(true, username, password);
 	}
 
 	/**
@@ -3136,7 +3639,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public BooleanResultEntity createDatabase(final String database, final UserEntity... users) throws ArangoException {
-		return databaseDriver.createDatabase(database, users);
+		return databaseDriver().createDatabase(database, users);
 	}
 
 	/**
@@ -3148,7 +3651,11 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public BooleanResultEntity deleteDatabase(final String database) throws ArangoException {
-		return databaseDriver.deleteDatabase(database);
+		try {
+			return databaseDriver().deleteDatabase(database);
+		} finally {
+			configure.getGraphTopologyCache().invalidateDatabase(database);
+		}
 	}
 
 	/**
@@ -3161,7 +3668,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @return BooleanResultEntity
 	 */
 	public BooleanResultEntity createEndpoint(final String endpoint, final String... databases) throws ArangoException {
-		return endpointDriver.createEndpoint(endpoint, databases);
+		return endpointDriver().createEndpoint(endpoint, databases);
 	}
 
 	/**
@@ -3170,7 +3677,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @return List<Endpoint>
 	 */
 	public List<Endpoint> getEndpoints() throws ArangoException {
-		return endpointDriver.getEndpoints();
+		return endpointDriver().getEndpoints();
 	}
 
 	/**
@@ -3181,7 +3688,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @return BooleanResultEntity
 	 */
 	public BooleanResultEntity deleteEndpoint(final String endpoint) throws ArangoException {
-		return endpointDriver.deleteEndpoint(endpoint);
+		return endpointDriver().deleteEndpoint(endpoint);
 	}
 
 	/**
@@ -3193,7 +3700,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public ReplicationInventoryEntity getReplicationInventory() throws ArangoException {
-		return replicationDriver.getReplicationInventory(getDefaultDatabase(), null);
+		return replicationDriver().getReplicationInventory(getDefaultDatabase(), null);
 	}
 
 	/**
@@ -3207,7 +3714,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public ReplicationInventoryEntity getReplicationInventory(final boolean includeSystem) throws ArangoException {
-		return replicationDriver.getReplicationInventory(getDefaultDatabase(), includeSystem);
+		return replicationDriver().getReplicationInventory(getDefaultDatabase(), includeSystem);
 	}
 
 	/**
@@ -3240,7 +3747,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final Class<T> clazz,
 		final DumpHandler<T> handler) throws ArangoException {
 
-		replicationDriver.getReplicationDump(getDefaultDatabase(), collectionName, from, to, chunkSize, ticks, clazz,
+		replicationDriver().getReplicationDump(getDefaultDatabase(), collectionName, from, to, chunkSize, ticks, clazz,
 			handler);
 
 	}
@@ -3274,7 +3781,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final String password,
 		final RestrictType restrictType,
 		final String... restrictCollections) throws ArangoException {
-		return replicationDriver.syncReplication(getDefaultDatabase(), endpoint, database, username, password,
+		return replicationDriver().syncReplication(getDefaultDatabase(), endpoint, database, username, password,
 			restrictType, restrictCollections);
 	}
 
@@ -3286,7 +3793,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public String getReplicationServerId() throws ArangoException {
-		return replicationDriver.getReplicationServerId();
+		return replicationDriver().getReplicationServerId();
 	}
 
 	/**
@@ -3296,7 +3803,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public boolean startReplicationLogger() throws ArangoException {
-		return replicationDriver.startReplicationLogger(getDefaultDatabase());
+		return replicationDriver().startReplicationLogger(getDefaultDatabase());
 	}
 
 	/**
@@ -3306,7 +3813,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public boolean stopReplicationLogger() throws ArangoException {
-		return replicationDriver.stopReplicationLogger(getDefaultDatabase());
+		return replicationDriver().stopReplicationLogger(getDefaultDatabase());
 	}
 
 	/**
@@ -3319,7 +3826,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @since 1.4.0
 	 */
 	public ReplicationLoggerStateEntity getReplicationLoggerState() throws ArangoException {
-		return replicationDriver.getReplicationLoggerState(getDefaultDatabase());
+		return replicationDriver().getReplicationLoggerState(getDefaultDatabase());
 	}
 
 	/**
@@ -3329,7 +3836,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public ReplicationLoggerConfigEntity getReplicationLoggerConfig() throws ArangoException {
-		return replicationDriver.getReplicationLoggerConfig(getDefaultDatabase());
+		return replicationDriver().getReplicationLoggerConfig(getDefaultDatabase());
 	}
 
 	/**
@@ -3351,7 +3858,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final Boolean logRemoteChanges,
 		final Long maxEvents,
 		final Long maxEventsSize) throws ArangoException {
-		return replicationDriver.setReplicationLoggerConfig(getDefaultDatabase(), autoStart, logRemoteChanges,
+		return replicationDriver().setReplicationLoggerConfig(getDefaultDatabase(), autoStart, logRemoteChanges,
 			maxEvents, maxEventsSize);
 	}
 
@@ -3363,7 +3870,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @since 1.4.0
 	 */
 	public ReplicationApplierConfigEntity getReplicationApplierConfig() throws ArangoException {
-		return replicationDriver.getReplicationApplierConfig(getDefaultDatabase());
+		return replicationDriver().getReplicationApplierConfig(getDefaultDatabase());
 	}
 
 	/**
@@ -3413,7 +3920,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final Integer chunkSize,
 		final Boolean autoStart,
 		final Boolean adaptivePolling) throws ArangoException {
-		return replicationDriver.setReplicationApplierConfig(getDefaultDatabase(), endpoint, database, username,
+		return replicationDriver().setReplicationApplierConfig(getDefaultDatabase(), endpoint, database, username,
 			password, maxConnectRetries, connectTimeout, requestTimeout, chunkSize, autoStart, adaptivePolling);
 	}
 
@@ -3428,7 +3935,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 */
 	public ReplicationApplierConfigEntity setReplicationApplierConfig(
 		final ReplicationApplierConfigEntity replicationApplierConfigEntity) throws ArangoException {
-		return replicationDriver.setReplicationApplierConfig(getDefaultDatabase(), replicationApplierConfigEntity);
+		return replicationDriver().setReplicationApplierConfig(getDefaultDatabase(), replicationApplierConfigEntity);
 	}
 
 	/**
@@ -3441,7 +3948,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public ReplicationApplierStateEntity startReplicationApplier(final Long from) throws ArangoException {
-		return replicationDriver.startReplicationApplier(getDefaultDatabase(), from);
+		return replicationDriver().startReplicationApplier(getDefaultDatabase(), from);
 	}
 
 	/**
@@ -3452,7 +3959,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public ReplicationApplierStateEntity stopReplicationApplier() throws ArangoException {
-		return replicationDriver.stopReplicationApplier(getDefaultDatabase());
+		return replicationDriver().stopReplicationApplier(getDefaultDatabase());
 	}
 
 	/**
@@ -3463,7 +3970,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public ReplicationApplierStateEntity getReplicationApplierState() throws ArangoException {
-		return replicationDriver.getReplicationApplierState(getDefaultDatabase());
+		return replicationDriver().getReplicationApplierState(getDefaultDatabase());
 	}
 
 	/**
@@ -3474,7 +3981,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public GraphsEntity getGraphs() throws ArangoException {
-		return graphDriver.getGraphs(getDefaultDatabase());
+		return graphDriver().getGraphs(getDefaultDatabase());
 	}
 
 	/**
@@ -3485,7 +3992,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public List<String> getGraphList() throws ArangoException {
-		return graphDriver.getGraphList(getDefaultDatabase());
+		return graphDriver().getGraphList(getDefaultDatabase());
 	}
 
 	/**
@@ -3507,8 +4014,12 @@ public class ArangoDriver extends BaseArangoDriver {
 		final List<EdgeDefinitionEntity> edgeDefinitions,
 		final List<String> orphanCollections,
 		final Boolean waitForSync) throws ArangoException {
-		return graphDriver.createGraph(getDefaultDatabase(), graphName, edgeDefinitions, orphanCollections,
-			waitForSync);
+		try {
+			return graphDriver().createGraph(getDefaultDatabase(), graphName, edgeDefinitions, orphanCollections,
+				waitForSync);
+		} finally {
+			invalidateGraphTopology(graphName);
+		}
 	}
 
 	/**
@@ -3525,8 +4036,12 @@ public class ArangoDriver extends BaseArangoDriver {
 		final String graphName = graph.getName();
 		final List<EdgeDefinitionEntity> edgeDefinitions = graph.getEdgeDefinitions();
 		final List<String> orphanCollections = graph.getOrphanCollections();
-		return graphDriver.createGraph(getDefaultDatabase(), graphName, edgeDefinitions, orphanCollections,
-			waitForSync);
+		try {
+			return graphDriver().createGraph(getDefaultDatabase(), graphName, edgeDefinitions, orphanCollections,
+				waitForSync);
+		} finally {
+			invalidateGraphTopology(graphName);
+		}
 	}
 
 	/**
@@ -3540,7 +4055,11 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public GraphEntity createGraph(final String graphName, final Boolean waitForSync) throws ArangoException {
-		return graphDriver.createGraph(getDefaultDatabase(), graphName, waitForSync);
+		try {
+			return graphDriver().createGraph(getDefaultDatabase(), graphName, waitForSync);
+		} finally {
+			invalidateGraphTopology(graphName);
+		}
 	}
 
 	/**
@@ -3553,7 +4072,11 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public GraphEntity getGraph(final String graphName) throws ArangoException {
-		return graphDriver.getGraph(getDefaultDatabase(), graphName);
+		final GraphEntity graph = graphDriver().getGraph(getDefaultDatabase(), graphName);
+		if (isGraphTopologyCacheUsable()) {
+			configure.getGraphTopologyCache().put(getDefaultDatabase(), graphName, graph);
+		}
+		return graph;
 	}
 
 	/**
@@ -3566,7 +4089,11 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public DeletedEntity deleteGraph(final String graphName) throws ArangoException {
-		return graphDriver.deleteGraph(getDefaultDatabase(), graphName, false);
+		try {
+			return graphDriver().deleteGraph(getDefaultDatabase(), graphName, false);
+		} finally {
+			invalidateGraphTopology(graphName);
+		}
 	}
 
 	/**
@@ -3580,7 +4107,11 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public void deleteGraph(final String graphName, final Boolean dropCollections) throws ArangoException {
-		graphDriver.deleteGraph(getDefaultDatabase(), graphName, dropCollections);
+		try {
+			graphDriver().deleteGraph(getDefaultDatabase(), graphName, dropCollections);
+		} finally {
+			invalidateGraphTopology(graphName);
+		}
 	}
 
 	/**
@@ -3608,7 +4139,11 @@ public class ArangoDriver extends BaseArangoDriver {
 	 */
 	public List<String> graphGetVertexCollections(final String graphName, final boolean excludeOrphan)
 			throws ArangoException {
-		return graphDriver.getVertexCollections(getDefaultDatabase(), graphName, excludeOrphan);
+		final GraphTopology topology = getGraphTopology(graphName);
+		if (topology != null) {
+			return new ArrayList<String>(topology.getVertexCollections(excludeOrphan));
+		}
+		return graphDriver().getVertexCollections(getDefaultDatabase(), graphName, excludeOrphan);
 	}
 
 	/**
@@ -3628,7 +4163,12 @@ public class ArangoDriver extends BaseArangoDriver {
 		final String graphName,
 		final String collectionName,
 		final Boolean dropCollection) throws ArangoException {
-		return graphDriver.deleteVertexCollection(getDefaultDatabase(), graphName, collectionName, dropCollection);
+		try {
+			return graphDriver().deleteVertexCollection(getDefaultDatabase(), graphName, collectionName,
+				dropCollection);
+		} finally {
+			invalidateGraphTopology(graphName);
+		}
 	}
 
 	/**
@@ -3643,7 +4183,11 @@ public class ArangoDriver extends BaseArangoDriver {
 	 */
 	public GraphEntity graphCreateVertexCollection(final String graphName, final String collectionName)
 			throws ArangoException {
-		return graphDriver.createVertexCollection(getDefaultDatabase(), graphName, collectionName);
+		try {
+			return graphDriver().createVertexCollection(getDefaultDatabase(), graphName, collectionName);
+		} finally {
+			invalidateGraphTopology(graphName);
+		}
 	}
 
 	/**
@@ -3657,7 +4201,11 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public List<String> graphGetEdgeCollections(final String graphName) throws ArangoException {
-		return graphDriver.getEdgeCollections(getDefaultDatabase(), graphName);
+		final GraphTopology topology = getGraphTopology(graphName);
+		if (topology != null) {
+			return new ArrayList<String>(topology.getEdgeCollections());
+		}
+		return graphDriver().getEdgeCollections(getDefaultDatabase(), graphName);
 	}
 
 	/**
@@ -3672,7 +4220,11 @@ public class ArangoDriver extends BaseArangoDriver {
 	 */
 	public GraphEntity graphCreateEdgeDefinition(final String graphName, final EdgeDefinitionEntity edgeDefinition)
 			throws ArangoException {
-		return graphDriver.createEdgeDefinition(getDefaultDatabase(), graphName, edgeDefinition);
+		try {
+			return graphDriver().createEdgeDefinition(getDefaultDatabase(), graphName, edgeDefinition);
+		} finally {
+			invalidateGraphTopology(graphName);
+		}
 	}
 
 	/**
@@ -3694,7 +4246,13 @@ public class ArangoDriver extends BaseArangoDriver {
 		final String graphName,
 		final String edgeCollectionName,
 		final EdgeDefinitionEntity edgeDefinition) throws ArangoException {
-		return graphDriver.replaceEdgeDefinition(getDefaultDatabase(), graphName, edgeCollectionName, edgeDefinition);
+		try {
+			return graphDriver().replaceEdgeDefinition(getDefaultDatabase(), graphName, edgeCollectionName,
+				edgeDefinition);
+		} finally {
+			// the edge definition is changed in all graphs using it
+			configure.getGraphTopologyCache().invalidateDatabase(getDefaultDatabase());
+		}
 	}
 
 	/**
@@ -3713,7 +4271,12 @@ public class ArangoDriver extends BaseArangoDriver {
 		final String graphName,
 		final String edgeCollectionName,
 		final Boolean dropCollection) throws ArangoException {
-		return graphDriver.deleteEdgeDefinition(getDefaultDatabase(), graphName, edgeCollectionName, dropCollection);
+		try {
+			return graphDriver().deleteEdgeDefinition(getDefaultDatabase(), graphName, edgeCollectionName,
+				dropCollection);
+		} finally {
+			invalidateGraphTopology(graphName);
+		}
 	}
 
 	/**
@@ -3737,7 +4300,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final String collectionName,
 		final T vertex,
 		final Boolean waitForSync) throws ArangoException {
-		return graphDriver.createVertex(getDefaultDatabase(), graphName, collectionName, vertex, waitForSync);
+		return graphDriver().createVertex(getDefaultDatabase(), graphName, collectionName, vertex, waitForSync);
 	}
 
 	/**
@@ -3764,7 +4327,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final String key,
 		final T vertex,
 		final Boolean waitForSync) throws ArangoException {
-		return graphDriver.createVertex(getDefaultDatabase(), graphName, collectionName, key, vertex, waitForSync);
+		return graphDriver().createVertex(getDefaultDatabase(), graphName, collectionName, key, vertex, waitForSync);
 	}
 
 	/**
@@ -3787,7 +4350,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final String collectionName,
 		final String key,
 		final Class<T> clazz) throws ArangoException {
-		return graphDriver.getVertex(getDefaultDatabase(), graphName, collectionName, key, clazz, null, null);
+		return graphDriver().getVertex(getDefaultDatabase(), graphName, collectionName, key, clazz, null, null);
 	}
 
 	/**
@@ -3818,7 +4381,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final Class<T> clazz,
 		final Long ifNoneMatchRevision,
 		final Long ifMatchRevision) throws ArangoException {
-		return graphDriver.getVertex(getDefaultDatabase(), graphName, collectionName, key, clazz, ifMatchRevision,
+		return graphDriver().getVertex(getDefaultDatabase(), graphName, collectionName, key, clazz, ifMatchRevision,
 			ifNoneMatchRevision);
 	}
 
@@ -3837,7 +4400,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 */
 	public DeletedEntity graphDeleteVertex(final String graphName, final String collectionName, final String key)
 			throws ArangoException {
-		return graphDriver.deleteVertex(getDefaultDatabase(), graphName, collectionName, key, null, null, null);
+		return graphDriver().deleteVertex(getDefaultDatabase(), graphName, collectionName, key, null, null, null);
 	}
 
 	/**
@@ -3860,7 +4423,8 @@ public class ArangoDriver extends BaseArangoDriver {
 		final String collectionName,
 		final String key,
 		final Boolean waitForSync) throws ArangoException {
-		return graphDriver.deleteVertex(getDefaultDatabase(), graphName, collectionName, key, waitForSync, null, null);
+		return graphDriver().deleteVertex(getDefaultDatabase(), graphName, collectionName, key, waitForSync, null,
+			null);
 	}
 
 	/**
@@ -3891,7 +4455,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final Boolean waitForSync,
 		final Long ifMatchRevision,
 		final Long ifNoneMatchRevision) throws ArangoException {
-		return graphDriver.deleteVertex(getDefaultDatabase(), graphName, collectionName, key, waitForSync,
+		return graphDriver().deleteVertex(getDefaultDatabase(), graphName, collectionName, key, waitForSync,
 			ifMatchRevision, ifNoneMatchRevision);
 	}
 
@@ -3915,7 +4479,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final String collectionName,
 		final String key,
 		final T vertex) throws ArangoException {
-		return graphDriver.replaceVertex(getDefaultDatabase(), graphName, collectionName, key, vertex, null, null,
+		return graphDriver().replaceVertex(getDefaultDatabase(), graphName, collectionName, key, vertex, null, null,
 			null);
 	}
 
@@ -3950,7 +4514,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final Boolean waitForSync,
 		final Long ifMatchRevision,
 		final Long ifNoneMatchRevision) throws ArangoException {
-		return graphDriver.replaceVertex(getDefaultDatabase(), graphName, collectionName, key, vertex, waitForSync,
+		return graphDriver().replaceVertex(getDefaultDatabase(), graphName, collectionName, key, vertex, waitForSync,
 			ifMatchRevision, ifNoneMatchRevision);
 	}
 
@@ -3978,7 +4542,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final String key,
 		final T vertex,
 		final Boolean keepNull) throws ArangoException {
-		return graphDriver.updateVertex(getDefaultDatabase(), graphName, collectionName, key, vertex, keepNull, null,
+		return graphDriver().updateVertex(getDefaultDatabase(), graphName, collectionName, key, vertex, keepNull, null,
 			null, null);
 	}
 
@@ -4017,7 +4581,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final Boolean waitForSync,
 		final Long ifMatchRevision,
 		final Long ifNoneMatchRevision) throws ArangoException {
-		return graphDriver.updateVertex(getDefaultDatabase(), graphName, collectionName, key, vertex, keepNull,
+		return graphDriver().updateVertex(getDefaultDatabase(), graphName, collectionName, key, vertex, keepNull,
 			waitForSync, ifMatchRevision, ifNoneMatchRevision);
 	}
 
@@ -4047,7 +4611,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final String toHandle,
 		final T value,
 		final Boolean waitForSync) throws ArangoException {
-		return graphDriver.createEdge(getDefaultDatabase(), graphName, edgeCollectionName, null, fromHandle, toHandle,
+		return graphDriver().createEdge(getDefaultDatabase(), graphName, edgeCollectionName, null, fromHandle, toHandle,
 			value, waitForSync);
 	}
 
@@ -4080,7 +4644,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final String toHandle,
 		final T value,
 		final Boolean waitForSync) throws ArangoException {
-		return graphDriver.createEdge(getDefaultDatabase(), graphName, edgeCollectionName, key, fromHandle, toHandle,
+		return graphDriver().createEdge(getDefaultDatabase(), graphName, edgeCollectionName, key, fromHandle, toHandle,
 			value, waitForSync);
 	}
 
@@ -4106,7 +4670,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final String key,
 		final String fromHandle,
 		final String toHandle) throws ArangoException {
-		return graphDriver.createEdge(getDefaultDatabase(), graphName, edgeCollectionName, key, fromHandle, toHandle,
+		return graphDriver().createEdge(getDefaultDatabase(), graphName, edgeCollectionName, key, fromHandle, toHandle,
 			null, null);
 	}
 
@@ -4137,7 +4701,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final Class<T> clazz,
 		final Long ifMatchRevision,
 		final Long ifNoneMatchRevision) throws ArangoException {
-		return graphDriver.getEdge(getDefaultDatabase(), graphName, edgeCollectionName, key, clazz, ifMatchRevision,
+		return graphDriver().getEdge(getDefaultDatabase(), graphName, edgeCollectionName, key, clazz, ifMatchRevision,
 			ifNoneMatchRevision);
 	}
 
@@ -4160,7 +4724,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final String edgeCollectionName,
 		final String key,
 		final Class<T> clazz) throws ArangoException {
-		return graphDriver.getEdge(getDefaultDatabase(), graphName, edgeCollectionName, key, clazz, null, null);
+		return graphDriver().getEdge(getDefaultDatabase(), graphName, edgeCollectionName, key, clazz, null, null);
 	}
 
 	/**
@@ -4177,7 +4741,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 */
 	public DeletedEntity graphDeleteEdge(final String graphName, final String edgeCollectionName, final String key)
 			throws ArangoException {
-		return graphDriver.deleteEdge(getDefaultDatabase(), graphName, edgeCollectionName, key, null, null, null);
+		return graphDriver().deleteEdge(getDefaultDatabase(), graphName, edgeCollectionName, key, null, null, null);
 	}
 
 	/**
@@ -4199,7 +4763,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final String edgeCollectionName,
 		final String key,
 		final Boolean waitForSync) throws ArangoException {
-		return graphDriver.deleteEdge(getDefaultDatabase(), graphName, edgeCollectionName, key, waitForSync, null,
+		return graphDriver().deleteEdge(getDefaultDatabase(), graphName, edgeCollectionName, key, waitForSync, null,
 			null);
 	}
 
@@ -4230,7 +4794,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final Boolean waitForSync,
 		final Long ifMatchRevision,
 		final Long ifNoneMatchRevision) throws ArangoException {
-		return graphDriver.deleteEdge(getDefaultDatabase(), graphName, edgeCollectionName, key, waitForSync,
+		return graphDriver().deleteEdge(getDefaultDatabase(), graphName, edgeCollectionName, key, waitForSync,
 			ifMatchRevision, ifNoneMatchRevision);
 	}
 
@@ -4262,7 +4826,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final String fromHandle,
 		final String toHandle,
 		final T value) throws ArangoException {
-		return graphDriver.replaceEdge(getDefaultDatabase(), graphName, edgeCollectionName, key, fromHandle, toHandle,
+		return graphDriver().replaceEdge(getDefaultDatabase(), graphName, edgeCollectionName, key, fromHandle, toHandle,
 			value, null, null, null);
 	}
 
@@ -4306,7 +4870,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final Boolean waitForSync,
 		final Long ifMatchRevision,
 		final Long ifNoneMatchRevision) throws ArangoException {
-		return graphDriver.replaceEdge(getDefaultDatabase(), graphName, edgeCollectionName, key, fromHandle, toHandle,
+		return graphDriver().replaceEdge(getDefaultDatabase(), graphName, edgeCollectionName, key, fromHandle, toHandle,
 			value, waitForSync, ifMatchRevision, ifNoneMatchRevision);
 	}
 
@@ -4341,7 +4905,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final String toHandle,
 		final T value,
 		final Boolean keepNull) throws ArangoException {
-		return graphDriver.updateEdge(getDefaultDatabase(), graphName, edgeCollectionName, key, fromHandle, toHandle,
+		return graphDriver().updateEdge(getDefaultDatabase(), graphName, edgeCollectionName, key, fromHandle, toHandle,
 			value, null, keepNull, null, null);
 	}
 
@@ -4387,7 +4951,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final Boolean keepNull,
 		final Long ifMatchRevision,
 		final Long ifNoneMatchRevision) throws ArangoException {
-		return graphDriver.updateEdge(getDefaultDatabase(), graphName, edgeCollectionName, key, fromHandle, toHandle,
+		return graphDriver().updateEdge(getDefaultDatabase(), graphName, edgeCollectionName, key, fromHandle, toHandle,
 			value, waitForSync, keepNull, ifMatchRevision, ifNoneMatchRevision);
 	}
 
@@ -4414,7 +4978,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final Class<T> clazz) throws ArangoException {
 
 		@SuppressWarnings("unchecked")
-		final DocumentCursorResult<T, EdgeEntity<T>> baseCursor = cursorDriver.executeBaseCursorQuery(
+		final DocumentCursorResult<T, EdgeEntity<T>> baseCursor = cursorDriver().executeBaseCursorQuery(
 			getDefaultDatabase(), query, bindVars, getAqlQueryOptions(aqlQueryOptions), EdgeEntity.class, clazz);
 		return new EdgeCursor<T>(baseCursor);
 	}
@@ -4440,7 +5004,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final Class<T> clazz) throws ArangoException {
 
 		@SuppressWarnings("unchecked")
-		final DocumentCursorResult<T, VertexEntity<T>> baseCursor = cursorDriver.executeBaseCursorQuery(
+		final DocumentCursorResult<T, VertexEntity<T>> baseCursor = cursorDriver().executeBaseCursorQuery(
 			getDefaultDatabase(), query, bindVars, getAqlQueryOptions(aqlQueryOptions), VertexEntity.class, clazz);
 		return new VertexCursor<T>(baseCursor);
 	}
@@ -4564,6 +5128,131 @@ public class ArangoDriver extends BaseArangoDriver {
 		return graphGetEdgeCursor(graphName, clazz, vertexExample, new GraphEdgesOptions(), null);
 	}
 
+	/**
+	 * Returns the neighbors of all vertices of a frontier with a single query.
+	 * The cursor contains one NeighborsEntity per source vertex, in the order
+	 * of the frontier.
+	 * 
+	 * @param graphName
+	 *            The name of the graph.
+	 * @param clazz
+	 *            the class of the neighbor vertices
+	 * @param frontier
+	 *            the document handles of the source vertices
+	 * @param graphEdgesOptions
+	 *            An object containing the options (direction, minDepth,
+	 *            maxDepth, edgeCollectionRestriction,
+	 *            endVertexCollectionRestriction, edgeExamples,
+	 *            neighborExamples, limit per source vertex and includeData)
+	 * @param aqlQueryOptions
+	 *            AQL query options (null for default values)
+	 * @return CursorResult<NeighborsEntity<T>>
+	 * @throws ArangoException
+	 */
+	public <T> CursorResult<NeighborsEntity<T>> graphGetNeighbors(
+		final String graphName,
+		final Class<T> clazz,
+		final Collection<String> frontier,
+		final GraphEdgesOptions graphEdgesOptions,
+		final AqlQueryOptions aqlQueryOptions) throws ArangoException {
+
+		validateCollectionName(graphName);
+		for (final String handle : frontier) {
+			validateDocumentHandle(handle);
+		}
+
+		GraphEdgesOptions tmpGraphEdgesOptions = graphEdgesOptions;
+		if (tmpGraphEdgesOptions == null) {
+			tmpGraphEdgesOptions = new GraphEdgesOptions();
+		}
+
+		final MapBuilder mapBuilder = new MapBuilder();
+		final String query = GraphQueryUtil.createNeighborsQuery(graphName, frontier, tmpGraphEdgesOptions,
+			mapBuilder);
+		final Map<String, Object> bindVars = mapBuilder.get();
+
+		final CursorEntity<NeighborsEntity<T>> entity = cursorDriver().executeCursorEntityQuery(getDefaultDatabase(),
+			query, bindVars, getAqlQueryOptions(aqlQueryOptions), NeighborsEntity.class, clazz);
+
+		return new CursorResult<NeighborsEntity<T>>(getDefaultDatabase(), cursorDriver(), entity,
+				NeighborsEntity.class, clazz);
+	}
+
+	/**
+	 * Exports the edges of a graph into a compressed sparse row adjacency for
+	 * local analytics. The edge collections of the graph are streamed with
+	 * cursors, vertex handles are dictionary encoded into dense int values and
+	 * numeric edge attributes are stored as columns.
+	 * 
+	 * @param graphName
+	 *            The name of the graph.
+	 * @param graphExportOptions
+	 *            An object containing the options (direction,
+	 *            edgeCollectionRestriction, edgeAttributes,
+	 *            includeAllVertices, offHeap and batchSize)
+	 * @return CsrGraph
+	 * @throws ArangoException
+	 */
+	public CsrGraph graphExport(final String graphName, final GraphExportOptions graphExportOptions)
+			throws ArangoException {
+
+		validateCollectionName(graphName);
+
+		GraphExportOptions tmpGraphExportOptions = graphExportOptions;
+		if (tmpGraphExportOptions == null) {
+			tmpGraphExportOptions = new GraphExportOptions();
+		}
+
+		final Direction direction = tmpGraphExportOptions.getDirection() != null
+				? tmpGraphExportOptions.getDirection() : Direction.OUTBOUND;
+		final List<String> edgeAttributes = tmpGraphExportOptions.getEdgeAttributes();
+		final int attributeCount = edgeAttributes != null ? edgeAttributes.size() : 0;
+		final AqlQueryOptions aqlQueryOptions = getDefaultAqlQueryOptions();
+		if (tmpGraphExportOptions.getBatchSize() != null) {
+			aqlQueryOptions.setBatchSize(tmpGraphExportOptions.getBatchSize());
+		}
+
+		final CsrGraphBuilder builder = new CsrGraphBuilder(edgeAttributes);
+
+		if (Boolean.TRUE.equals(tmpGraphExportOptions.getIncludeAllVertices())) {
+			for (final String vertexCollection : graphGetVertexCollections(graphName, false)) {
+				final MapBuilder mapBuilder = new MapBuilder();
+				final String query = GraphQueryUtil.createExportVerticesQuery(vertexCollection, mapBuilder);
+				for (final String vertexId : executeAqlQuery(query, mapBuilder.get(), aqlQueryOptions, String.class)) {
+					builder.addVertex(vertexId);
+				}
+			}
+		}
+
+		List<String> edgeCollections = graphGetEdgeCollections(graphName);
+		if (tmpGraphExportOptions.getEdgeCollectionRestriction() != null) {
+			edgeCollections.retainAll(tmpGraphExportOptions.getEdgeCollectionRestriction());
+		}
+
+		final double[] values = new double[attributeCount];
+		for (final String edgeCollection : edgeCollections) {
+			final MapBuilder mapBuilder = new MapBuilder();
+			final String query = GraphQueryUtil.createExportEdgesQuery(edgeCollection, edgeAttributes, mapBuilder);
+			for (final JsonArray edge : executeAqlQuery(query, mapBuilder.get(), aqlQueryOptions, JsonArray.class)) {
+				final String from = edge.get(0).getAsString();
+				final String to = edge.get(1).getAsString();
+				for (int i = 0; i < attributeCount; i++) {
+					final JsonElement value = edge.get(i + 2);
+					values[i] = value.isJsonPrimitive() && value.getAsJsonPrimitive().isNumber() ? value.getAsDouble()
+							: Double.NaN;
+				}
+				if (direction != Direction.INBOUND) {
+					builder.addEdge(from, to, values);
+				}
+				if (direction != Direction.OUTBOUND) {
+					builder.addEdge(to, from, values);
+				}
+			}
+		}
+
+		return builder.build(Boolean.TRUE.equals(tmpGraphExportOptions.getOffHeap()));
+	}
+
 	/**
 	 * @deprecated use AQL instead
 	 */
@@ -4581,7 +5270,7 @@ public class ArangoDriver extends BaseArangoDriver {
 			tmpShortestPathOptions = new ShortestPathOptions();
 		}
 
-		return cursorDriver.getShortestPath(getDefaultDatabase(), graphName, startVertexExample, endVertexExample,
+		return cursorDriver().getShortestPath(getDefaultDatabase(), graphName, startVertexExample, endVertexExample,
 			tmpShortestPathOptions, getDefaultAqlQueryOptions(), vertexClass, edgeClass, this);
 	}
 
@@ -4596,7 +5285,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public DefaultEntity createAqlFunction(final String name, final String code) throws ArangoException {
-		return aqlFunctionsDriver.createAqlFunction(getDefaultDatabase(), name, code);
+		return aqlFunctionsDriver().createAqlFunction(getDefaultDatabase(), name, code);
 	}
 
 	/**
@@ -4608,7 +5297,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public AqlFunctionsEntity getAqlFunctions(final String namespace) throws ArangoException {
-		return aqlFunctionsDriver.getAqlFunctions(getDefaultDatabase(), namespace);
+		return aqlFunctionsDriver().getAqlFunctions(getDefaultDatabase(), namespace);
 	}
 
 	/**
@@ -4623,7 +5312,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public DefaultEntity deleteAqlFunction(final String name, final boolean isNameSpace) throws ArangoException {
-		return aqlFunctionsDriver.deleteAqlFunction(getDefaultDatabase(), name, isNameSpace);
+		return aqlFunctionsDriver().deleteAqlFunction(getDefaultDatabase(), name, isNameSpace);
 	}
 
 	/**
@@ -4634,7 +5323,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @return TransactionEntity
 	 */
 	public TransactionEntity createTransaction(final String action) {
-		return this.transactionDriver.createTransaction(action);
+		return transactionDriver().createTransaction(action);
 	}
 
 	/**
@@ -4648,7 +5337,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 */
 	public TransactionResultEntity executeTransaction(final TransactionEntity transactionEntity)
 			throws ArangoException {
-		return this.transactionDriver.executeTransaction(getDefaultDatabase(), transactionEntity);
+		return transactionDriver().executeTransaction(getDefaultDatabase(), transactionEntity);
 	}
 
 	/**
@@ -4705,8 +5394,8 @@ public class ArangoDriver extends BaseArangoDriver {
 		final String toHandle,
 		final Boolean waitForSync) throws ArangoException {
 
-		return documentDriver.createEdge(getDefaultDatabase(), collectionName, documentKey, value, fromHandle, toHandle,
-			waitForSync);
+		return documentDriver().createEdge(getDefaultDatabase(), collectionName, documentKey, value, fromHandle,
+			toHandle, waitForSync);
 	}
 
 	/**
@@ -4728,7 +5417,76 @@ public class ArangoDriver extends BaseArangoDriver {
 		final Class<V> vertexClazz,
 		final Class<E> edgeClazz) throws ArangoException {
 
-		return this.traversalDriver.getTraversal(getDefaultDatabase(), traversalQueryOptions, vertexClazz, edgeClazz);
+		return traversalDriver().getTraversal(getDefaultDatabase(), traversalQueryOptions, vertexClazz, edgeClazz);
+	}
+
+	/**
+	 * Do a graph traversal with an AQL traversal cursor and return the visited
+	 * vertices. Unlike getTraversal(...) the vertices are fetched in batches
+	 * while iterating the cursor, so the memory usage is bounded by the batch
+	 * size.
+	 * 
+	 * The options graphName or edgeCollection, startVertex, direction
+	 * (default outbound), minDepth (default 1), maxDepth (default minDepth),
+	 * strategy and uniqueness are supported. JavaScript based options (filter,
+	 * visitor, init, expander, sort) are not supported.
+	 * 
+	 * @param traversalQueryOptions
+	 *            the traversal options
+	 * @param vertexClazz
+	 *            Class of returned vertex documents.
+	 * @param aqlQueryOptions
+	 *            AQL query options (null for default values)
+	 * @return VertexCursor<V>
+	 * @throws ArangoException
+	 */
+	public <V> VertexCursor<V> getTraversalVertexCursor(
+		final TraversalQueryOptions traversalQueryOptions,
+		final Class<V> vertexClazz,
+		final AqlQueryOptions aqlQueryOptions) throws ArangoException {
+
+		validateDocumentHandle(traversalQueryOptions.getStartVertex());
+
+		final MapBuilder mapBuilder = new MapBuilder();
+		final String query = GraphQueryUtil.createTraversalQuery(traversalQueryOptions, "v", mapBuilder);
+
+		return executeVertexQuery(query, mapBuilder.get(), aqlQueryOptions, vertexClazz);
+	}
+
+	/**
+	 * Do a graph traversal with an AQL traversal cursor and return the paths
+	 * to the visited vertices. The paths are fetched in batches while
+	 * iterating the cursor, so the memory usage is bounded by the batch size.
+	 * 
+	 * See getTraversalVertexCursor(...) for the supported options.
+	 * 
+	 * @param traversalQueryOptions
+	 *            the traversal options
+	 * @param vertexClazz
+	 *            Class of returned vertex documents.
+	 * @param edgeClazz
+	 *            Class of returned edge documents.
+	 * @param aqlQueryOptions
+	 *            AQL query options (null for default values)
+	 * @return CursorResult<PathEntity<V, E>>
+	 * @throws ArangoException
+	 */
+	public <V, E> CursorResult<PathEntity<V, E>> getTraversalPathCursor(
+		final TraversalQueryOptions traversalQueryOptions,
+		final Class<V> vertexClazz,
+		final Class<E> edgeClazz,
+		final AqlQueryOptions aqlQueryOptions) throws ArangoException {
+
+		validateDocumentHandle(traversalQueryOptions.getStartVertex());
+
+		final MapBuilder mapBuilder = new MapBuilder();
+		final String query = GraphQueryUtil.createTraversalQuery(traversalQueryOptions, "p", mapBuilder);
+
+		final CursorEntity<PathEntity<V, E>> entity = cursorDriver().executeCursorEntityQuery(getDefaultDatabase(),
+			query, mapBuilder.get(), getAqlQueryOptions(aqlQueryOptions), PathEntity.class, vertexClazz, edgeClazz);
+
+		return new CursorResult<PathEntity<V, E>>(getDefaultDatabase(), cursorDriver(), entity, PathEntity.class,
+				vertexClazz, edgeClazz);
 	}
 
 	/**
@@ -4738,7 +5496,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public DefaultEntity deleteQueryCache() throws ArangoException {
-		return queryCacheDriver.deleteQueryCache();
+		return queryCacheDriver().deleteQueryCache();
 	}
 
 	/**
@@ -4749,7 +5507,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public QueryCachePropertiesEntity getQueryCacheProperties() throws ArangoException {
-		return queryCacheDriver.getQueryCacheProperties();
+		return queryCacheDriver().getQueryCacheProperties();
 	}
 
 	/**
@@ -4760,7 +5518,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 */
 	public QueryCachePropertiesEntity setQueryCacheProperties(final QueryCachePropertiesEntity properties)
 			throws ArangoException {
-		return queryCacheDriver.setQueryCacheProperties(properties);
+		return queryCacheDriver().setQueryCacheProperties(properties);
 	}
 
 	/**
@@ -4770,7 +5528,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public QueryTrackingPropertiesEntity getQueryTrackingProperties() throws ArangoException {
-		return this.cursorDriver.getQueryTrackingProperties(getDefaultDatabase());
+		return cursorDriver().getQueryTrackingProperties(getDefaultDatabase());
 	}
 
 	/**
@@ -4783,7 +5541,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 */
 	public QueryTrackingPropertiesEntity setQueryTrackingProperties(final QueryTrackingPropertiesEntity properties)
 			throws ArangoException {
-		return this.cursorDriver.setQueryTrackingProperties(getDefaultDatabase(), properties);
+		return cursorDriver().setQueryTrackingProperties(getDefaultDatabase(), properties);
 	}
 
 	/**
@@ -4793,7 +5551,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public QueriesResultEntity getCurrentlyRunningQueries() throws ArangoException {
-		return this.cursorDriver.getCurrentlyRunningQueries(getDefaultDatabase());
+		return cursorDriver().getCurrentlyRunningQueries(getDefaultDatabase());
 	}
 
 	/**
@@ -4805,7 +5563,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public QueriesResultEntity getCurrentlyRunningQueries(final String database) throws ArangoException {
-		return this.cursorDriver.getCurrentlyRunningQueries(database);
+		return cursorDriver().getCurrentlyRunningQueries(database);
 	}
 
 	/**
@@ -4815,7 +5573,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public QueriesResultEntity getSlowQueries() throws ArangoException {
-		return this.cursorDriver.getSlowQueries(getDefaultDatabase());
+		return cursorDriver().getSlowQueries(getDefaultDatabase());
 	}
 
 	/**
@@ -4827,7 +5585,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public QueriesResultEntity getSlowQueries(final String database) throws ArangoException {
-		return this.cursorDriver.getSlowQueries(database);
+		return cursorDriver().getSlowQueries(database);
 	}
 
 	/**
@@ -4837,7 +5595,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public DefaultEntity deleteSlowQueries() throws ArangoException {
-		return this.cursorDriver.deleteSlowQueries(getDefaultDatabase());
+		return cursorDriver().deleteSlowQueries(getDefaultDatabase());
 	}
 
 	/**
@@ -4849,7 +5607,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public DefaultEntity deleteSlowQueries(final String database) throws ArangoException {
-		return this.cursorDriver.deleteSlowQueries(database);
+		return cursorDriver().deleteSlowQueries(database);
 	}
 
 	/**
@@ -4861,7 +5619,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public DefaultEntity killQuery(final String id) throws ArangoException {
-		return this.cursorDriver.killQuery(getDefaultDatabase(), id);
+		return cursorDriver().killQuery(getDefaultDatabase(), id);
 	}
 
 	/**
@@ -4875,7 +5633,7 @@ public class ArangoDriver extends BaseArangoDriver {
 	 * @throws ArangoException
 	 */
 	public DefaultEntity killQuery(final String database, final String id) throws ArangoException {
-		return this.cursorDriver.killQuery(database, id);
+		return cursorDriver().killQuery(database, id);
 	}
 
 	/**
@@ -4904,7 +5662,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final String collectionName,
 		final String rawJsonString,
 		final Boolean waitForSync) throws ArangoException {
-		return documentDriver.createDocumentRaw(getDefaultDatabase(), collectionName, rawJsonString, waitForSync);
+		return documentDriver().createDocumentRaw(getDefaultDatabase(), collectionName, rawJsonString, waitForSync);
 	}
 
 	/**
@@ -4929,10 +5687,44 @@ public class ArangoDriver extends BaseArangoDriver {
 		final String documentHandle,
 		final Long ifNoneMatchRevision,
 		final Long ifMatchRevision) throws ArangoException {
-		return documentDriver.getDocumentRaw(getDefaultDatabase(), documentHandle, ifNoneMatchRevision,
+		return documentDriver().getDocumentRaw(getDefaultDatabase(), documentHandle, ifNoneMatchRevision,
 			ifMatchRevision);
 	}
 
+	/**
+	 * Returns the document as a JSON string. Note that the
+	 * *ifNoneMatchRevision* and *ifMatchRevision* can not be used at the same
+	 * time, one of these two has to be null.
+	 *
+	 * Throws ArangoException if the requested document is not available.
+	 *
+	 * @param documentHandle
+	 *            The document handle
+	 * @param ifNoneMatchRevision
+	 *            if set the document is only returned id it has a different
+	 *            revision.
+	 * @param ifMatchRevision
+	 *            if set the document is only returned id it has the same
+	 *            revision.
+	 * @param options
+	 *            the options of the call, e.g. a timeout
+	 * @return a String
+	 * @throws ArangoException
+	 */
+	public String getDocumentRaw(
+		final String documentHandle,
+		final Long ifNoneMatchRevision,
+		final Long ifMatchRevision,
+		final RequestOptions options) throws ArangoException {
+		final RequestOptions previous = setCallOptions(options);
+		try {
+			return documentDriver().getDocumentRaw(getDefaultDatabase(), documentHandle, ifNoneMatchRevision,
+				ifMatchRevision);
+		} finally {
+			httpManager.setRequestOptions(previous);
+		}
+	}
+
 	/**
 	 * This method executes an AQL query and returns a CursorRawResult.
 	 * 
@@ -4952,7 +5744,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final Map<String, Object> bindVars,
 		final AqlQueryOptions aqlQueryOptions) throws ArangoException {
 
-		return cursorDriver.executeAqlQueryRaw(getDefaultDatabase(), query, bindVars,
+		return cursorDriver().executeAqlQueryRaw(getDefaultDatabase(), query, bindVars,
 			getAqlQueryOptions(aqlQueryOptions));
 	}
 
@@ -4979,7 +5771,8 @@ public class ArangoDriver extends BaseArangoDriver {
 		final String rawJsonString,
 		final Long rev,
 		final Boolean waitForSync) throws ArangoException {
-		return documentDriver.replaceDocumentRaw(getDefaultDatabase(), documentHandle, rawJsonString, rev, waitForSync);
+		return documentDriver().replaceDocumentRaw(getDefaultDatabase(), documentHandle, rawJsonString, rev,
+			waitForSync);
 	}
 
 	/**
@@ -5007,7 +5800,7 @@ public class ArangoDriver extends BaseArangoDriver {
 		final Long rev,
 		final Boolean waitForSync,
 		final Boolean keepNull) throws ArangoException {
-		return documentDriver.updateDocumentRaw(getDefaultDatabase(), documentHandle, rawJsonString, rev, waitForSync,
+		return documentDriver().updateDocumentRaw(getDefaultDatabase(), documentHandle, rawJsonString, rev, waitForSync,
 			keepNull);
 	}
 
@@ -5015,74 +5808,166 @@ public class ArangoDriver extends BaseArangoDriver {
 	// private functions
 	//
 
-	private void createModuleDrivers(final boolean createProxys) {
-		if (!createProxys) {
-			this.cursorDriver = ImplFactory.createCursorDriver(configure, this.httpManager);
-			this.batchDriver = ImplFactory.createBatchDriver(configure, this.httpManager);
-			this.collectionDriver = ImplFactory.createCollectionDriver(configure, this.httpManager);
-			this.documentDriver = ImplFactory.createDocumentDriver(configure, this.httpManager);
-			this.indexDriver = ImplFactory.createIndexDriver(configure, this.httpManager);
-			this.adminDriver = ImplFactory.createAdminDriver(configure, this.httpManager);
-			this.aqlFunctionsDriver = ImplFactory.createAqlFunctionsDriver(configure, this.httpManager);
-			this.simpleDriver = ImplFactory.createSimpleDriver(configure, cursorDriver, this.httpManager);
-			this.usersDriver = ImplFactory.createUsersDriver(configure, this.httpManager);
-			this.importDriver = ImplFactory.createImportDriver(configure, this.httpManager);
-			this.databaseDriver = ImplFactory.createDatabaseDriver(configure, this.httpManager);
-			this.endpointDriver = ImplFactory.createEndpointDriver(configure, this.httpManager);
-			this.replicationDriver = ImplFactory.createReplicationDriver(configure, this.httpManager);
-			this.graphDriver = ImplFactory.createGraphDriver(configure, cursorDriver, this.httpManager);
-			this.jobsDriver = ImplFactory.createJobsDriver(configure, this.httpManager);
-			this.transactionDriver = ImplFactory.createTransactionDriver(configure, this.httpManager);
-			this.traversalDriver = ImplFactory.createTraversalDriver(configure, httpManager);
-			this.queryCacheDriver = ImplFactory.createQueryCacheDriver(configure, httpManager);
-		} else {
-			this.transactionDriver = (InternalTransactionDriver) Proxy.newProxyInstance(
-				InternalTransactionDriver.class.getClassLoader(), new Class<?>[] { InternalTransactionDriver.class },
-				new InvocationHandlerImpl(this.transactionDriver));
-			this.jobsDriver = (InternalJobsDriver) Proxy.newProxyInstance(InternalJobsDriver.class.getClassLoader(),
-				new Class<?>[] { InternalJobsDriver.class }, new InvocationHandlerImpl(this.jobsDriver));
-			this.cursorDriver = (InternalCursorDriver) Proxy.newProxyInstance(
-				InternalCursorDriver.class.getClassLoader(), new Class<?>[] { InternalCursorDriver.class },
-				new InvocationHandlerImpl(this.cursorDriver));
-			this.collectionDriver = (InternalCollectionDriver) Proxy.newProxyInstance(
-				InternalCollectionDriver.class.getClassLoader(), new Class<?>[] { InternalCollectionDriver.class },
-				new InvocationHandlerImpl(this.collectionDriver));
-			this.documentDriver = (InternalDocumentDriver) Proxy.newProxyInstance(
-				InternalDocumentDriver.class.getClassLoader(), new Class<?>[] { InternalDocumentDriver.class },
-				new InvocationHandlerImpl(this.documentDriver));
-			this.indexDriver = (InternalIndexDriver) Proxy.newProxyInstance(InternalIndexDriver.class.getClassLoader(),
-				new Class<?>[] { InternalIndexDriver.class }, new InvocationHandlerImpl(this.indexDriver));
-			this.adminDriver = (InternalAdminDriver) Proxy.newProxyInstance(InternalAdminDriver.class.getClassLoader(),
-				new Class<?>[] { InternalAdminDriver.class }, new InvocationHandlerImpl(this.adminDriver));
-			this.aqlFunctionsDriver = (InternalAqlFunctionsDriver) Proxy.newProxyInstance(
-				InternalAqlFunctionsDriver.class.getClassLoader(), new Class<?>[] { InternalAqlFunctionsDriver.class },
-				new InvocationHandlerImpl(this.aqlFunctionsDriver));
-			this.simpleDriver = (InternalSimpleDriver) Proxy.newProxyInstance(
-				InternalSimpleDriver.class.getClassLoader(), new Class<?>[] { InternalSimpleDriver.class },
-				new InvocationHandlerImpl(this.simpleDriver));
-			this.usersDriver = (InternalUsersDriver) Proxy.newProxyInstance(InternalUsersDriver.class.getClassLoader(),
-				new Class<?>[] { InternalUsersDriver.class }, new InvocationHandlerImpl(this.usersDriver));
-			this.importDriver = (InternalImportDriver) Proxy.newProxyInstance(
-				InternalImportDriver.class.getClassLoader(), new Class<?>[] { InternalImportDriver.class },
-				new InvocationHandlerImpl(this.importDriver));
-			this.databaseDriver = (InternalDatabaseDriver) Proxy.newProxyInstance(
-				InternalDatabaseDriver.class.getClassLoader(), new Class<?>[] { InternalDatabaseDriver.class },
-				new InvocationHandlerImpl(this.databaseDriver));
-			this.endpointDriver = (InternalEndpointDriver) Proxy.newProxyInstance(
-				InternalEndpointDriver.class.getClassLoader(), new Class<?>[] { InternalEndpointDriver.class },
-				new InvocationHandlerImpl(this.endpointDriver));
-			this.replicationDriver = (InternalReplicationDriver) Proxy.newProxyInstance(
-				InternalReplicationDriver.class.getClassLoader(), new Class<?>[] { InternalReplicationDriver.class },
-				new InvocationHandlerImpl(this.replicationDriver));
-			this.graphDriver = (InternalGraphDriver) Proxy.newProxyInstance(InternalGraphDriver.class.getClassLoader(),
-				new Class<?>[] { InternalGraphDriver.class }, new InvocationHandlerImpl(this.graphDriver));
-			this.traversalDriver = (InternalTraversalDriver) Proxy.newProxyInstance(
-				InternalTraversalDriver.class.getClassLoader(), new Class<?>[] { InternalTraversalDriver.class },
-				new InvocationHandlerImpl(this.traversalDriver));
-			this.queryCacheDriver = (InternalQueryCacheDriver) Proxy.newProxyInstance(
-				InternalQueryCacheDriver.class.getClassLoader(), new Class<?>[] { InternalQueryCacheDriver.class },
-				new InvocationHandlerImpl(this.queryCacheDriver));
+	/**
+	 * Sets the options of a single call, the options of the thread apply, if
+	 * there are none
+	 *
+	 * @return the previous options of the thread
+	 */
+	private RequestOptions setCallOptions(final RequestOptions options) {
+		final RequestOptions previous = httpManager.getRequestOptions();
+		if (options != null) {
+			httpManager.setRequestOptions(options);
+		}
+		return previous;
+	}
+
+	// the module drivers are created on first use (a concurrent first use may
+	// create a second instance, the drivers hold no state)
+
+	private InternalCursorDriver cursorDriver() {
+		if (cursorDriver == null) {
+			cursorDriver = ImplFactory.createCursorDriver(configure, this.httpManager);
+		}
+		return cursorDriver;
+	}
+
+	private InternalCollectionDriver collectionDriver() {
+		if (collectionDriver == null) {
+			collectionDriver = ImplFactory.createCollectionDriver(configure, this.httpManager);
+		}
+		return collectionDriver;
+	}
+
+	private InternalDocumentDriver documentDriver() {
+		if (documentDriver == null) {
+			documentDriver = ImplFactory.createDocumentDriver(configure, this.httpManager);
+		}
+		return documentDriver;
+	}
+
+	private InternalIndexDriver indexDriver() {
+		if (indexDriver == null) {
+			indexDriver = ImplFactory.createIndexDriver(configure, this.httpManager);
+		}
+		return indexDriver;
+	}
+
+	private InternalAdminDriver adminDriver() {
+		if (adminDriver == null) {
+			adminDriver = ImplFactory.createAdminDriver(configure, this.httpManager);
+		}
+		return adminDriver;
+	}
+
+	private InternalAqlFunctionsDriver aqlFunctionsDriver() {
+		if (aqlFunctionsDriver == null) {
+			aqlFunctionsDriver = ImplFactory.createAqlFunctionsDriver(configure, this.httpManager);
+		}
+		return aqlFunctionsDriver;
+	}
+
+	private InternalSimpleDriver simpleDriver() {
+		if (simpleDriver == null) {
+			simpleDriver = ImplFactory.createSimpleDriver(configure, cursorDriver(), this.httpManager);
+		}
+		return simpleDriver;
+	}
+
+	private InternalUsersDriver usersDriver() {
+		if (usersDriver == null) {
+			usersDriver = ImplFactory.createUsersDriver(configure, this.httpManager);
+		}
+		return usersDriver;
+	}
+
+	private InternalImportDriver importDriver() {
+		if (importDriver == null) {
+			importDriver = ImplFactory.createImportDriver(configure, this.httpManager);
+		}
+		return importDriver;
+	}
+
+	private InternalDatabaseDriver databaseDriver() {
+		if (databaseDriver == null) {
+			databaseDriver = ImplFactory.createDatabaseDriver(configure, this.httpManager);
+		}
+		return databaseDriver;
+	}
+
+	private InternalEndpointDriver endpointDriver() {
+		if (endpointDriver == null) {
+			endpointDriver = ImplFactory.createEndpointDriver(configure, this.httpManager);
 		}
+		return endpointDriver;
+	}
+
+	private InternalReplicationDriver replicationDriver() {
+		if (replicationDriver == null) {
+			replicationDriver = ImplFactory.createReplicationDriver(configure, this.httpManager);
+		}
+		return replicationDriver;
+	}
+
+	private InternalGraphDriver graphDriver() {
+		if (graphDriver == null) {
+			graphDriver = ImplFactory.createGraphDriver(configure, cursorDriver(), this.httpManager);
+		}
+		return graphDriver;
+	}
+
+	private InternalJobsDriver jobsDriver() {
+		if (jobsDriver == null) {
+			jobsDriver = ImplFactory.createJobsDriver(configure, this.httpManager);
+		}
+		return jobsDriver;
+	}
+
+	private InternalTransactionDriver transactionDriver() {
+		if (transactionDriver == null) {
+			transactionDriver = ImplFactory.createTransactionDriver(configure, this.httpManager);
+		}
+		return transactionDriver;
+	}
+
+	private InternalTraversalDriver traversalDriver() {
+		if (traversalDriver == null) {
+			traversalDriver = ImplFactory.createTraversalDriver(configure, this.httpManager);
+		}
+		return traversalDriver;
+	}
+
+	private InternalQueryCacheDriver queryCacheDriver() {
+		if (queryCacheDriver == null) {
+			queryCacheDriver = ImplFactory.createQueryCacheDriver(configure, this.httpManager);
+		}
+		return queryCacheDriver;
+	}
+
+
+	/**
+	 * The topology cache is only used for synchronous requests outside of
+	 * batch mode, because only then the server returns the real graph.
+	 */
+	private boolean isGraphTopologyCacheUsable() {
+		return configure.getGraphTopologyCache().isEnabled() && !httpManager.isBatchModeActive()
+				&& httpManager.getHttpMode() == HttpManager.HttpMode.SYNC;
+	}
+
+	private GraphTopology getGraphTopology(final String graphName) throws ArangoException {
+		if (!isGraphTopologyCacheUsable()) {
+			return null;
+		}
+		final GraphTopologyCache cache = configure.getGraphTopologyCache();
+		final GraphTopology topology = cache.get(getDefaultDatabase(), graphName);
+		if (topology != null) {
+			return topology;
+		}
+		return cache.put(getDefaultDatabase(), graphName, graphDriver().getGraph(getDefaultDatabase(), graphName));
+	}
+
+	private void invalidateGraphTopology(final String graphName) {
+		configure.getGraphTopologyCache().invalidate(getDefaultDatabase(), graphName);
 	}
 
 	private AqlQueryOptions getAqlQueryOptions(final AqlQueryOptions aqlQueryOptions) {
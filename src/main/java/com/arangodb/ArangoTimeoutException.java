@@ -0,0 +1,18 @@
+package com.arangodb;
+
+/**
+ * Thrown if the deadline of a call expired before the response arrived. The
+ * request was aborted, the driver tried to stop the affected query or cursor
+ * on the server.
+ */
+public class ArangoTimeoutException extends ArangoException {
+
+	public ArangoTimeoutException(final String message) {
+		super(message);
+	}
+
+	public ArangoTimeoutException(final String message, final Throwable cause) {
+		super(message, cause);
+	}
+
+}
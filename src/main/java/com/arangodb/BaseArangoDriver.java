@@ -17,9 +17,9 @@
 package com.arangodb;
 
 import java.text.ParseException;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Pattern;
 
 import com.arangodb.entity.BaseEntity;
@@ -49,6 +49,13 @@ public abstract class BaseArangoDriver {
 
 	private static final Pattern databaseNamePattern = Pattern.compile("^[a-zA-Z][a-zA-Z0-9\\-_]{0,63}$");
 
+	private static final int MAX_CACHED_DATABASE_PREFIXES = 1024;
+
+	/**
+	 * validated url prefixes (/_db/name) by database name
+	 */
+	private static final ConcurrentMap<String, String> databasePrefixes = new ConcurrentHashMap<String, String>();
+
 	protected String createDocumentHandle(long collectionId, String documentKey) {
 		return collectionId + "/" + documentKey;
 	}
@@ -218,6 +225,7 @@ public abstract class BaseArangoDriver {
 		if (res == null) {
 			return null;
 		}
+		deferEntity(res, clazz, pclazz, validate);
 		boolean isDocumentEntity = false;
 
 		// the following was added to ensure, that attributes with a key like
@@ -251,6 +259,82 @@ public abstract class BaseArangoDriver {
 			return entity;
 		} finally {
 			EntityDeserializers.removeParameterized();
+			// the body is not needed anymore, return its buffer to the pool
+			res.release();
+		}
+	}
+
+	/**
+	 * Remembers how the entity of a call in batch or async mode is created
+	 * from the response, which is available later
+	 * 
+	 * @param res
+	 *            the response of the database, a placeholder in batch or
+	 *            async mode
+	 * @param clazz
+	 *            the class of the entity object
+	 * @param pclazz
+	 *            the class of the object wrapped in the entity object
+	 * @param validate
+	 *            true for validation
+	 */
+	protected <T extends BaseEntity> void deferEntity(
+		HttpResponseEntity res,
+		Class<T> clazz,
+		Class<?>[] pclazz,
+		boolean validate) {
+		if (res.getBatchPart() != null) {
+			// remember how to create the entity from the response of the batch
+			res.getBatchPart().setDeferredResult(
+				new DeferredResult<T>(res.getRequestId(), this, clazz, pclazz, validate));
+		} else if (res.getAsyncJob() != null) {
+			// the result of the job is collected in the background
+			res.getAsyncJob().setDeferredResult(
+				new DeferredResult<T>(res.getAsyncJob().getJobId(), this, clazz, pclazz, validate));
+		}
+	}
+
+	/**
+	 * Post-processes the entity of a call. In batch or async mode the entity
+	 * is a placeholder, the handler is applied to the real entity again, when
+	 * the result of the call is requested.
+	 * 
+	 * @param res
+	 *            the response of the database
+	 * @param entity
+	 *            the entity created from the response
+	 * @param handler
+	 *            the post-processing of the call
+	 * @return the value created by the handler
+	 * @throws ArangoException
+	 */
+	protected <T extends BaseEntity, R> R handleResult(
+		HttpResponseEntity res,
+		T entity,
+		DeferredResult.ResultHandler<? super T, R> handler) throws ArangoException {
+		deferResult(res, handler);
+		return handler.handle(entity);
+	}
+
+	/**
+	 * Sets the post-processing of the entity of a call in batch or async mode,
+	 * the handler is applied when the result of the call is requested
+	 * 
+	 * @param res
+	 *            the response of the database
+	 * @param handler
+	 *            the post-processing of the call
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	protected void deferResult(HttpResponseEntity res, DeferredResult.ResultHandler<?, ?> handler) {
+		DeferredResult deferredResult = null;
+		if (res != null && res.getBatchPart() != null) {
+			deferredResult = res.getBatchPart().getDeferredResult();
+		} else if (res != null && res.getAsyncJob() != null) {
+			deferredResult = res.getAsyncJob().getDeferredResult();
+		}
+		if (deferredResult != null) {
+			deferredResult.setResultHandler(handler);
 		}
 	}
 
@@ -364,7 +448,7 @@ public abstract class BaseArangoDriver {
 		T result = null;
 		if (res.isJsonResponse()) {
 			try {
-				result = EntityFactory.createEntity(res.getText(), type);
+				result = EntityFactory.<T> createEntity(res.getReader(), type);
 			} catch (JsonSyntaxException e) {
 				throw new ArangoException("got JsonSyntaxException while creating entity", e);
 			} catch (JsonParseException e) {
@@ -380,31 +464,57 @@ public abstract class BaseArangoDriver {
 	}
 
 	protected String createEndpointUrl(String database, Object... paths) throws ArangoException {
-		List<String> list = new ArrayList<String>();
+		return createEndpointUrl(database, (String) null, paths);
+	}
 
+	protected String createEndpointUrl(String database, String str, Object... paths) throws ArangoException {
+		// same result as StringUtils.join(false, ["_db", database, str,
+		// paths...]) without the intermediate list
+		StringBuilder url = new StringBuilder(64);
+		boolean empty = true;
+		boolean prevLastSlash = false;
 		if (database != null) {
-			validateDatabaseName(database, false);
-			list.add("_db");
-			list.add(database);
+			url.append(getDatabasePrefix(database));
+			empty = false;
+		}
+		if (str != null) {
+			prevLastSlash = appendPath(url, str, prevLastSlash);
+			empty = false;
 		}
-		for (Object path : paths) {
-			if (path != null) {
-				list.add(path.toString());
+		if (paths != null) {
+			for (Object path : paths) {
+				if (path != null) {
+					prevLastSlash = appendPath(url, path.toString(), prevLastSlash);
+					empty = false;
+				}
 			}
 		}
-		return StringUtils.join(false, list);
+		return empty ? null : url.toString();
 	}
 
-	protected String createEndpointUrl(String database, String str, Object... paths) throws ArangoException {
-		if (paths == null) {
-			return createEndpointUrl(database, paths);
+	private String getDatabasePrefix(String database) throws ArangoException {
+		String prefix = databasePrefixes.get(database);
+		if (prefix == null) {
+			validateDatabaseName(database, false);
+			prefix = "/_db/" + database;
+			if (databasePrefixes.size() < MAX_CACHED_DATABASE_PREFIXES) {
+				databasePrefixes.putIfAbsent(database, prefix);
+			}
+		}
+		return prefix;
+	}
+
+	private static boolean appendPath(StringBuilder url, String path, boolean prevLastSlash) {
+		boolean startSlash = path.startsWith("/");
+		if (!prevLastSlash && !startSlash) {
+			url.append('/');
 		}
-		Object[] newPaths = new Object[paths.length + 1];
-		newPaths[0] = str;
-		for (int i = 0; i < paths.length; i++) {
-			newPaths[i + 1] = paths[i];
+		if (prevLastSlash && startSlash) {
+			url.append(path, 1, path.length());
+		} else {
+			url.append(path);
 		}
-		return createEndpointUrl(database, newPaths);
+		return path.endsWith("/");
 	}
 
 	protected String createUserEndpointUrl(Object... paths) throws ArangoException {
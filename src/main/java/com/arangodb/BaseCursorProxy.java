@@ -57,6 +57,19 @@ public class BaseCursorProxy<T, S extends DocumentEntity<T>> implements Iterable
 		baseCursor.close();
 	}
 
+	/**
+	 * Returns the remaining DocumentEntity objects of the current batch. The
+	 * following call fetches the next batch from the server. The method is
+	 * thread-safe, so several workers can process batches concurrently while
+	 * one of them fetches the next batch.
+	 * 
+	 * @return the next batch or null, if the cursor is exhausted or closed
+	 * @throws ArangoException
+	 */
+	public List<S> nextBatch() throws ArangoException {
+		return baseCursor.nextBatch();
+	}
+
 	/**
 	 * Get total number of results (if requested)
 	 * 
@@ -0,0 +1,199 @@
+package com.arangodb;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.arangodb.entity.CursorEntity;
+import com.arangodb.util.AqlQueryOptions;
+
+/**
+ * Reactive Streams publisher of the results of an AQL query. Every
+ * subscription creates its own cursor. The next batch is only fetched when the
+ * subscriber has requested more results than the current batch contains, and
+ * the cursor is removed from the server when the subscription is cancelled.
+ * <p>
+ * The requests to the server are executed by the given executor, so neither
+ * subscribe() nor request() blocks the calling thread.
+ */
+public class CursorPublisher<T> implements Publisher<T> {
+
+	private static Logger logger = LoggerFactory.getLogger(CursorPublisher.class);
+
+	private final String database;
+	private final InternalCursorDriver cursorDriver;
+	private final String query;
+	private final Map<String, Object> bindVars;
+	private final AqlQueryOptions aqlQueryOptions;
+	private final Executor executor;
+	private final Class<?>[] clazz;
+
+	public CursorPublisher(String database, InternalCursorDriver cursorDriver, String query,
+		Map<String, Object> bindVars, AqlQueryOptions aqlQueryOptions, Executor executor, Class<?>... clazz) {
+		this.database = database;
+		this.cursorDriver = cursorDriver;
+		this.query = query;
+		this.bindVars = bindVars;
+		this.aqlQueryOptions = aqlQueryOptions;
+		this.executor = executor;
+		this.clazz = clazz;
+	}
+
+	@Override
+	public void subscribe(final Subscriber<? super T> subscriber) {
+		if (subscriber == null) {
+			throw new NullPointerException("subscriber is null");
+		}
+		final CursorSubscription subscription = new CursorSubscription(subscriber);
+		subscriber.onSubscribe(subscription);
+		subscription.schedule();
+	}
+
+	/**
+	 * Delivers the results of one cursor. All signals are emitted from a single
+	 * drain loop, which is guarded by a work-in-progress counter.
+	 */
+	private class CursorSubscription implements Subscription, Runnable {
+
+		private final Subscriber<? super T> subscriber;
+		private final AtomicLong demand = new AtomicLong();
+		private final AtomicInteger wip = new AtomicInteger();
+		private volatile boolean cancelled;
+		private volatile Throwable invalidRequest;
+
+		// only accessed by the drain loop
+		private CursorEntity<T> entity;
+		private int pos;
+		private boolean done;
+
+		CursorSubscription(final Subscriber<? super T> subscriber) {
+			this.subscriber = subscriber;
+		}
+
+		@Override
+		public void request(final long n) {
+			if (n <= 0) {
+				invalidRequest = new IllegalArgumentException("non-positive request: " + n);
+			} else {
+				long current;
+				long next;
+				do {
+					current = demand.get();
+					next = current + n < 0 ? Long.MAX_VALUE : current + n;
+				} while (!demand.compareAndSet(current, next));
+			}
+			schedule();
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+			schedule();
+		}
+
+		void schedule() {
+			if (wip.getAndIncrement() == 0) {
+				if (executor != null) {
+					executor.execute(this);
+				} else {
+					run();
+				}
+			}
+		}
+
+		@Override
+		public void run() {
+			int missed = 1;
+			do {
+				drain();
+				missed = wip.addAndGet(-missed);
+			} while (missed != 0);
+		}
+
+		private void drain() {
+			if (done) {
+				return;
+			}
+			try {
+				if (invalidRequest != null) {
+					done = true;
+					closeCursor();
+					subscriber.onError(invalidRequest);
+					return;
+				}
+				if (cancelled) {
+					done = true;
+					closeCursor();
+					return;
+				}
+				if (entity == null) {
+					entity = cursorDriver.executeCursorEntityQuery(database, query, bindVars, aqlQueryOptions, clazz);
+					pos = 0;
+				}
+				while (!cancelled) {
+					if (pos < entity.size()) {
+						if (demand.get() == 0) {
+							return;
+						}
+						demand.decrementAndGet();
+						subscriber.onNext(entity.get(pos++));
+					} else if (entity.hasMore()) {
+						if (demand.get() == 0) {
+							// fetch the next batch only on demand
+							return;
+						}
+						entity = cursorDriver.continueQuery(database, entity.getCursorId(), entity.getTimeout(), clazz);
+						pos = 0;
+					} else {
+						done = true;
+						subscriber.onComplete();
+						return;
+					}
+				}
+				done = true;
+				closeCursor();
+			} catch (final ArangoException e) {
+				fail(e);
+			} catch (final RuntimeException e) {
+				if (done) {
+					// thrown by onComplete or onError (rule 2.13)
+					logger.error("the subscriber failed after the terminal signal", e);
+				} else {
+					// thrown by onNext (rule 2.13) or by the deserialization,
+					// the subscription is cancelled
+					fail(e);
+				}
+			}
+		}
+
+		private void fail(final Throwable e) {
+			done = true;
+			cancelled = true;
+			closeCursor();
+			try {
+				subscriber.onError(e);
+			} catch (final RuntimeException ex) {
+				logger.error("the subscriber failed in onError", ex);
+			}
+		}
+
+		private void closeCursor() {
+			if (entity != null && entity.hasMore()) {
+				try {
+					cursorDriver.finishQuery(database, entity.getCursorId());
+				} catch (final ArangoException e) {
+					logger.debug("could not remove cursor " + entity.getCursorId(), e);
+				}
+			}
+		}
+
+	}
+
+}
@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.locks.ReentrantLock;
 
 import com.arangodb.entity.CursorEntity;
 import com.arangodb.entity.WarningEntity;
@@ -35,9 +36,13 @@ public class CursorRawResult implements Iterable<String> {
 	private InternalCursorDriver cursorDriver;
 	private CursorEntity<JsonObject> entity;
 	private int pos;
+	private boolean closed;
 	private int count;
 	private CursorIterator iter;
 
+	// guards nextBatch() and close()
+	private final ReentrantLock lock = new ReentrantLock();
+
 	public CursorRawResult(String database, InternalCursorDriver cursorDriver, CursorEntity<JsonObject> entity,
 		Class<?>... clazz) {
 		this.database = database;
@@ -79,8 +84,49 @@ public class CursorRawResult implements Iterable<String> {
 	 * @throws ArangoException
 	 */
 	public void close() throws ArangoException {
-		long cursorId = entity.getCursorId();
-		cursorDriver.finishQuery(database, cursorId);
+		lock.lock();
+		try {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			if (entity != null && entity.hasMore()) {
+				cursorDriver.finishQuery(database, entity.getCursorId());
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the remaining objects of the current batch. The following call
+	 * fetches the next batch from the server. The method is thread-safe, so
+	 * several workers can process batches concurrently while one of them
+	 * fetches the next batch. Do not mix with the iterator.
+	 * 
+	 * @return the next batch or null, if the cursor is exhausted or closed
+	 * @throws ArangoException
+	 */
+	public List<String> nextBatch() throws ArangoException {
+		lock.lock();
+		try {
+			if (entity == null || closed) {
+				return null;
+			}
+			if (pos >= entity.size()) {
+				if (!entity.hasMore()) {
+					return null;
+				}
+				updateEntity();
+			}
+			final List<String> batch = new ArrayList<String>(entity.size() - pos);
+			while (pos < entity.size()) {
+				batch.add(entity.get(pos++).toString());
+			}
+			return batch;
+		} finally {
+			lock.unlock();
+		}
 	}
 
 	/**
@@ -121,7 +167,7 @@ public class CursorRawResult implements Iterable<String> {
 	 */
 	private void updateEntity() throws ArangoException {
 		long cursorId = entity.getCursorId();
-		this.entity = cursorDriver.continueQuery(database, cursorId, JsonObject.class);
+		this.entity = cursorDriver.continueQuery(database, cursorId, entity.getTimeout(), JsonObject.class);
 		this.pos = 0;
 	}
 
@@ -138,7 +184,7 @@ public class CursorRawResult implements Iterable<String> {
 			if (pos < entity.size()) {
 				return true;
 			}
-			if (entity.hasMore()) {
+			if (entity.hasMore() && !closed) {
 				return true;
 			}
 			return false;
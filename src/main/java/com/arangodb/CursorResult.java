@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.locks.ReentrantLock;
 
 import com.arangodb.entity.CursorEntity;
 import com.arangodb.entity.WarningEntity;
@@ -35,9 +36,16 @@ public class CursorResult<T> implements Iterable<T> {
 	private Class<?>[] clazz;
 	private CursorEntity<T> entity;
 	private int pos;
+	private boolean closed;
 	private int count;
 	private CursorIterator iter;
 
+	/**
+	 * guards the batches, a lock instead of a monitor does not pin a virtual
+	 * thread while the next batch is fetched
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+
 	public CursorResult(String database, InternalCursorDriver cursorDriver, CursorEntity<T> entity, Class<?>... clazz) {
 		this.database = database;
 		this.cursorDriver = cursorDriver;
@@ -79,8 +87,49 @@ public class CursorResult<T> implements Iterable<T> {
 	 * @throws ArangoException
 	 */
 	public void close() throws ArangoException {
-		long cursorId = entity.getCursorId();
-		cursorDriver.finishQuery(database, cursorId);
+		lock.lock();
+		try {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			if (entity != null && entity.hasMore()) {
+				cursorDriver.finishQuery(database, entity.getCursorId());
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the remaining objects of the current batch. The following call
+	 * fetches the next batch from the server. The method is thread-safe, so
+	 * several workers can process batches concurrently while one of them
+	 * fetches the next batch. Do not mix with the iterator.
+	 * 
+	 * @return the next batch or null, if the cursor is exhausted or closed
+	 * @throws ArangoException
+	 */
+	public List<T> nextBatch() throws ArangoException {
+		lock.lock();
+		try {
+			if (entity == null || closed) {
+				return null;
+			}
+			if (pos >= entity.size()) {
+				if (!entity.hasMore()) {
+					return null;
+				}
+				updateEntity();
+			}
+			final List<T> batch = new ArrayList<T>(entity.size() - pos);
+			while (pos < entity.size()) {
+				batch.add(entity.get(pos++));
+			}
+			return batch;
+		} finally {
+			lock.unlock();
+		}
 	}
 
 	/**
@@ -121,7 +170,7 @@ public class CursorResult<T> implements Iterable<T> {
 	 */
 	private void updateEntity() throws ArangoException {
 		long cursorId = entity.getCursorId();
-		this.entity = cursorDriver.continueQuery(database, cursorId, this.clazz);
+		this.entity = cursorDriver.continueQuery(database, cursorId, entity.getTimeout(), this.clazz);
 		this.pos = 0;
 	}
 
@@ -147,7 +196,7 @@ public class CursorResult<T> implements Iterable<T> {
 			if (pos < entity.size()) {
 				return true;
 			}
-			if (entity.hasMore()) {
+			if (entity.hasMore() && !closed) {
 				return true;
 			}
 			return false;
@@ -16,8 +16,11 @@
 
 package com.arangodb;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.locks.ReentrantLock;
 
 import com.arangodb.entity.CursorEntity;
 
@@ -32,9 +35,13 @@ public class CursorResultSet<T> implements Iterable<T> {
 	private Class<?>[] clazz;
 	private CursorEntity<T> entity;
 	private int pos;
+	private boolean closed;
 	private int totalCount;
 	private Iterator<T> itr;
 
+	// guards nextBatch() and close(), both may send a request
+	private final ReentrantLock lock = new ReentrantLock();
+
 	public CursorResultSet(String database, InternalCursorDriver cursorDriver, CursorEntity<T> entity,
 		Class<?>... clazz) {
 		this.database = database;
@@ -60,8 +67,49 @@ public class CursorResultSet<T> implements Iterable<T> {
 	}
 
 	public void close() throws ArangoException {
-		long cursorId = entity.getCursorId();
-		cursorDriver.finishQuery(database, cursorId);
+		lock.lock();
+		try {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			if (entity != null && entity.hasMore()) {
+				cursorDriver.finishQuery(database, entity.getCursorId());
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the remaining objects of the current batch. The following call
+	 * fetches the next batch from the server. The method is thread-safe, so
+	 * several workers can process batches concurrently while one of them
+	 * fetches the next batch. Do not mix with the iterator.
+	 * 
+	 * @return the next batch or null, if the cursor is exhausted or closed
+	 * @throws ArangoException
+	 */
+	public List<T> nextBatch() throws ArangoException {
+		lock.lock();
+		try {
+			if (entity == null || closed) {
+				return null;
+			}
+			if (pos >= entity.size()) {
+				if (!entity.hasMore()) {
+					return null;
+				}
+				updateEntity();
+			}
+			final List<T> batch = new ArrayList<T>(entity.size() - pos);
+			while (pos < entity.size()) {
+				batch.add(entity.get(pos++));
+			}
+			return batch;
+		} finally {
+			lock.unlock();
+		}
 	}
 
 	public int getTotalCount() {
@@ -70,7 +118,7 @@ public class CursorResultSet<T> implements Iterable<T> {
 
 	public void updateEntity() throws ArangoException {
 		long cursorId = entity.getCursorId();
-		this.entity = cursorDriver.continueQuery(database, cursorId, this.clazz);
+		this.entity = cursorDriver.continueQuery(database, cursorId, entity.getTimeout(), this.clazz);
 		this.pos = 0;
 	}
 
@@ -84,7 +132,7 @@ public class CursorResultSet<T> implements Iterable<T> {
 			if (pos < entity.size()) {
 				return true;
 			}
-			if (entity.hasMore()) {
+			if (entity.hasMore() && !closed) {
 				return true;
 			}
 			return false;
@@ -0,0 +1,234 @@
+package com.arangodb;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.arangodb.entity.BaseEntity;
+import com.arangodb.http.HttpResponseEntity;
+
+/**
+ * Typed handle of a call whose response arrives later, e.g. a call stacked in
+ * batch mode or a call in async mode. The handle remembers how the call
+ * creates its entity, the response is deserialized on the first
+ * {@link #get()}, without replaying the call. A call that returns more than
+ * its entity, e.g. the keys of a cursor, sets a {@link ResultHandler}, which
+ * {@link #getResult()} applies to the entity.
+ *
+ * @param <T>
+ *            the type of the entity
+ */
+public class DeferredResult<T extends BaseEntity> {
+
+	/**
+	 * Post-processing of the entity of a call, creates the value the call
+	 * returns
+	 *
+	 * @param <E>
+	 *            the type of the entity
+	 * @param <R>
+	 *            the type of the returned value
+	 */
+	public interface ResultHandler<E extends BaseEntity, R> {
+
+		R handle(E entity) throws ArangoException;
+
+	}
+
+	private final String requestId;
+	private final BaseArangoDriver driver;
+	private final Class<T> clazz;
+	private final Class<?>[] pclazz;
+	private final boolean validate;
+
+	/**
+	 * a lock instead of the monitor, a virtual thread waiting in get() does
+	 * not pin its carrier thread
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition completed = lock.newCondition();
+
+	private volatile boolean done;
+	private HttpResponseEntity response;
+	private T result;
+	private ArangoException exception;
+
+	private ResultHandler<? super T, ?> resultHandler;
+	private boolean handled;
+	private Object handledResult;
+
+	DeferredResult(final String requestId, final BaseArangoDriver driver, final Class<T> clazz,
+		final Class<?>[] pclazz, final boolean validate) {
+		this.requestId = requestId;
+		this.driver = driver;
+		this.clazz = clazz;
+		this.pclazz = pclazz;
+		this.validate = validate;
+	}
+
+	public String getRequestId() {
+		return requestId;
+	}
+
+	/**
+	 * @return the class of the entity
+	 */
+	public Class<T> getEntityClass() {
+		return clazz;
+	}
+
+	/**
+	 * @return true, if the response is available
+	 */
+	public boolean isDone() {
+		return done;
+	}
+
+	/**
+	 * Returns the entity of the call, waits until the response is available
+	 *
+	 * @return the entity
+	 * @throws ArangoException
+	 *             if the call failed or the thread was interrupted
+	 */
+	public T get() throws ArangoException {
+		return get(0L, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Returns the entity of the call, waits up to the given time until the
+	 * response is available
+	 *
+	 * @param timeout
+	 *            the maximum time to wait, 0 to wait without limit
+	 * @param unit
+	 *            the unit of the timeout
+	 * @return the entity
+	 * @throws ArangoException
+	 *             if the call failed, the response is not available in time
+	 *             or the thread was interrupted
+	 */
+	public T get(final long timeout, final TimeUnit unit) throws ArangoException {
+		lock.lock();
+		try {
+			if (!done) {
+				await(unit.toNanos(timeout));
+			}
+			if (response != null) {
+				try {
+					result = driver.createEntity(response, clazz, pclazz, validate);
+				} catch (final ArangoException e) {
+					exception = e;
+				}
+				response = null;
+			}
+			if (exception != null) {
+				throw exception;
+			}
+			return result;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the value the call returns, i.e. the entity after the
+	 * post-processing of the call. Waits until the response is available.
+	 *
+	 * @return the value, the entity if the call has no post-processing
+	 * @throws ArangoException
+	 *             if the call or its post-processing failed or the thread was
+	 *             interrupted
+	 */
+	public Object getResult() throws ArangoException {
+		final T entity = get();
+		lock.lock();
+		try {
+			if (resultHandler == null) {
+				return entity;
+			}
+			if (!handled) {
+				handledResult = resultHandler.handle(entity);
+				handled = true;
+			}
+			return handledResult;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Sets the post-processing of the entity. Used by the driver.
+	 *
+	 * @param resultHandler
+	 *            the post-processing
+	 */
+	void setResultHandler(final ResultHandler<? super T, ?> resultHandler) {
+		lock.lock();
+		try {
+			this.resultHandler = resultHandler;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void await(final long timeout) throws ArangoException {
+		long remaining = timeout;
+		try {
+			while (!done) {
+				if (timeout <= 0) {
+					completed.await();
+				} else {
+					if (remaining <= 0) {
+						throw new ArangoException("The result of " + requestId + " is not available yet.");
+					}
+					remaining = completed.awaitNanos(remaining);
+				}
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ArangoException(e);
+		}
+	}
+
+	/**
+	 * Sets the response of the call. Used by the driver, a handle is only
+	 * completed once.
+	 *
+	 * @param response
+	 *            the response
+	 */
+	public void complete(final HttpResponseEntity response) {
+		lock.lock();
+		try {
+			if (!done) {
+				this.response = response;
+				this.done = true;
+				completed.signalAll();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Sets the error of the call. Used by the driver, a handle is only
+	 * completed once.
+	 *
+	 * @param exception
+	 *            the error
+	 */
+	public void fail(final ArangoException exception) {
+		lock.lock();
+		try {
+			if (!done) {
+				this.exception = exception;
+				this.done = true;
+				completed.signalAll();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+}
@@ -30,6 +30,10 @@ public interface InternalCursorDriver extends BaseDriverInterface {
 
 	<T> CursorEntity<T> continueQuery(String database, long cursorId, Class<?>... clazz) throws ArangoException;
 
+	// the cursor is deleted, if the timeout (0 for none) expires
+	<T> CursorEntity<T> continueQuery(String database, long cursorId, int timeout, Class<?>... clazz)
+			throws ArangoException;
+
 	DefaultEntity finishQuery(String database, long cursorId) throws ArangoException;
 
 	// request a cursor without DocumentEntity
@@ -0,0 +1,18 @@
+package com.arangodb;
+
+/**
+ * Wire protocol of the driver
+ */
+public enum Protocol {
+
+	/**
+	 * HTTP/1.1 with JSON payloads (default)
+	 */
+	HTTP,
+
+	/**
+	 * VelocyStream with VelocyPack payloads (requires ArangoDB 3.1 or later)
+	 */
+	VST
+
+}
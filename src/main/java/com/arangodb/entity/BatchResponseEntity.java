@@ -17,7 +17,6 @@
 package com.arangodb.entity;
 
 import com.arangodb.http.HttpResponseEntity;
-import com.arangodb.http.InvocationObject;
 
 /**
  * This entity is a representation of the result of a batch part
@@ -27,31 +26,15 @@ import com.arangodb.http.InvocationObject;
  */
 public class BatchResponseEntity extends BaseEntity {
 
-	/**
-	 * The context of the function call, this is used to to process the server
-	 * response to an api entity.
-	 */
-	InvocationObject invocationObject;
-
 	/**
 	 * The http response of the batch part.
 	 */
 	public HttpResponseEntity httpResponseEntity;
 
-	public BatchResponseEntity(InvocationObject invocationObject) {
-		this.invocationObject = invocationObject;
+	public BatchResponseEntity() {
 		this.httpResponseEntity = new HttpResponseEntity();
 	}
 
-	public InvocationObject getInvocationObject() {
-
-		return invocationObject;
-	}
-
-	public void setInvocationObject(InvocationObject invocationObject) {
-		this.invocationObject = invocationObject;
-	}
-
 	public HttpResponseEntity getHttpResponseEntity() {
 		return httpResponseEntity;
 	}
@@ -16,7 +16,9 @@
 
 package com.arangodb.entity;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.arangodb.ArangoException;
 
@@ -34,22 +36,33 @@ public class BatchResponseListEntity extends BaseEntity {
 	 */
 	List<BatchResponseEntity> batchResponseEntities;
 
+	/**
+	 * The BatchResponseEntities by request id.
+	 */
+	transient Map<String, BatchResponseEntity> batchResponseEntitiesById;
+
 	public List<BatchResponseEntity> getBatchResponseEntities() {
 		return batchResponseEntities;
 	}
 
 	public void setBatchResponseEntities(List<BatchResponseEntity> batchResponseEntities) {
 		this.batchResponseEntities = batchResponseEntities;
+		this.batchResponseEntitiesById = null;
 	}
 
 	public BatchResponseEntity getResponseFromRequestId(String requestId) throws ArangoException {
-		for (BatchResponseEntity bpe : this.batchResponseEntities) {
-			if (bpe.getRequestId().equals(requestId)) {
-				return bpe;
+		if (batchResponseEntitiesById == null) {
+			Map<String, BatchResponseEntity> index = new HashMap<String, BatchResponseEntity>();
+			for (BatchResponseEntity bpe : this.batchResponseEntities) {
+				index.put(bpe.getRequestId(), bpe);
 			}
+			batchResponseEntitiesById = index;
 		}
-		throw new ArangoException("RequestId not found in batch.");
-
+		BatchResponseEntity bpe = batchResponseEntitiesById.get(requestId);
+		if (bpe == null) {
+			throw new ArangoException("RequestId not found in batch.");
+		}
+		return bpe;
 	}
 
 }
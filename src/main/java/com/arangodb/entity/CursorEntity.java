@@ -80,6 +80,12 @@ public class CursorEntity<T> extends BaseEntity implements Iterable<T> {
 	 */
 	List<WarningEntity> warnings;
 
+	/**
+	 * The timeout in milliseconds of the requests of the following batches
+	 * (not part of the response)
+	 */
+	transient int timeout;
+
 	@Override
 	public Iterator<T> iterator() {
 		return CollectionUtils.safetyIterator(results);
@@ -216,6 +222,14 @@ public class CursorEntity<T> extends BaseEntity implements Iterable<T> {
 		this.warnings = warnings;
 	}
 
+	public int getTimeout() {
+		return timeout;
+	}
+
+	public void setTimeout(int timeout) {
+		this.timeout = timeout;
+	}
+
 	public boolean hasWarnings() {
 		return CollectionUtils.isNotEmpty(this.warnings);
 	}
@@ -158,6 +158,10 @@ public class EntityDeserializers {
 
 	private static final String EDGES = "edges";
 
+	private static final String SOURCE = "source";
+
+	private static final String NEIGHBORS = "neighbors";
+
 	private static final String STATE = "state";
 
 	private static final String FILE_SIZE = "fileSize";
@@ -267,6 +271,14 @@ public class EntityDeserializers {
 		return holder.next();
 	}
 
+	private static Class<?> backParameterized() {
+		final ClassHolder holder = parameterizedBridger.get();
+		if (holder == null) {
+			return null;
+		}
+		return holder.back();
+	}
+
 	private static <T extends BaseEntity> T deserializeBaseParameter(final JsonObject obj, final T entity) {
 		if (obj.has(ERROR) && obj.getAsJsonPrimitive(ERROR).isBoolean()) {
 			entity.error = obj.getAsJsonPrimitive(ERROR).getAsBoolean();
@@ -734,14 +746,6 @@ public class EntityDeserializers {
 			}
 		}
 
-		private Class<?> backParameterized() {
-			final ClassHolder holder = parameterizedBridger.get();
-			if (holder == null) {
-				return null;
-			}
-			return holder.back();
-		}
-
 	}
 
 	public static class DocumentEntityDeserializer implements JsonDeserializer<DocumentEntity<?>> {
@@ -2312,6 +2316,86 @@ public class EntityDeserializers {
 		}
 	}
 
+	public static class NeighborsEntityDeserializer implements JsonDeserializer<NeighborsEntity<?>> {
+		@Override
+		public NeighborsEntity<?> deserialize(
+			final JsonElement json,
+			final Type typeOfT,
+			final JsonDeserializationContext context) {
+
+			if (json.isJsonNull()) {
+				return null;
+			}
+
+			final JsonObject obj = json.getAsJsonObject();
+			final NeighborsEntity<Object> entity = new NeighborsEntity<Object>();
+
+			if (obj.has(SOURCE) && !obj.get(SOURCE).isJsonNull()) {
+				entity.setSource(obj.getAsJsonPrimitive(SOURCE).getAsString());
+			}
+
+			// the vertex class follows the NeighborsEntity class
+			final boolean withVertexClass = hasNextParameterized();
+			final Class<?> vertexClazz = withVertexClass ? nextParameterized() : null;
+			try {
+				if (obj.has(NEIGHBORS) && obj.get(NEIGHBORS).isJsonArray()) {
+					entity.setNeighbors(getVertices(vertexClazz, context, obj.getAsJsonArray(NEIGHBORS)));
+				} else {
+					entity.setNeighbors(new ArrayList<VertexEntity<Object>>());
+				}
+			} finally {
+				if (withVertexClass) {
+					backParameterized();
+				}
+			}
+
+			return entity;
+		}
+	}
+
+	public static class PathEntityDeserializer implements JsonDeserializer<PathEntity<?, ?>> {
+		@Override
+		public PathEntity<?, ?> deserialize(
+			final JsonElement json,
+			final Type typeOfT,
+			final JsonDeserializationContext context) {
+
+			if (json.isJsonNull()) {
+				return null;
+			}
+
+			final JsonObject obj = json.getAsJsonObject();
+			final PathEntity<Object, Object> entity = new PathEntity<Object, Object>();
+
+			// the vertex class and the edge class follow the PathEntity class
+			int steps = 0;
+			Class<?> vertexClazz = null;
+			Class<?> edgeClazz = null;
+			try {
+				if (hasNextParameterized()) {
+					vertexClazz = nextParameterized();
+					steps++;
+					if (hasNextParameterized()) {
+						edgeClazz = nextParameterized();
+						steps++;
+					}
+				}
+				if (obj.has(EDGES) && obj.get(EDGES).isJsonArray()) {
+					entity.setEdges(getEdges(edgeClazz, context, obj.getAsJsonArray(EDGES)));
+				}
+				if (obj.has(VERTICES) && obj.get(VERTICES).isJsonArray()) {
+					entity.setVertices(getVertices(vertexClazz, context, obj.getAsJsonArray(VERTICES)));
+				}
+			} finally {
+				for (int i = 0; i < steps; i++) {
+					backParameterized();
+				}
+			}
+
+			return entity;
+		}
+	}
+
 	public static class QueryCachePropertiesEntityDeserializer implements JsonDeserializer<QueryCachePropertiesEntity> {
 
 		@Override
@@ -2343,6 +2427,9 @@ public class EntityDeserializers {
 
 	public static class QueriesResultEntityDeserializer implements JsonDeserializer<QueriesResultEntity> {
 
+		private final Type bindVarsType = new TypeToken<Map<String, Object>>() {
+		}.getType();
+
 		@Override
 		public QueriesResultEntity deserialize(
 			final JsonElement json,
@@ -2370,6 +2457,11 @@ public class EntityDeserializers {
 					entity.setQuery(obj.getAsJsonPrimitive("query").getAsString());
 				}
 
+				if (obj.has("bindVars") && obj.get("bindVars").isJsonObject()) {
+					final Map<String, Object> bindVars = context.deserialize(obj.get("bindVars"), bindVarsType);
+					entity.setBindVars(bindVars);
+				}
+
 				if (obj.has("started")) {
 					final String str = obj.getAsJsonPrimitive("started").getAsString();
 
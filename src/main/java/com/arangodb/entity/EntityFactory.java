@@ -16,6 +16,7 @@
 
 package com.arangodb.entity;
 
+import java.io.Reader;
 import java.io.StringWriter;
 import java.lang.reflect.Field;
 import java.lang.reflect.Type;
@@ -46,8 +47,8 @@ import com.google.gson.JsonParser;
  */
 public class EntityFactory {
 
-	private static Gson gson;
-	private static Gson gsonNull;
+	private static volatile Gson gson;
+	private static volatile Gson gsonNull;
 
 	private EntityFactory() {
 		// this is a helper class
@@ -119,6 +120,8 @@ public class EntityFactory {
 				.registerTypeAdapter(EdgeEntity.class, new EntityDeserializers.EdgeEntityDeserializer())
 				.registerTypeAdapter(TraversalEntity.class, new EntityDeserializers.TraversalEntityDeserializer())
 				.registerTypeAdapter(ShortestPathEntity.class, new EntityDeserializers.ShortestPathEntityDeserializer())
+				.registerTypeAdapter(NeighborsEntity.class, new EntityDeserializers.NeighborsEntityDeserializer())
+				.registerTypeAdapter(PathEntity.class, new EntityDeserializers.PathEntityDeserializer())
 				.registerTypeAdapter(QueryCachePropertiesEntity.class,
 					new EntityDeserializers.QueryCachePropertiesEntityDeserializer())
 				.registerTypeAdapter(QueriesResultEntity.class,
@@ -128,10 +131,6 @@ public class EntityFactory {
 				.setDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
 	}
 
-	static {
-		configure(getGsonBuilder());
-	}
-
 	/**
 	 * Configures instances of Gson used by this factory.
 	 * 
@@ -144,12 +143,13 @@ public class EntityFactory {
 	 *            second initializes <code>gsonNull</code> (used when
 	 *            serialization of nulls is requested).
 	 */
-	public static void configure(GsonBuilder... builders) {
+	public static synchronized void configure(GsonBuilder... builders) {
 		if (builders.length < 1) {
 			throw new IllegalArgumentException("builders");
 		}
 
-		gson = builders[0].create();
+		// gsonNull first, gson is the marker of a configured factory
+		final Gson first = builders[0].create();
 
 		if (builders.length > 1) {
 			gsonNull = builders[1].create();
@@ -157,10 +157,69 @@ public class EntityFactory {
 			// use the first one again, but with nulls serialization turned on
 			gsonNull = builders[0].serializeNulls().create();
 		}
+		gson = first;
+	}
+
+	/**
+	 * Creates the Gson instances with the default configuration, unless they
+	 * are already configured. The type adapters are registered on first use
+	 * of the factory, not when the class is loaded.
+	 */
+	private static synchronized void configureDefault() {
+		if (gson == null) {
+			configure(getGsonBuilder());
+		}
+	}
+
+	private static Gson gson() {
+		Gson result = gson;
+		if (result == null) {
+			configureDefault();
+			result = gson;
+		}
+		return result;
+	}
+
+	private static Gson gsonNull() {
+		gson();
+		return gsonNull;
+	}
+
+	/**
+	 * Creates the Gson instances and resolves the type adapters of the given
+	 * classes, so that the first request does not pay for the reflection.
+	 * 
+	 * @param types
+	 *            the entity and document classes to resolve
+	 */
+	public static void warmUp(Class<?>... types) {
+		final Gson g = gson();
+		final Gson gNull = gsonNull();
+		for (Class<?> type : types) {
+			g.getAdapter(type);
+			gNull.getAdapter(type);
+		}
 	}
 
 	public static <T> T createEntity(String jsonText, Type type) {
-		return gson.fromJson(jsonText, type);
+		return gson().fromJson(jsonText, type);
+	}
+
+	/**
+	 * Deserializes an entity from a reader, e.g. over the UTF-8 bytes of a
+	 * response body
+	 * 
+	 * @param reader
+	 *            the JSON source
+	 * @param type
+	 *            the type of the entity
+	 * @return the entity
+	 */
+	public static <T> T createEntity(Reader reader, Type type) {
+		if (reader == null) {
+			return null;
+		}
+		return gson().fromJson(reader, type);
 	}
 
 	public static <T> String toJsonString(T obj) {
@@ -168,13 +227,13 @@ public class EntityFactory {
 	}
 
 	public static <T> JsonSequenceEntity toJsonSequenceEntity(Iterator<T> itr) {
-		return new JsonSequenceEntity(itr, gson);
+		return new JsonSequenceEntity(itr, gson());
 	}
 
 	public static String toImportHeaderValues(Collection<? extends Collection<?>> headerValues) {
 		StringWriter writer = new StringWriter();
 		for (Collection<?> array : headerValues) {
-			gson.toJson(array, writer);
+			gson().toJson(array, writer);
 			writer.write('\n');
 		}
 		writer.flush();
@@ -183,7 +242,7 @@ public class EntityFactory {
 
 	public static <T> String toJsonString(T obj, boolean includeNullValue) {
 		if (obj != null && obj.getClass().equals(BaseDocument.class)) {
-			String tmp = includeNullValue ? gsonNull.toJson(obj) : gson.toJson(obj);
+			String tmp = includeNullValue ? gsonNull().toJson(obj) : gson().toJson(obj);
 			JsonParser jsonParser = new JsonParser();
 			JsonElement jsonElement = jsonParser.parse(tmp);
 			JsonObject jsonObject = jsonElement.getAsJsonObject();
@@ -200,7 +259,7 @@ public class EntityFactory {
 			// result.add("_rev", revisionValue);
 			return result.toString();
 		}
-		return includeNullValue ? gsonNull.toJson(obj) : gson.toJson(obj);
+		return includeNullValue ? gsonNull().toJson(obj) : gson().toJson(obj);
 	}
 
 	/**
@@ -210,7 +269,7 @@ public class EntityFactory {
 	 * @since 1.4.0
 	 */
 	public static <T> JsonElement toJsonElement(T obj, boolean includeNullValue) {
-		return includeNullValue ? gsonNull.toJsonTree(obj) : gson.toJsonTree(obj);
+		return includeNullValue ? gsonNull().toJsonTree(obj) : gson().toJsonTree(obj);
 	}
 
 	/**
@@ -0,0 +1,49 @@
+package com.arangodb.entity;
+
+import java.util.List;
+
+import com.arangodb.entity.marker.VertexEntity;
+
+/**
+ * The neighbors of a single source vertex of a multi-source neighbor
+ * expansion.
+ */
+public class NeighborsEntity<T> {
+
+	/**
+	 * document handle of the source vertex
+	 */
+	private String source;
+
+	/**
+	 * List of the (distinct) neighbor vertices of the source vertex.
+	 */
+	private List<VertexEntity<T>> neighbors;
+
+	/**
+	 * Returns the document handle of the source vertex
+	 * 
+	 * @return the document handle of the source vertex
+	 */
+	public String getSource() {
+		return source;
+	}
+
+	public void setSource(String source) {
+		this.source = source;
+	}
+
+	/**
+	 * Returns the list of neighbor vertices of the source vertex
+	 * 
+	 * @return the list of neighbor vertices
+	 */
+	public List<VertexEntity<T>> getNeighbors() {
+		return neighbors;
+	}
+
+	public void setNeighbors(List<VertexEntity<T>> neighbors) {
+		this.neighbors = neighbors;
+	}
+
+}
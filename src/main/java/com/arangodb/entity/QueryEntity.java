@@ -1,6 +1,7 @@
 package com.arangodb.entity;
 
 import java.util.Date;
+import java.util.Map;
 
 public class QueryEntity {
 
@@ -14,6 +15,11 @@ public class QueryEntity {
 	 */
 	private String query;
 
+	/**
+	 * the bind parameters of the query
+	 */
+	private Map<String, Object> bindVars;
+
 	/**
 	 * the date and time when the query was started
 	 */
@@ -62,6 +68,25 @@ public class QueryEntity {
 		this.query = query;
 	}
 
+	/**
+	 * Returns the bind parameters of the query
+	 * 
+	 * @return the bind parameters, null if the server does not report them
+	 */
+	public Map<String, Object> getBindVars() {
+		return bindVars;
+	}
+
+	/**
+	 * Sets the bind parameters of the query
+	 * 
+	 * @param bindVars
+	 *            the bind parameters
+	 */
+	public void setBindVars(Map<String, Object> bindVars) {
+		this.bindVars = bindVars;
+	}
+
 	/**
 	 * Returns the date and time when the query was started
 	 * 
@@ -0,0 +1,386 @@
+package com.arangodb.http;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.arangodb.ArangoException;
+import com.arangodb.ArangoTimeoutException;
+import com.arangodb.util.RequestOptions.Priority;
+
+/**
+ * Admits the requests before they lease a connection: every request waits
+ * for a token of the rate limits (token buckets) and a place in the
+ * concurrency limits of its database, endpoint class and tag, and for a place
+ * among the connections of the pool. Waiting requests are admitted by
+ * priority, then in arrival order, so interactive requests overtake the
+ * queued bulk requests.
+ */
+class AdmissionControl {
+
+	private static final String DATABASE_PREFIX = "/_db/";
+	private static final String API_PREFIX = "/_api/";
+	private static final String DEFAULT_DATABASE = "_system";
+
+	private static final Map<String, String> ENDPOINTS = new HashMap<String, String>();
+
+	static {
+		ENDPOINTS.put("document", "document");
+		ENDPOINTS.put("edge", "document");
+		ENDPOINTS.put("cursor", "cursor");
+		ENDPOINTS.put("export", "cursor");
+		ENDPOINTS.put("simple", "cursor");
+		ENDPOINTS.put("import", "import");
+		ENDPOINTS.put("gharial", "graph");
+		ENDPOINTS.put("traversal", "graph");
+		ENDPOINTS.put("edges", "graph");
+	}
+
+	private final Map<String, Limit> limits = new HashMap<String, Limit>();
+	private final Limit pool;
+	private final long maxWait;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition changed = lock.newCondition();
+
+	/**
+	 * the waiting requests in the order of admission
+	 */
+	private final List<Waiter> waiters = new ArrayList<Waiter>();
+	private long sequence;
+
+	private final long[] admitted = new long[Priority.values().length];
+	private final long[] queueTime = new long[Priority.values().length];
+	private long delayed;
+	private long rejected;
+	private long maxQueueTime;
+
+	/**
+	 * @param requestLimits
+	 *            the limits
+	 * @param poolSize
+	 *            the number of connections, 0 for no limit
+	 * @param maxWait
+	 *            maximum time in milliseconds to wait for admission, 0 to
+	 *            wait without limit
+	 */
+	AdmissionControl(final Collection<RequestLimit> requestLimits, final int poolSize, final long maxWait) {
+		for (final RequestLimit requestLimit : requestLimits) {
+			limits.put(requestLimit.getKey(), new Limit(requestLimit.getRate(), requestLimit.getBurst(),
+					requestLimit.getMaxConcurrent()));
+		}
+		this.pool = new Limit(0.0, 1, Math.max(0, poolSize));
+		this.maxWait = maxWait;
+	}
+
+	/**
+	 * Waits until the request is admitted
+	 *
+	 * @param requestEntity
+	 *            the request
+	 * @return the admission, to be released after the response is read
+	 * @throws ArangoException
+	 *             if the request was not admitted in time
+	 */
+	Admission acquire(final HttpRequestEntity requestEntity) throws ArangoException {
+		final Priority priority = requestEntity.priority != null ? requestEntity.priority : Priority.NORMAL;
+		final Waiter waiter = new Waiter(getLimits(requestEntity), priority);
+		final long start = System.nanoTime();
+		lock.lock();
+		try {
+			waiter.sequence = sequence++;
+			if (waiters.isEmpty() && waiter.getWait(start) == 0L) {
+				return admit(waiter, start);
+			}
+			await(waiter, start, requestEntity);
+			return admit(waiter, start);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void await(final Waiter waiter, final long start, final HttpRequestEntity requestEntity)
+			throws ArangoException {
+		int index = 0;
+		while (index < waiters.size() && waiters.get(index).compareTo(waiter) < 0) {
+			index++;
+		}
+		waiters.add(index, waiter);
+		boolean waited = false;
+
+		final long end = maxWait > 0 ? start + TimeUnit.MILLISECONDS.toNanos(maxWait) : 0L;
+		final long deadline = requestEntity.deadline > 0
+				? start + TimeUnit.MILLISECONDS.toNanos(requestEntity.deadline - System.currentTimeMillis()) : 0L;
+		try {
+			while (true) {
+				final long now = System.nanoTime();
+				final long wait = waiter.getWait(now);
+				if (wait == 0L && !isOvertaken(waiter, now)) {
+					waiters.remove(waiter);
+					return;
+				}
+				if (deadline != 0L && now - deadline >= 0) {
+					throw new ArangoTimeoutException("deadline expired while waiting for the admission of "
+							+ requestEntity.type + " " + requestEntity.url);
+				}
+				if (end != 0L && now - end >= 0) {
+					throw new ArangoException("timeout while waiting for the admission of " + requestEntity.type
+							+ " " + requestEntity.url);
+				}
+				long timeout = wait > 0 ? wait : Long.MAX_VALUE;
+				if (deadline != 0L) {
+					timeout = Math.min(timeout, deadline - now);
+				}
+				if (end != 0L) {
+					timeout = Math.min(timeout, end - now);
+				}
+				if (!waited) {
+					delayed++;
+					waited = true;
+				}
+				if (timeout == Long.MAX_VALUE) {
+					changed.await();
+				} else {
+					changed.awaitNanos(timeout);
+				}
+			}
+		} catch (final InterruptedException e) {
+			reject(waiter);
+			Thread.currentThread().interrupt();
+			throw new ArangoException(e);
+		} catch (final ArangoException e) {
+			reject(waiter);
+			throw e;
+		}
+	}
+
+	/**
+	 * @return true, if a request before the waiter can be admitted now
+	 */
+	private boolean isOvertaken(final Waiter waiter, final long now) {
+		for (final Waiter other : waiters) {
+			if (other == waiter) {
+				return false;
+			}
+			if (other.getWait(now) == 0L) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private Admission admit(final Waiter waiter, final long start) {
+		for (final Limit limit : waiter.limits) {
+			limit.take();
+		}
+		final long time = System.nanoTime() - start;
+		admitted[waiter.priority.ordinal()]++;
+		queueTime[waiter.priority.ordinal()] += time;
+		maxQueueTime = Math.max(maxQueueTime, time);
+		if (!waiters.isEmpty()) {
+			// the next waiter may be admitted as well
+			changed.signalAll();
+		}
+		return new Admission(waiter.limits);
+	}
+
+	private void reject(final Waiter waiter) {
+		waiters.remove(waiter);
+		rejected++;
+		changed.signalAll();
+	}
+
+	private void release(final Limit[] admissionLimits) {
+		lock.lock();
+		try {
+			for (final Limit limit : admissionLimits) {
+				limit.release();
+			}
+			changed.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private Limit[] getLimits(final HttpRequestEntity requestEntity) {
+		final List<Limit> result = new ArrayList<Limit>(4);
+		addLimit(result, RequestLimit.DATABASE + getDatabase(requestEntity.url));
+		addLimit(result, RequestLimit.ENDPOINT + getEndpointClass(requestEntity.url));
+		if (requestEntity.tag != null) {
+			addLimit(result, RequestLimit.TAG + requestEntity.tag);
+		}
+		result.add(pool);
+		return result.toArray(new Limit[result.size()]);
+	}
+
+	private void addLimit(final List<Limit> result, final String key) {
+		final Limit limit = limits.get(key);
+		if (limit != null) {
+			result.add(limit);
+		}
+	}
+
+	/**
+	 * @return the database of the url
+	 */
+	static String getDatabase(final String url) {
+		if (!url.startsWith(DATABASE_PREFIX)) {
+			return DEFAULT_DATABASE;
+		}
+		final int end = url.indexOf('/', DATABASE_PREFIX.length());
+		return end < 0 ? url.substring(DATABASE_PREFIX.length()) : url.substring(DATABASE_PREFIX.length(), end);
+	}
+
+	/**
+	 * @return the endpoint class of the url: document, cursor, import, graph
+	 *         or other
+	 */
+	static String getEndpointClass(final String url) {
+		int start = 0;
+		if (url.startsWith(DATABASE_PREFIX)) {
+			start = url.indexOf('/', DATABASE_PREFIX.length());
+			if (start < 0) {
+				return "other";
+			}
+		}
+		if (!url.startsWith(API_PREFIX, start)) {
+			return "other";
+		}
+		start += API_PREFIX.length();
+		int end = start;
+		while (end < url.length() && url.charAt(end) != '/' && url.charAt(end) != '?') {
+			end++;
+		}
+		final String endpoint = ENDPOINTS.get(url.substring(start, end));
+		return endpoint != null ? endpoint : "other";
+	}
+
+	AdmissionStatistics getStatistics() {
+		lock.lock();
+		try {
+			return new AdmissionStatistics(admitted.clone(), queueTime.clone(), delayed, rejected, waiters.size(),
+					maxQueueTime);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * The place of an admitted request in its limits
+	 */
+	class Admission {
+
+		private Limit[] admissionLimits;
+
+		Admission(final Limit[] admissionLimits) {
+			this.admissionLimits = admissionLimits;
+		}
+
+		/**
+		 * Releases the place of the request, the following calls have no
+		 * effect
+		 */
+		void release() {
+			if (admissionLimits != null) {
+				AdmissionControl.this.release(admissionLimits);
+				admissionLimits = null;
+			}
+		}
+
+	}
+
+	/**
+	 * A request waiting for admission
+	 */
+	private static class Waiter implements Comparable<Waiter> {
+
+		private final Limit[] limits;
+		private final Priority priority;
+		private long sequence;
+
+		Waiter(final Limit[] limits, final Priority priority) {
+			this.limits = limits;
+			this.priority = priority;
+		}
+
+		/**
+		 * @return 0, if the request can be admitted now, otherwise the time in
+		 *         nanoseconds until the next token or -1 to wait for a release
+		 */
+		long getWait(final long now) {
+			long wait = 0L;
+			for (final Limit limit : limits) {
+				final long limitWait = limit.getWait(now);
+				if (limitWait < 0) {
+					return -1L;
+				}
+				wait = Math.max(wait, limitWait);
+			}
+			return wait;
+		}
+
+		@Override
+		public int compareTo(final Waiter other) {
+			if (priority != other.priority) {
+				return priority.compareTo(other.priority);
+			}
+			return sequence < other.sequence ? -1 : (sequence == other.sequence ? 0 : 1);
+		}
+
+	}
+
+	/**
+	 * A token bucket and a counter of the running requests, guarded by the
+	 * lock of the admission control
+	 */
+	private static class Limit {
+
+		private final double rate;
+		private final double burst;
+		private final int maxConcurrent;
+
+		private double tokens;
+		private long refilled = System.nanoTime();
+		private int running;
+
+		Limit(final double rate, final int burst, final int maxConcurrent) {
+			this.rate = rate;
+			this.burst = burst;
+			this.maxConcurrent = maxConcurrent;
+			this.tokens = burst;
+		}
+
+		long getWait(final long now) {
+			if (maxConcurrent > 0 && running >= maxConcurrent) {
+				return -1L;
+			}
+			if (rate <= 0.0) {
+				return 0L;
+			}
+			tokens = Math.min(burst, tokens + (now - refilled) * rate / TimeUnit.SECONDS.toNanos(1));
+			refilled = now;
+			if (tokens >= 1.0) {
+				return 0L;
+			}
+			return Math.max(1L, (long) Math.ceil((1.0 - tokens) / rate * TimeUnit.SECONDS.toNanos(1)));
+		}
+
+		void take() {
+			if (rate > 0.0) {
+				tokens -= 1.0;
+			}
+			running++;
+		}
+
+		void release() {
+			running--;
+		}
+
+	}
+
+}
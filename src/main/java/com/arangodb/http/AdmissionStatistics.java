@@ -0,0 +1,108 @@
+package com.arangodb.http;
+
+import java.util.concurrent.TimeUnit;
+
+import com.arangodb.util.RequestOptions.Priority;
+
+/**
+ * Counters of the client side admission control: the admitted requests and
+ * their time in the queue by priority, the requests that had to wait and the
+ * requests that were not admitted in time.
+ */
+public class AdmissionStatistics {
+
+	private final long[] admitted;
+	private final long[] queueTime;
+	private final long delayed;
+	private final long rejected;
+	private final int waiting;
+	private final long maxQueueTime;
+
+	AdmissionStatistics(final long[] admitted, final long[] queueTime, final long delayed, final long rejected,
+		final int waiting, final long maxQueueTime) {
+		this.admitted = admitted;
+		this.queueTime = queueTime;
+		this.delayed = delayed;
+		this.rejected = rejected;
+		this.waiting = waiting;
+		this.maxQueueTime = maxQueueTime;
+	}
+
+	/**
+	 * @return the number of admitted requests
+	 */
+	public long getAdmitted() {
+		long sum = 0;
+		for (final long count : admitted) {
+			sum += count;
+		}
+		return sum;
+	}
+
+	/**
+	 * @param priority
+	 *            the priority of the requests
+	 * @return the number of admitted requests with the priority
+	 */
+	public long getAdmitted(final Priority priority) {
+		return admitted[priority.ordinal()];
+	}
+
+	/**
+	 * @return the number of admitted requests, which had to wait
+	 */
+	public long getDelayed() {
+		return delayed;
+	}
+
+	/**
+	 * @return the number of requests, which were not admitted in time
+	 */
+	public long getRejected() {
+		return rejected;
+	}
+
+	/**
+	 * @return the number of requests currently waiting
+	 */
+	public int getWaiting() {
+		return waiting;
+	}
+
+	/**
+	 * @return the total time in milliseconds the admitted requests waited
+	 */
+	public long getQueueTime() {
+		long sum = 0;
+		for (final long time : queueTime) {
+			sum += time;
+		}
+		return TimeUnit.NANOSECONDS.toMillis(sum);
+	}
+
+	/**
+	 * @param priority
+	 *            the priority of the requests
+	 * @return the average time in milliseconds the admitted requests with the
+	 *         priority waited
+	 */
+	public double getAverageQueueTime(final Priority priority) {
+		final long count = admitted[priority.ordinal()];
+		return count > 0 ? queueTime[priority.ordinal()] / 1000000.0 / count : 0.0;
+	}
+
+	/**
+	 * @return the longest time in milliseconds a request waited
+	 */
+	public long getMaxQueueTime() {
+		return TimeUnit.NANOSECONDS.toMillis(maxQueueTime);
+	}
+
+	@Override
+	public String toString() {
+		return "AdmissionStatistics [admitted=" + getAdmitted() + ", delayed=" + delayed + ", rejected=" + rejected
+				+ ", waiting=" + waiting + ", queueTime=" + getQueueTime() + ", maxQueueTime=" + getMaxQueueTime()
+				+ "]";
+	}
+
+}
@@ -0,0 +1,70 @@
+package com.arangodb.http;
+
+import com.arangodb.ArangoException;
+import com.arangodb.DeferredResult;
+
+/**
+ * A job stored by the server for a call in async mode. The result of the job
+ * is collected in the background, as soon as the handle of the call is set.
+ */
+public class AsyncJob {
+
+	private final String jobId;
+	private final String databasePrefix;
+	private final AsyncJobCollector collector;
+	private volatile DeferredResult<?> deferredResult;
+
+	AsyncJob(final String jobId, final String databasePrefix, final AsyncJobCollector collector) {
+		this.jobId = jobId;
+		this.databasePrefix = databasePrefix;
+		this.collector = collector;
+	}
+
+	public String getJobId() {
+		return jobId;
+	}
+
+	/**
+	 * @return the database part of the url of the call ("/_db/name"), or an
+	 *         empty string
+	 */
+	public String getDatabasePrefix() {
+		return databasePrefix;
+	}
+
+	public DeferredResult<?> getDeferredResult() {
+		return deferredResult;
+	}
+
+	/**
+	 * Sets the handle of the call and starts to collect the result
+	 *
+	 * @param deferredResult
+	 *            the handle
+	 */
+	public void setDeferredResult(final DeferredResult<?> deferredResult) {
+		this.deferredResult = deferredResult;
+		collector.register(this);
+	}
+
+	void complete(final HttpResponseEntity res) {
+		deferredResult.complete(res);
+	}
+
+	void fail(final ArangoException exception) {
+		deferredResult.fail(exception);
+	}
+
+	boolean isDone() {
+		return deferredResult.isDone();
+	}
+
+	/**
+	 * @return true, if the job is kept after its completion, until the
+	 *         handles are reset
+	 */
+	boolean isRetained() {
+		return true;
+	}
+
+}
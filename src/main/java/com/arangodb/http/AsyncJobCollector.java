@@ -0,0 +1,337 @@
+package com.arangodb.http;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.http.HttpStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.arangodb.ArangoException;
+import com.arangodb.entity.BatchResponseEntity;
+import com.arangodb.http.HttpRequestEntity.RequestType;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+/**
+ * Collects the results of the jobs of the async mode. A background thread
+ * fetches the results of the pending jobs, several jobs in one /_api/batch
+ * request. Many pending jobs are first looked up in the list of finished jobs
+ * of the server (one request for all jobs of a database). The handles of the
+ * calls are completed with the results.
+ */
+class AsyncJobCollector {
+
+	private static Logger logger = LoggerFactory.getLogger(AsyncJobCollector.class);
+
+	private static final String JOB_URL = "/_api/job/";
+
+	private static final String BATCH_URL = "/_api/batch";
+
+	/**
+	 * maximum number of finished jobs returned by one poll
+	 */
+	private static final int MAX_DONE_JOBS = 1000;
+
+	/**
+	 * maximum number of job results fetched in one batch
+	 */
+	private static final int MAX_BATCH_SIZE = 100;
+
+	private final HttpManager httpManager;
+
+	private final long interval;
+
+	private final Map<String, AsyncJob> jobs = new ConcurrentHashMap<String, AsyncJob>();
+
+	/**
+	 * the jobs, whose results are not collected yet, in the order of their
+	 * registration. Guarded by this.
+	 */
+	private final Map<String, AsyncJob> pending = new LinkedHashMap<String, AsyncJob>();
+
+	private final Thread collector;
+
+	private volatile boolean running = true;
+
+	AsyncJobCollector(final HttpManager httpManager, final int interval) {
+		this.httpManager = httpManager;
+		this.interval = Math.max(1, interval);
+		this.collector = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				collect();
+			}
+		}, "arangodb-asyncjobs");
+		this.collector.setDaemon(true);
+		this.collector.start();
+	}
+
+	/**
+	 * Starts to collect the result of the job
+	 */
+	void register(final AsyncJob job) {
+		if (!running) {
+			job.fail(new ArangoException("the driver has been shut down"));
+			return;
+		}
+		jobs.put(job.getJobId(), job);
+		synchronized (this) {
+			pending.put(job.getJobId(), job);
+			notifyAll();
+		}
+	}
+
+	/**
+	 * @return the job, or null if the job is unknown
+	 */
+	AsyncJob getJob(final String jobId) {
+		return jobs.get(jobId);
+	}
+
+	/**
+	 * Fails the handle of a job, which was deleted on the server
+	 */
+	void cancel(final String jobId) {
+		final AsyncJob job = jobs.get(jobId);
+		if (job != null) {
+			job.fail(new ArangoException("The job " + jobId + " has been deleted."));
+			removePending(job);
+		}
+	}
+
+	/**
+	 * Fails the handles of all jobs, which are not finished
+	 */
+	void cancelAll() {
+		for (final AsyncJob job : removeAllPending()) {
+			job.fail(new ArangoException("The job " + job.getJobId() + " has been deleted."));
+		}
+	}
+
+	/**
+	 * Forgets the finished jobs
+	 */
+	void removeDone() {
+		for (final Iterator<AsyncJob> iterator = jobs.values().iterator(); iterator.hasNext();) {
+			if (iterator.next().isDone()) {
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * Stops the collector thread, the handles of unfinished jobs fail
+	 */
+	void shutdown() {
+		running = false;
+		collector.interrupt();
+		for (final AsyncJob job : removeAllPending()) {
+			job.fail(new ArangoException("the driver has been shut down"));
+		}
+	}
+
+	private void complete(final AsyncJob job, final HttpResponseEntity res) {
+		job.complete(res);
+		removePending(job);
+		if (!job.isRetained()) {
+			jobs.remove(job.getJobId());
+		}
+	}
+
+	private synchronized void removePending(final AsyncJob job) {
+		pending.remove(job.getJobId());
+	}
+
+	private synchronized List<AsyncJob> removeAllPending() {
+		final List<AsyncJob> removed = new ArrayList<AsyncJob>(pending.values());
+		pending.clear();
+		return removed;
+	}
+
+	private void collect() {
+		while (running) {
+			try {
+				synchronized (this) {
+					while (running && pending.isEmpty()) {
+						wait();
+					}
+				}
+				collectFinishedJobs();
+				Thread.sleep(interval);
+			} catch (final InterruptedException e) {
+				break;
+			} catch (final RuntimeException e) {
+				logger.error(e.getMessage(), e);
+			}
+		}
+	}
+
+	/**
+	 * @return the pending jobs per database, in the order of their
+	 *         registration
+	 */
+	private synchronized Map<String, List<AsyncJob>> getPendingJobs() {
+		final Map<String, List<AsyncJob>> databases = new LinkedHashMap<String, List<AsyncJob>>();
+		for (final AsyncJob job : pending.values()) {
+			List<AsyncJob> list = databases.get(job.getDatabasePrefix());
+			if (list == null) {
+				list = new ArrayList<AsyncJob>();
+				databases.put(job.getDatabasePrefix(), list);
+			}
+			list.add(job);
+		}
+		return databases;
+	}
+
+	private void collectFinishedJobs() {
+		for (final Map.Entry<String, List<AsyncJob>> database : getPendingJobs().entrySet()) {
+			try {
+				final List<AsyncJob> candidates = getCandidates(database.getKey(), database.getValue());
+				for (int i = 0; i < candidates.size(); i += MAX_BATCH_SIZE) {
+					fetch(database.getKey(), candidates.subList(i, Math.min(candidates.size(), i + MAX_BATCH_SIZE)));
+				}
+			} catch (final ArangoException e) {
+				// try again with the next poll
+				logger.warn("could not collect the async jobs: {}", e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Returns the jobs, whose results are fetched by this poll. A few pending
+	 * jobs are fetched by their ids, a pending job is answered with 204 and
+	 * stays pending. Otherwise the finished jobs are looked up in the list of
+	 * the server. The list contains the jobs of all clients, if it is full
+	 * the oldest pending jobs are fetched by their ids, too.
+	 */
+	private List<AsyncJob> getCandidates(final String databasePrefix, final List<AsyncJob> pendingJobs)
+			throws ArangoException {
+		if (pendingJobs.size() <= MAX_BATCH_SIZE) {
+			return pendingJobs;
+		}
+		final Map<String, AsyncJob> jobsById = new HashMap<String, AsyncJob>();
+		for (final AsyncJob job : pendingJobs) {
+			jobsById.put(job.getJobId(), job);
+		}
+		final Set<AsyncJob> candidates = new LinkedHashSet<AsyncJob>();
+		final List<String> finishedJobIds = getFinishedJobIds(databasePrefix);
+		for (final String jobId : finishedJobIds) {
+			final AsyncJob job = jobsById.get(jobId);
+			if (job != null) {
+				candidates.add(job);
+			}
+		}
+		if (finishedJobIds.size() >= MAX_DONE_JOBS) {
+			candidates.addAll(pendingJobs.subList(0, MAX_BATCH_SIZE));
+		}
+		return new ArrayList<AsyncJob>(candidates);
+	}
+
+	private List<String> getFinishedJobIds(final String databasePrefix) throws ArangoException {
+		final HttpRequestEntity requestEntity = new HttpRequestEntity();
+		requestEntity.type = RequestType.GET;
+		requestEntity.url = databasePrefix + JOB_URL + "done";
+		requestEntity.parameters = new HashMap<String, Object>();
+		requestEntity.parameters.put("count", MAX_DONE_JOBS);
+
+		final HttpResponseEntity res = execute(requestEntity);
+		try {
+			final List<String> jobIds = new ArrayList<String>();
+			final JsonElement json = new JsonParser().parse(res.getText());
+			if (json.isJsonArray()) {
+				final JsonArray array = json.getAsJsonArray();
+				for (final JsonElement jobId : array) {
+					jobIds.add(jobId.getAsString());
+				}
+			}
+			return jobIds;
+		} catch (final JsonParseException e) {
+			throw new ArangoException(e);
+		} finally {
+			res.release();
+		}
+	}
+
+	private void fetch(final String databasePrefix, final List<AsyncJob> finished) throws ArangoException {
+		if (finished.size() == 1) {
+			final AsyncJob job = finished.get(0);
+			final HttpRequestEntity requestEntity = new HttpRequestEntity();
+			requestEntity.type = RequestType.PUT;
+			requestEntity.url = databasePrefix + JOB_URL + job.getJobId();
+			final HttpResponseEntity res = httpManager.executeInternalRequest(requestEntity);
+			if (res != null) {
+				completeFinished(job, res);
+			}
+			return;
+		}
+
+		final List<BatchPart> parts = new ArrayList<BatchPart>(finished.size());
+		final Map<String, AsyncJob> jobsById = new HashMap<String, AsyncJob>();
+		for (final AsyncJob job : finished) {
+			final BatchPart part = new BatchPart("PUT", databasePrefix + JOB_URL + job.getJobId(), null, null,
+					parts.size() + 1);
+			parts.add(part);
+			jobsById.put(part.getId(), job);
+		}
+
+		final HttpRequestEntity batchRequest = new HttpRequestEntity();
+		batchRequest.type = RequestType.POST;
+		batchRequest.url = databasePrefix + BATCH_URL;
+		batchRequest.headers = new HashMap<String, Object>();
+		batchRequest.headers.put("Content-Type", BatchCodec.CONTENT_TYPE);
+		batchRequest.bodyText = BatchCodec.encode(parts, httpManager.getConfiguration().getArangoHost().getHost());
+
+		if (logger.isDebugEnabled()) {
+			logger.debug("[ASYNC] fetching the results of {} jobs in one batch", parts.size());
+		}
+
+		final HttpResponseEntity res = execute(batchRequest);
+		try {
+			for (final BatchResponseEntity part : BatchCodec.decode(res)) {
+				final AsyncJob job = jobsById.get(part.getRequestId());
+				if (job != null) {
+					completeFinished(job, part.getHttpResponseEntity());
+				}
+			}
+		} finally {
+			res.release();
+		}
+	}
+
+	/**
+	 * Completes the job, unless the server reports it as pending
+	 */
+	private void completeFinished(final AsyncJob job, final HttpResponseEntity res) {
+		if (res.getStatusCode() == HttpStatus.SC_NO_CONTENT) {
+			res.release();
+		} else {
+			complete(job, res);
+		}
+	}
+
+	/**
+	 * Executes a request of the collector, which has to succeed
+	 */
+	private HttpResponseEntity execute(final HttpRequestEntity requestEntity) throws ArangoException {
+		final HttpResponseEntity res = httpManager.executeInternalRequest(requestEntity);
+		if (res == null) {
+			throw new ArangoException("no response for " + requestEntity.url);
+		}
+		if (res.getStatusCode() != 200) {
+			res.release();
+			throw new ArangoException("unexpected status " + res.getStatusCode() + " for " + requestEntity.url);
+		}
+		return res;
+	}
+
+}
@@ -0,0 +1,393 @@
+package com.arangodb.http;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.arangodb.ArangoException;
+import com.arangodb.ArangoTimeoutException;
+import com.arangodb.entity.BatchResponseEntity;
+import com.arangodb.http.HttpRequestEntity.RequestType;
+
+/**
+ * Collects small requests of many threads into /_api/batch requests. The
+ * calling threads wait until the response of their part is available.
+ * <p>
+ * A few sender threads take the queued requests. If a sender finds a single
+ * request, it is sent as it is, so the latency does not change under light
+ * load. Requests that arrive while all senders are busy are sent together in
+ * one batch (up to the maximum batch size); when several requests are
+ * waiting, a sender waits up to the batch window for more requests.
+ * <p>
+ * The {@link RetryPolicy} is asked about the response of every part. A part
+ * to retry is queued again after the delay and sent with the next batch.
+ */
+class AutoBatcher {
+
+	private static Logger logger = LoggerFactory.getLogger(AutoBatcher.class);
+
+	private static final String BATCH_URL = "/_api/batch";
+
+	private static final String DATABASE_PREFIX = "/_db/";
+
+	private final BatchHttpManager httpManager;
+
+	private final int maxBatchSize;
+
+	private final long windowNanos;
+
+	private final BlockingQueue<PendingRequest> queue = new LinkedBlockingQueue<PendingRequest>();
+
+	private final Thread[] senders;
+
+	private volatile boolean running = true;
+
+	AutoBatcher(final BatchHttpManager httpManager, final int maxBatchSize, final int window, final int senderCount) {
+		this.httpManager = httpManager;
+		this.maxBatchSize = maxBatchSize;
+		this.windowNanos = TimeUnit.MILLISECONDS.toNanos(window);
+		this.senders = new Thread[Math.max(1, senderCount)];
+		for (int i = 0; i < senders.length; i++) {
+			senders[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					send();
+				}
+			}, "arangodb-autobatch-" + i);
+			senders[i].setDaemon(true);
+			senders[i].start();
+		}
+	}
+
+	/**
+	 * @param requestEntity
+	 *            the request
+	 * @return true, if the request can be sent in a batch
+	 */
+	static boolean isBatchable(final HttpRequestEntity requestEntity) {
+		return requestEntity.entity == null && requestEntity.username == null && requestEntity.url != null
+				&& !requestEntity.url.endsWith(BATCH_URL);
+	}
+
+	/**
+	 * Queues the request and waits for its response
+	 *
+	 * @param requestEntity
+	 *            the request
+	 * @return the response
+	 * @throws ArangoException
+	 */
+	HttpResponseEntity execute(final HttpRequestEntity requestEntity) throws ArangoException {
+		if (!running) {
+			throw new ArangoException("the driver has been shut down");
+		}
+		final long deadline = requestEntity.deadline > 0 ? requestEntity.deadline
+				: httpManager.getConfiguration().getRetryTimeout() > 0
+						? System.currentTimeMillis() + httpManager.getConfiguration().getRetryTimeout() : 0L;
+		final PendingRequest pending = new PendingRequest(requestEntity, deadline);
+		queue.add(pending);
+		return pending.get();
+	}
+
+	/**
+	 * Stops the sender threads, queued requests fail
+	 */
+	void shutdown() {
+		running = false;
+		for (final Thread sender : senders) {
+			sender.interrupt();
+		}
+		PendingRequest pending;
+		while ((pending = queue.poll()) != null) {
+			pending.fail(new ArangoException("the driver has been shut down"));
+		}
+	}
+
+	private void send() {
+		final List<PendingRequest> batch = new ArrayList<PendingRequest>(maxBatchSize);
+		while (running) {
+			try {
+				final PendingRequest first = queue.poll(100, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				queue.drainTo(batch, maxBatchSize - batch.size());
+				if (batch.size() > 1 && windowNanos > 0) {
+					// under load, wait a little for more requests
+					final long deadline = System.nanoTime() + windowNanos;
+					long remaining = windowNanos;
+					while (batch.size() < maxBatchSize && remaining > 0) {
+						final PendingRequest next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+						if (next == null) {
+							break;
+						}
+						batch.add(next);
+						queue.drainTo(batch, maxBatchSize - batch.size());
+						remaining = deadline - System.nanoTime();
+					}
+				}
+				send(batch);
+			} catch (final InterruptedException e) {
+				break;
+			} catch (final RuntimeException e) {
+				logger.error(e.getMessage(), e);
+				for (final PendingRequest pending : batch) {
+					pending.fail(new ArangoException(e));
+				}
+			} finally {
+				batch.clear();
+			}
+		}
+	}
+
+	private void send(final List<PendingRequest> batch) {
+		for (final Iterator<PendingRequest> iterator = batch.iterator(); iterator.hasNext();) {
+			if (iterator.next().cancelled) {
+				iterator.remove();
+			}
+		}
+		if (batch.size() == 1) {
+			sendSingle(batch.get(0));
+			return;
+		}
+
+		// a batch is executed in the database of the batch request
+		final Map<String, List<PendingRequest>> databases = new LinkedHashMap<String, List<PendingRequest>>();
+		for (final PendingRequest pending : batch) {
+			final String prefix = getDatabasePrefix(pending.requestEntity.url);
+			List<PendingRequest> requests = databases.get(prefix);
+			if (requests == null) {
+				requests = new ArrayList<PendingRequest>();
+				databases.put(prefix, requests);
+			}
+			requests.add(pending);
+		}
+		for (final Map.Entry<String, List<PendingRequest>> database : databases.entrySet()) {
+			if (database.getValue().size() == 1) {
+				sendSingle(database.getValue().get(0));
+			} else {
+				sendBatch(database.getKey(), database.getValue());
+			}
+		}
+	}
+
+	private void sendSingle(final PendingRequest pending) {
+		try {
+			pending.complete(httpManager.executeUnbatched(pending.requestEntity));
+		} catch (final ArangoException e) {
+			pending.fail(e);
+		}
+	}
+
+	private void sendBatch(final String databasePrefix, final List<PendingRequest> requests) {
+		final List<BatchPart> parts = new ArrayList<BatchPart>(requests.size());
+		final Map<String, PendingRequest> requestsById = new HashMap<String, PendingRequest>();
+		for (final PendingRequest pending : requests) {
+			final HttpRequestEntity requestEntity = pending.requestEntity;
+			final BatchPart part = new BatchPart(requestEntity.type.toString(),
+					HttpManager.buildUrl("", requestEntity), requestEntity.bodyText, requestEntity.headers,
+					parts.size() + 1);
+			parts.add(part);
+			requestsById.put(part.getId(), pending);
+		}
+
+		final HttpRequestEntity batchRequest = new HttpRequestEntity();
+		batchRequest.type = RequestType.POST;
+		batchRequest.url = databasePrefix + BATCH_URL;
+		batchRequest.headers = new HashMap<String, Object>();
+		batchRequest.headers.put("Content-Type", BatchCodec.CONTENT_TYPE);
+		batchRequest.bodyText = BatchCodec.encode(parts,
+			httpManager.getConfiguration().getArangoHost().getHost());
+
+		if (logger.isDebugEnabled()) {
+			logger.debug("[AUTOBATCH] {} requests in one batch", parts.size());
+		}
+
+		final List<PendingRequest> retries = new ArrayList<PendingRequest>();
+		long retryDelay = 0L;
+		HttpResponseEntity res = null;
+		try {
+			res = httpManager.executeUnbatched(batchRequest);
+			if (res == null) {
+				throw new ArangoException("no response for the batch request");
+			}
+			if (res.getStatusCode() != 200) {
+				// the whole batch failed, every caller gets the error
+				for (final PendingRequest pending : requests) {
+					pending.complete(copy(res));
+				}
+				return;
+			}
+			for (final BatchResponseEntity part : BatchCodec.decode(res)) {
+				final PendingRequest pending = requestsById.remove(part.getRequestId());
+				if (pending == null) {
+					continue;
+				}
+				final long delay = getRetryDelay(pending, part.getHttpResponseEntity());
+				if (delay < 0) {
+					pending.complete(part.getHttpResponseEntity());
+				} else {
+					part.getHttpResponseEntity().release();
+					retries.add(pending);
+					retryDelay = Math.max(retryDelay, delay);
+				}
+			}
+			for (final PendingRequest pending : requestsById.values()) {
+				pending.fail(new ArangoException("no response for the request in the batch"));
+			}
+		} catch (final ArangoException e) {
+			for (final PendingRequest pending : requests) {
+				pending.fail(e);
+			}
+		} finally {
+			if (res != null) {
+				res.release();
+			}
+		}
+		retry(retries, retryDelay);
+	}
+
+	/**
+	 * Asks the retry policy about the response of a part
+	 *
+	 * @return the time in milliseconds to wait before the part is queued
+	 *         again or -1 to not retry the part
+	 */
+	private long getRetryDelay(final PendingRequest pending, final HttpResponseEntity res) {
+		final long delay = httpManager.getRetryPolicy().getRetryDelay(pending.requestEntity, ++pending.retry, res,
+			null);
+		if (delay < 0 || pending.cancelled
+				|| (pending.deadline > 0 && System.currentTimeMillis() + delay >= pending.deadline)) {
+			return -1L;
+		}
+		return delay;
+	}
+
+	/**
+	 * Queues the parts to retry again after the delay
+	 */
+	private void retry(final List<PendingRequest> retries, final long delay) {
+		if (retries.isEmpty()) {
+			return;
+		}
+		logger.warn("[AUTOBATCH] {} requests of the batch are retried in {} ms", retries.size(), delay);
+		if (delay > 0) {
+			try {
+				Thread.sleep(delay);
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				for (final PendingRequest pending : retries) {
+					pending.fail(new ArangoException(e));
+				}
+				return;
+			}
+		}
+		queue.addAll(retries);
+		if (!running) {
+			PendingRequest pending;
+			while ((pending = queue.poll()) != null) {
+				pending.fail(new ArangoException("the driver has been shut down"));
+			}
+		}
+	}
+
+	private static HttpResponseEntity copy(final HttpResponseEntity res) {
+		final HttpResponseEntity copy = new HttpResponseEntity();
+		copy.statusCode = res.statusCode;
+		copy.statusPhrase = res.statusPhrase;
+		copy.contentType = res.contentType;
+		copy.headers = res.getHeaders();
+		copy.text = res.getText();
+		return copy;
+	}
+
+	static String getDatabasePrefix(final String url) {
+		if (!url.startsWith(DATABASE_PREFIX)) {
+			return "";
+		}
+		final int end = url.indexOf('/', DATABASE_PREFIX.length());
+		return end < 0 ? url : url.substring(0, end);
+	}
+
+	private static class PendingRequest {
+
+		private final HttpRequestEntity requestEntity;
+		private final long deadline;
+		private final CountDownLatch done = new CountDownLatch(1);
+		private volatile boolean cancelled;
+		private HttpResponseEntity response;
+		private ArangoException exception;
+		private boolean finished;
+		private int retry;
+
+		PendingRequest(final HttpRequestEntity requestEntity, final long deadline) {
+			this.requestEntity = requestEntity;
+			this.deadline = deadline;
+		}
+
+		/**
+		 * Sets the response, unless the request is already completed or
+		 * failed
+		 */
+		synchronized void complete(final HttpResponseEntity response) {
+			if (finished) {
+				if (response != null) {
+					response.release();
+				}
+				return;
+			}
+			finished = true;
+			this.response = response;
+			done.countDown();
+		}
+
+		/**
+		 * Sets the exception, unless the request is already completed or
+		 * failed
+		 */
+		synchronized void fail(final ArangoException exception) {
+			if (finished) {
+				return;
+			}
+			finished = true;
+			this.exception = exception;
+			done.countDown();
+		}
+
+		/**
+		 * Waits for the response, until the deadline of the request at most
+		 */
+		HttpResponseEntity get() throws ArangoException {
+			try {
+				if (requestEntity.deadline <= 0) {
+					done.await();
+				} else if (!done.await(requestEntity.deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS)) {
+					cancelled = true;
+					throw new ArangoTimeoutException("deadline expired during " + requestEntity.type + " "
+							+ requestEntity.url);
+				}
+			} catch (final InterruptedException e) {
+				cancelled = true;
+				Thread.currentThread().interrupt();
+				throw new ArangoException(e);
+			}
+			if (exception != null) {
+				throw exception;
+			}
+			return response;
+		}
+
+	}
+
+}
@@ -0,0 +1,238 @@
+package com.arangodb.http;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import com.arangodb.entity.BatchResponseEntity;
+import com.arangodb.util.PooledByteArrayOutputStream;
+
+/**
+ * Encodes batch parts into the multipart body of a /_api/batch request and
+ * decodes the multipart response into one {@link BatchResponseEntity} per
+ * part. The bodies of the parts are read by their Content-Length, so
+ * documents that contain header-like text are not misinterpreted.
+ */
+public class BatchCodec {
+
+	public static final String BOUNDARY = "dlmtrMLTPRT";
+
+	public static final String CONTENT_TYPE = "multipart/form-data; boundary=" + BOUNDARY;
+
+	private static final String DELIMITER = "--" + BOUNDARY;
+
+	private static final String NEWLINE = System.getProperty("line.separator");
+
+	private static final byte[] DELIMITER_BYTES = DELIMITER.getBytes(PooledByteArrayOutputStream.UTF_8);
+
+	private BatchCodec() {
+		// only static methods
+	}
+
+	/**
+	 * Creates the body of a batch request
+	 *
+	 * @param parts
+	 *            the batch parts
+	 * @param host
+	 *            the value of the Host header of the parts
+	 * @return the multipart body
+	 */
+	public static String encode(final List<BatchPart> parts, final String host) {
+		final StringBuilder sb = new StringBuilder();
+		for (final BatchPart bp : parts) {
+			sb.append(DELIMITER).append(NEWLINE);
+			sb.append("Content-Type: application/x-arango-batchpart").append(NEWLINE);
+			sb.append("Content-Id: ").append(bp.getId()).append(NEWLINE).append(NEWLINE);
+			sb.append(bp.getMethod()).append(' ').append(bp.getUrl()).append(" HTTP/1.1").append(NEWLINE);
+			sb.append("Host: ").append(host).append(NEWLINE);
+			if (bp.getHeaders() != null) {
+				for (final Entry<String, Object> header : bp.getHeaders().entrySet()) {
+					sb.append(header.getKey()).append(": ").append(header.getValue()).append(NEWLINE);
+				}
+			}
+			sb.append(NEWLINE);
+			if (bp.getBody() != null) {
+				sb.append(bp.getBody()).append(NEWLINE).append(NEWLINE);
+			}
+		}
+		sb.append(DELIMITER).append("--");
+		return sb.toString();
+	}
+
+	/**
+	 * Splits the response of a batch request into the responses of the parts
+	 *
+	 * @param res
+	 *            the response of the batch request
+	 * @return the responses of the parts in the order of the response
+	 */
+	public static List<BatchResponseEntity> decode(final HttpResponseEntity res) {
+		final byte[] data;
+		final int length;
+		if (res.body != null) {
+			data = res.body.getBuffer();
+			length = res.body.size();
+		} else if (res.getText() != null) {
+			data = res.getText().getBytes(PooledByteArrayOutputStream.UTF_8);
+			length = data.length;
+		} else {
+			return new ArrayList<BatchResponseEntity>();
+		}
+		return new Decoder(data, length).decode();
+	}
+
+	private static class Decoder {
+
+		private final byte[] data;
+		private final int length;
+		private int pos;
+
+		Decoder(final byte[] data, final int length) {
+			this.data = data;
+			this.length = length;
+		}
+
+		List<BatchResponseEntity> decode() {
+			final List<BatchResponseEntity> result = new ArrayList<BatchResponseEntity>();
+			pos = indexOf(DELIMITER_BYTES, 0);
+			while (pos >= 0) {
+				pos += DELIMITER_BYTES.length;
+				if (startsWith("--") || readLine() == null) {
+					break;
+				}
+
+				// part headers
+				String contentId = null;
+				String line;
+				while ((line = readLine()) != null && line.length() > 0) {
+					if (line.regionMatches(true, 0, "Content-Id:", 0, 11)) {
+						contentId = line.substring(11).trim();
+					}
+				}
+
+				final BatchResponseEntity entity = new BatchResponseEntity();
+				entity.setRequestId(contentId);
+				readResponse(entity.getHttpResponseEntity());
+				result.add(entity);
+
+				pos = pos < 0 ? -1 : indexOf(DELIMITER_BYTES, pos);
+			}
+			return result;
+		}
+
+		private void readResponse(final HttpResponseEntity response) {
+			final String statusLine = readLine();
+			if (statusLine == null) {
+				return;
+			}
+			final String[] status = statusLine.split(" ", 3);
+			if (status.length > 1) {
+				response.setStatusCode(Integer.parseInt(status[1]));
+			}
+			if (status.length > 2) {
+				response.setStatusPhrase(status[2]);
+			}
+
+			final Map<String, String> headers = new TreeMap<String, String>();
+			int contentLength = -1;
+			String line;
+			while ((line = readLine()) != null && line.length() > 0) {
+				final int colon = line.indexOf(':');
+				if (colon <= 0) {
+					continue;
+				}
+				final String name = line.substring(0, colon).trim();
+				final String value = line.substring(colon + 1).trim();
+				headers.put(name, value);
+				if ("Content-Type".equalsIgnoreCase(name)) {
+					response.setContentType(value);
+				} else if ("Content-Length".equalsIgnoreCase(name)) {
+					contentLength = Integer.parseInt(value);
+				} else if ("Etag".equalsIgnoreCase(name)) {
+					try {
+						response.setEtag(Long.parseLong(value.replace("\"", "")));
+					} catch (final NumberFormatException e) {
+						// not a numeric revision
+					}
+				}
+			}
+			response.setHeaders(headers);
+
+			if (pos < 0) {
+				return;
+			}
+			int end;
+			if (contentLength >= 0) {
+				end = Math.min(pos + contentLength, length);
+			} else {
+				// no Content-Length, the body ends before the next delimiter
+				end = indexOf(DELIMITER_BYTES, pos);
+				if (end < 0) {
+					end = length;
+				}
+				while (end > pos && (data[end - 1] == '\n' || data[end - 1] == '\r')) {
+					end--;
+				}
+			}
+			if (response.isDumpResponse()) {
+				final byte[] body = new byte[end - pos];
+				System.arraycopy(data, pos, body, 0, body.length);
+				response.setStream(new ByteArrayInputStream(body));
+			} else {
+				response.setText(new String(data, pos, end - pos, PooledByteArrayOutputStream.UTF_8));
+			}
+			pos = end;
+		}
+
+		private boolean startsWith(final String text) {
+			if (pos + text.length() > length) {
+				return false;
+			}
+			for (int i = 0; i < text.length(); i++) {
+				if (data[pos + i] != text.charAt(i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * @return the next line without the line break, or null at the end
+		 */
+		private String readLine() {
+			if (pos < 0 || pos >= length) {
+				pos = -1;
+				return null;
+			}
+			int end = pos;
+			while (end < length && data[end] != '\n') {
+				end++;
+			}
+			int lineEnd = end;
+			if (lineEnd > pos && data[lineEnd - 1] == '\r') {
+				lineEnd--;
+			}
+			final String line = new String(data, pos, lineEnd - pos, PooledByteArrayOutputStream.UTF_8);
+			pos = end < length ? end + 1 : length;
+			return line;
+		}
+
+		private int indexOf(final byte[] pattern, final int from) {
+			outer: for (int i = from; i <= length - pattern.length; i++) {
+				for (int j = 0; j < pattern.length; j++) {
+					if (data[i + j] != pattern[j]) {
+						continue outer;
+					}
+				}
+				return i;
+			}
+			return -1;
+		}
+
+	}
+
+}
@@ -13,25 +13,57 @@ public class BatchHttpManager extends HttpManager {
 
 	private List<BatchPart> callStack = new ArrayList<BatchPart>();
 
-	private InvocationObject currentObject;
-
 	private boolean batchModeActive = false;
 
+	/**
+	 * collects concurrent requests into batch requests (null if disabled)
+	 */
+	private AutoBatcher autoBatcher;
+
 	public BatchHttpManager(ArangoConfigure configure) {
 		super(configure);
 	}
 
+	@Override
+	public void init() {
+		super.init();
+		if (autoBatcher != null) {
+			autoBatcher.shutdown();
+			autoBatcher = null;
+		}
+		ArangoConfigure configure = getConfiguration();
+		if (configure.getAutoBatchSize() > 1) {
+			autoBatcher = new AutoBatcher(this, configure.getAutoBatchSize(), configure.getAutoBatchWindow(),
+					configure.getMaxPerConnection());
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if (autoBatcher != null) {
+			autoBatcher.shutdown();
+		}
+		super.destroy();
+	}
+
 	@Override
 	public HttpResponseEntity execute(HttpRequestEntity requestEntity) throws ArangoException {
 		if (!this.isBatchModeActive()) {
+			if (autoBatcher != null && this.getHttpMode() == HttpMode.SYNC && AutoBatcher.isBatchable(requestEntity)) {
+				// a sender thread executes the request, the options of the
+				// calling thread are applied here
+				applyOptions(requestEntity);
+				return autoBatcher.execute(requestEntity);
+			}
 			return super.execute(requestEntity);
 		}
 
 		int id = callStack.size() + 1;
-		callStack.add(new BatchPart(requestEntity.type.toString(), buildUrl("", requestEntity), requestEntity.bodyText,
-				requestEntity.headers, this.getCurrentObject(), id));
-		this.setCurrentObject(null);
+		BatchPart batchPart = new BatchPart(requestEntity.type.toString(), buildUrl("", requestEntity),
+				requestEntity.bodyText, requestEntity.headers, id);
+		callStack.add(batchPart);
 		HttpResponseEntity responseEntity = new HttpResponseEntity();
+		responseEntity.batchPart = batchPart;
 
 		// http status
 		responseEntity.statusCode = 206;
@@ -40,18 +72,15 @@ public class BatchHttpManager extends HttpManager {
 		return responseEntity;
 	}
 
-	public List<BatchPart> getCallStack() {
-		return callStack;
+	/**
+	 * Executes the request without auto-batching
+	 */
+	HttpResponseEntity executeUnbatched(HttpRequestEntity requestEntity) throws ArangoException {
+		return super.execute(requestEntity);
 	}
 
-	@Override
-	public InvocationObject getCurrentObject() {
-		return currentObject;
-	}
-
-	@Override
-	public void setCurrentObject(InvocationObject currentObject) {
-		this.currentObject = currentObject;
+	public List<BatchPart> getCallStack() {
+		return callStack;
 	}
 
 	public boolean isBatchModeActive() {
@@ -2,6 +2,8 @@ package com.arangodb.http;
 
 import java.util.Map;
 
+import com.arangodb.DeferredResult;
+
 /**
  * Created by fbartels on 10/22/14.
  */
@@ -11,16 +13,14 @@ public class BatchPart {
 	private String url;
 	private String body;
 	private Map<String, Object> headers;
-	private InvocationObject invocationObject;
 	private String id;
+	private DeferredResult<?> deferredResult;
 
-	public BatchPart(String method, String url, String body, Map<String, Object> headers,
-		InvocationObject invocationObject, int id) {
+	public BatchPart(String method, String url, String body, Map<String, Object> headers, int id) {
 		this.method = method;
 		this.url = url;
 		this.body = body;
 		this.headers = headers;
-		this.invocationObject = invocationObject;
 		this.id = "request" + id;
 	}
 
@@ -33,14 +33,6 @@ public class BatchPart {
 		return "BatchPart{" + "method='" + method + '\'' + ", url='" + url + '\'' + ", body='" + body + '\'' + '}';
 	}
 
-	public InvocationObject getInvocationObject() {
-		return this.invocationObject;
-	}
-
-	public void setInvocationObject(InvocationObject invocationObject) {
-		this.invocationObject = invocationObject;
-	}
-
 	public void setBody(String body) {
 		this.body = body;
 	}
@@ -76,4 +68,16 @@ public class BatchPart {
 	public void setId(String id) {
 		this.id = id;
 	}
+
+	/**
+	 * @return the typed handle of the stacked call (null if the call did not
+	 *         create an entity)
+	 */
+	public DeferredResult<?> getDeferredResult() {
+		return deferredResult;
+	}
+
+	public void setDeferredResult(DeferredResult<?> deferredResult) {
+		this.deferredResult = deferredResult;
+	}
 }
@@ -0,0 +1,237 @@
+package com.arangodb.http;
+
+import java.io.Reader;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketException;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.arangodb.ArangoConfigure;
+import com.arangodb.ErrorNums;
+import com.arangodb.http.HttpRequestEntity.RequestType;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+/**
+ * The default {@link RetryPolicy}: exponential backoff with full jitter
+ * (a random wait between 0 and baseWait * 2^(retry - 1), at most maxWait), so
+ * that the clients of a restarting server do not retry at the same time.
+ * <p>
+ * Retried are
+ * <ul>
+ * <li>failed connects, for every request type (up to connectRetryCount
+ * times)</li>
+ * <li>503 service unavailable and 1004 write-locked, for every request type,
+ * the server did not execute the request (up to retryCount times)</li>
+ * <li>reset connections, 504 gateway timeout and 1457 cluster timeout, only
+ * for idempotent requests, the server may have executed the request (up to
+ * retryCount times)</li>
+ * </ul>
+ * All retries take a token of a retry budget, which gets a fraction of a
+ * token for every successful request. If many requests fail, only this
+ * fraction of the requests is retried. Connect retries without limit
+ * (connectRetryCount 0) do not need a token.
+ */
+public class DefaultRetryPolicy implements RetryPolicy {
+
+	/**
+	 * the budget in thousandths of a token
+	 */
+	private static final int TOKEN = 1000;
+
+	private static final int SERVICE_UNAVAILABLE = 503;
+	private static final int GATEWAY_TIMEOUT = 504;
+
+	private final int connectRetryCount;
+	private final int retryCount;
+	private final long baseWait;
+	private final long maxWait;
+	private final int budgetRatio;
+	private final int maxBudget;
+
+	private final AtomicInteger budget;
+	private final Random random = new Random();
+
+	/**
+	 * @param connectRetryCount
+	 *            maximum number of retries of a failed connect (0 means
+	 *            infinite)
+	 * @param retryCount
+	 *            maximum number of retries of other failures
+	 * @param baseWait
+	 *            maximum wait in milliseconds before the first retry
+	 * @param maxWait
+	 *            maximum wait in milliseconds before a retry
+	 * @param budgetRatio
+	 *            retries per successful request (0 disables the budget)
+	 * @param maxBudget
+	 *            maximum number of saved retries
+	 */
+	public DefaultRetryPolicy(final int connectRetryCount, final int retryCount, final long baseWait,
+		final long maxWait, final double budgetRatio, final int maxBudget) {
+		this.connectRetryCount = connectRetryCount;
+		this.retryCount = retryCount;
+		this.baseWait = Math.max(0L, baseWait);
+		this.maxWait = Math.max(this.baseWait, maxWait);
+		this.budgetRatio = (int) Math.round(budgetRatio * TOKEN);
+		this.maxBudget = maxBudget * TOKEN;
+		this.budget = new AtomicInteger(this.maxBudget);
+	}
+
+	/**
+	 * Creates the policy with connectRetryCount, retryCount, connectRetryWait,
+	 * retryMaxWait and retryBudget of the configuration and a budget of at
+	 * most 10 saved retries
+	 *
+	 * @param configure
+	 *            the configuration
+	 */
+	public DefaultRetryPolicy(final ArangoConfigure configure) {
+		this(configure.getConnectRetryCount(), configure.getRetryCount(), configure.getConnectRetryWait(),
+				configure.getRetryMaxWait(), configure.getRetryBudget(), 10);
+	}
+
+	@Override
+	public long getRetryDelay(
+		final HttpRequestEntity requestEntity,
+		final int retry,
+		final HttpResponseEntity responseEntity,
+		final SocketException exception) {
+
+		final boolean retryable;
+		final int maxRetries;
+		// connect retries can be unlimited (connectRetryCount 0)
+		boolean unlimited = false;
+		if (exception != null) {
+			final boolean connect = isConnectFailure(exception);
+			retryable = connect || isIdempotent(requestEntity);
+			maxRetries = connect ? connectRetryCount : retryCount;
+			unlimited = connect && connectRetryCount <= 0;
+		} else if (responseEntity != null && isRetryable(requestEntity, responseEntity)) {
+			retryable = true;
+			maxRetries = retryCount;
+		} else {
+			if (responseEntity != null && responseEntity.getStatusCode() < 500) {
+				deposit();
+			}
+			return -1L;
+		}
+
+		if (!retryable || (!unlimited && (retry > maxRetries || !withdraw()))) {
+			return -1L;
+		}
+		return getBackoff(retry);
+	}
+
+	/**
+	 * @return a random time between 0 and the exponential backoff of the
+	 *         retry
+	 */
+	long getBackoff(final int retry) {
+		final long backoff = Math.min(maxWait, baseWait << Math.min(retry - 1, 30));
+		return backoff > 0 ? (long) (random.nextDouble() * (backoff + 1)) : 0L;
+	}
+
+	/**
+	 * @return the number of retries currently allowed by the budget
+	 */
+	public int getBudget() {
+		return budgetRatio > 0 ? budget.get() / TOKEN : Integer.MAX_VALUE;
+	}
+
+	/**
+	 * GET and HEAD requests do not change anything and can be sent again
+	 * after a partial failure. PUT requests are not idempotent in general,
+	 * e.g. they read the next batch of a cursor or fetch the result of a job.
+	 *
+	 * @param requestEntity
+	 *            the request
+	 * @return true, if the request can be sent twice
+	 */
+	protected boolean isIdempotent(final HttpRequestEntity requestEntity) {
+		return requestEntity.type == RequestType.GET || requestEntity.type == RequestType.HEAD;
+	}
+
+	/**
+	 * @return true, if nothing was sent to the server
+	 */
+	protected boolean isConnectFailure(final SocketException exception) {
+		return exception instanceof ConnectException || exception instanceof NoRouteToHostException;
+	}
+
+	/**
+	 * Classifies the response of a request
+	 *
+	 * @param requestEntity
+	 *            the request
+	 * @param responseEntity
+	 *            the response
+	 * @return true, if the request should be sent again
+	 */
+	protected boolean isRetryable(final HttpRequestEntity requestEntity, final HttpResponseEntity responseEntity) {
+		final int statusCode = responseEntity.getStatusCode();
+		if (statusCode < 500 && statusCode != ErrorNums.ERROR_HTTP_FORBIDDEN) {
+			return false;
+		}
+		final int errorNumber = getErrorNumber(responseEntity);
+		if (statusCode == SERVICE_UNAVAILABLE || errorNumber == ErrorNums.ERROR_ARANGO_READ_ONLY) {
+			return true;
+		}
+		return (statusCode == GATEWAY_TIMEOUT || errorNumber == ErrorNums.ERROR_CLUSTER_TIMEOUT)
+				&& isIdempotent(requestEntity);
+	}
+
+	private int getErrorNumber(final HttpResponseEntity responseEntity) {
+		if (!responseEntity.isJsonResponse()) {
+			return 0;
+		}
+		final Reader reader = responseEntity.getReader();
+		if (reader == null) {
+			return 0;
+		}
+		try {
+			final JsonElement json = new JsonParser().parse(reader);
+			if (json.isJsonObject()) {
+				final JsonElement errorNum = json.getAsJsonObject().get("errorNum");
+				if (errorNum != null && errorNum.isJsonPrimitive()) {
+					return errorNum.getAsInt();
+				}
+			}
+		} catch (final JsonParseException e) {
+			// no error
+		} catch (final NumberFormatException e) {
+			// no error
+		}
+		return 0;
+	}
+
+	private void deposit() {
+		if (budgetRatio <= 0) {
+			return;
+		}
+		int current;
+		do {
+			current = budget.get();
+			if (current >= maxBudget) {
+				return;
+			}
+		} while (!budget.compareAndSet(current, Math.min(maxBudget, current + budgetRatio)));
+	}
+
+	private boolean withdraw() {
+		if (budgetRatio <= 0) {
+			return true;
+		}
+		int current;
+		do {
+			current = budget.get();
+			if (current < TOKEN) {
+				return false;
+			}
+		} while (!budget.compareAndSet(current, current - TOKEN));
+		return true;
+	}
+
+}
@@ -0,0 +1,54 @@
+package com.arangodb.http;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of direct buffers of the same size. Direct buffers are expensive to
+ * allocate and are only freed by the garbage collector, so they are reused by
+ * the connections of the {@link NioHttpTransport}.
+ */
+class DirectBufferPool {
+
+	private final int bufferSize;
+	private final int maxPooled;
+	private final ConcurrentLinkedQueue<ByteBuffer> buffers = new ConcurrentLinkedQueue<ByteBuffer>();
+	private final AtomicInteger pooled = new AtomicInteger();
+
+	/**
+	 * @param bufferSize
+	 *            size of the buffers
+	 * @param maxPooled
+	 *            maximum number of idle buffers
+	 */
+	DirectBufferPool(final int bufferSize, final int maxPooled) {
+		this.bufferSize = bufferSize;
+		this.maxPooled = maxPooled;
+	}
+
+	/**
+	 * @return a cleared buffer
+	 */
+	ByteBuffer acquire() {
+		final ByteBuffer buffer = buffers.poll();
+		if (buffer == null) {
+			return ByteBuffer.allocateDirect(bufferSize);
+		}
+		pooled.decrementAndGet();
+		buffer.clear();
+		return buffer;
+	}
+
+	/**
+	 * Returns a buffer to the pool
+	 */
+	void release(final ByteBuffer buffer) {
+		if (buffer != null && pooled.incrementAndGet() <= maxPooled) {
+			buffers.offer(buffer);
+		} else if (buffer != null) {
+			pooled.decrementAndGet();
+		}
+	}
+
+}
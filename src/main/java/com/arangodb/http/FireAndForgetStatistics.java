@@ -0,0 +1,69 @@
+package com.arangodb.http;
+
+/**
+ * Counters of the fire-and-forget mode. The number of queued requests is an
+ * estimate: the completion of every n-th request is tracked, the requests
+ * accepted before a finished sample are counted as done.
+ */
+public class FireAndForgetStatistics {
+
+	private final long queued;
+	private final long accepted;
+	private final long rejected;
+	private final long completed;
+	private final long lag;
+
+	FireAndForgetStatistics(final long queued, final long accepted, final long rejected, final long completed,
+		final long lag) {
+		this.queued = queued;
+		this.accepted = accepted;
+		this.rejected = rejected;
+		this.completed = completed;
+		this.lag = lag;
+	}
+
+	/**
+	 * @return the estimated number of accepted requests, which are not
+	 *         executed by the server yet
+	 */
+	public long getQueued() {
+		return queued;
+	}
+
+	/**
+	 * @return the number of requests accepted by the server
+	 */
+	public long getAccepted() {
+		return accepted;
+	}
+
+	/**
+	 * @return the number of requests rejected at the in-flight limit or not
+	 *         accepted by the server
+	 */
+	public long getRejected() {
+		return rejected;
+	}
+
+	/**
+	 * @return the number of accepted requests known to be executed
+	 */
+	public long getCompleted() {
+		return completed;
+	}
+
+	/**
+	 * @return the time in milliseconds between the acceptance and the
+	 *         detected completion of the last sampled request, or -1
+	 */
+	public long getLag() {
+		return lag;
+	}
+
+	@Override
+	public String toString() {
+		return "FireAndForgetStatistics [queued=" + queued + ", accepted=" + accepted + ", rejected=" + rejected
+				+ ", completed=" + completed + ", lag=" + lag + "]";
+	}
+
+}
@@ -0,0 +1,225 @@
+package com.arangodb.http;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.arangodb.ArangoException;
+
+/**
+ * Limits the number of fire-and-forget requests, which are accepted by the
+ * server but not executed yet. Every n-th request is sent with
+ * "x-arango-async: store" and collected like a job of the async mode; when a
+ * sampled job is done, the requests accepted before it are counted as
+ * executed. At the limit, a request waits until a sample is done or it is
+ * rejected.
+ */
+class FireAndForgetWindow {
+
+	private final int maxInFlight;
+	private final int sampleRate;
+	private final boolean shed;
+	private final long maxWait;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition released = lock.newCondition();
+
+	private long requests;
+	private int sending;
+	private long accepted;
+	private long rejected;
+	private long completed;
+	private long lag = -1;
+
+	/**
+	 * @param maxInFlight
+	 *            maximum number of requests in flight, 0 for no limit
+	 * @param sampleRate
+	 *            track every n-th request, 0 to track only as many as needed
+	 *            by the limit
+	 * @param shed
+	 *            reject requests at the limit instead of waiting
+	 * @param maxWait
+	 *            maximum time in milliseconds to wait at the limit, 0 to wait
+	 *            without limit
+	 */
+	FireAndForgetWindow(final int maxInFlight, final int sampleRate, final boolean shed, final long maxWait) {
+		this.maxInFlight = Math.max(0, maxInFlight);
+		this.sampleRate = getSampleRate(this.maxInFlight, sampleRate);
+		this.shed = shed;
+		this.maxWait = maxWait;
+	}
+
+	/**
+	 * With a limit, at least every (limit / 2)-th request is sampled, so there
+	 * is always a sample among the requests in flight
+	 */
+	static int getSampleRate(final int maxInFlight, final int sampleRate) {
+		if (maxInFlight <= 0) {
+			return Math.max(0, sampleRate);
+		}
+		final int max = Math.max(1, maxInFlight / 2);
+		return sampleRate <= 0 || sampleRate > max ? max : sampleRate;
+	}
+
+	/**
+	 * Reserves a place for a request, waits or fails at the limit
+	 *
+	 * @return true, if the completion of the request is tracked
+	 * @throws ArangoException
+	 *             if the request is rejected
+	 */
+	boolean acquire() throws ArangoException {
+		lock.lock();
+		try {
+			if (maxInFlight > 0 && isFull()) {
+				if (shed) {
+					rejected++;
+					throw new ArangoException("the limit of " + maxInFlight + " fire-and-forget requests is reached");
+				}
+				await();
+			}
+			sending++;
+			requests++;
+			return sampleRate > 0 && requests % sampleRate == 0;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void await() throws ArangoException {
+		long remaining = TimeUnit.MILLISECONDS.toNanos(maxWait);
+		try {
+			while (isFull()) {
+				if (maxWait <= 0) {
+					released.await();
+				} else {
+					if (remaining <= 0) {
+						rejected++;
+						throw new ArangoException(
+								"timeout while waiting for a place among " + maxInFlight + " fire-and-forget requests");
+					}
+					remaining = released.awaitNanos(remaining);
+				}
+			}
+		} catch (final InterruptedException e) {
+			rejected++;
+			Thread.currentThread().interrupt();
+			throw new ArangoException(e);
+		}
+	}
+
+	private boolean isFull() {
+		return accepted - completed + sending >= maxInFlight;
+	}
+
+	/**
+	 * The server accepted the request
+	 *
+	 * @return the job to collect, if the request is sampled
+	 */
+	AsyncJob accept(
+		final boolean sample,
+		final String jobId,
+		final String databasePrefix,
+		final AsyncJobCollector collector) {
+		lock.lock();
+		try {
+			sending--;
+			accepted++;
+			if (sample && jobId != null && collector != null) {
+				return new SampleJob(this, jobId, databasePrefix, collector, accepted);
+			}
+			return null;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * The request failed or the server did not accept it
+	 */
+	void reject() {
+		lock.lock();
+		try {
+			sending--;
+			rejected++;
+			released.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void complete(final long position, final long acceptedAt) {
+		lock.lock();
+		try {
+			if (position > completed) {
+				completed = position;
+			}
+			if (acceptedAt > 0) {
+				lag = System.currentTimeMillis() - acceptedAt;
+			}
+			released.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	FireAndForgetStatistics getStatistics() {
+		lock.lock();
+		try {
+			return new FireAndForgetStatistics(accepted - completed, accepted, rejected, completed, lag);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * A sampled request, all requests accepted before it are executed, when
+	 * the job is done
+	 */
+	private static class SampleJob extends AsyncJob {
+
+		private final FireAndForgetWindow window;
+		private final long position;
+		private final long acceptedAt = System.currentTimeMillis();
+		private volatile boolean done;
+
+		SampleJob(final FireAndForgetWindow window, final String jobId, final String databasePrefix,
+			final AsyncJobCollector collector, final long position) {
+			super(jobId, databasePrefix, collector);
+			this.window = window;
+			this.position = position;
+		}
+
+		@Override
+		void complete(final HttpResponseEntity res) {
+			if (!done) {
+				done = true;
+				res.release();
+				window.complete(position, acceptedAt);
+			}
+		}
+
+		@Override
+		void fail(final ArangoException exception) {
+			if (!done) {
+				// unknown, but waiting requests must not block forever
+				done = true;
+				window.complete(position, -1);
+			}
+		}
+
+		@Override
+		boolean isDone() {
+			return done;
+		}
+
+		@Override
+		boolean isRetained() {
+			return false;
+		}
+
+	}
+
+}
@@ -0,0 +1,527 @@
+package com.arangodb.http;
+
+import java.io.Reader;
+import java.net.SocketException;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.http.client.methods.HttpRequestBase;
+
+import com.arangodb.ArangoException;
+import com.arangodb.http.HttpManager.HttpMode;
+import com.arangodb.http.HttpRequestEntity.RequestType;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+/**
+ * Hedged reads: a read, which is not answered within the hedge delay, is
+ * sent a second time to the next host. The first successful response wins,
+ * the other request is aborted (HttpClient) or its response is dropped. A
+ * response with an open cursor only wins on the current host, the following
+ * batches are read from there; open cursors of dropped responses are
+ * deleted.
+ * <p>
+ * The request to the current host is sent by the calling thread, a timer
+ * starts the hedge in a pooled thread when the hedge delay expires. If the
+ * requests can not be aborted, the request to the current host is sent by a
+ * pooled thread as well, so the caller does not wait for it when the hedge
+ * wins.
+ * <p>
+ * The hedge delay is fixed or the 95th percentile of the observed latency of
+ * the reads. Every read adds a fraction of a token to a budget, every hedge
+ * takes a token, so the hedges are at most this fraction of the reads.
+ */
+class HedgedReads {
+
+	/**
+	 * the budget in thousandths of a token
+	 */
+	private static final int TOKEN = 1000;
+
+	private static final int MAX_BUDGET = 10;
+
+	/**
+	 * number of latencies the percentile is computed of
+	 */
+	private static final int SAMPLES = 1000;
+
+	/**
+	 * the percentile is computed every n-th latency
+	 */
+	private static final int UPDATE_INTERVAL = 100;
+
+	private final long delay;
+	private final int budgetRatio;
+	private final AtomicInteger budget = new AtomicInteger();
+	private final boolean abortable;
+
+	private final ExecutorService executor;
+	private final ScheduledExecutorService timer;
+	private final ThreadLocal<Attempt> attempts = new ThreadLocal<Attempt>();
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final long[] latencies = new long[SAMPLES];
+	private int count;
+	private volatile long percentile = -1L;
+
+	/**
+	 * @param delay
+	 *            the hedge delay in milliseconds, 0 for the 95th percentile of
+	 *            the latency
+	 * @param budgetRatio
+	 *            hedges per read
+	 * @param abortable
+	 *            true, if the requests can be aborted (HttpClient)
+	 */
+	HedgedReads(final long delay, final double budgetRatio, final boolean abortable) {
+		this.delay = Math.max(0L, delay);
+		this.budgetRatio = (int) Math.round(budgetRatio * TOKEN);
+		this.abortable = abortable;
+		this.executor = Executors.newCachedThreadPool(new DaemonThreadFactory("arangodb-hedge-"));
+		this.timer = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("arangodb-hedge-timer-"));
+	}
+
+	/**
+	 * Executes a read on the current host and, after the hedge delay, on the
+	 * next host
+	 *
+	 * @param httpManager
+	 *            sends the requests
+	 * @param baseUrl
+	 *            the current host
+	 * @param hedgeUrl
+	 *            the next host
+	 * @param requestEntity
+	 *            the read
+	 * @param mode
+	 *            the mode of the request
+	 * @return the first successful response, otherwise the response of the
+	 *         current host
+	 * @throws ArangoException
+	 * @throws SocketException
+	 *             if the request to the current host failed and the hedge did
+	 *             not succeed
+	 */
+	HttpResponseEntity execute(
+		final HttpManager httpManager,
+		final String baseUrl,
+		final String hedgeUrl,
+		final HttpRequestEntity requestEntity,
+		final HttpMode mode) throws ArangoException, SocketException {
+
+		deposit();
+		final Call call = new Call(httpManager, requestEntity, mode);
+		final AttemptTask primaryTask = new AttemptTask(call, call.primary, baseUrl);
+		if (!abortable) {
+			executor.execute(primaryTask);
+		}
+		final long hedgeDelay = getDelay();
+		final ScheduledFuture<?> hedgeTimer = hedgeDelay < 0 ? null : timer.schedule(new Runnable() {
+			@Override
+			public void run() {
+				if (call.isPending() && withdraw() && call.startHedge()) {
+					executor.execute(new AttemptTask(call, call.hedge, hedgeUrl));
+				}
+			}
+		}, hedgeDelay, TimeUnit.MILLISECONDS);
+		if (abortable) {
+			primaryTask.run();
+		}
+		try {
+			call.await(0L);
+		} catch (final InterruptedException e) {
+			call.abort();
+			Thread.currentThread().interrupt();
+			throw new ArangoException(e);
+		} finally {
+			if (hedgeTimer != null) {
+				hedgeTimer.cancel(false);
+			}
+		}
+		return call.getResult();
+	}
+
+	/**
+	 * @return the hedge delay in milliseconds, -1 while the percentile is
+	 *         not known
+	 */
+	long getDelay() {
+		return delay > 0 ? delay : percentile;
+	}
+
+	/**
+	 * @return the attempt executed by the current thread, or null
+	 */
+	Attempt getAttempt() {
+		return attempts.get();
+	}
+
+	void shutdown() {
+		timer.shutdownNow();
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Adds the latency of a successful read to the samples
+	 */
+	void record(final long nanos) {
+		lock.lock();
+		try {
+			latencies[count % SAMPLES] = nanos;
+			count++;
+			if (count % UPDATE_INTERVAL == 0) {
+				final long[] sorted = Arrays.copyOf(latencies, Math.min(count, SAMPLES));
+				Arrays.sort(sorted);
+				percentile = Math.max(1L, TimeUnit.NANOSECONDS.toMillis(sorted[sorted.length * 95 / 100]));
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void deposit() {
+		int current;
+		do {
+			current = budget.get();
+			if (current >= MAX_BUDGET * TOKEN) {
+				return;
+			}
+		} while (!budget.compareAndSet(current, Math.min(MAX_BUDGET * TOKEN, current + budgetRatio)));
+	}
+
+	private boolean withdraw() {
+		int current;
+		do {
+			current = budget.get();
+			if (current < TOKEN) {
+				return false;
+			}
+		} while (!budget.compareAndSet(current, current - TOKEN));
+		return true;
+	}
+
+	/**
+	 * @return the id of the open cursor created by the request, or null
+	 */
+	static String getCursorId(final HttpRequestEntity requestEntity, final HttpResponseEntity responseEntity) {
+		if (requestEntity.type != RequestType.POST || !responseEntity.isJsonResponse()) {
+			return null;
+		}
+		final Reader reader = responseEntity.getReader();
+		if (reader == null) {
+			return null;
+		}
+		try {
+			final JsonElement json = new JsonParser().parse(reader);
+			if (json.isJsonObject()) {
+				final JsonObject object = json.getAsJsonObject();
+				final JsonElement hasMore = object.get("hasMore");
+				final JsonElement id = object.get("id");
+				if (hasMore != null && hasMore.isJsonPrimitive() && hasMore.getAsBoolean() && id != null
+						&& id.isJsonPrimitive()) {
+					return id.getAsString();
+				}
+			}
+		} catch (final JsonParseException e) {
+			// no cursor
+		}
+		return null;
+	}
+
+	/**
+	 * A request to one host, it can be aborted from another thread
+	 */
+	static class Attempt {
+
+		private final boolean primary;
+		private String baseUrl;
+		private volatile HttpRequestBase request;
+		private volatile boolean aborted;
+
+		private boolean done;
+		private HttpResponseEntity responseEntity;
+		private Exception exception;
+
+		Attempt(final boolean primary) {
+			this.primary = primary;
+		}
+
+		/**
+		 * Registers the request of the HttpClient
+		 */
+		void setRequest(final HttpRequestBase request) {
+			this.request = request;
+			if (aborted) {
+				request.abort();
+			}
+		}
+
+		void abort() {
+			aborted = true;
+			final HttpRequestBase current = request;
+			if (current != null) {
+				current.abort();
+			}
+		}
+
+	}
+
+	/**
+	 * The race of the request to the current host and the hedge
+	 */
+	private class Call {
+
+		private final HttpManager httpManager;
+		private final HttpRequestEntity requestEntity;
+		private final HttpMode mode;
+
+		private final Attempt primary = new Attempt(true);
+		private final Attempt hedge = new Attempt(false);
+		private final ReentrantLock callLock = new ReentrantLock();
+		private final Condition finished = callLock.newCondition();
+		private boolean hedgeStarted;
+		private boolean abandoned;
+		private Attempt winner;
+
+		Call(final HttpManager httpManager, final HttpRequestEntity requestEntity, final HttpMode mode) {
+			this.httpManager = httpManager;
+			this.requestEntity = requestEntity;
+			this.mode = mode;
+		}
+
+		/**
+		 * Waits until a response won or all started requests are done
+		 *
+		 * @param nanos
+		 *            maximum time to wait, 0 to wait without limit
+		 * @return true, if the call is finished
+		 */
+		boolean await(final long nanos) throws InterruptedException {
+			callLock.lock();
+			try {
+				long remaining = nanos;
+				while (!isFinished()) {
+					if (nanos <= 0) {
+						finished.await();
+					} else {
+						if (remaining <= 0) {
+							return false;
+						}
+						remaining = finished.awaitNanos(remaining);
+					}
+				}
+				return true;
+			} finally {
+				callLock.unlock();
+			}
+		}
+
+		private boolean isFinished() {
+			return winner != null || (primary.done && (!hedgeStarted || hedge.done));
+		}
+
+		/**
+		 * @return true, if no response won and the caller waits
+		 */
+		boolean isPending() {
+			callLock.lock();
+			try {
+				return !isFinished() && !abandoned;
+			} finally {
+				callLock.unlock();
+			}
+		}
+
+		boolean startHedge() {
+			callLock.lock();
+			try {
+				if (isFinished()) {
+					return false;
+				}
+				hedgeStarted = true;
+				return true;
+			} finally {
+				callLock.unlock();
+			}
+		}
+
+		/**
+		 * Stores the outcome of an attempt, the first successful response
+		 * wins and aborts the other request
+		 */
+		void finish(final Attempt attempt, final HttpResponseEntity responseEntity, final Exception exception) {
+			Attempt dropped = null;
+			Attempt loser = null;
+			callLock.lock();
+			try {
+				attempt.done = true;
+				attempt.responseEntity = responseEntity;
+				attempt.exception = exception;
+				final Attempt other = attempt == primary ? hedge : primary;
+				if (winner == null && !abandoned && isSuccessful(attempt)) {
+					winner = attempt;
+					if (other.done) {
+						dropped = other;
+					} else {
+						loser = other;
+					}
+				} else if (winner != null || abandoned) {
+					dropped = attempt;
+				}
+				finished.signalAll();
+			} finally {
+				callLock.unlock();
+			}
+			if (loser != null) {
+				loser.abort();
+			}
+			if (dropped != null) {
+				drop(dropped);
+			}
+		}
+
+		private boolean isSuccessful(final Attempt attempt) {
+			final HttpResponseEntity responseEntity = attempt.responseEntity;
+			if (responseEntity == null || responseEntity.getStatusCode() >= 500) {
+				return false;
+			}
+			// the following batches of a cursor are read from the current
+			// host
+			return attempt.primary || getCursorId(requestEntity, responseEntity) == null;
+		}
+
+		/**
+		 * The caller stopped waiting, all responses are dropped
+		 */
+		void abort() {
+			Attempt dropped = null;
+			callLock.lock();
+			try {
+				abandoned = true;
+				if (winner != null) {
+					dropped = winner;
+				}
+			} finally {
+				callLock.unlock();
+			}
+			primary.abort();
+			hedge.abort();
+			if (dropped != null) {
+				drop(dropped);
+			}
+		}
+
+		/**
+		 * @return the winning response, otherwise the outcome of the request
+		 *         to the current host
+		 */
+		HttpResponseEntity getResult() throws ArangoException, SocketException {
+			final Attempt result;
+			boolean dropHedge = false;
+			callLock.lock();
+			try {
+				result = winner != null ? winner : primary;
+				dropHedge = result == primary && hedge.done;
+			} finally {
+				callLock.unlock();
+			}
+			if (dropHedge) {
+				drop(hedge);
+			}
+			if (result.exception instanceof SocketException) {
+				throw (SocketException) result.exception;
+			}
+			if (result.exception instanceof ArangoException) {
+				throw (ArangoException) result.exception;
+			}
+			return result.responseEntity;
+		}
+
+		/**
+		 * Releases the response of an attempt, which did not win, and deletes
+		 * its open cursor
+		 */
+		private void drop(final Attempt attempt) {
+			final HttpResponseEntity responseEntity = attempt.responseEntity;
+			if (responseEntity != null) {
+				httpManager.dropResponse(attempt.baseUrl, requestEntity, responseEntity,
+					getCursorId(requestEntity, responseEntity));
+			}
+		}
+
+	}
+
+	/**
+	 * Creates the daemon threads of the hedged reads
+	 */
+	private static class DaemonThreadFactory implements ThreadFactory {
+
+		private final String prefix;
+		private final AtomicInteger threadNumber = new AtomicInteger();
+
+		DaemonThreadFactory(final String prefix) {
+			this.prefix = prefix;
+		}
+
+		@Override
+		public Thread newThread(final Runnable r) {
+			final Thread thread = new Thread(r, prefix + threadNumber.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		}
+
+	}
+
+	/**
+	 * Executes an attempt in the calling thread or in a thread of the
+	 * executor
+	 */
+	private class AttemptTask implements Runnable {
+
+		private final Call call;
+		private final Attempt attempt;
+		private final String baseUrl;
+
+		AttemptTask(final Call call, final Attempt attempt, final String baseUrl) {
+			this.call = call;
+			this.attempt = attempt;
+			this.baseUrl = baseUrl;
+			attempt.baseUrl = baseUrl;
+		}
+
+		@Override
+		public void run() {
+			attempts.set(attempt);
+			final long start = System.nanoTime();
+			HttpResponseEntity responseEntity = null;
+			Exception exception = null;
+			try {
+				responseEntity = call.httpManager.executeAttempt(baseUrl, call.requestEntity, call.mode);
+				if (attempt.primary && responseEntity != null && responseEntity.getStatusCode() < 500) {
+					record(System.nanoTime() - start);
+				}
+			} catch (final SocketException e) {
+				exception = e;
+			} catch (final ArangoException e) {
+				exception = e;
+			} catch (final RuntimeException e) {
+				exception = new ArangoException(e);
+			} finally {
+				attempts.remove();
+			}
+			call.finish(attempt, responseEntity, exception);
+		}
+
+	}
+
+}
@@ -0,0 +1,202 @@
+package com.arangodb.http;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.arangodb.ArangoConfigure;
+import com.arangodb.ArangoException;
+import com.arangodb.ArangoHost;
+import com.arangodb.http.HttpRequestEntity.RequestType;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+/**
+ * Acquires the endpoints of the coordinators from the cluster and replaces
+ * the hosts of the configuration, on start and then periodically in a
+ * background thread. Requests on the removed hosts are finished, their idle
+ * connections are closed.
+ */
+class HostListUpdater {
+
+	private static Logger logger = LoggerFactory.getLogger(HostListUpdater.class);
+
+	private static final String ENDPOINTS_URL = "/_api/cluster/endpoints";
+
+	private final HttpManager httpManager;
+
+	private final ArangoConfigure configure;
+
+	private final long interval;
+
+	private final Thread updater;
+
+	private volatile boolean running = true;
+
+	HostListUpdater(final HttpManager httpManager, final ArangoConfigure configure, final int interval) {
+		this.httpManager = httpManager;
+		this.configure = configure;
+		this.interval = interval;
+		this.updater = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				updatePeriodically();
+			}
+		}, "arangodb-hostlist");
+		this.updater.setDaemon(true);
+	}
+
+	/**
+	 * Acquires the host list and starts the periodic updates
+	 */
+	void start() {
+		update();
+		if (running && interval > 0) {
+			updater.start();
+		}
+	}
+
+	/**
+	 * Stops the periodic updates
+	 */
+	void shutdown() {
+		running = false;
+		updater.interrupt();
+	}
+
+	/**
+	 * Acquires the host list once
+	 *
+	 * @return true, if the hosts were replaced
+	 */
+	boolean update() {
+		final List<ArangoHost> hosts;
+		try {
+			hosts = getEndpoints();
+		} catch (final ArangoException e) {
+			// try again with the next update
+			logger.warn("could not acquire the host list: {}", e.getMessage());
+			return false;
+		}
+		if (hosts == null) {
+			// not a cluster
+			logger.info("the server has no cluster endpoints, the configured hosts are used");
+			running = false;
+			return false;
+		}
+		if (hosts.isEmpty()) {
+			return false;
+		}
+		final List<ArangoHost> removed = configure.updateArangoHosts(hosts);
+		if (!removed.isEmpty()) {
+			logger.info("removed hosts: {}", toString(removed));
+		}
+		// connections to removed hosts are unused since the last update
+		httpManager.closeIdleConnections(interval);
+		return true;
+	}
+
+	private void updatePeriodically() {
+		while (running) {
+			try {
+				Thread.sleep(interval);
+				if (running) {
+					update();
+				}
+			} catch (final InterruptedException e) {
+				break;
+			} catch (final RuntimeException e) {
+				logger.error(e.getMessage(), e);
+			}
+		}
+	}
+
+	/**
+	 * @return the coordinators, null if the server is not a cluster
+	 */
+	private List<ArangoHost> getEndpoints() throws ArangoException {
+		final HttpRequestEntity requestEntity = new HttpRequestEntity();
+		requestEntity.type = RequestType.GET;
+		requestEntity.url = ENDPOINTS_URL;
+
+		final HttpResponseEntity res = httpManager.executeInternalRequest(requestEntity);
+		if (res == null) {
+			throw new ArangoException("no response from " + ENDPOINTS_URL);
+		}
+		try {
+			if (res.getStatusCode() == 403 || res.getStatusCode() == 404 || res.getStatusCode() == 501) {
+				return null;
+			}
+			if (res.getStatusCode() != 200) {
+				throw new ArangoException("status code " + res.getStatusCode() + " from " + ENDPOINTS_URL);
+			}
+			return parseEndpoints(res.getText());
+		} catch (final JsonParseException e) {
+			throw new ArangoException(e);
+		} catch (final IllegalStateException e) {
+			throw new ArangoException(e);
+		} finally {
+			res.release();
+		}
+	}
+
+	/**
+	 * Parses the response of /_api/cluster/endpoints, e.g.
+	 * {"endpoints":[{"endpoint":"tcp://[::1]:8530"}]}
+	 *
+	 * @return the hosts, endpoints of unix domain sockets are skipped
+	 */
+	static List<ArangoHost> parseEndpoints(final String json) {
+		final List<ArangoHost> hosts = new ArrayList<ArangoHost>();
+		final JsonObject object = new JsonParser().parse(json).getAsJsonObject();
+		final JsonElement endpoints = object.get("endpoints");
+		if (endpoints != null && endpoints.isJsonArray()) {
+			for (final JsonElement endpoint : endpoints.getAsJsonArray()) {
+				final JsonElement value = endpoint.getAsJsonObject().get("endpoint");
+				final ArangoHost host = value != null ? parseEndpoint(value.getAsString()) : null;
+				if (host != null && !hosts.contains(host)) {
+					hosts.add(host);
+				}
+			}
+		}
+		return hosts;
+	}
+
+	/**
+	 * @param endpoint
+	 *            the endpoint, e.g. tcp://127.0.0.1:8530 or ssl://[::1]:8530
+	 * @return the host, null for unix domain sockets and invalid endpoints
+	 */
+	static ArangoHost parseEndpoint(final String endpoint) {
+		final int scheme = endpoint.indexOf("://");
+		if (scheme < 0 || endpoint.startsWith("unix")) {
+			return null;
+		}
+		final String hostPort = endpoint.substring(scheme + 3);
+		final int colon = hostPort.lastIndexOf(':');
+		if (colon <= 0 || hostPort.lastIndexOf(']') > colon) {
+			return null;
+		}
+		try {
+			return new ArangoHost(hostPort.substring(0, colon), Integer.parseInt(hostPort.substring(colon + 1)));
+		} catch (final NumberFormatException e) {
+			return null;
+		}
+	}
+
+	private static String toString(final List<ArangoHost> hosts) {
+		final StringBuilder sb = new StringBuilder();
+		for (final ArangoHost host : hosts) {
+			if (sb.length() > 0) {
+				sb.append(", ");
+			}
+			sb.append(host.getHost()).append(':').append(host.getPort());
+		}
+		return sb.toString();
+	}
+
+}
@@ -17,24 +17,30 @@
 package com.arangodb.http;
 
 import java.io.IOException;
+import java.net.ConnectException;
 import java.net.SocketException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+import org.apache.commons.codec.binary.Base64;
+import org.apache.http.Consts;
 import org.apache.http.Header;
 import org.apache.http.HeaderElement;
 import org.apache.http.HeaderElementIterator;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpHost;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
-import org.apache.http.NameValuePair;
+import org.apache.http.NoHttpResponseException;
 import org.apache.http.StatusLine;
-import org.apache.http.auth.AuthenticationException;
 import org.apache.http.auth.Credentials;
 import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.ClientProtocolException;
@@ -48,23 +54,20 @@ import org.apache.http.client.methods.HttpPatch;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.client.methods.HttpRequestBase;
-import org.apache.http.client.utils.URLEncodedUtils;
 import org.apache.http.config.Registry;
 import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectTimeoutException;
 import org.apache.http.conn.ConnectionKeepAliveStrategy;
 import org.apache.http.conn.socket.ConnectionSocketFactory;
 import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.entity.ContentType;
-import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.auth.BasicScheme;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.DefaultHttpRequestRetryHandler;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.conn.DefaultProxyRoutePlanner;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicHeader;
 import org.apache.http.message.BasicHeaderElementIterator;
-import org.apache.http.message.BasicNameValuePair;
 import org.apache.http.protocol.HTTP;
 import org.apache.http.protocol.HttpContext;
 import org.apache.http.ssl.SSLContexts;
@@ -74,8 +77,14 @@ import org.slf4j.LoggerFactory;
 
 import com.arangodb.ArangoConfigure;
 import com.arangodb.ArangoException;
+import com.arangodb.ArangoTimeoutException;
+import com.arangodb.DeferredResult;
+import com.arangodb.Protocol;
+import com.arangodb.http.AdmissionControl.Admission;
 import com.arangodb.http.HttpRequestEntity.RequestType;
-import com.arangodb.util.IOUtils;
+import com.arangodb.util.PooledByteArrayOutputStream;
+import com.arangodb.util.RequestOptions;
+import com.arangodb.vst.VstTransport;
 
 /**
  * @author tamtam180 - kirscheless at gmail.com
@@ -88,18 +97,97 @@ public class HttpManager {
 
 	private static Logger logger = LoggerFactory.getLogger(HttpManager.class);
 
+	private static final String USER_AGENT = "Mozilla/5.0 (compatible; ArangoDB-JavaDriver/1.1; +http://mt.orz.at/)";
+
+	private static final String ASYNC_ID_HEADER = "X-Arango-Async-Id";
+
+	private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+	/**
+	 * characters that are not encoded in query parameters (same as
+	 * URLEncodedUtils)
+	 */
+	private static final boolean[] URL_SAFE = new boolean[0x80];
+
+	static {
+		for (char c = 'a'; c <= 'z'; c++) {
+			URL_SAFE[c] = true;
+		}
+		for (char c = 'A'; c <= 'Z'; c++) {
+			URL_SAFE[c] = true;
+		}
+		for (char c = '0'; c <= '9'; c++) {
+			URL_SAFE[c] = true;
+		}
+		for (final char c : "_-.*".toCharArray()) {
+			URL_SAFE[c] = true;
+		}
+	}
+
 	private PoolingHttpClientConnectionManager cm;
 	private CloseableHttpClient client;
 
+	/**
+	 * alternative transport (null to use the HttpClient)
+	 */
+	private Transport transport;
+
 	private ArangoConfigure configure;
 
-	private HttpResponseEntity preDefinedResponse;
+	/**
+	 * the basic auth header of the configured user
+	 */
+	private volatile AuthHeader cachedAuthHeader;
+
+	/**
+	 * the JSON Web Token of the configured user (null to use basic auth)
+	 */
+	private JwtAuthentication jwtAuthentication;
 
 	private HttpMode httpMode = HttpMode.SYNC;
 
-	private List<String> jobIds = new ArrayList<String>();
+	private List<String> jobIds = Collections.synchronizedList(new ArrayList<String>());
+
+	/**
+	 * collects the results of the async mode, created with the first job
+	 */
+	private AsyncJobCollector asyncJobCollector;
+
+	private FireAndForgetWindow fireAndForgetWindow;
+
+	private RetryPolicy retryPolicy;
+
+	private RequestConfig requestConfig;
+
+	/**
+	 * the client side limits of the requests (null without limits)
+	 */
+	private AdmissionControl admissionControl;
 
-	private final Map<String, InvocationObject> jobs = new HashMap<String, InvocationObject>();
+	/**
+	 * sends slow reads a second time to the next host (null if disabled)
+	 */
+	private HedgedReads hedgedReads;
+
+	/**
+	 * acquires the coordinators of the cluster (null if disabled)
+	 */
+	private HostListUpdater hostListUpdater;
+
+	/**
+	 * the deadline of the calls of each thread
+	 */
+	private final ThreadLocal<long[]> deadlines = new ThreadLocal<long[]>() {
+		@Override
+		protected long[] initialValue() {
+			return new long[1];
+		}
+	};
+
+	/**
+	 * the options of the calls of each thread
+	 */
+	private final ThreadLocal<RequestOptions> requestOptions = new ThreadLocal<RequestOptions>();
 
 	public enum HttpMode {
 		SYNC, ASYNC, FIREANDFORGET
@@ -114,8 +202,9 @@ public class HttpManager {
 	}
 
 	public void init() {
-		// socket factory for HTTP
-		final ConnectionSocketFactory plainsf = new PlainConnectionSocketFactory();
+		// socket factory for HTTP (over TCP or a unix domain socket)
+		final ConnectionSocketFactory plainsf = configure.getUnixSocket() != null
+				? new UnixSocketConnectionFactory(configure.getUnixSocket()) : new PlainConnectionSocketFactory();
 
 		// socket factory for HTTPS
 		final SSLConnectionSocketFactory sslsf = initSSLConnectionSocketFactory();
@@ -142,7 +231,7 @@ public class HttpManager {
 
 		cm.setValidateAfterInactivity(configure.getValidateAfterInactivity());
 
-		final RequestConfig requestConfig = custom.build();
+		requestConfig = custom.build();
 
 		final HttpClientBuilder builder = HttpClientBuilder.create().setDefaultRequestConfig(requestConfig);
 		builder.setConnectionManager(cm);
@@ -158,14 +247,57 @@ public class HttpManager {
 		};
 		builder.setKeepAliveStrategy(keepAliveStrategy);
 
-		// Retry Handler
-		builder.setRetryHandler(new DefaultHttpRequestRetryHandler(configure.getRetryCount(), false));
+		// all retries are decided by the retry policy
+		builder.disableAutomaticRetries();
+		retryPolicy = configure.getRetryPolicy() != null ? configure.getRetryPolicy()
+				: new DefaultRetryPolicy(configure);
 
 		// Proxy
 		addProxyToBuilder(builder);
 
 		// Client
 		client = builder.build();
+
+		fireAndForgetWindow = new FireAndForgetWindow(configure.getFireAndForgetMaxInFlight(),
+				configure.getFireAndForgetSampleRate(), configure.getFireAndForgetShed(), configure.getTimeout());
+
+		if (!configure.getRequestLimits().isEmpty()) {
+			admissionControl = new AdmissionControl(configure.getRequestLimits(), configure.getMaxPerConnection(),
+					configure.getTimeout());
+		}
+
+		if (configure.getUseJwt() && configure.getProtocol() != Protocol.VST) {
+			jwtAuthentication = new JwtAuthentication(this);
+		}
+
+		if (configure.getProtocol() == Protocol.VST) {
+			transport = new VstTransport(configure);
+		} else if (configure.getUseNioHttpClient()) {
+			if (NioHttpTransport.isSupported(configure)) {
+				transport = new NioHttpTransport(configure);
+			} else {
+				logger.warn("the NIO HTTP client does not support HTTPS, proxies and unix domain sockets");
+			}
+		}
+
+		if (configure.getHedgedReads()) {
+			if (configure.getProtocol() == Protocol.VST) {
+				logger.warn("hedged reads are not supported with VelocyStream");
+			} else {
+				// only the requests of the HttpClient can be aborted
+				hedgedReads = new HedgedReads(configure.getHedgeDelay(), configure.getHedgeBudget(),
+						transport == null);
+			}
+		}
+
+		if (configure.getAcquireHostList()) {
+			if (configure.getUnixSocket() != null) {
+				logger.warn("the host list is not acquired with a unix domain socket");
+			} else {
+				hostListUpdater = new HostListUpdater(this, configure, configure.getAcquireHostListInterval());
+				hostListUpdater.start();
+			}
+		}
 	}
 
 	private long getKeepAliveDuration(final HttpResponse response) {
@@ -197,6 +329,21 @@ public class HttpManager {
 	}
 
 	public void destroy() {
+		synchronized (this) {
+			if (asyncJobCollector != null) {
+				asyncJobCollector.shutdown();
+				asyncJobCollector = null;
+			}
+		}
+		if (hostListUpdater != null) {
+			hostListUpdater.shutdown();
+		}
+		if (hedgedReads != null) {
+			hedgedReads.shutdown();
+		}
+		if (transport != null) {
+			transport.destroy();
+		}
 		if (cm != null) {
 			cm.shutdown();
 		}
@@ -209,6 +356,19 @@ public class HttpManager {
 		}
 	}
 
+	/**
+	 * Closes the pooled connections, which were not used within the given
+	 * time, e.g. the connections to removed hosts. The connections of the
+	 * alternative transports are closed when the current host changes.
+	 */
+	void closeIdleConnections(final long idleTime) {
+		final PoolingHttpClientConnectionManager connectionManager = cm;
+		if (connectionManager != null) {
+			connectionManager.closeExpiredConnections();
+			connectionManager.closeIdleConnections(idleTime, TimeUnit.MILLISECONDS);
+		}
+	}
+
 	public HttpMode getHttpMode() {
 		return httpMode;
 	}
@@ -217,6 +377,45 @@ public class HttpManager {
 		this.httpMode = httpMode;
 	}
 
+	/**
+	 * Sets the deadline of the following requests of the current thread,
+	 * which have no deadline of their own. The driver sets it for the
+	 * duration of a call with a timeout.
+	 * 
+	 * @param deadline
+	 *            the time (System.currentTimeMillis()) at which the requests
+	 *            are aborted, 0 for no deadline
+	 * @return the previous deadline of the thread
+	 */
+	public long setDeadline(final long deadline) {
+		final long[] current = deadlines.get();
+		final long previous = current[0];
+		current[0] = deadline;
+		return previous;
+	}
+
+	/**
+	 * Sets the options (timeout, tag and priority) of the following requests
+	 * of the current thread. The timeout applies to each request without a
+	 * deadline of its own.
+	 * 
+	 * @param options
+	 *            the options, null for none
+	 * @return the previous options of the thread
+	 */
+	public RequestOptions setRequestOptions(final RequestOptions options) {
+		final RequestOptions previous = requestOptions.get();
+		requestOptions.set(options);
+		return previous;
+	}
+
+	/**
+	 * @return the options of the requests of the current thread, or null
+	 */
+	public RequestOptions getRequestOptions() {
+		return requestOptions.get();
+	}
+
 	public HttpResponseEntity doGet(final String url) throws ArangoException {
 		return doGet(url, null);
 	}
@@ -334,6 +533,35 @@ public class HttpManager {
 		return doPostPutPatch(RequestType.PATCH, url, null, params, bodyText, null);
 	}
 
+	/**
+	 * Executes an idempotent read, which may be sent a second time to the
+	 * next host (hedged reads)
+	 * 
+	 * @param type
+	 *            the request type
+	 * @param url
+	 *            the url
+	 * @param headers
+	 *            the headers (optional)
+	 * @param bodyText
+	 *            the body (optional)
+	 * @return the response of the request
+	 * @throws ArangoException
+	 */
+	public HttpResponseEntity doHedgeableRead(
+		final RequestType type,
+		final String url,
+		final Map<String, Object> headers,
+		final String bodyText) throws ArangoException {
+		final HttpRequestEntity requestEntity = new HttpRequestEntity();
+		requestEntity.type = type;
+		requestEntity.url = url;
+		requestEntity.headers = headers;
+		requestEntity.bodyText = bodyText;
+		requestEntity.hedgeable = true;
+		return execute(requestEntity);
+	}
+
 	private HttpResponseEntity doPostPutPatch(
 		final RequestType type,
 		final String url,
@@ -352,7 +580,7 @@ public class HttpManager {
 	}
 
 	/**
-	 * Executes the request and handles connect exceptions
+	 * Executes the request and retries it according to the retry policy
 	 * 
 	 * @param requestEntity
 	 *            the request
@@ -361,72 +589,370 @@ public class HttpManager {
 	 * @throws ArangoException
 	 */
 	public HttpResponseEntity execute(final HttpRequestEntity requestEntity) throws ArangoException {
-		int retries = 0;
-		final int connectRetryCount = configure.getConnectRetryCount();
+		return execute(requestEntity, false);
+	}
+
+	/**
+	 * Executes a request of the driver itself: always synchronous, outside of
+	 * batch mode and never answered by a predefined response
+	 */
+	HttpResponseEntity executeInternalRequest(final HttpRequestEntity requestEntity) throws ArangoException {
+		return execute(requestEntity, true);
+	}
 
-		while (true) {
+	/**
+	 * Opens up to the given number of pooled connections (including the TLS
+	 * handshake and the authentication) by sending concurrent version
+	 * requests. The requests start at the same time, so that each one leases
+	 * its own connection.
+	 *
+	 * @param connections
+	 *            the number of connections to open
+	 * @throws ArangoException
+	 *             if a request failed
+	 */
+	public void warmUp(final int connections) throws ArangoException {
+		final int count = Math.max(1, Math.min(connections, configure.getMaxPerConnection()));
+		final CountDownLatch start = new CountDownLatch(1);
+		final List<ArangoException> errors = Collections.synchronizedList(new ArrayList<ArangoException>());
+		final List<Thread> threads = new ArrayList<Thread>(count);
+		for (int i = 0; i < count; i++) {
+			final Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					final HttpRequestEntity requestEntity = new HttpRequestEntity();
+					requestEntity.type = RequestType.GET;
+					requestEntity.url = "/_api/version";
+					try {
+						start.await();
+						final HttpResponseEntity res = executeInternalRequest(requestEntity);
+						if (res != null) {
+							res.release();
+						}
+					} catch (final ArangoException e) {
+						errors.add(e);
+					} catch (final InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			}, "arangodb-warmup-" + i);
+			thread.setDaemon(true);
+			thread.start();
+			threads.add(thread);
+		}
+		start.countDown();
+		try {
+			for (final Thread thread : threads) {
+				thread.join();
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ArangoException(e);
+		}
+		if (!errors.isEmpty()) {
+			throw errors.get(0);
+		}
+	}
+
+	private HttpResponseEntity execute(final HttpRequestEntity requestEntity, final boolean internal)
+			throws ArangoException {
+		final HttpMode mode = internal ? HttpMode.SYNC : getHttpMode();
+		if (mode.equals(HttpMode.FIREANDFORGET)) {
+			executeFireAndForget(requestEntity);
+			return null;
+		}
+		return execute(requestEntity, mode, internal);
+	}
+
+	/**
+	 * Sends the request within the in-flight limit, the response is dropped
+	 */
+	private void executeFireAndForget(final HttpRequestEntity requestEntity) throws ArangoException {
+		final boolean sample = fireAndForgetWindow.acquire();
+		HttpResponseEntity responseEntity = null;
+		try {
+			// sampled requests are stored by the server to track their
+			// completion
+			responseEntity = execute(requestEntity, sample ? HttpMode.ASYNC : HttpMode.FIREANDFORGET, false);
+		} finally {
+			if (responseEntity != null && responseEntity.statusCode == HttpStatus.SC_ACCEPTED) {
+				final AsyncJobCollector collector = sample ? getAsyncJobCollector() : null;
+				final AsyncJob job = fireAndForgetWindow.accept(sample,
+					responseEntity.getHeaders().get(ASYNC_ID_HEADER), AutoBatcher.getDatabasePrefix(requestEntity.url),
+					collector);
+				if (job != null) {
+					collector.register(job);
+				}
+			} else {
+				fireAndForgetWindow.reject();
+			}
+			if (responseEntity != null) {
+				responseEntity.release();
+			}
+		}
+	}
+
+	private HttpResponseEntity execute(
+		final HttpRequestEntity requestEntity,
+		final HttpMode mode,
+		final boolean internal) throws ArangoException {
+		if (!internal) {
+			applyOptions(requestEntity);
+		}
+		final long deadline = requestEntity.deadline > 0 ? requestEntity.deadline
+				: configure.getRetryTimeout() > 0 ? System.currentTimeMillis() + configure.getRetryTimeout() : 0L;
+		// a streamed body can only be sent once
+		final boolean repeatable = requestEntity.entity == null || requestEntity.entity.isRepeatable();
+
+		for (int retry = 1;; retry++) {
+			if (isExpired(requestEntity)) {
+				throw new ArangoTimeoutException("deadline expired before " + requestEntity.type + " "
+						+ requestEntity.url);
+			}
+			HttpResponseEntity responseEntity = null;
+			SocketException exception = null;
 			try {
-				return executeInternal(configure.getBaseUrl(), requestEntity);
+				if (isHedged(requestEntity, mode, internal)) {
+					responseEntity = hedgedReads.execute(this, configure.getBaseUrl(), configure.getNextBaseUrl(),
+						requestEntity, mode);
+				} else {
+					responseEntity = executeInternal(configure.getBaseUrl(), requestEntity, mode, internal, true);
+				}
 			} catch (final SocketException ex) {
-				retries++;
-				if (connectRetryCount > 0 && retries > connectRetryCount) {
-					logger.error(ex.getMessage(), ex);
-					throw new ArangoException(ex);
+				exception = ex;
+			} catch (final ArangoException ex) {
+				if (isExpired(requestEntity)) {
+					throw new ArangoTimeoutException("deadline expired during " + requestEntity.type + " "
+							+ requestEntity.url, ex);
 				}
+				throw ex;
+			}
 
-				if (configure.hasFallbackHost()) {
-					configure.changeCurrentHost();
+			final long delay = retryPolicy.getRetryDelay(requestEntity, retry, responseEntity, exception);
+			if (delay < 0 || !repeatable || (deadline > 0 && System.currentTimeMillis() + delay >= deadline)) {
+				if (exception != null) {
+					if (isExpired(requestEntity)) {
+						throw new ArangoTimeoutException("deadline expired during " + requestEntity.type + " "
+								+ requestEntity.url, exception);
+					}
+					logger.error(exception.getMessage(), exception);
+					throw new ArangoException(exception);
 				}
+				return responseEntity;
+			}
+
+			if (exception != null) {
+				logger.warn(exception.getMessage(), exception);
+			} else {
+				logger.warn("[RES]http-{}: statusCode={}, retry in {} ms", requestEntity.type,
+					responseEntity.statusCode, delay);
+				responseEntity.release();
+			}
+
+			if (configure.hasFallbackHost()) {
+				configure.changeCurrentHost();
+			}
 
-				logger.warn(ex.getMessage(), ex);
+			if (delay > 0) {
 				try {
-					// 1000 milliseconds is one second.
-					Thread.sleep(configure.getConnectRetryWait());
+					Thread.sleep(delay);
 				} catch (final InterruptedException iex) {
 					Thread.currentThread().interrupt();
+					throw new ArangoException(iex);
 				}
 			}
 		}
 	}
 
+	/**
+	 * @return the retry policy of the driver
+	 */
+	RetryPolicy getRetryPolicy() {
+		return retryPolicy;
+	}
+
+	private boolean isHedged(final HttpRequestEntity requestEntity, final HttpMode mode, final boolean internal) {
+		return hedgedReads != null && requestEntity.hedgeable && !internal && mode == HttpMode.SYNC
+				&& configure.hasFallbackHost();
+	}
+
+	/**
+	 * Executes a request of hedged reads on the given host
+	 */
+	HttpResponseEntity executeAttempt(final String baseUrl, final HttpRequestEntity requestEntity, final HttpMode mode)
+			throws ArangoException, SocketException {
+		return executeInternal(baseUrl, requestEntity, mode, false, true);
+	}
+
+	/**
+	 * Releases the response of hedged reads, which was not used, and deletes
+	 * its open cursor on the host
+	 */
+	void dropResponse(
+		final String baseUrl,
+		final HttpRequestEntity requestEntity,
+		final HttpResponseEntity responseEntity,
+		final String cursorId) {
+		responseEntity.release();
+		if (cursorId == null) {
+			return;
+		}
+		final HttpRequestEntity deleteEntity = new HttpRequestEntity();
+		deleteEntity.type = RequestType.DELETE;
+		deleteEntity.url = AutoBatcher.getDatabasePrefix(requestEntity.url) + "/_api/cursor/" + cursorId;
+		try {
+			final HttpResponseEntity res = executeInternal(baseUrl, deleteEntity, HttpMode.SYNC, true, true);
+			if (res != null) {
+				res.release();
+			}
+		} catch (final ArangoException e) {
+			logger.warn("could not delete the cursor of a dropped response: {}", e.getMessage());
+		} catch (final SocketException e) {
+			logger.warn("could not delete the cursor of a dropped response: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * Applies the deadline and the options of the thread to a request, which
+	 * has none of its own
+	 */
+	void applyOptions(final HttpRequestEntity requestEntity) {
+		if (requestEntity.deadline <= 0) {
+			requestEntity.deadline = deadlines.get()[0];
+		}
+		final RequestOptions options = requestOptions.get();
+		if (options != null) {
+			if (requestEntity.deadline <= 0) {
+				requestEntity.deadline = options.getDeadline();
+			}
+			if (requestEntity.tag == null) {
+				requestEntity.tag = options.getTag();
+			}
+			if (requestEntity.priority == null) {
+				requestEntity.priority = options.getPriority();
+			}
+		}
+	}
+
+	private boolean isExpired(final HttpRequestEntity requestEntity) {
+		return requestEntity.deadline > 0 && System.currentTimeMillis() >= requestEntity.deadline;
+	}
+
 	/**
 	 * Executes the request
 	 * 
 	 * @param requestEntity
 	 *            the request
+	 * @param mode
+	 *            the mode of the request
+	 * @param internal
+	 *            a request of the driver itself
 	 * @return the response of the request
 	 * @throws ArangoException
 	 */
-	private HttpResponseEntity executeInternal(final String baseUrl, final HttpRequestEntity requestEntity)
-			throws ArangoException, SocketException {
+	private HttpResponseEntity executeInternal(
+		final String baseUrl,
+		final HttpRequestEntity requestEntity,
+		final HttpMode mode,
+		final boolean internal,
+		final boolean reauthenticate) throws ArangoException, SocketException {
 
-		final String url = buildUrl(baseUrl, requestEntity);
+		final String path = buildUrl("", requestEntity);
 
-		logRequest(requestEntity, url);
+		logRequest(requestEntity, baseUrl, path);
 
-		final HttpRequestBase request = buildHttpRequestBase(requestEntity, url);
+		// Basic Auth or JWT
+		final Header authHeader = getAuthHeader(baseUrl, requestEntity);
+		final Header jwtHeader = jwtAuthentication != null && !hasCredentials(requestEntity) ? authHeader : null;
+
+		// CURL/HTTP Logger
+		if (configure.isEnableCURLLogger()) {
+			CURLLogger.log(baseUrl + path, requestEntity, getCredentials(requestEntity));
+		}
+
+		HttpResponseEntity responseEntity = null;
+		// wait for admission before a connection is leased
+		final Admission admission = admissionControl != null && !internal
+				? admissionControl.acquire(requestEntity) : null;
+		try {
+			responseEntity = send(baseUrl, path, requestEntity, mode, authHeader);
+		} finally {
+			if (admission != null) {
+				admission.release();
+			}
+		}
+
+		if (responseEntity != null && responseEntity.statusCode == 401 && jwtHeader != null && reauthenticate
+				&& (requestEntity.entity == null || requestEntity.entity.isRepeatable())) {
+			// the token expired or the server uses a new secret, request a
+			// new token and send the request again
+			jwtAuthentication.invalidate(jwtHeader);
+			responseEntity.release();
+			return executeInternal(baseUrl, requestEntity, mode, internal, false);
+		}
+
+		if (responseEntity != null && mode.equals(HttpMode.ASYNC) && getHttpMode().equals(HttpMode.ASYNC)) {
+			final String jobId = responseEntity.getHeaders().get(ASYNC_ID_HEADER);
+			this.addJob(jobId);
+			if (jobId != null) {
+				// the handle of the call is set when the entity is
+				// created, the result is collected in the background
+				responseEntity.asyncJob = new AsyncJob(jobId, AutoBatcher.getDatabasePrefix(requestEntity.url),
+						getAsyncJobCollector());
+			}
+		}
+
+		return responseEntity;
+	}
+
+	/**
+	 * Executes the request to /_open/auth, without credentials and always
+	 * synchronous
+	 */
+	HttpResponseEntity executeAuthRequest(final String baseUrl, final HttpRequestEntity requestEntity)
+			throws ArangoException, SocketException {
+		final String path = buildUrl("", requestEntity);
+		final HttpResponseEntity responseEntity = send(baseUrl, path, requestEntity, HttpMode.SYNC, null);
+		if (responseEntity == null) {
+			throw new ArangoException("no response from " + baseUrl + path);
+		}
+		return responseEntity;
+	}
+
+	private HttpResponseEntity send(
+		final String baseUrl,
+		final String path,
+		final HttpRequestEntity requestEntity,
+		final HttpMode mode,
+		final Header authHeader) throws ArangoException, SocketException {
+		if (transport != null) {
+			// the transport needs neither the request nor the header objects
+			// of the HttpClient
+			return transport.execute(baseUrl, path, requestEntity, buildHeaders(requestEntity, mode, authHeader));
+		}
+
+		final HttpRequestBase request = buildHttpRequestBase(requestEntity, baseUrl + path);
 
 		// common-header
-		final String userAgent = "Mozilla/5.0 (compatible; ArangoDB-JavaDriver/1.1; +http://mt.orz.at/)";
-		request.setHeader("User-Agent", userAgent);
+		request.setHeader("User-Agent", USER_AGENT);
 
 		addOptionalHeaders(requestEntity, request);
 
-		addHttpModeHeader(request);
+		addHttpModeHeader(request, mode);
 
-		// Basic Auth
-		final Credentials credentials = addCredentials(requestEntity, request);
-
-		// CURL/HTTP Logger
-		if (configure.isEnableCURLLogger()) {
-			CURLLogger.log(url, requestEntity, credentials);
+		if (authHeader != null) {
+			request.addHeader(authHeader);
 		}
 
-		HttpResponseEntity responseEntity = null;
-		if (preDefinedResponse != null) {
-			responseEntity = preDefinedResponse;
-		} else {
+		final HedgedReads.Attempt attempt = hedgedReads != null ? hedgedReads.getAttempt() : null;
+		if (attempt != null) {
+			// the request is aborted, if the other request of hedged reads
+			// wins
+			attempt.setRequest(request);
+		}
+		try {
 			final HttpResponse response = executeRequest(request);
+			HttpResponseEntity responseEntity = null;
 			if (response != null) {
 				try {
 					responseEntity = buildHttpResponseEntity(requestEntity, response);
@@ -434,17 +960,46 @@ public class HttpManager {
 				} catch (final IOException e) {
 					throw new ArangoException(e);
 				}
+			}
+			return responseEntity;
+		} finally {
+			releaseBody(request);
+		}
+	}
 
-				if (this.getHttpMode().equals(HttpMode.ASYNC)) {
-					final Map<String, String> map = responseEntity.getHeaders();
-					this.addJob(map.get("X-Arango-Async-Id"), this.getCurrentObject());
-				} else if (this.getHttpMode().equals(HttpMode.FIREANDFORGET)) {
-					responseEntity = null;
-				}
+	private void releaseBody(final HttpRequestBase request) {
+		if (request instanceof HttpEntityEnclosingRequestBase) {
+			final HttpEntity entity = ((HttpEntityEnclosingRequestBase) request).getEntity();
+			if (entity instanceof PooledByteArrayEntity) {
+				((PooledByteArrayEntity) entity).release();
 			}
 		}
+	}
 
-		return responseEntity;
+	/**
+	 * Builds the headers of a request of the alternative transport, the same
+	 * headers as the ones of the HttpClient request
+	 */
+	private Map<String, String> buildHeaders(
+		final HttpRequestEntity requestEntity,
+		final HttpMode mode,
+		final Header authHeader) {
+		final Map<String, String> headers = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
+		headers.put("User-Agent", USER_AGENT);
+		if (requestEntity.headers != null) {
+			for (final Entry<String, Object> keyValue : requestEntity.headers.entrySet()) {
+				headers.put(keyValue.getKey(), keyValue.getValue().toString());
+			}
+		}
+		if (mode.equals(HttpMode.ASYNC)) {
+			headers.put("x-arango-async", "store");
+		} else if (mode.equals(HttpMode.FIREANDFORGET)) {
+			headers.put("x-arango-async", "true");
+		}
+		if (authHeader != null) {
+			headers.put(authHeader.getName(), authHeader.getValue());
+		}
+		return headers;
 	}
 
 	private void consumeResponse(final HttpResponse response) throws IOException {
@@ -460,6 +1015,12 @@ public class HttpManager {
 		} catch (final SocketException ex) {
 			// catch SocketException before IOException
 			throw ex;
+		} catch (final ConnectTimeoutException ex) {
+			// nothing was sent, retried like a refused connection
+			throw (ConnectException) new ConnectException(ex.getMessage()).initCause(ex);
+		} catch (final NoHttpResponseException ex) {
+			// the server closed the connection, retried like a reset connection
+			throw (SocketException) new SocketException(ex.getMessage()).initCause(ex);
 		} catch (final ClientProtocolException e) {
 			throw new ArangoException(e);
 		} catch (final IOException e) {
@@ -487,11 +1048,8 @@ public class HttpManager {
 		if (etagHeader != null) {
 			responseEntity.etag = Long.parseLong(etagHeader.getValue().replace("\"", ""));
 		}
-		// ヘッダをMapに変換する
-		responseEntity.headers = new TreeMap<String, String>();
-		for (final Header header : response.getAllHeaders()) {
-			responseEntity.headers.put(header.getName(), header.getValue());
-		}
+		// ヘッダは必要になった時にMapに変換する
+		responseEntity.rawHeaders = response.getAllHeaders();
 
 		// レスポンスの取得
 		final HttpEntity entity = response.getEntity();
@@ -508,40 +1066,66 @@ public class HttpManager {
 			}
 			// Close stream in this method.
 			if (responseEntity.stream == null) {
-				responseEntity.text = IOUtils.toString(entity.getContent());
+				responseEntity.body = PooledByteArrayOutputStream.read(entity.getContent(), entity.getContentLength());
 				if (logger.isDebugEnabled()) {
-					logger.debug("[RES]http-{}: text={}", requestEntity.type, responseEntity.text);
+					logger.debug("[RES]http-{}: text={}", requestEntity.type, responseEntity.getText());
 				}
 			}
 		}
 		return responseEntity;
 	}
 
-	private void addHttpModeHeader(final HttpRequestBase request) {
-		if (this.getHttpMode().equals(HttpMode.ASYNC)) {
+	private void addHttpModeHeader(final HttpRequestBase request, final HttpMode mode) {
+		if (mode.equals(HttpMode.ASYNC)) {
 			request.addHeader("x-arango-async", "store");
-		} else if (this.getHttpMode().equals(HttpMode.FIREANDFORGET)) {
+		} else if (mode.equals(HttpMode.FIREANDFORGET)) {
 			request.addHeader("x-arango-async", "true");
 		}
 	}
 
-	private Credentials addCredentials(final HttpRequestEntity requestEntity, final HttpRequestBase request)
-			throws ArangoException {
-		Credentials credentials = null;
-		if (requestEntity.username != null && requestEntity.password != null) {
-			credentials = new UsernamePasswordCredentials(requestEntity.username, requestEntity.password);
+	/**
+	 * @return the authorization header of the request or null
+	 */
+	private Header getAuthHeader(final String baseUrl, final HttpRequestEntity requestEntity)
+			throws ArangoException, SocketException {
+		if (hasCredentials(requestEntity)) {
+			return createAuthHeader(requestEntity.username, requestEntity.password);
 		} else if (configure.getUser() != null && configure.getPassword() != null) {
-			credentials = new UsernamePasswordCredentials(configure.getUser(), configure.getPassword());
-		}
-		if (credentials != null) {
-			final BasicScheme basicScheme = new BasicScheme();
-			try {
-				request.addHeader(basicScheme.authenticate(credentials, request, null));
-			} catch (final AuthenticationException e) {
-				throw new ArangoException(e);
+			if (jwtAuthentication != null) {
+				return jwtAuthentication.getHeader(baseUrl, configure.getUser(), configure.getPassword());
+			}
+			// the header of the configured user is the same for every request
+			AuthHeader authHeader = cachedAuthHeader;
+			if (authHeader == null || !authHeader.matches(configure.getUser(), configure.getPassword())) {
+				authHeader = new AuthHeader(configure.getUser(), configure.getPassword(),
+						createAuthHeader(configure.getUser(), configure.getPassword()));
+				cachedAuthHeader = authHeader;
 			}
+			return authHeader.header;
 		}
-		return credentials;
+		return null;
+	}
+
+	/**
+	 * Creates the header of basic authentication, like the BasicScheme of the
+	 * HttpClient (US-ASCII)
+	 */
+	private static Header createAuthHeader(final String user, final String password) {
+		return new BasicHeader(HttpHeaders.AUTHORIZATION,
+				"Basic " + Base64.encodeBase64String((user + ":" + password).getBytes(Consts.ASCII)));
+	}
+
+	private static boolean hasCredentials(final HttpRequestEntity requestEntity) {
+		return requestEntity.username != null && requestEntity.password != null;
+	}
+
+	private Credentials getCredentials(final HttpRequestEntity requestEntity) {
+		if (hasCredentials(requestEntity)) {
+			return new UsernamePasswordCredentials(requestEntity.username, requestEntity.password);
+		} else if (configure.getUser() != null && configure.getPassword() != null) {
+			return new UsernamePasswordCredentials(configure.getUser(), configure.getPassword());
+		}
+		return null;
 	}
 
 	private void addOptionalHeaders(final HttpRequestEntity requestEntity, final HttpRequestBase request) {
@@ -581,11 +1165,20 @@ public class HttpManager {
 			request = new HttpGet(url);
 			break;
 		}
+		if (requestEntity.deadline > 0) {
+			// the exchange is aborted at the deadline, including the wait for
+			// a pooled connection
+			request.setConfig(RequestConfig.copy(requestConfig)
+					.setConnectTimeout(requestEntity.getTimeout(configure.getConnectionTimeout()))
+					.setConnectionRequestTimeout(requestEntity.getTimeout(configure.getTimeout()))
+					.setSocketTimeout(requestEntity.getTimeout(configure.getTimeout())).build());
+		}
 		return request;
 	}
 
-	private void logRequest(final HttpRequestEntity requestEntity, final String url) {
+	private void logRequest(final HttpRequestEntity requestEntity, final String baseUrl, final String path) {
 		if (logger.isDebugEnabled()) {
+			final String url = baseUrl + path;
 			if (requestEntity.type == RequestType.POST || requestEntity.type == RequestType.PUT
 					|| requestEntity.type == RequestType.PATCH) {
 				logger.debug("[REQ]http-{}: url={}, headers={}, body={}",
@@ -599,24 +1192,56 @@ public class HttpManager {
 
 	public static String buildUrl(final String baseUrl, final HttpRequestEntity requestEntity) {
 		if (requestEntity.parameters != null && !requestEntity.parameters.isEmpty()) {
-			final String paramString = URLEncodedUtils.format(toList(requestEntity.parameters), "utf-8");
-			if (requestEntity.url.contains("?")) {
-				return baseUrl + requestEntity.url + "&" + paramString;
-			} else {
-				return baseUrl + requestEntity.url + "?" + paramString;
+			final StringBuilder url = new StringBuilder(baseUrl.length() + requestEntity.url.length() + 64);
+			url.append(baseUrl).append(requestEntity.url);
+			url.append(requestEntity.url.indexOf('?') >= 0 ? '&' : '?');
+			boolean first = true;
+			for (final Entry<String, Object> param : requestEntity.parameters.entrySet()) {
+				if (param.getValue() != null) {
+					if (!first) {
+						url.append('&');
+					}
+					appendFormEncoded(url, param.getKey());
+					url.append('=');
+					appendFormEncoded(url, param.getValue().toString());
+					first = false;
+				}
 			}
+			return url.toString();
 		}
 		return baseUrl + requestEntity.url;
 	}
 
-	private static List<NameValuePair> toList(final Map<String, Object> parameters) {
-		final ArrayList<NameValuePair> paramList = new ArrayList<NameValuePair>(parameters.size());
-		for (final Entry<String, Object> param : parameters.entrySet()) {
-			if (param.getValue() != null) {
-				paramList.add(new BasicNameValuePair(param.getKey(), param.getValue().toString()));
+	/**
+	 * Appends the value in application/x-www-form-urlencoded format (UTF-8),
+	 * like URLEncodedUtils.format()
+	 */
+	private static void appendFormEncoded(final StringBuilder url, final String value) {
+		final int length = value.length();
+		for (int i = 0; i < length; i++) {
+			final char c = value.charAt(i);
+			if (c < 0x80 && URL_SAFE[c]) {
+				url.append(c);
+			} else if (c == ' ') {
+				url.append('+');
+			} else if (c < 0x80) {
+				appendPercentEncoded(url, c);
+			} else {
+				// encode the remaining characters as UTF-8
+				int end = i + 1;
+				while (end < length && value.charAt(end) >= 0x80) {
+					end++;
+				}
+				for (final byte b : value.substring(i, end).getBytes(PooledByteArrayOutputStream.UTF_8)) {
+					appendPercentEncoded(url, b & 0xff);
+				}
+				i = end - 1;
 			}
 		}
-		return paramList;
+	}
+
+	private static void appendPercentEncoded(final StringBuilder url, final int b) {
+		url.append('%').append(HEX_DIGITS[b >> 4]).append(HEX_DIGITS[b & 0x0f]);
 	}
 
 	public static void configureBodyParams(
@@ -626,7 +1251,7 @@ public class HttpManager {
 		if (requestEntity.entity != null) {
 			request.setEntity(requestEntity.entity);
 		} else if (requestEntity.bodyText != null) {
-			request.setEntity(new StringEntity(requestEntity.bodyText, APPLICATION_JSON_UTF8));
+			request.setEntity(new PooledByteArrayEntity(requestEntity.bodyText, APPLICATION_JSON_UTF8));
 		}
 
 	}
@@ -663,40 +1288,82 @@ public class HttpManager {
 		return client;
 	}
 
-	public InvocationObject getCurrentObject() {
-		// do nothing here (used in BatchHttpManager)
-		return null;
+	public List<String> getJobIds() {
+		return jobIds;
 	}
 
-	public void setCurrentObject(final InvocationObject currentObject) {
-		// do nothing here (used in BatchHttpManager)
+	public void addJob(final String jobId) {
+		jobIds.add(jobId);
 	}
 
-	public void setPreDefinedResponse(final HttpResponseEntity preDefinedResponse) {
-		this.preDefinedResponse = preDefinedResponse;
+	public String getLastJobId() {
+		return jobIds.isEmpty() ? null : jobIds.get(jobIds.size() - 1);
 	}
 
-	public List<String> getJobIds() {
-		return jobIds;
+	public void resetJobs() {
+		this.jobIds = Collections.synchronizedList(new ArrayList<String>());
+		synchronized (this) {
+			if (asyncJobCollector != null) {
+				asyncJobCollector.removeDone();
+			}
+		}
 	}
 
-	public Map<String, InvocationObject> getJobs() {
-		return jobs;
+	/**
+	 * Returns the handle of a call in async mode. The result of the call is
+	 * collected in the background.
+	 * 
+	 * @param jobId
+	 *            the id of the job
+	 * @return the handle, or null if the job is unknown
+	 */
+	public DeferredResult<?> getAsyncResult(final String jobId) {
+		final AsyncJob job;
+		synchronized (this) {
+			job = asyncJobCollector != null ? asyncJobCollector.getJob(jobId) : null;
+		}
+		return job != null ? job.getDeferredResult() : null;
 	}
 
-	public void addJob(final String jobId, final InvocationObject invocationObject) {
-		jobIds.add(jobId);
-		jobs.put(jobId, invocationObject);
+	/**
+	 * Fails the handle of a deleted job
+	 * 
+	 * @param jobId
+	 *            the id of the job, or null for all jobs
+	 */
+	public synchronized void cancelAsyncJobs(final String jobId) {
+		if (asyncJobCollector != null) {
+			if (jobId != null) {
+				asyncJobCollector.cancel(jobId);
+			} else {
+				asyncJobCollector.cancelAll();
+			}
+		}
 	}
 
-	public String getLastJobId() {
-		return jobIds.isEmpty() ? null : jobIds.get(jobIds.size() - 1);
+	/**
+	 * Returns the counters of the fire-and-forget mode
+	 * 
+	 * @return the counters
+	 */
+	public FireAndForgetStatistics getFireAndForgetStatistics() {
+		return fireAndForgetWindow.getStatistics();
 	}
 
-	public void resetJobs() {
-		this.jobIds = new ArrayList<String>();
-		this.jobs.clear();
+	/**
+	 * Returns the counters of the client side admission control
+	 * 
+	 * @return the counters, null if no request limits are configured
+	 */
+	public AdmissionStatistics getAdmissionStatistics() {
+		return admissionControl != null ? admissionControl.getStatistics() : null;
+	}
 
+	private synchronized AsyncJobCollector getAsyncJobCollector() {
+		if (asyncJobCollector == null) {
+			asyncJobCollector = new AsyncJobCollector(this, configure.getAsyncJobPollInterval());
+		}
+		return asyncJobCollector;
 	}
 
 	private SSLConnectionSocketFactory initSSLConnectionSocketFactory() {
@@ -709,4 +1376,22 @@ public class HttpManager {
 		return sslsf;
 	}
 
+	private static class AuthHeader {
+
+		private final String user;
+		private final String password;
+		private final Header header;
+
+		AuthHeader(final String user, final String password, final Header header) {
+			this.user = user;
+			this.password = password;
+			this.header = header;
+		}
+
+		boolean matches(final String user, final String password) {
+			return this.user.equals(user) && this.password.equals(password);
+		}
+
+	}
+
 }
@@ -20,6 +20,8 @@ import java.util.Map;
 
 import org.apache.http.HttpEntity;
 
+import com.arangodb.util.RequestOptions.Priority;
+
 /**
  * @author tamtam180 - kirscheless at gmail.com
  * 
@@ -38,6 +40,23 @@ public class HttpRequestEntity {
 	public String password;
 	public String bodyText;
 	public HttpEntity entity;
+	/**
+	 * the time (System.currentTimeMillis()) at which the request is aborted,
+	 * it is not retried afterwards (0 for no deadline)
+	 */
+	public long deadline;
+	/**
+	 * the name of the request limits of the caller (optional)
+	 */
+	public String tag;
+	/**
+	 * the order of the request waiting for admission (null for NORMAL)
+	 */
+	public Priority priority;
+	/**
+	 * an idempotent read, which may be sent to a second host (hedged reads)
+	 */
+	public boolean hedgeable;
 
 	public Map<String, Object> getHeaders() {
 		return headers;
@@ -107,4 +126,53 @@ public class HttpRequestEntity {
 		this.entity = entity;
 	}
 
+	public long getDeadline() {
+		return deadline;
+	}
+
+	public void setDeadline(long deadline) {
+		this.deadline = deadline;
+	}
+
+	public String getTag() {
+		return tag;
+	}
+
+	public void setTag(String tag) {
+		this.tag = tag;
+	}
+
+	public Priority getPriority() {
+		return priority;
+	}
+
+	public void setPriority(Priority priority) {
+		this.priority = priority;
+	}
+
+	public boolean isHedgeable() {
+		return hedgeable;
+	}
+
+	public void setHedgeable(boolean hedgeable) {
+		this.hedgeable = hedgeable;
+	}
+
+	/**
+	 * Returns the socket timeout of the request: the remaining time until the
+	 * deadline, at most the configured timeout
+	 * 
+	 * @param timeout
+	 *            the configured timeout in milliseconds (&lt;= 0 waits
+	 *            forever)
+	 * @return the timeout in milliseconds
+	 */
+	public int getTimeout(int timeout) {
+		if (deadline <= 0) {
+			return timeout;
+		}
+		final long remaining = Math.max(1L, deadline - System.currentTimeMillis());
+		return (int) (timeout > 0 ? Math.min(timeout, remaining) : Math.min(Integer.MAX_VALUE, remaining));
+	}
+
 }
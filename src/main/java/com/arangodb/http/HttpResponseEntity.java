@@ -17,7 +17,15 @@
 package com.arangodb.http;
 
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.http.Header;
+
+import com.arangodb.util.PooledByteArrayOutputStream;
 
 /**
  * @author tamtam180 - kirscheless at gmail.com
@@ -28,10 +36,26 @@ public class HttpResponseEntity {
 	int statusCode;
 	String statusPhrase;
 	String text;
+	/**
+	 * the UTF-8 encoded body, the text is decoded on demand
+	 */
+	PooledByteArrayOutputStream body;
 	InputStream stream;
 	long etag = -1;
 	String requestId;
+	/**
+	 * the stacked call of a batch mode response
+	 */
+	BatchPart batchPart;
+	/**
+	 * the stored job of an async mode response
+	 */
+	AsyncJob asyncJob;
 	Map<String, String> headers;
+	/**
+	 * the headers of the HttpClient response, the map is created on demand
+	 */
+	Header[] rawHeaders;
 
 	String contentType;
 
@@ -86,9 +110,41 @@ public class HttpResponseEntity {
 	}
 
 	public String getText() {
+		if (text == null && body != null) {
+			text = body.toString();
+		}
 		return text;
 	}
 
+	/**
+	 * Returns a reader of the body. Entities are deserialized from the UTF-8
+	 * bytes, without creating the text first.
+	 * 
+	 * @return the reader or null, if the response has no body
+	 */
+	public Reader getReader() {
+		if (text == null && body != null) {
+			return new InputStreamReader(body.toInputStream(), PooledByteArrayOutputStream.UTF_8);
+		}
+		return text != null ? new StringReader(text) : null;
+	}
+
+	public void setBody(PooledByteArrayOutputStream body) {
+		this.body = body;
+		this.text = null;
+	}
+
+	/**
+	 * Returns the buffer of the body to the pool. The text of the response is
+	 * only available afterwards, if it was read before.
+	 */
+	public void release() {
+		if (body != null) {
+			body.release();
+			body = null;
+		}
+	}
+
 	public void setStatusCode(int statusCode) {
 		this.statusCode = statusCode;
 	}
@@ -98,6 +154,7 @@ public class HttpResponseEntity {
 	}
 
 	public void setText(String text) {
+		release();
 		this.text = text;
 	}
 
@@ -109,12 +166,24 @@ public class HttpResponseEntity {
 		this.etag = etag;
 	}
 
+	/**
+	 * @return the headers of the response, the names are case-insensitive
+	 */
 	public Map<String, String> getHeaders() {
+		if (headers == null && rawHeaders != null) {
+			final Map<String, String> map = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
+			for (final Header header : rawHeaders) {
+				map.put(header.getName(), header.getValue());
+			}
+			headers = map;
+			rawHeaders = null;
+		}
 		return headers;
 	}
 
 	public void setHeaders(Map<String, String> headers) {
 		this.headers = headers;
+		this.rawHeaders = null;
 	}
 
 	public String getContentType() {
@@ -133,6 +202,21 @@ public class HttpResponseEntity {
 		this.requestId = requestId;
 	}
 
+	/**
+	 * @return the stacked call, if this is the response of a call in batch
+	 *         mode
+	 */
+	public BatchPart getBatchPart() {
+		return batchPart;
+	}
+
+	/**
+	 * @return the job, if the response is the answer of a call in async mode
+	 */
+	public AsyncJob getAsyncJob() {
+		return asyncJob;
+	}
+
 	public String createStatusPhrase() {
 		String result;
 		switch (statusCode) {
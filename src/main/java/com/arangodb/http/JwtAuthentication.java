@@ -0,0 +1,234 @@
+package com.arangodb.http;
+
+import java.net.SocketException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.codec.binary.Base64;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.message.BasicHeader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.arangodb.ArangoException;
+import com.arangodb.entity.DefaultEntity;
+import com.arangodb.http.HttpRequestEntity.RequestType;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * JSON Web Token of the configured user. The token is requested once from
+ * /_open/auth and shared by all connections and hosts of a driver. It is
+ * renewed shortly before it expires (by one thread, the others keep using the
+ * valid token) or when the server rejects it.
+ */
+class JwtAuthentication {
+
+	private static Logger logger = LoggerFactory.getLogger(JwtAuthentication.class);
+
+	static final String AUTH_URL = "/_open/auth";
+
+	/**
+	 * renew the token one minute before it expires
+	 */
+	private static final long REFRESH_BEFORE_EXPIRY = 60L * 1000L;
+
+	private final HttpManager httpManager;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final AtomicBoolean refreshing = new AtomicBoolean();
+
+	private volatile Token token;
+
+	JwtAuthentication(final HttpManager httpManager) {
+		this.httpManager = httpManager;
+	}
+
+	/**
+	 * Returns the authorization header, a new token is requested if there is
+	 * no valid token
+	 *
+	 * @param baseUrl
+	 *            the server to request a new token from
+	 * @param user
+	 *            the user
+	 * @param password
+	 *            the password
+	 * @return the authorization header with the bearer token
+	 * @throws ArangoException
+	 * @throws SocketException
+	 */
+	Header getHeader(final String baseUrl, final String user, final String password)
+			throws ArangoException, SocketException {
+		Token current = token;
+		if (current != null && current.matches(user, password)) {
+			final long now = System.currentTimeMillis();
+			if (now < current.refreshAt) {
+				return current.header;
+			}
+			if (now < current.expiresAt) {
+				// one thread renews the token, the others use the valid one
+				if (refreshing.compareAndSet(false, true)) {
+					try {
+						current = requestToken(baseUrl, user, password);
+						token = current;
+					} catch (final ArangoException e) {
+						logger.warn("could not renew the JWT: " + e.getMessage());
+					} catch (final SocketException e) {
+						logger.warn("could not renew the JWT: " + e.getMessage());
+					} finally {
+						refreshing.set(false);
+					}
+				}
+				return current.header;
+			}
+		}
+
+		// a lock instead of a monitor, virtual threads waiting for the login
+		// request do not pin their carrier thread
+		lock.lock();
+		try {
+			current = token;
+			if (current != null && current.matches(user, password)
+					&& System.currentTimeMillis() < current.expiresAt) {
+				return current.header;
+			}
+			current = requestToken(baseUrl, user, password);
+			token = current;
+			return current.header;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Drops the token after the server rejected it. The token is only dropped
+	 * if no other thread has replaced it in the meantime.
+	 *
+	 * @param header
+	 *            the rejected authorization header
+	 */
+	void invalidate(final Header header) {
+		lock.lock();
+		try {
+			if (token != null && token.header == header) {
+				token = null;
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private Token requestToken(final String baseUrl, final String user, final String password)
+			throws ArangoException, SocketException {
+		final JsonObject body = new JsonObject();
+		body.addProperty("username", user);
+		body.addProperty("password", password);
+
+		final HttpRequestEntity requestEntity = new HttpRequestEntity();
+		requestEntity.type = RequestType.POST;
+		requestEntity.url = AUTH_URL;
+		requestEntity.bodyText = body.toString();
+
+		final HttpResponseEntity res = httpManager.executeAuthRequest(baseUrl, requestEntity);
+		try {
+			JsonObject json = null;
+			if (res.getText() != null && res.isJsonResponse()) {
+				final JsonElement element = new JsonParser().parse(res.getText());
+				if (element.isJsonObject()) {
+					json = element.getAsJsonObject();
+				}
+			}
+			if (res.getStatusCode() != 200 || json == null || !json.has("jwt")) {
+				throw createException(res, json);
+			}
+			return new Token(user, password, json.get("jwt").getAsString());
+		} finally {
+			res.release();
+		}
+	}
+
+	private ArangoException createException(final HttpResponseEntity res, final JsonObject json) {
+		final DefaultEntity defaultEntity = new DefaultEntity();
+		if (json != null && json.has("errorMessage")) {
+			defaultEntity.setErrorMessage(json.get("errorMessage").getAsString());
+		} else {
+			defaultEntity.setErrorMessage("could not get a JWT: " + res.createStatusPhrase());
+		}
+		if (json != null && json.has("errorNum")) {
+			defaultEntity.setErrorNumber(json.get("errorNum").getAsInt());
+		}
+		defaultEntity.setCode(res.getStatusCode());
+		defaultEntity.setStatusCode(res.getStatusCode());
+		defaultEntity.setError(true);
+		return new ArangoException(defaultEntity);
+	}
+
+	/**
+	 * Returns the lifetime of the token in milliseconds, from the "iat" and
+	 * "exp" claims. The local clock is used for the expiry, so the clocks of
+	 * client and server do not have to be in sync.
+	 *
+	 * @param jwt
+	 *            the token
+	 * @return the lifetime or -1, if the token does not expire
+	 */
+	static long getLifetime(final String jwt) {
+		final String[] parts = jwt.split("\\.");
+		if (parts.length < 2) {
+			return -1;
+		}
+		try {
+			final String payload = new String(Base64.decodeBase64(parts[1]), "utf-8");
+			final JsonElement element = new JsonParser().parse(payload);
+			if (!element.isJsonObject()) {
+				return -1;
+			}
+			final JsonObject claims = element.getAsJsonObject();
+			if (!claims.has("exp")) {
+				return -1;
+			}
+			final double exp = claims.get("exp").getAsDouble();
+			final double iat = claims.has("iat") ? claims.get("iat").getAsDouble()
+					: System.currentTimeMillis() / 1000.0;
+			return Math.max(0L, (long) ((exp - iat) * 1000.0));
+		} catch (final Exception e) {
+			logger.debug("could not read the expiry of the JWT", e);
+			return -1;
+		}
+	}
+
+	private static class Token {
+
+		private final String user;
+		private final String password;
+		private final Header header;
+		private final long refreshAt;
+		private final long expiresAt;
+
+		Token(final String user, final String password, final String jwt) {
+			this.user = user;
+			this.password = password;
+			this.header = new BasicHeader(HttpHeaders.AUTHORIZATION, "bearer " + jwt);
+			final long lifetime = getLifetime(jwt);
+			if (lifetime < 0) {
+				// renewed when the server rejects it
+				this.refreshAt = Long.MAX_VALUE;
+				this.expiresAt = Long.MAX_VALUE;
+			} else {
+				final long now = System.currentTimeMillis();
+				this.expiresAt = now + lifetime;
+				this.refreshAt = now + Math.max(lifetime - REFRESH_BEFORE_EXPIRY, lifetime / 2);
+			}
+		}
+
+		boolean matches(final String user, final String password) {
+			return this.user.equals(user) && this.password.equals(password);
+		}
+
+	}
+
+}
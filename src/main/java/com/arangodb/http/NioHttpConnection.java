@@ -0,0 +1,321 @@
+package com.arangodb.http;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.arangodb.util.PooledByteArrayOutputStream;
+
+/**
+ * A keep-alive HTTP/1.1 connection of the {@link NioHttpTransport}. The
+ * channel is non-blocking, a selector of the connection implements the read
+ * and write timeouts. A connection is used by one thread at a time.
+ */
+class NioHttpConnection {
+
+	private final String baseUrl;
+	private final SocketChannel channel;
+	private final Selector selector;
+	private final SelectionKey key;
+	private final DirectBufferPool bufferPool;
+	private final ByteBuffer readBuffer;
+	private final ByteBuffer writeBuffer;
+
+	private boolean keepAlive = true;
+	private boolean closed;
+	private boolean requestSent;
+	private boolean responseStarted;
+	private int requests;
+
+	NioHttpConnection(final String baseUrl, final InetSocketAddress address, final int connectTimeout,
+		final DirectBufferPool bufferPool) throws IOException {
+		this.baseUrl = baseUrl;
+		this.bufferPool = bufferPool;
+		this.channel = SocketChannel.open();
+		try {
+			channel.socket().setTcpNoDelay(true);
+			channel.socket().connect(address, connectTimeout);
+			channel.configureBlocking(false);
+			this.selector = Selector.open();
+			this.key = channel.register(selector, 0);
+		} catch (final IOException e) {
+			channel.close();
+			throw e;
+		}
+		this.readBuffer = bufferPool.acquire();
+		this.writeBuffer = bufferPool.acquire();
+		// the read buffer is kept in read mode
+		readBuffer.flip();
+	}
+
+	String getBaseUrl() {
+		return baseUrl;
+	}
+
+	/**
+	 * @return true, if the connection can be used for the next request
+	 */
+	boolean isKeepAlive() {
+		return keepAlive;
+	}
+
+	/**
+	 * @return true, if the connection was used by a previous request (the
+	 *         server may have closed it in the meantime)
+	 */
+	boolean isReused() {
+		return requests > 1;
+	}
+
+	/**
+	 * Checks an idle connection before it is used again
+	 *
+	 * @return true, if the server closed the connection (or sent data without
+	 *         a request)
+	 */
+	boolean isStale() {
+		if (readBuffer.hasRemaining()) {
+			return true;
+		}
+		readBuffer.clear();
+		try {
+			return channel.read(readBuffer) != 0;
+		} catch (final IOException e) {
+			return true;
+		} finally {
+			readBuffer.flip();
+		}
+	}
+
+	/**
+	 * @return true, if the request was sent completely
+	 */
+	boolean isRequestSent() {
+		return requestSent;
+	}
+
+	/**
+	 * @return true, if at least one byte of the response was received
+	 */
+	boolean isResponseStarted() {
+		return responseStarted;
+	}
+
+	/**
+	 * Sends the request and reads the response
+	 *
+	 * @param head
+	 *            the request line and headers
+	 * @param body
+	 *            the body or null
+	 * @param headRequest
+	 *            true, if the response has no body
+	 * @param timeout
+	 *            read and write timeout in milliseconds (&lt;= 0 waits forever)
+	 * @return the response (the body is stored in a pooled buffer)
+	 */
+	Response execute(
+		final byte[] head,
+		final PooledByteArrayOutputStream body,
+		final boolean headRequest,
+		final int timeout) throws IOException {
+		requests++;
+		requestSent = false;
+		responseStarted = false;
+		write(head, head.length, timeout);
+		if (body != null) {
+			write(body.getBuffer(), body.size(), timeout);
+		}
+		requestSent = true;
+
+		final Response response = new Response();
+		final String statusLine = readLine(timeout);
+		final String[] status = statusLine.split(" ", 3);
+		if (status.length < 2 || !status[0].startsWith("HTTP/")) {
+			throw new IOException("invalid status line: " + statusLine);
+		}
+		response.statusCode = Integer.parseInt(status[1]);
+		response.statusPhrase = status.length > 2 ? status[2] : null;
+		keepAlive = "HTTP/1.1".equals(status[0]);
+
+		String line;
+		while ((line = readLine(timeout)).length() > 0) {
+			final int colon = line.indexOf(':');
+			if (colon > 0) {
+				response.headers.put(line.substring(0, colon).trim(), line.substring(colon + 1).trim());
+			}
+		}
+		final String connection = response.headers.get("Connection");
+		if (connection != null) {
+			keepAlive = !"close".equalsIgnoreCase(connection);
+		}
+
+		final int code = response.statusCode;
+		if (headRequest || (code >= 100 && code < 200) || code == 204 || code == 304) {
+			return response;
+		}
+		final String transferEncoding = response.headers.get("Transfer-Encoding");
+		final String contentLength = response.headers.get("Content-Length");
+		if (transferEncoding != null && transferEncoding.toLowerCase().contains("chunked")) {
+			response.body = new PooledByteArrayOutputStream();
+			readChunked(response.body, timeout);
+		} else if (contentLength != null) {
+			final int length = Integer.parseInt(contentLength);
+			response.body = new PooledByteArrayOutputStream(length);
+			read(response.body, length, timeout);
+		} else {
+			// the body ends with the connection
+			keepAlive = false;
+			response.body = new PooledByteArrayOutputStream();
+			readToEnd(response.body, timeout);
+		}
+		return response;
+	}
+
+	void close() {
+		keepAlive = false;
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			selector.close();
+			channel.close();
+		} catch (final IOException e) {
+			// ignore
+		}
+		bufferPool.release(readBuffer);
+		bufferPool.release(writeBuffer);
+	}
+
+	private void write(final byte[] data, final int size, final int timeout) throws IOException {
+		int offset = 0;
+		while (offset < size) {
+			writeBuffer.clear();
+			final int length = Math.min(writeBuffer.remaining(), size - offset);
+			writeBuffer.put(data, offset, length);
+			writeBuffer.flip();
+			offset += length;
+			while (writeBuffer.hasRemaining()) {
+				if (channel.write(writeBuffer) == 0) {
+					await(SelectionKey.OP_WRITE, timeout);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads at least one byte into the read buffer
+	 *
+	 * @return false, if the connection was closed by the server
+	 */
+	private boolean fill(final int timeout) throws IOException {
+		readBuffer.clear();
+		try {
+			int read;
+			while ((read = channel.read(readBuffer)) == 0) {
+				await(SelectionKey.OP_READ, timeout);
+			}
+			if (read < 0) {
+				return false;
+			}
+			responseStarted = true;
+			return true;
+		} finally {
+			readBuffer.flip();
+		}
+	}
+
+	private void await(final int operation, final int timeout) throws IOException {
+		key.interestOps(operation);
+		try {
+			if (selector.select(timeout > 0 ? timeout : 0) == 0) {
+				throw new SocketTimeoutException("read timed out");
+			}
+		} finally {
+			selector.selectedKeys().clear();
+			key.interestOps(0);
+		}
+	}
+
+	private void ensureReadable(final int timeout) throws IOException {
+		if (!readBuffer.hasRemaining() && !fill(timeout)) {
+			keepAlive = false;
+			throw new SocketException("connection closed by server");
+		}
+	}
+
+	private String readLine(final int timeout) throws IOException {
+		final StringBuilder line = new StringBuilder();
+		while (true) {
+			ensureReadable(timeout);
+			final byte b = readBuffer.get();
+			if (b == '\n') {
+				final int length = line.length();
+				if (length > 0 && line.charAt(length - 1) == '\r') {
+					line.setLength(length - 1);
+				}
+				return line.toString();
+			}
+			line.append((char) (b & 0xff));
+		}
+	}
+
+	private void read(final PooledByteArrayOutputStream body, final int length, final int timeout)
+			throws IOException {
+		int remaining = length;
+		while (remaining > 0) {
+			ensureReadable(timeout);
+			final int n = Math.min(readBuffer.remaining(), remaining);
+			body.write(readBuffer, n);
+			remaining -= n;
+		}
+	}
+
+	private void readChunked(final PooledByteArrayOutputStream body, final int timeout) throws IOException {
+		while (true) {
+			String sizeLine = readLine(timeout);
+			final int ext = sizeLine.indexOf(';');
+			if (ext >= 0) {
+				sizeLine = sizeLine.substring(0, ext);
+			}
+			final int size = Integer.parseInt(sizeLine.trim(), 16);
+			if (size == 0) {
+				// skip the trailers
+				String trailer;
+				do {
+					trailer = readLine(timeout);
+				} while (trailer.length() > 0);
+				return;
+			}
+			read(body, size, timeout);
+			readLine(timeout);
+		}
+	}
+
+	private void readToEnd(final PooledByteArrayOutputStream body, final int timeout) throws IOException {
+		while (readBuffer.hasRemaining() || fill(timeout)) {
+			body.write(readBuffer, readBuffer.remaining());
+		}
+	}
+
+	/**
+	 * The status, headers and body of a response
+	 */
+	static class Response {
+
+		int statusCode;
+		String statusPhrase;
+		final Map<String, String> headers = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
+		PooledByteArrayOutputStream body;
+
+	}
+
+}
@@ -0,0 +1,341 @@
+package com.arangodb.http;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.Charset;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.arangodb.ArangoConfigure;
+import com.arangodb.ArangoException;
+import com.arangodb.http.HttpRequestEntity.RequestType;
+import com.arangodb.util.PooledByteArrayOutputStream;
+
+/**
+ * Minimal HTTP/1.1 client on top of NIO channels. It implements only what the
+ * driver needs: keep-alive connections, content-length and chunked responses,
+ * pre-encoded headers and pooled direct buffers. Request and response bodies
+ * are kept as UTF-8 bytes in pooled buffers.
+ * <p>
+ * HTTPS, proxies and unix domain sockets are not supported, the HttpManager
+ * uses the Apache HttpClient in these cases.
+ */
+public class NioHttpTransport implements Transport {
+
+	private static Logger logger = LoggerFactory.getLogger(NioHttpTransport.class);
+
+	private static final String ISO_8859_1 = "ISO-8859-1";
+	private static final String CRLF = "\r\n";
+	private static final String APPLICATION_JSON_UTF8 = "application/json; charset=utf-8";
+	private static final String CONTENT_TYPE = "Content-Type";
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final int MAX_CACHED_HEADERS = 64;
+
+	private final ArangoConfigure configure;
+	private final Semaphore permits;
+	private final ConcurrentLinkedQueue<NioHttpConnection> idleConnections;
+	private final DirectBufferPool bufferPool;
+
+	/**
+	 * encoded header lines, the same headers (user agent, authorization) are
+	 * sent with every request
+	 */
+	private final ConcurrentMap<String, byte[]> headerCache = new ConcurrentHashMap<String, byte[]>();
+
+	private volatile boolean destroyed;
+
+	public NioHttpTransport(final ArangoConfigure configure) {
+		this.configure = configure;
+		final int maxConnections = Math.max(1, configure.getMaxPerConnection());
+		this.permits = new Semaphore(maxConnections);
+		this.idleConnections = new ConcurrentLinkedQueue<NioHttpConnection>();
+		this.bufferPool = new DirectBufferPool(BUFFER_SIZE, maxConnections * 2);
+	}
+
+	/**
+	 * @return true, if the configuration can be served by this transport
+	 */
+	public static boolean isSupported(final ArangoConfigure configure) {
+		return !configure.getUseSsl() && configure.getUnixSocket() == null
+				&& (configure.getProxyHost() == null || configure.getProxyPort() == 0);
+	}
+
+	@Override
+	public HttpResponseEntity execute(
+		final String baseUrl,
+		final String path,
+		final HttpRequestEntity requestEntity,
+		final Map<String, String> headers) throws ArangoException, SocketException {
+
+		final PooledByteArrayOutputStream body = getBody(requestEntity);
+		try {
+			return execute(baseUrl, buildHead(baseUrl, path, requestEntity, headers, body), body, requestEntity);
+		} finally {
+			if (body != null) {
+				body.release();
+			}
+		}
+	}
+
+	private HttpResponseEntity execute(
+		final String baseUrl,
+		final byte[] head,
+		final PooledByteArrayOutputStream body,
+		final HttpRequestEntity requestEntity) throws ArangoException, SocketException {
+
+		final boolean headRequest = requestEntity.type == RequestType.HEAD;
+		acquirePermit(requestEntity.getTimeout(configure.getTimeout()));
+		try {
+			NioHttpConnection connection = getConnection(baseUrl);
+			try {
+				NioHttpConnection.Response response;
+				try {
+					response = connection.execute(head, body, headRequest,
+						requestEntity.getTimeout(configure.getTimeout()));
+				} catch (final IOException e) {
+					if (!isRetryable(connection, requestEntity, e)) {
+						throw e;
+					}
+					// the server closed the idle connection, retry once on a
+					// new connection
+					connection.close();
+					connection = connect(baseUrl);
+					response = connection.execute(head, body, headRequest,
+						requestEntity.getTimeout(configure.getTimeout()));
+				}
+				return buildResponseEntity(requestEntity, response);
+			} catch (final SocketException e) {
+				connection.close();
+				throw e;
+			} catch (final IOException e) {
+				connection.close();
+				throw new ArangoException(e);
+			} finally {
+				if (connection.isKeepAlive() && !destroyed) {
+					idleConnections.offer(connection);
+				} else {
+					connection.close();
+				}
+			}
+		} catch (final SocketException e) {
+			throw e;
+		} catch (final IOException e) {
+			throw new ArangoException(e);
+		} finally {
+			permits.release();
+		}
+	}
+
+	/**
+	 * A reused connection may have been closed by the server while it was
+	 * idle. The request is sent again, if it was not sent completely, or if it
+	 * is a read without a response so far. A timeout is never retried, the
+	 * server may still execute the request.
+	 */
+	private static boolean isRetryable(
+		final NioHttpConnection connection,
+		final HttpRequestEntity requestEntity,
+		final IOException e) {
+		if (!connection.isReused() || connection.isResponseStarted() || e instanceof SocketTimeoutException) {
+			return false;
+		}
+		return !connection.isRequestSent() || requestEntity.type == RequestType.GET
+				|| requestEntity.type == RequestType.HEAD;
+	}
+
+	@Override
+	public void destroy() {
+		destroyed = true;
+		NioHttpConnection connection;
+		while ((connection = idleConnections.poll()) != null) {
+			connection.close();
+		}
+	}
+
+	private void acquirePermit(final int timeout) throws ArangoException {
+		try {
+			if (timeout > 0) {
+				if (!permits.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+					throw new ArangoException("timeout waiting for a connection");
+				}
+			} else {
+				permits.acquire();
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ArangoException(e);
+		}
+	}
+
+	private NioHttpConnection getConnection(final String baseUrl) throws IOException {
+		NioHttpConnection connection;
+		while ((connection = idleConnections.poll()) != null) {
+			if (connection.getBaseUrl().equals(baseUrl) && !connection.isStale()) {
+				return connection;
+			}
+			// the current host changed (fallback host) or the server closed
+			// the idle connection
+			connection.close();
+		}
+		return connect(baseUrl);
+	}
+
+	private NioHttpConnection connect(final String baseUrl) throws IOException {
+		final String hostPort = baseUrl.substring(baseUrl.indexOf("://") + 3);
+		final int colon = hostPort.lastIndexOf(':');
+		final InetSocketAddress address = new InetSocketAddress(hostPort.substring(0, colon),
+				Integer.parseInt(hostPort.substring(colon + 1)));
+		return new NioHttpConnection(baseUrl, address, Math.max(0, configure.getConnectionTimeout()), bufferPool);
+	}
+
+	private PooledByteArrayOutputStream getBody(final HttpRequestEntity requestEntity) throws ArangoException {
+		try {
+			if (requestEntity.entity != null) {
+				return PooledByteArrayOutputStream.read(requestEntity.entity.getContent(),
+					requestEntity.entity.getContentLength());
+			}
+		} catch (final IOException e) {
+			throw new ArangoException(e);
+		}
+		if (requestEntity.bodyText != null) {
+			return PooledByteArrayOutputStream.encode(requestEntity.bodyText);
+		}
+		final RequestType type = requestEntity.type;
+		if (type == RequestType.POST || type == RequestType.PUT || type == RequestType.PATCH) {
+			return new PooledByteArrayOutputStream(0);
+		}
+		return null;
+	}
+
+	private byte[] buildHead(
+		final String baseUrl,
+		final String path,
+		final HttpRequestEntity requestEntity,
+		final Map<String, String> headers,
+		final PooledByteArrayOutputStream body) throws ArangoException {
+		final StringBuilder head = new StringBuilder(256);
+		head.append(requestEntity.type.name()).append(' ').append(path).append(" HTTP/1.1").append(CRLF);
+		head.append("Host: ").append(baseUrl.substring(baseUrl.indexOf("://") + 3)).append(CRLF);
+		if (body != null) {
+			String contentType = APPLICATION_JSON_UTF8;
+			if (requestEntity.entity != null) {
+				final Header header = requestEntity.entity.getContentType();
+				contentType = header != null ? header.getValue() : null;
+			} else if (headers != null && headers.containsKey(CONTENT_TYPE)) {
+				// e.g. the multipart body of a batch request
+				contentType = null;
+			}
+			if (contentType != null) {
+				head.append(CONTENT_TYPE).append(": ").append(contentType).append(CRLF);
+			}
+			head.append("Content-Length: ").append(body.size()).append(CRLF);
+		}
+
+		try {
+			final byte[] start = head.toString().getBytes(ISO_8859_1);
+			int length = start.length + 2;
+			final byte[][] lines = new byte[headers == null ? 0 : headers.size()][];
+			int i = 0;
+			if (headers != null) {
+				for (final Entry<String, String> header : headers.entrySet()) {
+					lines[i] = encodeHeader(header.getKey(), header.getValue());
+					length += lines[i++].length;
+				}
+			}
+			final byte[] result = new byte[length];
+			System.arraycopy(start, 0, result, 0, start.length);
+			int pos = start.length;
+			for (final byte[] line : lines) {
+				System.arraycopy(line, 0, result, pos, line.length);
+				pos += line.length;
+			}
+			result[pos++] = '\r';
+			result[pos] = '\n';
+			return result;
+		} catch (final UnsupportedEncodingException e) {
+			throw new ArangoException(e);
+		}
+	}
+
+	private byte[] encodeHeader(final String name, final String value) throws UnsupportedEncodingException {
+		final String line = name + ": " + value + CRLF;
+		byte[] encoded = headerCache.get(line);
+		if (encoded == null) {
+			encoded = line.getBytes(ISO_8859_1);
+			if (headerCache.size() < MAX_CACHED_HEADERS) {
+				headerCache.putIfAbsent(line, encoded);
+			}
+		}
+		return encoded;
+	}
+
+	private HttpResponseEntity buildResponseEntity(
+		final HttpRequestEntity requestEntity,
+		final NioHttpConnection.Response response) throws ArangoException {
+
+		final HttpResponseEntity responseEntity = new HttpResponseEntity();
+		responseEntity.statusCode = response.statusCode;
+		responseEntity.statusPhrase = response.statusPhrase;
+		responseEntity.headers = response.headers;
+
+		if (logger.isDebugEnabled()) {
+			logger.debug("[RES]http-{}: statusCode={}", requestEntity.type, responseEntity.statusCode);
+		}
+
+		final String etag = response.headers.get("etag");
+		if (etag != null) {
+			responseEntity.etag = Long.parseLong(etag.replace("\"", ""));
+		}
+
+		if (response.body != null) {
+			responseEntity.contentType = response.headers.get("Content-Type");
+			final Charset charset = getCharset(responseEntity.contentType);
+			if (responseEntity.contentType != null && responseEntity.isDumpResponse()) {
+				// the buffer is left to the garbage collector
+				responseEntity.stream = response.body.toInputStream();
+			} else if (charset == null) {
+				responseEntity.body = response.body;
+			} else {
+				responseEntity.text = new String(response.body.getBuffer(), 0, response.body.size(), charset);
+				response.body.release();
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("[RES]http-{}: text={}", requestEntity.type, responseEntity.getText());
+			}
+		}
+		return responseEntity;
+	}
+
+	/**
+	 * @return the charset of the body, if it is not UTF-8
+	 */
+	private static Charset getCharset(final String contentType) {
+		if (contentType != null) {
+			final int index = contentType.toLowerCase().indexOf("charset=");
+			if (index >= 0) {
+				try {
+					final Charset charset = Charset
+							.forName(contentType.substring(index + 8).replace("\"", "").trim());
+					return PooledByteArrayOutputStream.UTF_8.equals(charset) ? null : charset;
+				} catch (final IllegalArgumentException e) {
+					// unknown charset, use utf-8
+				}
+			}
+		}
+		return null;
+	}
+
+}
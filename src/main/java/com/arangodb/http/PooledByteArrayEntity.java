@@ -0,0 +1,55 @@
+package com.arangodb.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+
+import com.arangodb.util.PooledByteArrayOutputStream;
+
+/**
+ * Repeatable request entity of a UTF-8 encoded body in a pooled buffer. The
+ * buffer is returned to the pool by {@link #release()} after the request.
+ */
+class PooledByteArrayEntity extends AbstractHttpEntity {
+
+	private PooledByteArrayOutputStream content;
+
+	PooledByteArrayEntity(final String text, final ContentType contentType) {
+		this.content = PooledByteArrayOutputStream.encode(text);
+		setContentType(contentType.toString());
+	}
+
+	@Override
+	public boolean isRepeatable() {
+		return true;
+	}
+
+	@Override
+	public long getContentLength() {
+		return content.size();
+	}
+
+	@Override
+	public InputStream getContent() throws IOException {
+		return content.toInputStream();
+	}
+
+	@Override
+	public void writeTo(final OutputStream outstream) throws IOException {
+		outstream.write(content.getBuffer(), 0, content.size());
+		outstream.flush();
+	}
+
+	@Override
+	public boolean isStreaming() {
+		return false;
+	}
+
+	void release() {
+		content.release();
+	}
+
+}
@@ -0,0 +1,67 @@
+package com.arangodb.http;
+
+/**
+ * A client side limit of the requests of a database, an endpoint class or a
+ * tag of the caller. The key is one of
+ * <ul>
+ * <li>"database.&lt;name&gt;": the requests to a database</li>
+ * <li>"endpoint.&lt;class&gt;": the requests to an endpoint class, one of
+ * document, cursor, import, graph and other</li>
+ * <li>"tag.&lt;tag&gt;": the requests of calls with the tag, see
+ * {@link com.arangodb.util.RequestOptions#setTag(String)}</li>
+ * </ul>
+ */
+public class RequestLimit {
+
+	public static final String DATABASE = "database.";
+	public static final String ENDPOINT = "endpoint.";
+	public static final String TAG = "tag.";
+
+	private final String key;
+	private final double rate;
+	private final int burst;
+	private final int maxConcurrent;
+
+	/**
+	 * @param key
+	 *            the requests of the limit
+	 * @param rate
+	 *            requests per second (0 for no rate limit)
+	 * @param burst
+	 *            maximum number of requests sent at once after an idle time
+	 * @param maxConcurrent
+	 *            maximum number of concurrent requests (0 for no limit)
+	 */
+	public RequestLimit(final String key, final double rate, final int burst, final int maxConcurrent) {
+		if (key == null || !(key.startsWith(DATABASE) || key.startsWith(ENDPOINT) || key.startsWith(TAG))) {
+			throw new IllegalArgumentException("the key of a limit starts with database., endpoint. or tag.: " + key);
+		}
+		this.key = key;
+		this.rate = Math.max(0.0, rate);
+		this.burst = Math.max(1, burst);
+		this.maxConcurrent = Math.max(0, maxConcurrent);
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	public double getRate() {
+		return rate;
+	}
+
+	public int getBurst() {
+		return burst;
+	}
+
+	public int getMaxConcurrent() {
+		return maxConcurrent;
+	}
+
+	@Override
+	public String toString() {
+		return "RequestLimit [key=" + key + ", rate=" + rate + ", burst=" + burst + ", maxConcurrent=" + maxConcurrent
+				+ "]";
+	}
+
+}
@@ -0,0 +1,34 @@
+package com.arangodb.http;
+
+import java.net.SocketException;
+
+/**
+ * Decides whether a failed request is sent again and how long the
+ * {@link HttpManager} waits before. The HttpManager asks the policy after
+ * every attempt, also after successful ones, so that a policy can keep
+ * statistics (e.g. a retry budget). Requests with a body, which can not be
+ * sent twice, and requests whose deadline would pass during the wait are
+ * never retried. A policy is shared by all threads of a driver.
+ */
+public interface RetryPolicy {
+
+	/**
+	 * @param requestEntity
+	 *            the request
+	 * @param retry
+	 *            the number of the retry (1 for the first retry)
+	 * @param responseEntity
+	 *            the response of the attempt or null, if the attempt failed
+	 *            with an exception
+	 * @param exception
+	 *            the exception of the attempt or null, if there is a response
+	 * @return the time in milliseconds to wait before the request is sent
+	 *         again or -1 to not retry the request
+	 */
+	long getRetryDelay(
+		HttpRequestEntity requestEntity,
+		int retry,
+		HttpResponseEntity responseEntity,
+		SocketException exception);
+
+}
@@ -0,0 +1,44 @@
+package com.arangodb.http;
+
+import java.net.SocketException;
+import java.util.Map;
+
+import com.arangodb.ArangoException;
+
+/**
+ * Alternative transport of the {@link HttpManager}. A transport replaces the
+ * Apache HttpClient, everything else (retries, host fallback, async jobs,
+ * batch mode) is still handled by the HttpManager.
+ */
+public interface Transport {
+
+	/**
+	 * Executes the request
+	 *
+	 * @param baseUrl
+	 *            the base url of the current host (e.g. http://127.0.0.1:8529)
+	 * @param path
+	 *            the path and the query string of the request, see
+	 *            {@link HttpManager#buildUrl(String, HttpRequestEntity)}
+	 * @param requestEntity
+	 *            the request
+	 * @param headers
+	 *            the request headers (incl. authorization and async mode)
+	 * @return the response of the request
+	 * @throws ArangoException
+	 * @throws SocketException
+	 *             if the connection failed, the request is retried by the
+	 *             HttpManager
+	 */
+	HttpResponseEntity execute(
+		String baseUrl,
+		String path,
+		HttpRequestEntity requestEntity,
+		Map<String, String> headers) throws ArangoException, SocketException;
+
+	/**
+	 * Closes all connections of the transport
+	 */
+	void destroy();
+
+}
@@ -0,0 +1,118 @@
+package com.arangodb.http;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketAddress;
+
+import org.apache.http.HttpHost;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * Socket factory for HTTP over a unix domain socket. All connections are
+ * opened to the configured socket file, the host and port of the request are
+ * ignored.
+ * <p>
+ * The JDK does not support unix domain sockets, so the sockets are created by
+ * junixsocket (com.kohlschutter.junixsocket:junixsocket-native-common), which
+ * has to be on the classpath. It is loaded by reflection to keep the driver
+ * free of a hard dependency.
+ */
+public class UnixSocketConnectionFactory implements ConnectionSocketFactory {
+
+	private static final String SOCKET_CLASS = "org.newsclub.net.unix.AFUNIXSocket";
+	private static final String ADDRESS_CLASS = "org.newsclub.net.unix.AFUNIXSocketAddress";
+
+	private final File socketFile;
+	private final Method newInstance;
+	private final Constructor<?> addressConstructor;
+
+	/**
+	 * @param socketPath
+	 *            path of the unix domain socket of the server
+	 * @throws IllegalStateException
+	 *             if junixsocket is not on the classpath
+	 */
+	public UnixSocketConnectionFactory(final String socketPath) {
+		this.socketFile = new File(socketPath);
+		try {
+			this.newInstance = Class.forName(SOCKET_CLASS).getMethod("newInstance");
+			this.addressConstructor = Class.forName(ADDRESS_CLASS).getConstructor(File.class);
+		} catch (final ClassNotFoundException e) {
+			throw new IllegalStateException("unix domain sockets require junixsocket on the classpath", e);
+		} catch (final NoSuchMethodException e) {
+			throw new IllegalStateException("unsupported version of junixsocket", e);
+		}
+	}
+
+	/**
+	 * @return true, if junixsocket is on the classpath
+	 */
+	public static boolean isSupported() {
+		try {
+			Class.forName(SOCKET_CLASS);
+			return true;
+		} catch (final ClassNotFoundException e) {
+			return false;
+		}
+	}
+
+	public File getSocketFile() {
+		return socketFile;
+	}
+
+	@Override
+	public Socket createSocket(final HttpContext context) throws IOException {
+		return (Socket) invoke(newInstance, null);
+	}
+
+	@Override
+	public Socket connectSocket(
+		final int connectTimeout,
+		final Socket socket,
+		final HttpHost host,
+		final InetSocketAddress remoteAddress,
+		final InetSocketAddress localAddress,
+		final HttpContext context) throws IOException {
+
+		final Socket sock = socket != null ? socket : createSocket(context);
+		final SocketAddress address;
+		try {
+			address = (SocketAddress) addressConstructor.newInstance(socketFile);
+		} catch (final InvocationTargetException e) {
+			throw unwrap(e);
+		} catch (final Exception e) {
+			throw new IOException("could not create address of " + socketFile, e);
+		}
+		try {
+			sock.connect(address, connectTimeout > 0 ? connectTimeout : 0);
+		} catch (final IOException e) {
+			sock.close();
+			throw e;
+		}
+		return sock;
+	}
+
+	private static Object invoke(final Method method, final Object target) throws IOException {
+		try {
+			return method.invoke(target);
+		} catch (final InvocationTargetException e) {
+			throw unwrap(e);
+		} catch (final IllegalAccessException e) {
+			throw new IOException(e);
+		}
+	}
+
+	private static IOException unwrap(final InvocationTargetException e) {
+		if (e.getCause() instanceof IOException) {
+			return (IOException) e.getCause();
+		}
+		return new IOException(e.getCause());
+	}
+
+}
@@ -3,9 +3,9 @@ package com.arangodb.impl;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,18 +25,19 @@ public class AnnotationHandler {
 		public Field to; // NOSONAR
 	}
 
-	static Map<Class<?>, DocumentAttributes> class2DocumentAttributes;
-
-	static {
-		class2DocumentAttributes = new HashMap<Class<?>, DocumentAttributes>();
-	}
+	/**
+	 * the resolved attributes by class, shared by all handlers. The handlers
+	 * take no lock, a class resolved concurrently is resolved twice.
+	 */
+	static final Map<Class<?>, DocumentAttributes> class2DocumentAttributes = new ConcurrentHashMap<Class<?>, DocumentAttributes>(
+			16, 0.75f, 64);
 
 	public AnnotationHandler() {
 		// do nothing here
 	}
 
 	@SuppressWarnings({ "unchecked", "rawtypes" })
-	public synchronized void updateDocumentAttributes(Object o, long rev, String id, String key) {
+	public void updateDocumentAttributes(Object o, long rev, String id, String key) {
 		if (o != null) {
 			if (o instanceof java.util.Map) {
 				java.util.Map m = (java.util.Map) o;
@@ -53,7 +54,7 @@ public class AnnotationHandler {
 	}
 
 	@SuppressWarnings({ "unchecked", "rawtypes" })
-	public synchronized void updateDocumentRev(Object o, long rev) {
+	public void updateDocumentRev(Object o, long rev) {
 		if (o != null) {
 			if (o instanceof java.util.Map) {
 				java.util.Map m = (java.util.Map) o;
@@ -66,7 +67,7 @@ public class AnnotationHandler {
 	}
 
 	@SuppressWarnings({ "unchecked", "rawtypes" })
-	public synchronized void updateEdgeAttributes(Object o, long rev, String id, String key, String from, String to) {
+	public void updateEdgeAttributes(Object o, long rev, String id, String key, String from, String to) {
 		if (o != null) {
 			if (o instanceof java.util.Map) {
 				java.util.Map m = (java.util.Map) o;
@@ -97,7 +98,6 @@ public class AnnotationHandler {
 	private void setAttribute(Field field, Object o, Object value) {
 		if (field != null) {
 			try {
-				field.setAccessible(true);
 				field.set(o, value);
 			} catch (Exception e) {
 				logger.error("could not update document attribute of class " + value.getClass().getCanonicalName(), e);
@@ -131,6 +131,7 @@ public class AnnotationHandler {
 			for (Annotation annotation : annotations) {
 
 				if (annotation instanceof SerializedName && value.equals(((SerializedName) annotation).value())) {
+					field.setAccessible(true);
 					return field;
 				}
 			}
@@ -17,34 +17,55 @@
 package com.arangodb.impl;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.arangodb.ArangoConfigure;
 import com.arangodb.ArangoDriver;
 import com.arangodb.ArangoException;
+import com.arangodb.ArangoTimeoutException;
 import com.arangodb.CursorRawResult;
 import com.arangodb.CursorResult;
+import com.arangodb.DeferredResult.ResultHandler;
 import com.arangodb.DocumentCursorResult;
 import com.arangodb.entity.CursorEntity;
 import com.arangodb.entity.DefaultEntity;
 import com.arangodb.entity.DocumentEntity;
 import com.arangodb.entity.EntityFactory;
 import com.arangodb.entity.QueriesResultEntity;
+import com.arangodb.entity.QueryEntity;
 import com.arangodb.entity.QueryTrackingPropertiesEntity;
 import com.arangodb.entity.ShortestPathEntity;
 import com.arangodb.http.HttpManager;
+import com.arangodb.http.HttpRequestEntity.RequestType;
 import com.arangodb.http.HttpResponseEntity;
 import com.arangodb.util.AqlQueryOptions;
 import com.arangodb.util.GraphQueryUtil;
 import com.arangodb.util.MapBuilder;
 import com.arangodb.util.ShortestPathOptions;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 
 /**
  * @author tamtam180 - kirscheless at gmail.com
  */
 public class InternalCursorDriverImpl extends BaseArangoDriverImpl implements com.arangodb.InternalCursorDriver {
 
+	private static Logger logger = LoggerFactory.getLogger(InternalCursorDriverImpl.class);
+
+	/**
+	 * identifies the queries with a deadline in the list of running queries.
+	 * The comment is the same for all queries of the driver, so the query
+	 * text stays the same for the query cache and the plan reuse of the
+	 * server.
+	 */
+	private final String deadlineTag = "/* deadline " + UUID.randomUUID() + " */";
+
 	InternalCursorDriverImpl(final ArangoConfigure configure, final HttpManager httpManager) {
 		super(configure, httpManager);
 	}
@@ -78,7 +99,8 @@ public class InternalCursorDriverImpl extends BaseArangoDriverImpl implements co
 
 		final HttpResponseEntity res = getCursor(database, query, bindVars, aqlQueryOptions);
 
-		return createEntity(res, CursorEntity.class, clazz);
+		final CursorEntity<T> entity = createEntity(res, CursorEntity.class, clazz);
+		return handleResult(res, entity, new CursorEntityHandler<T>(aqlQueryOptions.getTimeout()));
 	}
 
 	private HttpResponseEntity getCursor(
@@ -88,21 +110,110 @@ public class InternalCursorDriverImpl extends BaseArangoDriverImpl implements co
 		final AqlQueryOptions aqlQueryOptions) throws ArangoException {
 
 		final Map<String, Object> map = aqlQueryOptions.toMap();
-		map.put("query", query);
-		map.put("bindVars", bindVars == null ? Collections.emptyMap() : bindVars);
+		final Map<String, Object> vars = bindVars == null ? Collections.<String, Object> emptyMap() : bindVars;
+		map.put("bindVars", vars);
+
+		final Integer timeout = aqlQueryOptions.getTimeout();
+		if (timeout == null || timeout <= 0) {
+			map.put("query", query);
+			return postCursor(database, map, aqlQueryOptions);
+		}
 
+		final String taggedQuery = query + "\n" + deadlineTag;
+		map.put("query", taggedQuery);
+		final long sent = System.currentTimeMillis();
+		final long previous = httpManager.setDeadline(sent + timeout);
+		try {
+			return postCursor(database, map, aqlQueryOptions);
+		} catch (final ArangoTimeoutException e) {
+			httpManager.setDeadline(0L);
+			killQueries(database, taggedQuery, vars, sent);
+			throw e;
+		} finally {
+			httpManager.setDeadline(previous);
+		}
+	}
+
+	private HttpResponseEntity postCursor(
+		final String database,
+		final Map<String, Object> map,
+		final AqlQueryOptions aqlQueryOptions) throws ArangoException {
+		if (Boolean.TRUE.equals(aqlQueryOptions.getReadOnly())) {
+			// the first batch of a read-only query may be hedged
+			return httpManager.doHedgeableRead(RequestType.POST, createEndpointUrl(database, "/_api/cursor"), null,
+				EntityFactory.toJsonString(map));
+		}
 		return httpManager.doPost(createEndpointUrl(database, "/_api/cursor"), null, EntityFactory.toJsonString(map));
 	}
 
-	@SuppressWarnings("unchecked")
+	/**
+	 * Kills the running queries with the tagged query text and the bind
+	 * parameters, which were started after the request was sent. The query
+	 * may not be registered yet or already finished.
+	 */
+	private void killQueries(
+		final String database,
+		final String taggedQuery,
+		final Map<String, Object> bindVars,
+		final long sent) {
+		try {
+			final List<QueryEntity> queries = getCurrentlyRunningQueries(database).getQueries();
+			if (queries != null) {
+				final JsonElement vars = new JsonParser().parse(EntityFactory.toJsonString(bindVars));
+				final double elapsed = (System.currentTimeMillis() - sent) / 1000.0;
+				for (final QueryEntity query : queries) {
+					if (taggedQuery.equals(query.getQuery()) && hasBindVars(query, vars)
+							&& (query.getRunTime() == null || query.getRunTime() <= elapsed)) {
+						killQuery(database, query.getId());
+					}
+				}
+			}
+		} catch (final ArangoException e) {
+			logger.warn("could not kill the query after its deadline: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * @return true, if the running query has the bind parameters or the
+	 *         server does not report them
+	 */
+	private boolean hasBindVars(final QueryEntity query, final JsonElement bindVars) {
+		return query.getBindVars() == null
+				|| bindVars.equals(new JsonParser().parse(EntityFactory.toJsonString(query.getBindVars())));
+	}
+
 	@Override
 	public <T> CursorEntity<T> continueQuery(final String database, final long cursorId, final Class<?>... clazz)
 			throws ArangoException {
+		return continueQuery(database, cursorId, 0, clazz);
+	}
 
-		final HttpResponseEntity res = httpManager.doPut(createEndpointUrl(database, "/_api/cursor", cursorId), null,
-			null);
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> CursorEntity<T> continueQuery(
+		final String database,
+		final long cursorId,
+		final int timeout,
+		final Class<?>... clazz) throws ArangoException {
 
-		return createEntity(res, CursorEntity.class, clazz);
+		final long previous = httpManager.setDeadline(timeout > 0 ? System.currentTimeMillis() + timeout : 0L);
+		final HttpResponseEntity res;
+		try {
+			res = httpManager.doPut(createEndpointUrl(database, "/_api/cursor", cursorId), null, null);
+		} catch (final ArangoTimeoutException e) {
+			httpManager.setDeadline(0L);
+			try {
+				finishQuery(database, cursorId);
+			} catch (final ArangoException ex) {
+				logger.warn("could not delete the cursor after its deadline: {}", ex.getMessage());
+			}
+			throw e;
+		} finally {
+			httpManager.setDeadline(previous);
+		}
+
+		final CursorEntity<T> entity = createEntity(res, CursorEntity.class, clazz);
+		return handleResult(res, entity, new CursorEntityHandler<T>(timeout));
 	}
 
 	@Override
@@ -131,10 +242,17 @@ public class InternalCursorDriverImpl extends BaseArangoDriverImpl implements co
 		final Class<S> classDocumentEntity,
 		final Class<T> clazz) throws ArangoException {
 
-		final CursorEntity<S> entity = executeCursorEntityQuery(database, query, bindVars, aqlQueryOptions,
-			classDocumentEntity, clazz);
+		final HttpResponseEntity res = getCursor(database, query, bindVars, aqlQueryOptions);
 
-		return new DocumentCursorResult<T, S>(database, this, entity, classDocumentEntity, clazz);
+		@SuppressWarnings("unchecked")
+		final CursorEntity<S> entity = createEntity(res, CursorEntity.class, classDocumentEntity, clazz);
+		return handleResult(res, entity, new ResultHandler<CursorEntity<S>, DocumentCursorResult<T, S>>() {
+			@Override
+			public DocumentCursorResult<T, S> handle(final CursorEntity<S> entity) {
+				return new DocumentCursorResult<T, S>(database, InternalCursorDriverImpl.this,
+						setTimeout(entity, aqlQueryOptions.getTimeout()), classDocumentEntity, clazz);
+			}
+		});
 	}
 
 	@Override
@@ -145,9 +263,17 @@ public class InternalCursorDriverImpl extends BaseArangoDriverImpl implements co
 		final AqlQueryOptions aqlQueryOptions,
 		final Class<T> clazz) throws ArangoException {
 
-		final CursorEntity<T> entity = executeCursorEntityQuery(database, query, bindVars, aqlQueryOptions, clazz);
+		final HttpResponseEntity res = getCursor(database, query, bindVars, aqlQueryOptions);
 
-		return new CursorResult<T>(database, this, entity, clazz);
+		@SuppressWarnings("unchecked")
+		final CursorEntity<T> entity = createEntity(res, CursorEntity.class, clazz);
+		return handleResult(res, entity, new ResultHandler<CursorEntity<T>, CursorResult<T>>() {
+			@Override
+			public CursorResult<T> handle(final CursorEntity<T> entity) {
+				return new CursorResult<T>(database, InternalCursorDriverImpl.this,
+						setTimeout(entity, aqlQueryOptions.getTimeout()), clazz);
+			}
+		});
 	}
 
 	@Override
@@ -157,10 +283,17 @@ public class InternalCursorDriverImpl extends BaseArangoDriverImpl implements co
 		final Map<String, Object> bindVars,
 		final AqlQueryOptions aqlQueryOptions) throws ArangoException {
 
-		final CursorEntity<JsonObject> entity = executeCursorEntityQuery(database, query, bindVars, aqlQueryOptions,
-			JsonObject.class);
+		final HttpResponseEntity res = getCursor(database, query, bindVars, aqlQueryOptions);
 
-		return new CursorRawResult(database, this, entity);
+		@SuppressWarnings("unchecked")
+		final CursorEntity<JsonObject> entity = createEntity(res, CursorEntity.class, JsonObject.class);
+		return handleResult(res, entity, new ResultHandler<CursorEntity<JsonObject>, CursorRawResult>() {
+			@Override
+			public CursorRawResult handle(final CursorEntity<JsonObject> entity) {
+				return new CursorRawResult(database, InternalCursorDriverImpl.this,
+						setTimeout(entity, aqlQueryOptions.getTimeout()));
+			}
+		});
 	}
 
 	/**
@@ -246,4 +379,29 @@ public class InternalCursorDriverImpl extends BaseArangoDriverImpl implements co
 		return createEntity(res, DefaultEntity.class);
 	}
 
+	private static <T> CursorEntity<T> setTimeout(final CursorEntity<T> entity, final Integer timeout) {
+		if (entity != null && timeout != null) {
+			entity.setTimeout(timeout);
+		}
+		return entity;
+	}
+
+	/**
+	 * Sets the timeout of the query, which is used for the following batches
+	 */
+	private static class CursorEntityHandler<T> implements ResultHandler<CursorEntity<T>, CursorEntity<T>> {
+
+		private final Integer timeout;
+
+		CursorEntityHandler(final Integer timeout) {
+			this.timeout = timeout;
+		}
+
+		@Override
+		public CursorEntity<T> handle(final CursorEntity<T> entity) {
+			return setTimeout(entity, timeout);
+		}
+
+	}
+
 }
@@ -21,6 +21,7 @@ import java.util.Map;
 
 import com.arangodb.ArangoConfigure;
 import com.arangodb.ArangoException;
+import com.arangodb.DeferredResult.ResultHandler;
 import com.arangodb.entity.BaseDocument;
 import com.arangodb.entity.CursorEntity;
 import com.arangodb.entity.DefaultEntity;
@@ -28,6 +29,7 @@ import com.arangodb.entity.DocumentEntity;
 import com.arangodb.entity.EdgeEntity;
 import com.arangodb.entity.EntityFactory;
 import com.arangodb.http.HttpManager;
+import com.arangodb.http.HttpRequestEntity.RequestType;
 import com.arangodb.http.HttpResponseEntity;
 import com.arangodb.util.EdgeUtils;
 import com.arangodb.util.MapBuilder;
@@ -75,11 +77,16 @@ public class InternalDocumentDriverImpl extends BaseArangoDriverImpl implements
 		@SuppressWarnings("unchecked")
 		final DocumentEntity<T> result = createEntity(res, DocumentEntity.class);
 
-		annotationHandler.updateDocumentAttributes(value, result.getDocumentRevision(), result.getDocumentHandle(),
-			result.getDocumentKey());
+		return handleResult(res, result, new ResultHandler<DocumentEntity<T>, DocumentEntity<T>>() {
+			@Override
+			public DocumentEntity<T> handle(final DocumentEntity<T> entity) {
+				annotationHandler.updateDocumentAttributes(value, entity.getDocumentRevision(),
+					entity.getDocumentHandle(), entity.getDocumentKey());
 
-		result.setEntity(value);
-		return result;
+				entity.setEntity(value);
+				return entity;
+			}
+		});
 	}
 
 	@Override
@@ -117,9 +124,14 @@ public class InternalDocumentDriverImpl extends BaseArangoDriverImpl implements
 			EntityFactory.toJsonString(value));
 
 		final DocumentEntity<T> result = createEntity(res, DocumentEntity.class);
-		annotationHandler.updateDocumentRev(value, result.getDocumentRevision());
-		result.setEntity(value);
-		return result;
+		return handleResult(res, result, new ResultHandler<DocumentEntity<T>, DocumentEntity<T>>() {
+			@Override
+			public DocumentEntity<T> handle(final DocumentEntity<T> entity) {
+				annotationHandler.updateDocumentRev(value, entity.getDocumentRevision());
+				entity.setEntity(value);
+				return entity;
+			}
+		});
 	}
 
 	@Override
@@ -136,8 +148,7 @@ public class InternalDocumentDriverImpl extends BaseArangoDriverImpl implements
 
 		@SuppressWarnings("unchecked")
 		final DocumentEntity<String> result = createEntity(res, DocumentEntity.class);
-		result.setEntity(rawJsonString);
-		return result;
+		return handleResult(res, result, new RawDocumentHandler(rawJsonString));
 	}
 
 	@Override
@@ -157,10 +168,15 @@ public class InternalDocumentDriverImpl extends BaseArangoDriverImpl implements
 
 		@SuppressWarnings("unchecked")
 		final DocumentEntity<T> result = createEntity(res, DocumentEntity.class);
-		annotationHandler.updateDocumentAttributes(value, result.getDocumentRevision(), result.getDocumentHandle(),
-			result.getDocumentKey());
-		result.setEntity(value);
-		return result;
+		return handleResult(res, result, new ResultHandler<DocumentEntity<T>, DocumentEntity<T>>() {
+			@Override
+			public DocumentEntity<T> handle(final DocumentEntity<T> entity) {
+				annotationHandler.updateDocumentAttributes(value, entity.getDocumentRevision(),
+					entity.getDocumentHandle(), entity.getDocumentKey());
+				entity.setEntity(value);
+				return entity;
+			}
+		});
 	}
 
 	@Override
@@ -179,8 +195,7 @@ public class InternalDocumentDriverImpl extends BaseArangoDriverImpl implements
 
 		@SuppressWarnings("unchecked")
 		final DocumentEntity<String> result = createEntity(res, DocumentEntity.class);
-		result.setEntity(rawJsonString);
-		return result;
+		return handleResult(res, result, new RawDocumentHandler(rawJsonString));
 	}
 
 	@Override
@@ -191,16 +206,27 @@ public class InternalDocumentDriverImpl extends BaseArangoDriverImpl implements
 		@SuppressWarnings("unchecked")
 		final CursorEntity<String> tmp = createEntity(res, CursorEntity.class, String.class);
 
-		return tmp.getResults();
+		return handleResult(res, tmp, new ResultHandler<CursorEntity<String>, List<String>>() {
+			@Override
+			public List<String> handle(final CursorEntity<String> entity) {
+				return entity.getResults();
+			}
+		});
 	}
 
 	@Override
 	public long checkDocument(final String database, final String documentHandle) throws ArangoException {
 		validateDocumentHandle(documentHandle);
-		final HttpResponseEntity res = httpManager.doHead(createDocumentEndpointUrl(database, documentHandle), null);
+		final HttpResponseEntity res = httpManager.doHedgeableRead(RequestType.HEAD,
+			createDocumentEndpointUrl(database, documentHandle), null, null);
 
 		final DefaultEntity entity = createEntity(res, DefaultEntity.class);
-		return entity.getEtag();
+		return handleResult(res, entity, new ResultHandler<DefaultEntity, Long>() {
+			@Override
+			public Long handle(final DefaultEntity entity) {
+				return entity.getEtag();
+			}
+		});
 
 	}
 
@@ -213,7 +239,8 @@ public class InternalDocumentDriverImpl extends BaseArangoDriverImpl implements
 		final Long ifMatchRevision) throws ArangoException {
 
 		validateDocumentHandle(documentHandle);
-		final HttpResponseEntity res = httpManager.doGet(createDocumentEndpointUrl(database, documentHandle),
+		final HttpResponseEntity res = httpManager.doHedgeableRead(RequestType.GET,
+			createDocumentEndpointUrl(database, documentHandle),
 			new MapBuilder().put("If-None-Match", ifNoneMatchRevision, true).put("If-Match", ifMatchRevision).get(),
 			null);
 		@SuppressWarnings("unchecked")
@@ -232,7 +259,8 @@ public class InternalDocumentDriverImpl extends BaseArangoDriverImpl implements
 		final Long ifMatchRevision) throws ArangoException {
 
 		validateDocumentHandle(documentHandle);
-		final HttpResponseEntity res = httpManager.doGet(createDocumentEndpointUrl(database, documentHandle),
+		final HttpResponseEntity res = httpManager.doHedgeableRead(RequestType.GET,
+			createDocumentEndpointUrl(database, documentHandle),
 			new MapBuilder().put("If-None-Match", ifNoneMatchRevision, true).put("If-Match", ifMatchRevision).get(),
 			null);
 
@@ -270,13 +298,13 @@ public class InternalDocumentDriverImpl extends BaseArangoDriverImpl implements
 
 	@Override
 	public <T> EdgeEntity<T> createEdge(
-		String database,
-		String collectionName,
-		String documentKey,
-		T value,
-		String fromHandle,
-		String toHandle,
-		Boolean waitForSync) throws ArangoException {
+		final String database,
+		final String collectionName,
+		final String documentKey,
+		final T value,
+		final String fromHandle,
+		final String toHandle,
+		final Boolean waitForSync) throws ArangoException {
 
 		validateCollectionName(collectionName);
 
@@ -287,16 +315,40 @@ public class InternalDocumentDriverImpl extends BaseArangoDriverImpl implements
 			EntityFactory.toJsonString(obj));
 
 		@SuppressWarnings("unchecked")
-		final EdgeEntity<T> entity = createEntity(res, EdgeEntity.class);
+		final EdgeEntity<T> result = createEntity(res, EdgeEntity.class);
+
+		return handleResult(res, result, new ResultHandler<EdgeEntity<T>, EdgeEntity<T>>() {
+			@Override
+			public EdgeEntity<T> handle(final EdgeEntity<T> entity) {
+				if (value != null) {
+					entity.setEntity(value);
+					annotationHandler.updateDocumentAttributes(value, entity.getDocumentRevision(),
+						entity.getDocumentHandle(), entity.getDocumentKey());
+				}
+
+				entity.setFromVertexHandle(fromHandle);
+				entity.setToVertexHandle(toHandle);
+				return entity;
+			}
+		});
+	}
+
+	/**
+	 * Sets the raw JSON string of the request as entity
+	 */
+	private static class RawDocumentHandler implements ResultHandler<DocumentEntity<String>, DocumentEntity<String>> {
 
-		if (value != null) {
-			entity.setEntity(value);
-			annotationHandler.updateDocumentAttributes(value, entity.getDocumentRevision(), entity.getDocumentHandle(),
-				entity.getDocumentKey());
+		private final String rawJsonString;
+
+		RawDocumentHandler(final String rawJsonString) {
+			this.rawJsonString = rawJsonString;
+		}
+
+		@Override
+		public DocumentEntity<String> handle(final DocumentEntity<String> entity) {
+			entity.setEntity(rawJsonString);
+			return entity;
 		}
 
-		entity.setFromVertexHandle(fromHandle);
-		entity.setToVertexHandle(toHandle);
-		return entity;
 	}
 }
@@ -21,6 +21,7 @@ import java.util.List;
 
 import com.arangodb.ArangoConfigure;
 import com.arangodb.ArangoException;
+import com.arangodb.DeferredResult.ResultHandler;
 import com.arangodb.InternalCursorDriver;
 import com.arangodb.entity.DeletedEntity;
 import com.arangodb.entity.EdgeDefinitionEntity;
@@ -56,6 +57,14 @@ public class InternalGraphDriverImpl extends BaseArangoDriverWithCursorImpl
 	private static final String EDGE = "/edge";
 	private static final String EXCLUDE_ORPHAN = "excludeOrphan";
 
+	private static final ResultHandler<GraphGetCollectionsResultEntity, List<String>> COLLECTIONS_HANDLER =
+			new ResultHandler<GraphGetCollectionsResultEntity, List<String>>() {
+				@Override
+				public List<String> handle(final GraphGetCollectionsResultEntity entity) {
+					return entity.getCollections();
+				}
+			};
+
 	InternalGraphDriverImpl(final ArangoConfigure configure, final InternalCursorDriver cursorDriver,
 		final HttpManager httpManager) {
 		super(configure, cursorDriver, httpManager);
@@ -106,14 +115,19 @@ public class InternalGraphDriverImpl extends BaseArangoDriverWithCursorImpl
 	public List<String> getGraphList(final String databaseName) throws ArangoException {
 		final HttpResponseEntity res = httpManager.doGet(createGharialEndpointUrl(databaseName));
 		final GraphsEntity graphsEntity = createEntity(res, GraphsEntity.class);
-		final List<String> graphList = new ArrayList<String>();
-		final List<GraphEntity> graphs = graphsEntity.getGraphs();
-		if (CollectionUtils.isNotEmpty(graphs)) {
-			for (final GraphEntity graph : graphs) {
-				graphList.add(graph.getDocumentKey());
+		return handleResult(res, graphsEntity, new ResultHandler<GraphsEntity, List<String>>() {
+			@Override
+			public List<String> handle(final GraphsEntity entity) {
+				final List<String> graphList = new ArrayList<String>();
+				final List<GraphEntity> graphs = entity.getGraphs();
+				if (CollectionUtils.isNotEmpty(graphs)) {
+					for (final GraphEntity graph : graphs) {
+						graphList.add(graph.getDocumentKey());
+					}
+				}
+				return graphList;
 			}
-		}
-		return graphList;
+		});
 	}
 
 	@Override
@@ -140,6 +154,7 @@ public class InternalGraphDriverImpl extends BaseArangoDriverWithCursorImpl
 		DeletedEntity result;
 		if (isInBatchMode()) {
 			result = new DeletedEntity();
+			deferEntity(res, DeletedEntity.class, null, true);
 		} else {
 			result = createEntity(res, DeletedEntity.class, null, true);
 		}
@@ -164,10 +179,11 @@ public class InternalGraphDriverImpl extends BaseArangoDriverWithCursorImpl
 		GraphGetCollectionsResultEntity result;
 		if (isInBatchMode()) {
 			result = new GraphGetCollectionsResultEntity();
+			deferEntity(res, GraphGetCollectionsResultEntity.class, null, true);
 		} else {
 			result = createEntity(res, GraphGetCollectionsResultEntity.class, null, true);
 		}
-		return result.getCollections();
+		return handleResult(res, result, COLLECTIONS_HANDLER);
 	}
 
 	/**
@@ -202,6 +218,7 @@ public class InternalGraphDriverImpl extends BaseArangoDriverWithCursorImpl
 		DeletedEntity result;
 		if (isInBatchMode()) {
 			result = new DeletedEntity();
+			deferEntity(res, DeletedEntity.class, null, true);
 		} else {
 			result = createEntity(res, DeletedEntity.class, null, true);
 		}
@@ -228,6 +245,7 @@ public class InternalGraphDriverImpl extends BaseArangoDriverWithCursorImpl
 		GraphEntity result;
 		if (isInBatchMode()) {
 			result = new GraphEntity();
+			deferEntity(res, GraphEntity.class, null, true);
 		} else {
 			result = createEntity(res, GraphEntity.class, null, true);
 		}
@@ -248,11 +266,12 @@ public class InternalGraphDriverImpl extends BaseArangoDriverWithCursorImpl
 		GraphGetCollectionsResultEntity result;
 		if (isInBatchMode()) {
 			result = new GraphGetCollectionsResultEntity();
+			deferEntity(res, GraphGetCollectionsResultEntity.class, null, true);
 		} else {
 			result = createEntity(res, GraphGetCollectionsResultEntity.class, null, true);
 		}
 
-		return result.getCollections();
+		return handleResult(res, result, COLLECTIONS_HANDLER);
 	}
 
 	@Override
@@ -276,6 +295,7 @@ public class InternalGraphDriverImpl extends BaseArangoDriverWithCursorImpl
 		GraphEntity result;
 		if (isInBatchMode()) {
 			result = new GraphEntity();
+			deferEntity(res, GraphEntity.class, null, true);
 		} else {
 			result = createEntity(res, GraphEntity.class, null, true);
 		}
@@ -305,6 +325,7 @@ public class InternalGraphDriverImpl extends BaseArangoDriverWithCursorImpl
 		GraphEntity result;
 		if (isInBatchMode()) {
 			result = new GraphEntity();
+			deferEntity(res, GraphEntity.class, null, true);
 		} else {
 			result = createEntity(res, GraphEntity.class, null, true);
 		}
@@ -333,6 +354,7 @@ public class InternalGraphDriverImpl extends BaseArangoDriverWithCursorImpl
 		GraphEntity result;
 		if (isInBatchMode()) {
 			result = new GraphEntity();
+			deferEntity(res, GraphEntity.class, null, true);
 		} else {
 			result = createEntity(res, GraphEntity.class, null, true);
 		}
@@ -389,15 +411,15 @@ public class InternalGraphDriverImpl extends BaseArangoDriverWithCursorImpl
 		if (isInBatchMode()) {
 			result = new VertexEntity<T>();
 			result.setEntity(vertex);
+			deferEntity(res, VertexEntity.class, vertex != null ? new Class<?>[] { vertex.getClass() } : null, true);
+			deferResult(res, new VertexResultHandler<T>(vertex));
 		} else {
 			if (vertex != null) {
 				result = createEntity(res, VertexEntity.class, vertex.getClass());
 			} else {
 				result = createEntity(res, VertexEntity.class);
 			}
-			result.setEntity(vertex);
-			annotationHandler.updateDocumentAttributes(result.getEntity(), result.getDocumentRevision(),
-				result.getDocumentHandle(), result.getDocumentKey());
+			result = handleResult(res, result, new VertexResultHandler<T>(vertex));
 		}
 		return result;
 	}
@@ -461,9 +483,7 @@ public class InternalGraphDriverImpl extends BaseArangoDriverWithCursorImpl
 		VertexEntity<T> result;
 		if (vertex != null) {
 			result = createEntity(res, VertexEntity.class, vertex.getClass());
-			result.setEntity(vertex);
-			annotationHandler.updateDocumentAttributes(result.getEntity(), result.getDocumentRevision(),
-				result.getDocumentHandle(), result.getDocumentKey());
+			result = handleResult(res, result, new VertexResultHandler<T>(vertex));
 		} else {
 			result = createEntity(res, VertexEntity.class);
 		}
@@ -494,9 +514,7 @@ public class InternalGraphDriverImpl extends BaseArangoDriverWithCursorImpl
 		VertexEntity<T> result;
 		if (vertex != null) {
 			result = createEntity(res, VertexEntity.class, vertex.getClass());
-			result.setEntity(vertex);
-			annotationHandler.updateDocumentAttributes(result.getEntity(), result.getDocumentRevision(),
-				result.getDocumentHandle(), result.getDocumentKey());
+			result = handleResult(res, result, new VertexResultHandler<T>(vertex));
 		} else {
 			result = createEntity(res, VertexEntity.class);
 		}
@@ -544,15 +562,7 @@ public class InternalGraphDriverImpl extends BaseArangoDriverWithCursorImpl
 			new MapBuilder().put(WAIT_FOR_SYNC, waitForSync).get(), EntityFactory.toJsonString(obj));
 
 		final EdgeEntity<T> entity = createEntity(res, EdgeEntity.class, value == null ? null : value.getClass());
-		if (value != null) {
-			entity.setEntity(value);
-			annotationHandler.updateEdgeAttributes(value, entity.getDocumentRevision(), entity.getDocumentHandle(),
-				entity.getDocumentKey(), fromHandle, toHandle);
-		}
-
-		entity.setFromVertexHandle(fromHandle);
-		entity.setToVertexHandle(toHandle);
-		return entity;
+		return handleResult(res, entity, new EdgeResultHandler<T>(value, fromHandle, toHandle));
 	}
 
 	@SuppressWarnings("unchecked")
@@ -621,19 +631,7 @@ public class InternalGraphDriverImpl extends BaseArangoDriverWithCursorImpl
 			new MapBuilder().put(WAIT_FOR_SYNC, waitForSync).get(), EntityFactory.toJsonString(obj));
 
 		final EdgeEntity<T> entity = createEntity(res, EdgeEntity.class, value == null ? null : value.getClass());
-		if (value != null) {
-			entity.setEntity(value);
-			annotationHandler.updateEdgeAttributes(entity.getEntity(), entity.getDocumentRevision(),
-				entity.getDocumentHandle(), entity.getDocumentKey(), fromHandle, toHandle);
-		}
-		if (fromHandle != null) {
-			entity.setFromVertexHandle(fromHandle);
-		}
-		if (toHandle != null) {
-			entity.setToVertexHandle(toHandle);
-		}
-
-		return entity;
+		return handleResult(res, entity, new EdgeResultHandler<T>(value, fromHandle, toHandle));
 	}
 
 	@SuppressWarnings("unchecked")
@@ -662,20 +660,7 @@ public class InternalGraphDriverImpl extends BaseArangoDriverWithCursorImpl
 			EntityFactory.toJsonString(obj));
 
 		final EdgeEntity<T> entity = createEntity(res, EdgeEntity.class, value == null ? null : value.getClass());
-		if (value != null) {
-			entity.setEntity(value);
-			annotationHandler.updateEdgeAttributes(entity.getEntity(), entity.getDocumentRevision(),
-				entity.getDocumentHandle(), entity.getDocumentKey(), fromHandle, toHandle);
-		}
-
-		if (fromHandle != null) {
-			entity.setFromVertexHandle(fromHandle);
-		}
-		if (toHandle != null) {
-			entity.setToVertexHandle(toHandle);
-		}
-
-		return entity;
+		return handleResult(res, entity, new EdgeResultHandler<T>(value, fromHandle, toHandle));
 	}
 
 	private String convertToString(final EdgeDefinitionEntity edgeDefinition) {
@@ -685,4 +670,58 @@ public class InternalGraphDriverImpl extends BaseArangoDriverWithCursorImpl
 		return edgeDefinitionJson.toString();
 	}
 
+	/**
+	 * Sets the vertex of the request as entity and updates its attributes
+	 */
+	private class VertexResultHandler<T> implements ResultHandler<VertexEntity<T>, VertexEntity<T>> {
+
+		private final T vertex;
+
+		VertexResultHandler(final T vertex) {
+			this.vertex = vertex;
+		}
+
+		@Override
+		public VertexEntity<T> handle(final VertexEntity<T> entity) {
+			entity.setEntity(vertex);
+			annotationHandler.updateDocumentAttributes(entity.getEntity(), entity.getDocumentRevision(),
+				entity.getDocumentHandle(), entity.getDocumentKey());
+			return entity;
+		}
+
+	}
+
+	/**
+	 * Sets the edge of the request as entity and updates its attributes
+	 */
+	private class EdgeResultHandler<T> implements ResultHandler<EdgeEntity<T>, EdgeEntity<T>> {
+
+		private final T value;
+		private final String fromHandle;
+		private final String toHandle;
+
+		EdgeResultHandler(final T value, final String fromHandle, final String toHandle) {
+			this.value = value;
+			this.fromHandle = fromHandle;
+			this.toHandle = toHandle;
+		}
+
+		@Override
+		public EdgeEntity<T> handle(final EdgeEntity<T> entity) {
+			if (value != null) {
+				entity.setEntity(value);
+				annotationHandler.updateEdgeAttributes(value, entity.getDocumentRevision(), entity.getDocumentHandle(),
+					entity.getDocumentKey(), fromHandle, toHandle);
+			}
+			if (fromHandle != null) {
+				entity.setFromVertexHandle(fromHandle);
+			}
+			if (toHandle != null) {
+				entity.setToVertexHandle(toHandle);
+			}
+			return entity;
+		}
+
+	}
+
 }
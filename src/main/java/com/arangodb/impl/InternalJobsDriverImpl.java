@@ -16,14 +16,15 @@
 
 package com.arangodb.impl;
 
+import java.lang.reflect.InvocationTargetException;
 import java.util.List;
 
 import com.arangodb.ArangoConfigure;
 import com.arangodb.ArangoException;
+import com.arangodb.DeferredResult;
 import com.arangodb.entity.JobsEntity;
 import com.arangodb.http.HttpManager;
 import com.arangodb.http.HttpResponseEntity;
-import com.arangodb.http.InvocationObject;
 import com.arangodb.util.MapBuilder;
 
 /**
@@ -51,11 +52,13 @@ public class InternalJobsDriverImpl extends BaseArangoDriverImpl implements com.
 	@Override
 	public void deleteAllJobs(String database) throws ArangoException {
 		httpManager.doDelete(createJobEndpointUrl(database, "all"), null);
+		httpManager.cancelAsyncJobs(null);
 	}
 
 	@Override
 	public void deleteJobById(String database, String jobId) throws ArangoException {
 		httpManager.doDelete(createJobEndpointUrl(database, jobId), null);
+		httpManager.cancelAsyncJobs(jobId);
 	}
 
 	@Override
@@ -66,21 +69,18 @@ public class InternalJobsDriverImpl extends BaseArangoDriverImpl implements com.
 	@SuppressWarnings("unchecked")
 	@Override
 	public <T> T getJobResult(String database, String jobId) throws ArangoException {
-		InvocationObject io = this.getHttpManager().getJobs().get(jobId);
-		if (io == null) {
+		final DeferredResult<?> result = this.getHttpManager().getAsyncResult(jobId);
+		if (result == null) {
 			throw new ArangoException("No result for JobId.");
 		}
-		this.getHttpManager().getJobs().remove(jobId);
-		this.getHttpManager()
-				.setPreDefinedResponse(httpManager.doPut(createJobEndpointUrl(database, jobId), null, null));
-		T result;
+		// the result is fetched by the collector of the async jobs, a request
+		// of the caller would remove the result from the server
 		try {
-			result = (T) io.getMethod().invoke(io.getArangoDriver(), io.getArgs());
-		} catch (Exception e) {
-			this.getHttpManager().setPreDefinedResponse(null);
-			throw new ArangoException(e);
+			return (T) result.getResult();
+		} catch (final ArangoException e) {
+			// a failed call is reported as before, as an exception of the
+			// called method
+			throw new ArangoException(new InvocationTargetException(e));
 		}
-		this.getHttpManager().setPreDefinedResponse(null);
-		return result;
 	}
 }
@@ -20,6 +20,7 @@ import java.util.Map;
 
 import com.arangodb.ArangoConfigure;
 import com.arangodb.ArangoException;
+import com.arangodb.DeferredResult.ResultHandler;
 import com.arangodb.DocumentCursor;
 import com.arangodb.DocumentCursorResult;
 import com.arangodb.InternalCursorDriver;
@@ -278,10 +279,17 @@ public class InternalSimpleDriverImpl extends BaseArangoDriverWithCursorImpl
 		final CursorEntity<DocumentEntity<T>> baseCursorEntity = createEntity(res, CursorEntity.class,
 			DocumentEntity.class, clazz);
 
-		final DocumentCursorResult<T, DocumentEntity<T>> baseCursor = new DocumentCursorResult<T, DocumentEntity<T>>(
-				database, cursorDriver, baseCursorEntity, DocumentEntity.class, clazz);
-
-		return new DocumentCursor<T>(baseCursor);
+		return handleResult(res, baseCursorEntity,
+			new ResultHandler<CursorEntity<DocumentEntity<T>>, DocumentCursor<T>>() {
+				@Override
+				public DocumentCursor<T> handle(final CursorEntity<DocumentEntity<T>> entity) {
+					final DocumentCursorResult<T, DocumentEntity<T>> baseCursor =
+							new DocumentCursorResult<T, DocumentEntity<T>>(database, cursorDriver, entity,
+									DocumentEntity.class, clazz);
+
+					return new DocumentCursor<T>(baseCursor);
+				}
+			});
 	}
 
 }
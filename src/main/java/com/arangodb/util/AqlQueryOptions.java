@@ -9,6 +9,8 @@ public class AqlQueryOptions implements OptionsInterface {
 	private Boolean fullCount;
 	private Boolean cache;
 	private Integer ttl;
+	private Integer timeout;
+	private Boolean readOnly;
 
 	/**
 	 * boolean flag that indicates whether the number of documents in the result
@@ -152,6 +154,65 @@ public class AqlQueryOptions implements OptionsInterface {
 		return this;
 	}
 
+	/**
+	 * time in milliseconds for the request of the first batch and for the
+	 * request of every following batch of the cursor (optional, not sent to
+	 * the server). If the time expires, the request is aborted, the query is
+	 * killed on the server (the query tracking has to be enabled) or the
+	 * cursor is deleted, and an ArangoTimeoutException is thrown.
+	 * 
+	 * @return time in milliseconds
+	 */
+	public Integer getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * time in milliseconds for the request of the first batch and for the
+	 * request of every following batch of the cursor (optional, not sent to
+	 * the server). If the time expires, the request is aborted, the query is
+	 * killed on the server (the query tracking has to be enabled) or the
+	 * cursor is deleted, and an ArangoTimeoutException is thrown. The query
+	 * text gets a comment, which is the same for all queries of the driver,
+	 * to find the query in the list of running queries. The query cache and
+	 * the plan reuse of the server see the same text for every execution of
+	 * the query with this driver.
+	 * 
+	 * @param timeout
+	 *            time in milliseconds
+	 * @return this
+	 */
+	public AqlQueryOptions setTimeout(Integer timeout) {
+		this.timeout = timeout;
+		return this;
+	}
+
+	/**
+	 * the query does not modify data (optional, not sent to the server). With
+	 * hedged reads, the request of the first batch may be sent a second time
+	 * to the next host.
+	 * 
+	 * @return true, if the query only reads
+	 */
+	public Boolean getReadOnly() {
+		return readOnly;
+	}
+
+	/**
+	 * the query does not modify data (optional, not sent to the server). With
+	 * hedged reads, the request of the first batch may be sent a second time
+	 * to the next host.
+	 * 
+	 * @param readOnly
+	 *            true, if the query only reads
+	 * @return this
+	 * @see com.arangodb.ArangoConfigure#setHedgedReads(boolean)
+	 */
+	public AqlQueryOptions setReadOnly(Boolean readOnly) {
+		this.readOnly = readOnly;
+		return this;
+	}
+
 	@Override
 	public Map<String, Object> toMap() {
 		MapBuilder mp = new MapBuilder();
@@ -0,0 +1,104 @@
+package com.arangodb.util;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of byte arrays for request and response bodies. The arrays are grouped
+ * in size classes (powers of two from 1 KB to 1 MB), larger arrays are not
+ * pooled. Every size class keeps at most 4 MB of idle arrays.
+ */
+public class BufferPool {
+
+	private static final int MIN_SHIFT = 10;
+	private static final int MAX_SHIFT = 20;
+	private static final int MAX_POOLED_BYTES_PER_CLASS = 4 * 1024 * 1024;
+	private static final int MAX_POOLED_ARRAYS_PER_CLASS = 64;
+
+	private static final BufferPool INSTANCE = new BufferPool();
+
+	private final SizeClass[] sizeClasses = new SizeClass[MAX_SHIFT - MIN_SHIFT + 1];
+
+	BufferPool() {
+		for (int i = 0; i < sizeClasses.length; i++) {
+			final int size = 1 << (MIN_SHIFT + i);
+			sizeClasses[i] = new SizeClass(
+					Math.min(MAX_POOLED_ARRAYS_PER_CLASS, Math.max(2, MAX_POOLED_BYTES_PER_CLASS / size)));
+		}
+	}
+
+	/**
+	 * @return the pool of the driver
+	 */
+	public static BufferPool getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Returns an array with at least the given size. The content of the array
+	 * is undefined.
+	 *
+	 * @param size
+	 *            the minimum size
+	 * @return the array
+	 */
+	public byte[] acquire(final int size) {
+		final int index = getSizeClass(size);
+		if (index < 0) {
+			return new byte[size];
+		}
+		final SizeClass sizeClass = sizeClasses[index];
+		final byte[] buffer = sizeClass.arrays.poll();
+		if (buffer != null) {
+			sizeClass.pooled.decrementAndGet();
+			return buffer;
+		}
+		return new byte[1 << (MIN_SHIFT + index)];
+	}
+
+	/**
+	 * Returns an array to the pool. Arrays that do not match a size class are
+	 * left to the garbage collector.
+	 *
+	 * @param buffer
+	 *            the array (may be null)
+	 */
+	public void release(final byte[] buffer) {
+		if (buffer == null || Integer.bitCount(buffer.length) != 1) {
+			return;
+		}
+		final int index = Integer.numberOfTrailingZeros(buffer.length) - MIN_SHIFT;
+		if (index < 0 || index >= sizeClasses.length) {
+			return;
+		}
+		final SizeClass sizeClass = sizeClasses[index];
+		if (sizeClass.pooled.incrementAndGet() <= sizeClass.maxPooled) {
+			sizeClass.arrays.offer(buffer);
+		} else {
+			sizeClass.pooled.decrementAndGet();
+		}
+	}
+
+	private static int getSizeClass(final int size) {
+		if (size > 1 << MAX_SHIFT) {
+			return -1;
+		}
+		if (size <= 1 << MIN_SHIFT) {
+			return 0;
+		}
+		return 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_SHIFT;
+	}
+
+	private static class SizeClass {
+
+		private final int maxPooled;
+		private final ConcurrentLinkedQueue<byte[]> arrays = new ConcurrentLinkedQueue<byte[]>();
+		private final AtomicInteger pooled = new AtomicInteger();
+
+		SizeClass(final int maxPooled) {
+			this.maxPooled = maxPooled;
+		}
+
+	}
+
+}
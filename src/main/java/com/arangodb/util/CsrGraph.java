@@ -0,0 +1,165 @@
+package com.arangodb.util;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable adjacency of a graph in compressed sparse row (CSR) format.
+ * Vertices are dictionary encoded into dense int values (0 ... vertexCount-1).
+ * The edges of vertex v are stored at the positions getOffset(v) ...
+ * getOffset(v+1)-1 of the target and edge attribute columns.
+ * <p>
+ * The offsets, targets and edge attributes are stored in primitive buffers,
+ * either on the heap or off-heap (direct buffers).
+ *
+ * @see CsrGraphBuilder
+ */
+public class CsrGraph {
+
+	private final VertexDictionary dictionary;
+	private final LongBuffer offsets;
+	private final IntBuffer targets;
+	private final Map<String, DoubleBuffer> edgeAttributes;
+	private final boolean offHeap;
+
+	CsrGraph(final VertexDictionary dictionary, final LongBuffer offsets, final IntBuffer targets,
+		final Map<String, DoubleBuffer> edgeAttributes, final boolean offHeap) {
+		this.dictionary = dictionary;
+		this.offsets = offsets;
+		this.targets = targets;
+		this.edgeAttributes = edgeAttributes;
+		this.offHeap = offHeap;
+	}
+
+	public int getVertexCount() {
+		return dictionary.size();
+	}
+
+	public int getEdgeCount() {
+		return targets.capacity();
+	}
+
+	/**
+	 * @return true, if the buffers are allocated off-heap
+	 */
+	public boolean isOffHeap() {
+		return offHeap;
+	}
+
+	/**
+	 * Returns the vertex handle (_id) of a vertex
+	 *
+	 * @param vertex
+	 *            the dense vertex value
+	 * @return the vertex handle
+	 */
+	public String getVertexId(final int vertex) {
+		return dictionary.getId(vertex);
+	}
+
+	/**
+	 * Returns the dense value of a vertex
+	 *
+	 * @param vertexId
+	 *            the vertex handle (_id)
+	 * @return the dense vertex value or -1, if the vertex is not part of the
+	 *         graph
+	 */
+	public int getVertex(final String vertexId) {
+		return dictionary.get(vertexId);
+	}
+
+	/**
+	 * Returns the position of the first edge of a vertex. getOffset(vertexCount)
+	 * is the number of edges.
+	 *
+	 * @param vertex
+	 *            the dense vertex value
+	 * @return the position of the first edge of the vertex
+	 */
+	public long getOffset(final int vertex) {
+		return offsets.get(vertex);
+	}
+
+	public int getDegree(final int vertex) {
+		return (int) (offsets.get(vertex + 1) - offsets.get(vertex));
+	}
+
+	/**
+	 * Returns the target vertex of an edge
+	 *
+	 * @param edge
+	 *            the position of the edge
+	 * @return the dense value of the target vertex
+	 */
+	public int getTarget(final int edge) {
+		return targets.get(edge);
+	}
+
+	/**
+	 * Returns the target vertices of all edges of a vertex
+	 *
+	 * @param vertex
+	 *            the dense vertex value
+	 * @return array of dense vertex values
+	 */
+	public int[] getNeighbors(final int vertex) {
+		final int from = (int) offsets.get(vertex);
+		final int[] neighbors = new int[getDegree(vertex)];
+		for (int i = 0; i < neighbors.length; i++) {
+			neighbors[i] = targets.get(from + i);
+		}
+		return neighbors;
+	}
+
+	public List<String> getEdgeAttributeNames() {
+		return Collections.unmodifiableList(new ArrayList<String>(edgeAttributes.keySet()));
+	}
+
+	/**
+	 * Returns the value of a numeric edge attribute
+	 *
+	 * @param attribute
+	 *            the attribute name
+	 * @param edge
+	 *            the position of the edge
+	 * @return the value or NaN, if the edge has no numeric value for the
+	 *         attribute
+	 */
+	public double getEdgeAttribute(final String attribute, final int edge) {
+		return getEdgeAttributeColumn(attribute).get(edge);
+	}
+
+	/**
+	 * @return read-only view of the offsets column (vertexCount + 1 values)
+	 */
+	public LongBuffer getOffsets() {
+		return offsets.asReadOnlyBuffer();
+	}
+
+	/**
+	 * @return read-only view of the targets column (edgeCount values)
+	 */
+	public IntBuffer getTargets() {
+		return targets.asReadOnlyBuffer();
+	}
+
+	/**
+	 * @param attribute
+	 *            the attribute name
+	 * @return read-only view of an edge attribute column (edgeCount values)
+	 */
+	public DoubleBuffer getEdgeAttributeColumn(final String attribute) {
+		final DoubleBuffer column = edgeAttributes.get(attribute);
+		if (column == null) {
+			throw new IllegalArgumentException("unknown edge attribute: " + attribute);
+		}
+		return column.asReadOnlyBuffer();
+	}
+
+}
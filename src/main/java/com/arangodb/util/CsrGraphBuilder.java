@@ -0,0 +1,188 @@
+package com.arangodb.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects edges in arrival order and builds a {@link CsrGraph}. Vertex
+ * handles are dictionary encoded while adding edges, the edges themselves are
+ * kept in primitive arrays until {@link #build(boolean)} sorts them into CSR
+ * format. A builder can only be used once.
+ */
+public class CsrGraphBuilder {
+
+	private static final int INITIAL_CAPACITY = 1024;
+
+	private final String[] attributes;
+	private VertexDictionary dictionary = new VertexDictionary();
+	private int[] sources = new int[INITIAL_CAPACITY];
+	private int[] targets = new int[INITIAL_CAPACITY];
+	private double[][] values;
+	private int edgeCount;
+
+	/**
+	 * @param attributes
+	 *            the names of the numeric edge attributes to store
+	 */
+	public CsrGraphBuilder(final List<String> attributes) {
+		this.attributes = attributes != null ? attributes.toArray(new String[attributes.size()]) : new String[0];
+		this.values = new double[this.attributes.length][INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Adds a vertex without edges
+	 *
+	 * @param vertexId
+	 *            the vertex handle (_id)
+	 * @return the dense vertex value
+	 */
+	public int addVertex(final String vertexId) {
+		checkNotBuilt();
+		return dictionary.add(vertexId);
+	}
+
+	/**
+	 * Adds an edge
+	 *
+	 * @param from
+	 *            the vertex handle of the source vertex
+	 * @param to
+	 *            the vertex handle of the target vertex
+	 * @param attributeValues
+	 *            the values of the edge attributes in the order given to the
+	 *            constructor (missing values are stored as NaN)
+	 */
+	public void addEdge(final String from, final String to, final double... attributeValues) {
+		checkNotBuilt();
+		if (edgeCount == Integer.MAX_VALUE - 8) {
+			throw new IllegalStateException("too many edges");
+		}
+		if (edgeCount == sources.length) {
+			grow();
+		}
+		sources[edgeCount] = dictionary.add(from);
+		targets[edgeCount] = dictionary.add(to);
+		for (int i = 0; i < attributes.length; i++) {
+			values[i][edgeCount] = attributeValues != null && i < attributeValues.length ? attributeValues[i]
+					: Double.NaN;
+		}
+		edgeCount++;
+	}
+
+	public int getEdgeCount() {
+		return edgeCount;
+	}
+
+	public int getVertexCount() {
+		return dictionary != null ? dictionary.size() : 0;
+	}
+
+	/**
+	 * Builds the CSR adjacency and releases the memory of the builder
+	 *
+	 * @param offHeap
+	 *            if true, the columns are allocated as direct buffers
+	 * @return the graph
+	 */
+	public CsrGraph build(final boolean offHeap) {
+		checkNotBuilt();
+		final int vertexCount = dictionary.size();
+
+		// count the out degree of every vertex and build the offsets by a
+		// prefix sum
+		final int[] next = new int[vertexCount];
+		for (int i = 0; i < edgeCount; i++) {
+			next[sources[i]]++;
+		}
+		final LongBuffer offsets = allocateLongs(vertexCount + 1, offHeap);
+		long offset = 0;
+		for (int v = 0; v < vertexCount; v++) {
+			offsets.put(v, offset);
+			final int degree = next[v];
+			next[v] = (int) offset;
+			offset += degree;
+		}
+		offsets.put(vertexCount, offset);
+
+		// scatter the edges to their positions (stable within a vertex)
+		final IntBuffer targetColumn = allocateInts(edgeCount, offHeap);
+		final int[] positions = attributes.length > 0 ? new int[edgeCount] : null;
+		for (int i = 0; i < edgeCount; i++) {
+			final int position = next[sources[i]]++;
+			if (positions != null) {
+				positions[i] = position;
+			}
+			targetColumn.put(position, targets[i]);
+		}
+		sources = null;
+		targets = null;
+
+		final Map<String, DoubleBuffer> attributeColumns = new LinkedHashMap<String, DoubleBuffer>();
+		for (int a = 0; a < attributes.length; a++) {
+			final DoubleBuffer column = allocateDoubles(edgeCount, offHeap);
+			final double[] attributeValues = values[a];
+			for (int i = 0; i < edgeCount; i++) {
+				column.put(positions[i], attributeValues[i]);
+			}
+			values[a] = null;
+			attributeColumns.put(attributes[a], column);
+		}
+		values = null;
+
+		final CsrGraph graph = new CsrGraph(dictionary, offsets, targetColumn, attributeColumns, offHeap);
+		dictionary = null;
+		return graph;
+	}
+
+	private void checkNotBuilt() {
+		if (dictionary == null) {
+			throw new IllegalStateException("graph already built");
+		}
+	}
+
+	private void grow() {
+		final int capacity = (int) Math.min((long) sources.length * 2, Integer.MAX_VALUE - 8);
+		sources = Arrays.copyOf(sources, capacity);
+		targets = Arrays.copyOf(targets, capacity);
+		for (int i = 0; i < values.length; i++) {
+			values[i] = Arrays.copyOf(values[i], capacity);
+		}
+	}
+
+	private static LongBuffer allocateLongs(final int size, final boolean offHeap) {
+		if (offHeap) {
+			return allocateDirect(size, 8).asLongBuffer();
+		}
+		return LongBuffer.allocate(size);
+	}
+
+	private static IntBuffer allocateInts(final int size, final boolean offHeap) {
+		if (offHeap) {
+			return allocateDirect(size, 4).asIntBuffer();
+		}
+		return IntBuffer.allocate(size);
+	}
+
+	private static DoubleBuffer allocateDoubles(final int size, final boolean offHeap) {
+		if (offHeap) {
+			return allocateDirect(size, 8).asDoubleBuffer();
+		}
+		return DoubleBuffer.allocate(size);
+	}
+
+	private static ByteBuffer allocateDirect(final int size, final int bytes) {
+		final long capacity = (long) size * bytes;
+		if (capacity > Integer.MAX_VALUE) {
+			throw new IllegalStateException("column too large for a direct buffer: " + capacity + " bytes");
+		}
+		return ByteBuffer.allocateDirect((int) capacity).order(ByteOrder.nativeOrder());
+	}
+
+}
@@ -0,0 +1,150 @@
+package com.arangodb.util;
+
+import java.util.List;
+
+import com.arangodb.Direction;
+
+/**
+ * Options of a graph export into a {@link CsrGraph}
+ */
+public class GraphExportOptions {
+
+	private Direction direction;
+	private List<String> edgeCollectionRestriction;
+	private List<String> edgeAttributes;
+	private Boolean includeAllVertices;
+	private Boolean offHeap;
+	private Integer batchSize;
+
+	/**
+	 * The direction of the exported adjacency. Possible values are outbound
+	 * (default), inbound and any.
+	 *
+	 * @return the direction
+	 */
+	public Direction getDirection() {
+		return direction;
+	}
+
+	/**
+	 * The direction of the exported adjacency. Possible values are outbound
+	 * (default), inbound and any (every edge is stored in both directions).
+	 *
+	 * @param direction
+	 * @return this
+	 */
+	public GraphExportOptions setDirection(final Direction direction) {
+		this.direction = direction;
+		return this;
+	}
+
+	/**
+	 * One or multiple edge collection names. Only edges from these collections
+	 * will be exported.
+	 *
+	 * @return One or multiple edge collection names.
+	 */
+	public List<String> getEdgeCollectionRestriction() {
+		return edgeCollectionRestriction;
+	}
+
+	/**
+	 * One or multiple edge collection names. Only edges from these collections
+	 * will be exported.
+	 *
+	 * @param edgeCollectionRestriction
+	 * @return this
+	 */
+	public GraphExportOptions setEdgeCollectionRestriction(final List<String> edgeCollectionRestriction) {
+		this.edgeCollectionRestriction = edgeCollectionRestriction;
+		return this;
+	}
+
+	/**
+	 * Numeric edge attributes to export as columns
+	 *
+	 * @return the attribute names
+	 */
+	public List<String> getEdgeAttributes() {
+		return edgeAttributes;
+	}
+
+	/**
+	 * Numeric edge attributes to export as columns. Values that are missing or
+	 * not numeric are stored as NaN.
+	 *
+	 * @param edgeAttributes
+	 * @return this
+	 */
+	public GraphExportOptions setEdgeAttributes(final List<String> edgeAttributes) {
+		this.edgeAttributes = edgeAttributes;
+		return this;
+	}
+
+	/**
+	 * If true, the vertex collections of the graph are read as well, so
+	 * vertices without edges are part of the export (default false).
+	 *
+	 * @return true, if all vertices are exported
+	 */
+	public Boolean getIncludeAllVertices() {
+		return includeAllVertices;
+	}
+
+	/**
+	 * If true, the vertex collections of the graph are read as well, so
+	 * vertices without edges are part of the export (default false).
+	 *
+	 * @param includeAllVertices
+	 * @return this
+	 */
+	public GraphExportOptions setIncludeAllVertices(final Boolean includeAllVertices) {
+		this.includeAllVertices = includeAllVertices;
+		return this;
+	}
+
+	/**
+	 * If true, the adjacency is stored in direct buffers outside of the heap
+	 * (default false).
+	 *
+	 * @return true, if the adjacency is stored off-heap
+	 */
+	public Boolean getOffHeap() {
+		return offHeap;
+	}
+
+	/**
+	 * If true, the adjacency is stored in direct buffers outside of the heap
+	 * (default false).
+	 *
+	 * @param offHeap
+	 * @return this
+	 */
+	public GraphExportOptions setOffHeap(final Boolean offHeap) {
+		this.offHeap = offHeap;
+		return this;
+	}
+
+	/**
+	 * The number of edges transferred per cursor batch (default is the batch
+	 * size of the configuration)
+	 *
+	 * @return the batch size
+	 */
+	public Integer getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * The number of edges transferred per cursor batch (default is the batch
+	 * size of the configuration)
+	 *
+	 * @param batchSize
+	 * @return this
+	 */
+	public GraphExportOptions setBatchSize(final Integer batchSize) {
+		this.batchSize = batchSize;
+		return this;
+	}
+
+}
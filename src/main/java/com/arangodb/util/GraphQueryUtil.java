@@ -1,6 +1,7 @@
 package com.arangodb.util;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -8,6 +9,9 @@ import java.util.Set;
 import com.arangodb.ArangoDriver;
 import com.arangodb.ArangoException;
 import com.arangodb.Direction;
+import com.arangodb.InternalTraversalDriver.ItemOrder;
+import com.arangodb.InternalTraversalDriver.Order;
+import com.arangodb.InternalTraversalDriver.Strategy;
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
@@ -27,6 +31,7 @@ public class GraphQueryUtil {
 	private static final String END_VERTEX_EXAMPLE = "endVertexExample";
 	private static final String SOURCE = "source";
 	private static final String TARGET = "target";
+	private static final String FRONTIER = "frontier";
 
 	public static String createEdgeQuery(
 		final ArangoDriver driver,
@@ -57,19 +62,7 @@ public class GraphQueryUtil {
 		appendEdgeCollectionsOrGraph(graphName, bindVars, sb, edgeCollectionRestriction);
 		appendFilter("e", graphEdgesOptions.getEdgeExamples(), sb);
 		appendFilter("v", graphEdgesOptions.getNeighborExamples(), sb);
-		{
-			final List<String> endVertexCollectionRestriction = graphEdgesOptions.getEndVertexCollectionRestriction();
-			if (endVertexCollectionRestriction != null && endVertexCollectionRestriction.size() > 0) {
-				sb.append(" FILTER ");
-				for (String endVertexCollection : endVertexCollectionRestriction) {
-					sb.append("IS_SAME_COLLECTION(`");
-					sb.append(endVertexCollection);
-					sb.append("`,v)");
-					sb.append(OR);
-				}
-				sb.delete(sb.length() - OR.length(), sb.length() - 1);
-			}
-		}
+		appendCollectionFilter("v", graphEdgesOptions.getEndVertexCollectionRestriction(), sb);
 		final Integer limit = graphEdgesOptions.getLimit();
 		if (limit != null) {
 			sb.append(" LIMIT ");
@@ -84,6 +77,176 @@ public class GraphQueryUtil {
 		return query;
 	}
 
+	/**
+	 * Creates a query that expands all vertices of a frontier in one request.
+	 * The query returns one document per source vertex: { source: handle,
+	 * neighbors: [vertices] }
+	 * 
+	 * @param graphName
+	 *            the graph name
+	 * @param frontier
+	 *            the document handles of the source vertices
+	 * @param graphEdgesOptions
+	 *            direction, depth, edge collection restriction, end vertex
+	 *            collection restriction, edge and neighbor examples, limit (per
+	 *            source vertex) and includeData are supported
+	 * @param bindVars
+	 *            the bind variables of the query
+	 * @return the query
+	 * @throws ArangoException
+	 */
+	public static String createNeighborsQuery(
+		final String graphName,
+		final Collection<String> frontier,
+		final GraphEdgesOptions graphEdgesOptions,
+		final MapBuilder bindVars) throws ArangoException {
+
+		final StringBuilder sb = new StringBuilder();
+		sb.append("FOR s IN");
+		appendBindVar(FRONTIER, frontier, bindVars, sb);
+		sb.append(" LET n = (FOR v,e IN ");
+		appendDepth(graphEdgesOptions, sb);
+		appendDirection(graphEdgesOptions.getDirection(), sb);
+		sb.append(" s");
+		appendEdgeCollectionsOrGraph(graphName, bindVars, sb, graphEdgesOptions.getEdgeCollectionRestriction());
+		appendFilter("e", graphEdgesOptions.getEdgeExamples(), sb);
+		appendFilter("v", graphEdgesOptions.getNeighborExamples(), sb);
+		appendCollectionFilter("v", graphEdgesOptions.getEndVertexCollectionRestriction(), sb);
+		sb.append(" RETURN DISTINCT ");
+		if (graphEdgesOptions.getIncludeData() != null && !graphEdgesOptions.getIncludeData().booleanValue()) {
+			sb.append("KEEP(v, '_id', '_key', '_rev')");
+		} else {
+			sb.append("v");
+		}
+		sb.append(")");
+		final Integer limit = graphEdgesOptions.getLimit();
+		if (limit != null) {
+			sb.append(" RETURN { source: s, neighbors: SLICE(n, 0, ");
+			sb.append(limit.intValue());
+			sb.append(") }");
+		} else {
+			sb.append(" RETURN { source: s, neighbors: n }");
+		}
+
+		return sb.toString();
+	}
+
+	/**
+	 * Creates an AQL traversal query from traversal options. The query returns
+	 * the visited vertices (projection "v") or the paths (projection "p").
+	 * JavaScript based options (filter, visitor, init, expander, sort) and
+	 * postorder/backward visitation are not supported by AQL traversals.
+	 */
+	public static String createTraversalQuery(
+		final TraversalQueryOptions traversalQueryOptions,
+		final String projection,
+		final MapBuilder bindVars) throws ArangoException {
+
+		if (traversalQueryOptions.getFilter() != null || traversalQueryOptions.getVisitor() != null
+				|| traversalQueryOptions.getInit() != null || traversalQueryOptions.getExpander() != null
+				|| traversalQueryOptions.getSort() != null || traversalQueryOptions.getMaxIterations() != null) {
+			throw new ArangoException(
+					"filter, visitor, init, expander, sort and maxIterations are not supported by traversal cursors");
+		}
+		if (traversalQueryOptions.getOrder() == Order.POSTORDER
+				|| traversalQueryOptions.getItemOrder() == ItemOrder.BACKWARD) {
+			throw new ArangoException("postorder and backward item order are not supported by traversal cursors");
+		}
+
+		final long minDepth = traversalQueryOptions.getMinDepth() != null ? traversalQueryOptions.getMinDepth() : 1L;
+		final long maxDepth = traversalQueryOptions.getMaxDepth() != null ? traversalQueryOptions.getMaxDepth()
+				: minDepth;
+		final Direction direction = traversalQueryOptions.getDirection() != null
+				? traversalQueryOptions.getDirection() : Direction.OUTBOUND;
+
+		final StringBuilder sb = new StringBuilder("FOR v,e,p IN ");
+		sb.append(minDepth).append("..").append(maxDepth).append(" ");
+		sb.append(direction.name());
+		sb.append(" @startVertex ");
+		bindVars.put("startVertex", traversalQueryOptions.getStartVertex());
+		if (traversalQueryOptions.getGraphName() != null) {
+			sb.append("GRAPH @");
+			sb.append(GRAPH_NAME);
+			bindVars.put(GRAPH_NAME, traversalQueryOptions.getGraphName());
+		} else {
+			sb.append("@@edgeCollection");
+			bindVars.put("@edgeCollection", traversalQueryOptions.getEdgeCollection());
+		}
+
+		final List<String> options = new ArrayList<String>();
+		if (traversalQueryOptions.getStrategy() == Strategy.BREADTHFIRST) {
+			options.add("bfs: true");
+		}
+		if (traversalQueryOptions.getVerticesUniqueness() != null) {
+			options.add("uniqueVertices: '" + traversalQueryOptions.getVerticesUniqueness().name().toLowerCase() + "'");
+		}
+		if (traversalQueryOptions.getEdgesUniqueness() != null) {
+			options.add("uniqueEdges: '" + traversalQueryOptions.getEdgesUniqueness().name().toLowerCase() + "'");
+		}
+		if (!options.isEmpty()) {
+			sb.append(" OPTIONS {");
+			for (int i = 0; i < options.size(); i++) {
+				if (i > 0) {
+					sb.append(", ");
+				}
+				sb.append(options.get(i));
+			}
+			sb.append("}");
+		}
+
+		sb.append(" RETURN ");
+		sb.append(projection);
+		return sb.toString();
+	}
+
+	/**
+	 * Creates a query that returns [_from, _to, attribute values...] of all
+	 * edges of an edge collection
+	 */
+	public static String createExportEdgesQuery(
+		final String edgeCollection,
+		final List<String> edgeAttributes,
+		final MapBuilder bindVars) {
+
+		final StringBuilder sb = new StringBuilder("FOR e IN @@edgeCollection RETURN [e._from, e._to");
+		bindVars.put("@edgeCollection", edgeCollection);
+		if (edgeAttributes != null) {
+			for (int i = 0; i < edgeAttributes.size(); i++) {
+				sb.append(", e[@attribute").append(i).append("]");
+				bindVars.put("attribute" + i, edgeAttributes.get(i));
+			}
+		}
+		sb.append("]");
+		return sb.toString();
+	}
+
+	/**
+	 * Creates a query that returns the _id of all documents of a vertex
+	 * collection
+	 */
+	public static String createExportVerticesQuery(final String vertexCollection, final MapBuilder bindVars) {
+		bindVars.put("@vertexCollection", vertexCollection);
+		return "FOR v IN @@vertexCollection RETURN v._id";
+	}
+
+	private static void appendCollectionFilter(
+		final String var,
+		final List<String> collectionRestriction,
+		final StringBuilder sb) {
+		if (collectionRestriction != null && collectionRestriction.size() > 0) {
+			sb.append(" FILTER ");
+			for (String collection : collectionRestriction) {
+				sb.append("IS_SAME_COLLECTION(`");
+				sb.append(collection);
+				sb.append("`,");
+				sb.append(var);
+				sb.append(")");
+				sb.append(OR);
+			}
+			sb.delete(sb.length() - OR.length(), sb.length());
+		}
+	}
+
 	private static void appendEdgeCollectionsOrGraph(
 		final String graphName,
 		final MapBuilder bindVars,
@@ -0,0 +1,209 @@
+package com.arangodb.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.arangodb.entity.EdgeDefinitionEntity;
+import com.arangodb.entity.EdgeDefinitionsEntity;
+import com.arangodb.entity.GraphEntity;
+
+/**
+ * Client side cache of the topology (edge definitions, vertex collections and
+ * orphan collections) of named graphs. Entries are created from a
+ * {@link GraphEntity} and expire after the configured time to live.
+ */
+public class GraphTopologyCache {
+
+	private static final String SYSTEM_DATABASE = "_system";
+
+	private final ConcurrentMap<String, GraphTopology> topologies = new ConcurrentHashMap<String, GraphTopology>();
+
+	private volatile long ttl;
+
+	/**
+	 * @param ttl
+	 *            time to live of an entry in milliseconds (a value less or
+	 *            equal to 0 disables the cache)
+	 */
+	public GraphTopologyCache(final long ttl) {
+		this.ttl = ttl;
+	}
+
+	public boolean isEnabled() {
+		return ttl > 0;
+	}
+
+	public long getTtl() {
+		return ttl;
+	}
+
+	public void setTtl(final long ttl) {
+		this.ttl = ttl;
+		if (ttl <= 0) {
+			topologies.clear();
+		}
+	}
+
+	/**
+	 * Returns the cached topology of a graph
+	 *
+	 * @param database
+	 *            the database name (null for the _system database)
+	 * @param graphName
+	 *            the graph name
+	 * @return the topology or null, if the graph is not cached or the entry is
+	 *         expired
+	 */
+	public GraphTopology get(final String database, final String graphName) {
+		if (!isEnabled()) {
+			return null;
+		}
+		final String key = createKey(database, graphName);
+		final GraphTopology topology = topologies.get(key);
+		if (topology != null && topology.isExpired(ttl)) {
+			topologies.remove(key, topology);
+			return null;
+		}
+		return topology;
+	}
+
+	/**
+	 * Stores the topology of a graph
+	 *
+	 * @param database
+	 *            the database name (null for the _system database)
+	 * @param graphName
+	 *            the graph name
+	 * @param graph
+	 *            the graph entity as returned by the server
+	 * @return the cached topology or null, if the cache is disabled or the
+	 *         graph entity has no edge definitions
+	 */
+	public GraphTopology put(final String database, final String graphName, final GraphEntity graph) {
+		if (!isEnabled() || graph == null || graph.getEdgeDefinitionsEntity() == null) {
+			return null;
+		}
+		final GraphTopology topology = new GraphTopology(graph);
+		topologies.put(createKey(database, graphName), topology);
+		return topology;
+	}
+
+	/**
+	 * Removes the topology of a graph from the cache
+	 *
+	 * @param database
+	 *            the database name (null for the _system database)
+	 * @param graphName
+	 *            the graph name
+	 */
+	public void invalidate(final String database, final String graphName) {
+		topologies.remove(createKey(database, graphName));
+	}
+
+	/**
+	 * Removes the topology of all graphs of a database from the cache
+	 *
+	 * @param database
+	 *            the database name (null for the _system database)
+	 */
+	public void invalidateDatabase(final String database) {
+		final String prefix = createKey(database, "");
+		final Iterator<String> iterator = topologies.keySet().iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next().startsWith(prefix)) {
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * Removes all entries from the cache
+	 */
+	public void invalidateAll() {
+		topologies.clear();
+	}
+
+	private String createKey(final String database, final String graphName) {
+		// without a database the requests go to the _system database
+		return (database == null ? SYSTEM_DATABASE : database) + "/" + graphName;
+	}
+
+	/**
+	 * Immutable topology of a single graph
+	 */
+	public static class GraphTopology {
+
+		private final long created;
+		private final List<EdgeDefinitionEntity> edgeDefinitions;
+		private final List<String> edgeCollections;
+		private final List<String> vertexCollections;
+		private final List<String> orphanCollections;
+
+		GraphTopology(final GraphEntity graph) {
+			this.created = System.currentTimeMillis();
+
+			final EdgeDefinitionsEntity edgeDefinitionsEntity = graph.getEdgeDefinitionsEntity();
+			final List<EdgeDefinitionEntity> definitions = edgeDefinitionsEntity.getEdgeDefinitions() != null
+					? edgeDefinitionsEntity.getEdgeDefinitions() : new ArrayList<EdgeDefinitionEntity>();
+
+			final List<String> edges = new ArrayList<String>();
+			final Set<String> vertices = new LinkedHashSet<String>();
+			for (final EdgeDefinitionEntity definition : definitions) {
+				edges.add(definition.getCollection());
+				if (definition.getFrom() != null) {
+					vertices.addAll(definition.getFrom());
+				}
+				if (definition.getTo() != null) {
+					vertices.addAll(definition.getTo());
+				}
+			}
+
+			this.edgeDefinitions = Collections.unmodifiableList(new ArrayList<EdgeDefinitionEntity>(definitions));
+			this.edgeCollections = Collections.unmodifiableList(edges);
+			this.vertexCollections = Collections.unmodifiableList(new ArrayList<String>(vertices));
+			this.orphanCollections = Collections.unmodifiableList(
+				graph.getOrphanCollections() != null ? new ArrayList<String>(graph.getOrphanCollections())
+						: new ArrayList<String>());
+		}
+
+		boolean isExpired(final long ttl) {
+			return System.currentTimeMillis() - created >= ttl;
+		}
+
+		public List<EdgeDefinitionEntity> getEdgeDefinitions() {
+			return edgeDefinitions;
+		}
+
+		public List<String> getEdgeCollections() {
+			return edgeCollections;
+		}
+
+		/**
+		 * Returns the vertex collections of the graph
+		 *
+		 * @param excludeOrphan
+		 *            if true, the orphan collections are not included
+		 * @return list of vertex collection names
+		 */
+		public List<String> getVertexCollections(final boolean excludeOrphan) {
+			if (excludeOrphan || orphanCollections.isEmpty()) {
+				return vertexCollections;
+			}
+			final Set<String> result = new LinkedHashSet<String>(vertexCollections);
+			result.addAll(orphanCollections);
+			return Collections.unmodifiableList(new ArrayList<String>(result));
+		}
+
+		public List<String> getOrphanCollections() {
+			return orphanCollections;
+		}
+
+	}
+
+}
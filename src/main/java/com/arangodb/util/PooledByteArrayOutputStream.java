@@ -0,0 +1,212 @@
+package com.arangodb.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Growable byte buffer backed by arrays of the {@link BufferPool}. Request and
+ * response bodies are stored as UTF-8 bytes in this buffer, the array is
+ * returned to the pool by {@link #release()}.
+ * <p>
+ * The buffer is not thread-safe.
+ */
+public class PooledByteArrayOutputStream extends OutputStream {
+
+	public static final Charset UTF_8 = Charset.forName("utf-8");
+
+	private static final int DEFAULT_SIZE = 1024;
+
+	private static final ThreadLocal<CharsetEncoder> ENCODER = new ThreadLocal<CharsetEncoder>() {
+		@Override
+		protected CharsetEncoder initialValue() {
+			return UTF_8.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+					.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		}
+	};
+
+	private final BufferPool pool;
+	private byte[] buffer;
+	private int count;
+
+	public PooledByteArrayOutputStream() {
+		this(DEFAULT_SIZE);
+	}
+
+	/**
+	 * @param initialSize
+	 *            expected size of the content
+	 */
+	public PooledByteArrayOutputStream(final int initialSize) {
+		this.pool = BufferPool.getInstance();
+		this.buffer = pool.acquire(Math.max(initialSize, 1));
+	}
+
+	/**
+	 * Creates a buffer with the UTF-8 encoded text
+	 *
+	 * @param text
+	 *            the text
+	 * @return the buffer
+	 */
+	public static PooledByteArrayOutputStream encode(final String text) {
+		// most JSON is ASCII, so the length of the text is a good estimate
+		final PooledByteArrayOutputStream out = new PooledByteArrayOutputStream(text.length() + 16);
+		out.writeUtf8(text);
+		return out;
+	}
+
+	/**
+	 * Creates a buffer with the content of the stream and closes the stream
+	 *
+	 * @param in
+	 *            the stream
+	 * @param expectedSize
+	 *            expected number of bytes (e.g. the content length, or -1)
+	 * @return the buffer
+	 * @throws IOException
+	 */
+	public static PooledByteArrayOutputStream read(final InputStream in, final long expectedSize)
+			throws IOException {
+		final PooledByteArrayOutputStream out = new PooledByteArrayOutputStream(
+				expectedSize > 0 && expectedSize < Integer.MAX_VALUE ? (int) expectedSize + 1 : DEFAULT_SIZE);
+		try {
+			int read;
+			while (true) {
+				if (out.count == out.buffer.length) {
+					out.ensureCapacity(out.count + 1);
+				}
+				read = in.read(out.buffer, out.count, out.buffer.length - out.count);
+				if (read < 0) {
+					break;
+				}
+				out.count += read;
+			}
+		} catch (final IOException e) {
+			out.release();
+			throw e;
+		} finally {
+			IOUtils.close(in);
+		}
+		return out;
+	}
+
+	@Override
+	public void write(final int b) {
+		ensureCapacity(count + 1);
+		buffer[count++] = (byte) b;
+	}
+
+	@Override
+	public void write(final byte[] b, final int off, final int len) {
+		ensureCapacity(count + len);
+		System.arraycopy(b, off, buffer, count, len);
+		count += len;
+	}
+
+	/**
+	 * Appends bytes from a (direct) buffer
+	 *
+	 * @param src
+	 *            the source buffer
+	 * @param len
+	 *            the number of bytes
+	 */
+	public void write(final ByteBuffer src, final int len) {
+		ensureCapacity(count + len);
+		src.get(buffer, count, len);
+		count += len;
+	}
+
+	/**
+	 * Appends the UTF-8 encoded text without intermediate arrays
+	 *
+	 * @param text
+	 *            the text
+	 */
+	public void writeUtf8(final CharSequence text) {
+		final CharsetEncoder encoder = ENCODER.get();
+		encoder.reset();
+		final CharBuffer in = CharBuffer.wrap(text);
+		while (true) {
+			final ByteBuffer out = ByteBuffer.wrap(buffer, count, buffer.length - count);
+			final CoderResult result = encoder.encode(in, out, true);
+			count = out.position();
+			if (result.isOverflow()) {
+				ensureCapacity(count + in.remaining() + 16);
+				continue;
+			}
+			final ByteBuffer flush = ByteBuffer.wrap(buffer, count, buffer.length - count);
+			if (encoder.flush(flush).isOverflow()) {
+				ensureCapacity(count + 16);
+				continue;
+			}
+			count = flush.position();
+			return;
+		}
+	}
+
+	/**
+	 * @return the backing array, valid until the next write or release
+	 */
+	public byte[] getBuffer() {
+		return buffer;
+	}
+
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * @return a stream over the content, valid until the buffer is released
+	 */
+	public InputStream toInputStream() {
+		return new ByteArrayInputStream(buffer, 0, count);
+	}
+
+	/**
+	 * @return a copy of the content
+	 */
+	public byte[] toByteArray() {
+		final byte[] result = new byte[count];
+		System.arraycopy(buffer, 0, result, 0, count);
+		return result;
+	}
+
+	/**
+	 * @return the content decoded as UTF-8
+	 */
+	@Override
+	public String toString() {
+		return new String(buffer, 0, count, UTF_8);
+	}
+
+	/**
+	 * Returns the backing array to the pool. The buffer must not be used
+	 * afterwards.
+	 */
+	public void release() {
+		if (buffer != null) {
+			pool.release(buffer);
+			buffer = null;
+			count = 0;
+		}
+	}
+
+	private void ensureCapacity(final int capacity) {
+		if (capacity > buffer.length) {
+			final byte[] larger = pool.acquire(Math.max(capacity, buffer.length * 2));
+			System.arraycopy(buffer, 0, larger, 0, count);
+			pool.release(buffer);
+			buffer = larger;
+		}
+	}
+
+}
@@ -0,0 +1,102 @@
+package com.arangodb.util;
+
+/**
+ * Options of a single call of the driver, or of all calls of a thread, which
+ * are not sent to the server
+ */
+public class RequestOptions {
+
+	/**
+	 * Priority of a request waiting for admission, e.g. HIGH for interactive
+	 * and LOW for bulk requests
+	 */
+	public enum Priority {
+		HIGH, NORMAL, LOW
+	}
+
+	private Integer timeout;
+	private String tag;
+	private Priority priority;
+
+	/**
+	 * time in milliseconds for the call, including the wait for a connection
+	 * and all retries (optional). If the time expires, the request is aborted
+	 * and an ArangoTimeoutException is thrown. The server may still execute an
+	 * aborted write.
+	 *
+	 * @return time in milliseconds
+	 */
+	public Integer getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * time in milliseconds for the call, including the wait for a connection
+	 * and all retries (optional). If the time expires, the request is aborted
+	 * and an ArangoTimeoutException is thrown. The server may still execute an
+	 * aborted write.
+	 *
+	 * @param timeout
+	 *            time in milliseconds
+	 * @return this
+	 */
+	public RequestOptions setTimeout(Integer timeout) {
+		this.timeout = timeout;
+		return this;
+	}
+
+	/**
+	 * name of the limits of the call, see
+	 * {@link com.arangodb.ArangoConfigure#setRateLimit(String, double)}
+	 * (optional)
+	 *
+	 * @return the tag
+	 */
+	public String getTag() {
+		return tag;
+	}
+
+	/**
+	 * name of the limits of the call, see
+	 * {@link com.arangodb.ArangoConfigure#setRateLimit(String, double)}
+	 * (optional)
+	 *
+	 * @param tag
+	 *            the tag
+	 * @return this
+	 */
+	public RequestOptions setTag(String tag) {
+		this.tag = tag;
+		return this;
+	}
+
+	/**
+	 * order of the requests waiting for admission (optional, default: NORMAL)
+	 *
+	 * @return the priority
+	 */
+	public Priority getPriority() {
+		return priority;
+	}
+
+	/**
+	 * order of the requests waiting for admission (optional, default: NORMAL)
+	 *
+	 * @param priority
+	 *            the priority
+	 * @return this
+	 */
+	public RequestOptions setPriority(Priority priority) {
+		this.priority = priority;
+		return this;
+	}
+
+	/**
+	 * @return the deadline (System.currentTimeMillis()) of a call starting
+	 *         now, 0 for no deadline
+	 */
+	public long getDeadline() {
+		return timeout != null && timeout > 0 ? System.currentTimeMillis() + timeout : 0L;
+	}
+
+}
@@ -0,0 +1,21 @@
+package com.arangodb.util;
+
+import com.arangodb.entity.DocumentEntity;
+
+/**
+ * Receives the documents of a parallel collection scan. The handler is called
+ * concurrently from the threads of the different partitions and therefore has
+ * to be thread-safe.
+ */
+public interface ScanHandler<T> {
+
+	/**
+	 * @param partition
+	 *            the partition (0 ... partitions-1) of the document
+	 * @param document
+	 *            the document
+	 * @return false to stop the scan of all partitions
+	 */
+	public boolean handle(int partition, DocumentEntity<T> document);
+
+}
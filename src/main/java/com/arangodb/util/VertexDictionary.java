@@ -0,0 +1,90 @@
+package com.arangodb.util;
+
+/**
+ * Dictionary encoding of vertex handles (_id) into dense int values (0 ...
+ * size-1). Uses an open addressing hash table of int slots instead of a
+ * HashMap to avoid boxing and entry objects.
+ */
+class VertexDictionary {
+
+	private static final int INITIAL_CAPACITY = 1024;
+
+	private String[] ids;
+	private int[] slots;
+	private int size;
+
+	VertexDictionary() {
+		ids = new String[INITIAL_CAPACITY];
+		slots = new int[INITIAL_CAPACITY * 2];
+	}
+
+	/**
+	 * Returns the dense value of the given vertex handle. The handle is added
+	 * to the dictionary if it is unknown.
+	 */
+	int add(final String id) {
+		int slot = findSlot(slots, id);
+		if (slots[slot] != 0) {
+			return slots[slot] - 1;
+		}
+		if (size == ids.length) {
+			grow();
+			slot = findSlot(slots, id);
+		}
+		ids[size] = id;
+		size++;
+		slots[slot] = size;
+		return size - 1;
+	}
+
+	/**
+	 * Returns the dense value of the given vertex handle or -1, if the handle
+	 * is unknown.
+	 */
+	int get(final String id) {
+		return slots[findSlot(slots, id)] - 1;
+	}
+
+	String getId(final int vertex) {
+		if (vertex < 0 || vertex >= size) {
+			throw new IndexOutOfBoundsException("vertex " + vertex + " (size " + size + ")");
+		}
+		return ids[vertex];
+	}
+
+	int size() {
+		return size;
+	}
+
+	private int findSlot(final int[] table, final String id) {
+		final int mask = table.length - 1;
+		int slot = mix(id.hashCode()) & mask;
+		while (table[slot] != 0 && !ids[table[slot] - 1].equals(id)) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private void grow() {
+		final String[] newIds = new String[ids.length * 2];
+		System.arraycopy(ids, 0, newIds, 0, size);
+		ids = newIds;
+
+		final int[] newSlots = new int[slots.length * 2];
+		final int mask = newSlots.length - 1;
+		for (int i = 0; i < size; i++) {
+			int slot = mix(ids[i].hashCode()) & mask;
+			while (newSlots[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			newSlots[slot] = i + 1;
+		}
+		slots = newSlots;
+	}
+
+	private static int mix(final int hash) {
+		final int h = hash * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+}
@@ -0,0 +1,424 @@
+package com.arangodb.vst;
+
+import java.io.ByteArrayOutputStream;
+import java.io.UnsupportedEncodingException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Minimal VelocyPack codec. Values are converted from and to the Gson tree
+ * model, so the rest of the driver keeps working with JSON text.
+ * <p>
+ * The encoder writes arrays and objects in the compact format (no index
+ * tables). The decoder reads all array and object formats, integers, doubles,
+ * strings, booleans, null and UTC dates. Binary, BCD and custom types are not
+ * supported.
+ */
+public class VPack {
+
+	private static final String UTF_8 = "utf-8";
+
+	/**
+	 * attribute names of the translated integer keys used by the server
+	 */
+	private static final String[] TRANSLATED_KEYS = { null, "_key", "_rev", "_id", "_from", "_to" };
+
+	private VPack() {
+		// this is a helper class
+	}
+
+	/**
+	 * Encodes a JSON value
+	 *
+	 * @param value
+	 *            the value (null is encoded as VelocyPack null)
+	 * @return the VelocyPack bytes
+	 */
+	public static byte[] encode(final JsonElement value) {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		write(out, value == null ? JsonNull.INSTANCE : value);
+		return out.toByteArray();
+	}
+
+	/**
+	 * Decodes a VelocyPack value
+	 *
+	 * @param data
+	 *            the buffer
+	 * @param pos
+	 *            the start of the value
+	 * @return the value as JSON tree
+	 */
+	public static JsonElement decode(final byte[] data, final int pos) {
+		final int head = data[pos] & 0xff;
+		switch (head) {
+		case 0x01:
+			return new JsonArray();
+		case 0x0a:
+			return new JsonObject();
+		case 0x18:
+		case 0x1e:
+		case 0x1f:
+			return JsonNull.INSTANCE;
+		case 0x19:
+			return new JsonPrimitive(Boolean.FALSE);
+		case 0x1a:
+			return new JsonPrimitive(Boolean.TRUE);
+		case 0x1b:
+			return new JsonPrimitive(Double.longBitsToDouble(readLong(data, pos + 1, 8)));
+		case 0x1c:
+			return new JsonPrimitive(readLong(data, pos + 1, 8));
+		case 0x13:
+			return decodeCompact(data, pos, false);
+		case 0x14:
+			return decodeCompact(data, pos, true);
+		case 0xbf:
+			return new JsonPrimitive(readString(data, pos + 9, (int) readLong(data, pos + 1, 8)));
+		default:
+			break;
+		}
+		if (head >= 0x02 && head <= 0x09) {
+			return decodeArray(data, pos, head);
+		}
+		if (head >= 0x0b && head <= 0x12) {
+			return decodeObject(data, pos, head);
+		}
+		if (head >= 0x20 && head <= 0x27) {
+			final int size = head - 0x1f;
+			long value = readLong(data, pos + 1, size);
+			if (size < 8 && (value & (1L << (size * 8 - 1))) != 0) {
+				// sign extension
+				value |= -1L << (size * 8);
+			}
+			return new JsonPrimitive(value);
+		}
+		if (head >= 0x28 && head <= 0x2f) {
+			final long value = readLong(data, pos + 1, head - 0x27);
+			if (value < 0) {
+				return new JsonPrimitive(new BigInteger(1, BigInteger.valueOf(value).toByteArray()));
+			}
+			return new JsonPrimitive(value);
+		}
+		if (head >= 0x30 && head <= 0x39) {
+			return new JsonPrimitive(head - 0x30);
+		}
+		if (head >= 0x3a && head <= 0x3f) {
+			return new JsonPrimitive(head - 0x40);
+		}
+		if (head >= 0x40 && head <= 0xbe) {
+			return new JsonPrimitive(readString(data, pos + 1, head - 0x40));
+		}
+		throw new IllegalArgumentException("unsupported VelocyPack type 0x" + Integer.toHexString(head));
+	}
+
+	/**
+	 * Returns the byte size of a VelocyPack value
+	 *
+	 * @param data
+	 *            the buffer
+	 * @param pos
+	 *            the start of the value
+	 * @return the size in bytes
+	 */
+	public static int byteSize(final byte[] data, final int pos) {
+		final int head = data[pos] & 0xff;
+		if (head == 0x13 || head == 0x14) {
+			return (int) readVarint(data, pos + 1);
+		}
+		if ((head >= 0x02 && head <= 0x09) || (head >= 0x0b && head <= 0x12)) {
+			return (int) readLong(data, pos + 1, lengthWidth(head));
+		}
+		if (head >= 0x20 && head <= 0x27) {
+			return 1 + head - 0x1f;
+		}
+		if (head >= 0x28 && head <= 0x2f) {
+			return 1 + head - 0x27;
+		}
+		if (head >= 0x40 && head <= 0xbe) {
+			return 1 + head - 0x40;
+		}
+		if (head == 0xbf) {
+			return 9 + (int) readLong(data, pos + 1, 8);
+		}
+		if (head >= 0xc0 && head <= 0xc7) {
+			final int width = head - 0xbf;
+			return 1 + width + (int) readLong(data, pos + 1, width);
+		}
+		if (head == 0x1b || head == 0x1c) {
+			return 9;
+		}
+		if (head == 0x00 || head == 0x01 || head == 0x0a || (head >= 0x18 && head <= 0x1f && head != 0x1d)
+				|| (head >= 0x30 && head <= 0x3f)) {
+			return 1;
+		}
+		throw new IllegalArgumentException("unsupported VelocyPack type 0x" + Integer.toHexString(head));
+	}
+
+	private static void write(final ByteArrayOutputStream out, final JsonElement value) {
+		if (value.isJsonNull()) {
+			out.write(0x18);
+		} else if (value.isJsonPrimitive()) {
+			writePrimitive(out, value.getAsJsonPrimitive());
+		} else if (value.isJsonArray()) {
+			final JsonArray array = value.getAsJsonArray();
+			if (array.size() == 0) {
+				out.write(0x01);
+				return;
+			}
+			final ByteArrayOutputStream items = new ByteArrayOutputStream();
+			for (final JsonElement element : array) {
+				write(items, element);
+			}
+			writeCompact(out, 0x13, items, array.size());
+		} else {
+			final JsonObject object = value.getAsJsonObject();
+			final ByteArrayOutputStream items = new ByteArrayOutputStream();
+			int size = 0;
+			for (final Entry<String, JsonElement> entry : object.entrySet()) {
+				writeString(items, entry.getKey());
+				write(items, entry.getValue());
+				size++;
+			}
+			if (size == 0) {
+				out.write(0x0a);
+				return;
+			}
+			writeCompact(out, 0x14, items, size);
+		}
+	}
+
+	private static void writePrimitive(final ByteArrayOutputStream out, final JsonPrimitive primitive) {
+		if (primitive.isBoolean()) {
+			out.write(primitive.getAsBoolean() ? 0x1a : 0x19);
+		} else if (primitive.isString()) {
+			writeString(out, primitive.getAsString());
+		} else {
+			final String text = primitive.getAsNumber().toString();
+			if (text.indexOf('.') < 0 && text.indexOf('e') < 0 && text.indexOf('E') < 0) {
+				try {
+					writeInt(out, Long.parseLong(text));
+					return;
+				} catch (final NumberFormatException e) {
+					// too large for a long, written as double
+				}
+			}
+			out.write(0x1b);
+			writeLong(out, Double.doubleToLongBits(primitive.getAsDouble()), 8);
+		}
+	}
+
+	private static void writeInt(final ByteArrayOutputStream out, final long value) {
+		if (value >= 0 && value <= 9) {
+			out.write((int) (0x30 + value));
+		} else if (value >= -6 && value < 0) {
+			out.write((int) (0x40 + value));
+		} else {
+			int size = 1;
+			while (size < 8 && (value < -(1L << (size * 8 - 1)) || value >= (1L << (size * 8 - 1)))) {
+				size++;
+			}
+			out.write(0x1f + size);
+			writeLong(out, value, size);
+		}
+	}
+
+	private static void writeString(final ByteArrayOutputStream out, final String value) {
+		final byte[] bytes;
+		try {
+			bytes = value.getBytes(UTF_8);
+		} catch (final UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+		if (bytes.length <= 126) {
+			out.write(0x40 + bytes.length);
+		} else {
+			out.write(0xbf);
+			writeLong(out, bytes.length, 8);
+		}
+		out.write(bytes, 0, bytes.length);
+	}
+
+	private static void writeCompact(
+		final ByteArrayOutputStream out,
+		final int head,
+		final ByteArrayOutputStream items,
+		final int size) {
+		final byte[] nrItems = varint(size);
+		final int base = 1 + items.size() + nrItems.length;
+		int lengthSize = 1;
+		while (varint(base + lengthSize).length != lengthSize) {
+			lengthSize++;
+		}
+		out.write(head);
+		final byte[] byteLength = varint(base + lengthSize);
+		out.write(byteLength, 0, byteLength.length);
+		final byte[] payload = items.toByteArray();
+		out.write(payload, 0, payload.length);
+		// the number of items is stored as reversed varint
+		for (int i = nrItems.length - 1; i >= 0; i--) {
+			out.write(nrItems[i]);
+		}
+	}
+
+	private static byte[] varint(final long value) {
+		final List<Byte> bytes = new ArrayList<Byte>();
+		long v = value;
+		do {
+			int b = (int) (v & 0x7f);
+			v >>>= 7;
+			if (v != 0) {
+				b |= 0x80;
+			}
+			bytes.add((byte) b);
+		} while (v != 0);
+		final byte[] result = new byte[bytes.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = bytes.get(i);
+		}
+		return result;
+	}
+
+	private static void writeLong(final ByteArrayOutputStream out, final long value, final int size) {
+		for (int i = 0; i < size; i++) {
+			out.write((int) (value >>> (i * 8)) & 0xff);
+		}
+	}
+
+	static long readLong(final byte[] data, final int pos, final int size) {
+		long value = 0;
+		for (int i = 0; i < size; i++) {
+			value |= (data[pos + i] & 0xffL) << (i * 8);
+		}
+		return value;
+	}
+
+	private static long readVarint(final byte[] data, final int pos) {
+		long value = 0;
+		int shift = 0;
+		int i = pos;
+		while (true) {
+			final int b = data[i++] & 0xff;
+			value |= (long) (b & 0x7f) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+			shift += 7;
+		}
+	}
+
+	private static int varintSize(final byte[] data, final int pos) {
+		int i = pos;
+		while ((data[i] & 0x80) != 0) {
+			i++;
+		}
+		return i - pos + 1;
+	}
+
+	private static String readString(final byte[] data, final int pos, final int length) {
+		try {
+			return new String(data, pos, length, UTF_8);
+		} catch (final UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static int lengthWidth(final int head) {
+		final int base = head >= 0x0f ? 0x0f : head >= 0x0b ? 0x0b : head >= 0x06 ? 0x06 : 0x02;
+		return 1 << (head - base);
+	}
+
+	private static int skipPadding(final byte[] data, final int pos) {
+		int i = pos;
+		while (data[i] == 0) {
+			i++;
+		}
+		return i;
+	}
+
+	private static JsonElement decodeCompact(final byte[] data, final int pos, final boolean object) {
+		final int end = pos + (int) readVarint(data, pos + 1);
+		// the number of items is stored as reversed varint at the end
+		long nrItems = 0;
+		int shift = 0;
+		int i = end - 1;
+		while (true) {
+			final int b = data[i--] & 0xff;
+			nrItems |= (long) (b & 0x7f) << shift;
+			if ((b & 0x80) == 0) {
+				break;
+			}
+			shift += 7;
+		}
+		int p = pos + 1 + varintSize(data, pos + 1);
+		if (object) {
+			final JsonObject result = new JsonObject();
+			for (long n = 0; n < nrItems; n++) {
+				final String key = readKey(data, p);
+				p += byteSize(data, p);
+				result.add(key, decode(data, p));
+				p += byteSize(data, p);
+			}
+			return result;
+		}
+		final JsonArray result = new JsonArray();
+		for (long n = 0; n < nrItems; n++) {
+			result.add(decode(data, p));
+			p += byteSize(data, p);
+		}
+		return result;
+	}
+
+	private static JsonArray decodeArray(final byte[] data, final int pos, final int head) {
+		final int width = lengthWidth(head);
+		final int end = pos + (int) readLong(data, pos + 1, width);
+		final JsonArray array = new JsonArray();
+		if (head <= 0x05) {
+			// equal sized items without index table
+			final int start = skipPadding(data, pos + 1 + width);
+			final int itemSize = byteSize(data, start);
+			for (int p = start; p < end; p += itemSize) {
+				array.add(decode(data, p));
+			}
+			return array;
+		}
+		final int nrItems = (int) (width < 8 ? readLong(data, pos + 1 + width, width) : readLong(data, end - 8, 8));
+		final int indexTable = end - nrItems * width - (width < 8 ? 0 : 8);
+		for (int n = 0; n < nrItems; n++) {
+			array.add(decode(data, pos + (int) readLong(data, indexTable + n * width, width)));
+		}
+		return array;
+	}
+
+	private static JsonObject decodeObject(final byte[] data, final int pos, final int head) {
+		final int width = lengthWidth(head);
+		final int end = pos + (int) readLong(data, pos + 1, width);
+		final int nrItems = (int) (width < 8 ? readLong(data, pos + 1 + width, width) : readLong(data, end - 8, 8));
+		final int indexTable = end - nrItems * width - (width < 8 ? 0 : 8);
+		final JsonObject object = new JsonObject();
+		for (int n = 0; n < nrItems; n++) {
+			final int keyPos = pos + (int) readLong(data, indexTable + n * width, width);
+			object.add(readKey(data, keyPos), decode(data, keyPos + byteSize(data, keyPos)));
+		}
+		return object;
+	}
+
+	private static String readKey(final byte[] data, final int pos) {
+		final JsonElement key = decode(data, pos);
+		if (key.isJsonPrimitive() && key.getAsJsonPrimitive().isNumber()) {
+			final int id = key.getAsInt();
+			if (id > 0 && id < TRANSLATED_KEYS.length) {
+				return TRANSLATED_KEYS[id];
+			}
+		}
+		return key.getAsString();
+	}
+
+}
@@ -0,0 +1,182 @@
+package com.arangodb.vst;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A multiplexed VelocyStream 1.1 connection. Requests of several threads are
+ * sent over the same socket, a reader thread dispatches the responses by their
+ * message id.
+ */
+class VstConnection {
+
+	private static Logger logger = LoggerFactory.getLogger(VstConnection.class);
+
+	static final byte[] PROTOCOL_HEADER = { 'V', 'S', 'T', '/', '1', '.', '1', '\r', '\n', '\r', '\n' };
+
+	private static final AtomicLong MESSAGE_ID = new AtomicLong();
+
+	private final Socket socket;
+	private final OutputStream out;
+	private final ReentrantLock writeLock = new ReentrantLock();
+	private final int chunkSize;
+	private final ConcurrentMap<Long, PendingResponse> pendingResponses = new ConcurrentHashMap<Long, PendingResponse>();
+	private volatile IOException failure;
+	private volatile boolean draining;
+
+	VstConnection(final Socket socket, final int chunkSize) throws IOException {
+		this.socket = socket;
+		this.chunkSize = chunkSize;
+		socket.setTcpNoDelay(true);
+		this.out = new BufferedOutputStream(socket.getOutputStream());
+		out.write(PROTOCOL_HEADER);
+		out.flush();
+
+		final VstMessageReader reader = new VstMessageReader(socket.getInputStream());
+		final Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				readResponses(reader);
+			}
+		}, "arangodb-vst-" + socket.getRemoteSocketAddress());
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Sends a message and waits for the response
+	 *
+	 * @param message
+	 *            the request header and body
+	 * @param timeout
+	 *            the timeout in milliseconds (&lt;= 0 waits forever)
+	 * @return the response header and body
+	 * @throws IOException
+	 *             if the connection failed or the timeout expired
+	 */
+	byte[] execute(final byte[] message, final int timeout) throws IOException {
+		final long id = MESSAGE_ID.incrementAndGet();
+		final PendingResponse response = new PendingResponse();
+		pendingResponses.put(id, response);
+		try {
+			checkOpen();
+			writeLock.lock();
+			try {
+				new VstMessage(id, message).write(out, chunkSize);
+			} finally {
+				writeLock.unlock();
+			}
+			if (timeout > 0) {
+				if (!response.latch.await(timeout, TimeUnit.MILLISECONDS)) {
+					throw new SocketTimeoutException("no response for message " + id + " within " + timeout + "ms");
+				}
+			} else {
+				response.latch.await();
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("interrupted while waiting for message " + id);
+		} catch (final IOException e) {
+			if (!(e instanceof SocketTimeoutException)) {
+				close(e);
+			}
+			throw e;
+		} finally {
+			pendingResponses.remove(id);
+			if (draining && pendingResponses.isEmpty()) {
+				close();
+			}
+		}
+		if (response.data == null) {
+			throw failure;
+		}
+		return response.data;
+	}
+
+	boolean isOpen() {
+		return failure == null;
+	}
+
+	void close() {
+		close(new SocketException("connection closed"));
+	}
+
+	/**
+	 * Closes the connection after the responses of the pending requests,
+	 * no new requests may be sent
+	 */
+	void drain() {
+		draining = true;
+		if (pendingResponses.isEmpty()) {
+			close();
+		}
+	}
+
+	private void checkOpen() throws IOException {
+		final IOException e = failure;
+		if (e != null) {
+			throw e;
+		}
+	}
+
+	private void readResponses(final VstMessageReader reader) {
+		try {
+			while (true) {
+				final VstMessage message = reader.read();
+				final PendingResponse response = pendingResponses.remove(message.getId());
+				if (response != null) {
+					response.data = message.getData();
+					response.latch.countDown();
+				} else {
+					logger.debug("dropped response of message {}", message.getId());
+				}
+			}
+		} catch (final IOException e) {
+			close(e);
+		}
+	}
+
+	private void close(final IOException cause) {
+		synchronized (this) {
+			if (failure != null) {
+				return;
+			}
+			failure = cause instanceof SocketException ? (SocketException) cause
+					: (SocketException) new SocketException(cause.getMessage()).initCause(cause);
+		}
+		try {
+			socket.close();
+		} catch (final IOException e) {
+			// ignore
+		}
+		// wake up all waiting requests, they fail with the connection error
+		final Iterator<Entry<Long, PendingResponse>> it = pendingResponses.entrySet().iterator();
+		while (it.hasNext()) {
+			it.next().getValue().latch.countDown();
+			it.remove();
+		}
+	}
+
+	private static class PendingResponse {
+
+		private final CountDownLatch latch = new CountDownLatch(1);
+		private volatile byte[] data;
+
+	}
+
+}
@@ -0,0 +1,70 @@
+package com.arangodb.vst;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A VelocyStream message. On the wire a message is split into chunks, every
+ * chunk starts with a 24 byte header (little endian):
+ *
+ * <pre>
+ * uint32 length         length of the chunk incl. the header
+ * uint32 chunkX         (number of chunks &lt;&lt; 1 | 1) for the first chunk, (index &lt;&lt; 1) otherwise
+ * uint64 messageId
+ * uint64 messageLength  length of the whole message
+ * </pre>
+ */
+class VstMessage {
+
+	static final int CHUNK_HEADER_SIZE = 24;
+
+	private final long id;
+	private final byte[] data;
+
+	VstMessage(final long id, final byte[] data) {
+		this.id = id;
+		this.data = data;
+	}
+
+	long getId() {
+		return id;
+	}
+
+	byte[] getData() {
+		return data;
+	}
+
+	/**
+	 * Writes the message in chunks of at most chunkSize bytes of payload. The
+	 * caller has to make sure, that messages are not written concurrently.
+	 */
+	void write(final OutputStream out, final int chunkSize) throws IOException {
+		final int chunks = Math.max(1, (data.length + chunkSize - 1) / chunkSize);
+		final byte[] header = new byte[CHUNK_HEADER_SIZE];
+		int offset = 0;
+		for (int i = 0; i < chunks; i++) {
+			final int size = Math.min(chunkSize, data.length - offset);
+			writeInt(header, 0, CHUNK_HEADER_SIZE + size);
+			writeInt(header, 4, i == 0 ? (chunks << 1) | 1 : i << 1);
+			writeLong(header, 8, id);
+			writeLong(header, 16, data.length);
+			out.write(header);
+			out.write(data, offset, size);
+			offset += size;
+		}
+		out.flush();
+	}
+
+	private static void writeInt(final byte[] buffer, final int pos, final int value) {
+		for (int i = 0; i < 4; i++) {
+			buffer[pos + i] = (byte) (value >>> (i * 8));
+		}
+	}
+
+	private static void writeLong(final byte[] buffer, final int pos, final long value) {
+		for (int i = 0; i < 8; i++) {
+			buffer[pos + i] = (byte) (value >>> (i * 8));
+		}
+	}
+
+}
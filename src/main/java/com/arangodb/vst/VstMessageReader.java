@@ -0,0 +1,82 @@
+package com.arangodb.vst;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads chunks from a VelocyStream connection and assembles them to messages.
+ * The chunks of different messages may be interleaved, the chunks of one
+ * message arrive in order.
+ */
+class VstMessageReader {
+
+	private final DataInputStream in;
+	private final byte[] header = new byte[VstMessage.CHUNK_HEADER_SIZE];
+
+	/**
+	 * incomplete messages by message id
+	 */
+	private final Map<Long, PartialMessage> partialMessages = new HashMap<Long, PartialMessage>();
+
+	VstMessageReader(final InputStream in) {
+		this.in = new DataInputStream(in);
+	}
+
+	/**
+	 * Reads chunks until the next message is complete
+	 *
+	 * @return the message
+	 * @throws IOException
+	 *             if the connection was closed or failed
+	 */
+	VstMessage read() throws IOException {
+		while (true) {
+			in.readFully(header);
+			final int length = (int) VPack.readLong(header, 0, 4);
+			final long chunkX = VPack.readLong(header, 4, 4);
+			final long id = VPack.readLong(header, 8, 8);
+			final int messageLength = (int) VPack.readLong(header, 16, 8);
+			final int size = length - VstMessage.CHUNK_HEADER_SIZE;
+			if (size < 0 || size > messageLength) {
+				throw new IOException("invalid VelocyStream chunk of message " + id);
+			}
+
+			if ((chunkX & 1) == 1 && chunkX >> 1 == 1) {
+				// single chunk message
+				final byte[] data = new byte[size];
+				in.readFully(data);
+				return new VstMessage(id, data);
+			}
+
+			PartialMessage message = partialMessages.get(id);
+			if (message == null) {
+				message = new PartialMessage(messageLength);
+				partialMessages.put(id, message);
+			}
+			if (message.received + size > messageLength) {
+				throw new IOException("invalid VelocyStream chunk of message " + id);
+			}
+			in.readFully(message.data, message.received, size);
+			message.received += size;
+			if (message.received == messageLength) {
+				partialMessages.remove(id);
+				return new VstMessage(id, message.data);
+			}
+		}
+	}
+
+	private static class PartialMessage {
+
+		private final byte[] data;
+		private int received;
+
+		PartialMessage(final int length) {
+			this.data = new byte[length];
+		}
+
+	}
+
+}
@@ -0,0 +1,373 @@
+package com.arangodb.vst;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URLDecoder;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocketFactory;
+
+import org.apache.http.entity.ContentType;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.arangodb.ArangoConfigure;
+import com.arangodb.ArangoException;
+import com.arangodb.http.HttpRequestEntity;
+import com.arangodb.http.HttpResponseEntity;
+import com.arangodb.http.Transport;
+import com.arangodb.http.UnixSocketConnectionFactory;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * VelocyStream (VST 1.1) transport. Requests and responses are multiplexed
+ * over a few TCP connections, the payloads are encoded as VelocyPack. Requires
+ * ArangoDB 3.1 or later.
+ * <p>
+ * JSON bodies are converted from and to VelocyPack, so the entities of the
+ * driver are the same as with HTTP. The connections are authenticated once
+ * with the user of the configuration, the credentials of a single request are
+ * not supported.
+ */
+public class VstTransport implements Transport {
+
+	private static Logger logger = LoggerFactory.getLogger(VstTransport.class);
+
+	/**
+	 * maximum payload of a chunk
+	 */
+	public static final int CHUNK_SIZE = 30000;
+
+	private static final String DEFAULT_DATABASE = "_system";
+	private static final String DATABASE_PREFIX = "/_db/";
+	private static final String CONTENT_TYPE = "content-type";
+	private static final String VELOCYPACK = "application/x-velocypack";
+	private static final String APPLICATION_JSON = "application/json; charset=utf-8";
+
+	private static final int VERSION = 1;
+	private static final int TYPE_REQUEST = 1;
+	private static final int TYPE_AUTHENTICATION = 1000;
+
+	private final ArangoConfigure configure;
+	private final VstConnection[] connections;
+	private final AtomicInteger next = new AtomicInteger();
+
+	/**
+	 * guards the connections, held while a connection is opened
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+	private String host;
+
+	public VstTransport(final ArangoConfigure configure) {
+		this.configure = configure;
+		this.connections = new VstConnection[Math.max(1, configure.getVstConnections())];
+	}
+
+	@Override
+	public HttpResponseEntity execute(
+		final String baseUrl,
+		final String path,
+		final HttpRequestEntity requestEntity,
+		final Map<String, String> headers) throws ArangoException, SocketException {
+
+		// the database, the path and the parameters are separate fields of
+		// the message, they are taken from the request entity
+		final byte[] request = buildRequest(requestEntity, headers);
+		final byte[] response;
+		try {
+			response = getConnection(baseUrl).execute(request, requestEntity.getTimeout(configure.getTimeout()));
+		} catch (final SocketException e) {
+			throw e;
+		} catch (final IOException e) {
+			throw new ArangoException(e);
+		}
+		return buildResponseEntity(requestEntity, response);
+	}
+
+	@Override
+	public void destroy() {
+		lock.lock();
+		try {
+			for (int i = 0; i < connections.length; i++) {
+				if (connections[i] != null) {
+					connections[i].close();
+					connections[i] = null;
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the next connection (round robin), opens a new connection if
+	 * necessary
+	 */
+	private VstConnection getConnection(final String baseUrl) throws IOException, ArangoException {
+		lock.lock();
+		try {
+			if (!baseUrl.equals(host)) {
+				// the current host changed (fallback host or a new host
+				// list), running requests are finished on the old host
+				for (int i = 0; i < connections.length; i++) {
+					if (connections[i] != null) {
+						connections[i].drain();
+						connections[i] = null;
+					}
+				}
+				host = baseUrl;
+			}
+			final int index = (next.getAndIncrement() & Integer.MAX_VALUE) % connections.length;
+			VstConnection connection = connections[index];
+			if (connection == null || !connection.isOpen()) {
+				connection = connect(baseUrl);
+				connections[index] = connection;
+			}
+			return connection;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private VstConnection connect(final String baseUrl) throws IOException, ArangoException {
+		final int connectTimeout = Math.max(0, configure.getConnectionTimeout());
+		final Socket socket;
+		if (configure.getUnixSocket() != null) {
+			socket = new UnixSocketConnectionFactory(configure.getUnixSocket()).connectSocket(connectTimeout, null,
+				null, null, null, null);
+		} else {
+			final String hostPort = baseUrl.substring(baseUrl.indexOf("://") + 3);
+			final int colon = hostPort.lastIndexOf(':');
+			final String hostName = hostPort.substring(0, colon);
+			final int port = Integer.parseInt(hostPort.substring(colon + 1));
+
+			final Socket plain = new Socket();
+			plain.connect(new InetSocketAddress(hostName, port), connectTimeout);
+			if (configure.getUseSsl()) {
+				final SSLContext sslContext = configure.getSslContext();
+				final SSLSocketFactory factory = sslContext != null ? sslContext.getSocketFactory()
+						: (SSLSocketFactory) SSLSocketFactory.getDefault();
+				socket = factory.createSocket(plain, hostName, port, true);
+			} else {
+				socket = plain;
+			}
+		}
+
+		final VstConnection connection = new VstConnection(socket, CHUNK_SIZE);
+		if (configure.getUser() != null && configure.getPassword() != null) {
+			authenticate(connection);
+		}
+		return connection;
+	}
+
+	private void authenticate(final VstConnection connection) throws IOException, ArangoException {
+		final JsonArray message = new JsonArray();
+		message.add(new JsonPrimitive(VERSION));
+		message.add(new JsonPrimitive(TYPE_AUTHENTICATION));
+		message.add(new JsonPrimitive("plain"));
+		message.add(new JsonPrimitive(configure.getUser()));
+		message.add(new JsonPrimitive(configure.getPassword()));
+
+		final JsonArray header = VPack.decode(connection.execute(VPack.encode(message), configure.getTimeout()), 0)
+				.getAsJsonArray();
+		final int responseCode = header.get(2).getAsInt();
+		if (responseCode != 200) {
+			connection.close();
+			final ArangoException e = new ArangoException("authentication failed: " + responseCode);
+			e.setCode(responseCode);
+			throw e;
+		}
+	}
+
+	/**
+	 * Builds the message of a request: the header
+	 * [version, type, database, requestType, path, parameters, meta] followed
+	 * by the body
+	 */
+	static byte[] buildRequest(final HttpRequestEntity requestEntity, final Map<String, String> headers)
+			throws ArangoException {
+
+		String path = requestEntity.url;
+		final JsonObject parameters = new JsonObject();
+		final int query = path.indexOf('?');
+		if (query >= 0) {
+			for (final String pair : path.substring(query + 1).split("&")) {
+				final int eq = pair.indexOf('=');
+				if (eq > 0) {
+					parameters.addProperty(decode(pair.substring(0, eq)), decode(pair.substring(eq + 1)));
+				}
+			}
+			path = path.substring(0, query);
+		}
+		if (requestEntity.parameters != null) {
+			for (final Entry<String, Object> param : requestEntity.parameters.entrySet()) {
+				if (param.getValue() != null) {
+					parameters.addProperty(param.getKey(), param.getValue().toString());
+				}
+			}
+		}
+
+		String database = DEFAULT_DATABASE;
+		if (path.startsWith(DATABASE_PREFIX)) {
+			final int end = path.indexOf('/', DATABASE_PREFIX.length());
+			database = decode(path.substring(DATABASE_PREFIX.length(), end < 0 ? path.length() : end));
+			path = end < 0 ? "/" : path.substring(end);
+		}
+
+		final JsonObject meta = new JsonObject();
+		if (headers != null) {
+			for (final Entry<String, String> header : headers.entrySet()) {
+				meta.addProperty(header.getKey().toLowerCase(), header.getValue());
+			}
+		}
+
+		final byte[] body = buildBody(requestEntity, meta);
+
+		final JsonArray header = new JsonArray();
+		header.add(new JsonPrimitive(VERSION));
+		header.add(new JsonPrimitive(TYPE_REQUEST));
+		header.add(new JsonPrimitive(database));
+		header.add(new JsonPrimitive(getRequestType(requestEntity)));
+		header.add(new JsonPrimitive(path));
+		header.add(parameters);
+		header.add(meta);
+		final byte[] head = VPack.encode(header);
+
+		if (body == null) {
+			return head;
+		}
+		final byte[] message = new byte[head.length + body.length];
+		System.arraycopy(head, 0, message, 0, head.length);
+		System.arraycopy(body, 0, message, head.length, body.length);
+		return message;
+	}
+
+	private static byte[] buildBody(final HttpRequestEntity requestEntity, final JsonObject meta)
+			throws ArangoException {
+		try {
+			if (requestEntity.entity != null) {
+				// binary or streamed bodies are sent as they are
+				final ContentType contentType = ContentType.get(requestEntity.entity);
+				if (contentType != null) {
+					meta.addProperty(CONTENT_TYPE, contentType.toString());
+				}
+				return EntityUtils.toByteArray(requestEntity.entity);
+			}
+			if (requestEntity.bodyText == null) {
+				return null;
+			}
+			final JsonElement contentType = meta.get(CONTENT_TYPE);
+			if (contentType != null && !contentType.getAsString().contains("json")) {
+				// e.g. the multipart body of a batch request
+				return requestEntity.bodyText.getBytes("utf-8");
+			}
+			try {
+				return VPack.encode(new JsonParser().parse(requestEntity.bodyText));
+			} catch (final JsonParseException e) {
+				// e.g. line separated documents of an import
+				if (contentType == null) {
+					meta.addProperty(CONTENT_TYPE, "text/plain; charset=utf-8");
+				}
+				return requestEntity.bodyText.getBytes("utf-8");
+			}
+		} catch (final IOException e) {
+			throw new ArangoException(e);
+		}
+	}
+
+	private static int getRequestType(final HttpRequestEntity requestEntity) {
+		switch (requestEntity.type) {
+		case DELETE:
+			return 0;
+		case POST:
+			return 2;
+		case PUT:
+			return 3;
+		case HEAD:
+			return 4;
+		case PATCH:
+			return 5;
+		case GET:
+		default:
+			return 1;
+		}
+	}
+
+	/**
+	 * Builds the response entity of a message: the header
+	 * [version, type, responseCode, meta] followed by the body
+	 */
+	static HttpResponseEntity buildResponseEntity(final HttpRequestEntity requestEntity, final byte[] message)
+			throws ArangoException {
+
+		final JsonArray header = VPack.decode(message, 0).getAsJsonArray();
+		final HttpResponseEntity responseEntity = new HttpResponseEntity();
+		responseEntity.setStatusCode(header.get(2).getAsInt());
+
+		final Map<String, String> headers = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
+		if (header.size() > 3 && header.get(3).isJsonObject()) {
+			for (final Entry<String, JsonElement> meta : header.get(3).getAsJsonObject().entrySet()) {
+				headers.put(meta.getKey(), meta.getValue().getAsString());
+			}
+		}
+		responseEntity.setHeaders(headers);
+
+		final String etag = headers.get("etag");
+		if (etag != null) {
+			responseEntity.setEtag(Long.parseLong(etag.replace("\"", "")));
+		}
+
+		if (logger.isDebugEnabled()) {
+			logger.debug("[RES]vst-{}: statusCode={}", requestEntity.type, responseEntity.getStatusCode());
+		}
+
+		final int bodyStart = VPack.byteSize(message, 0);
+		if (bodyStart < message.length) {
+			final String contentType = headers.get(CONTENT_TYPE);
+			if (contentType == null || contentType.startsWith(VELOCYPACK)) {
+				responseEntity.setContentType(APPLICATION_JSON);
+				responseEntity.setText(VPack.decode(message, bodyStart).toString());
+			} else {
+				responseEntity.setContentType(contentType);
+				if (responseEntity.isDumpResponse()) {
+					responseEntity.setStream(
+						new ByteArrayInputStream(message, bodyStart, message.length - bodyStart));
+				} else {
+					try {
+						responseEntity.setText(new String(message, bodyStart, message.length - bodyStart, "utf-8"));
+					} catch (final UnsupportedEncodingException e) {
+						throw new ArangoException(e);
+					}
+				}
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("[RES]vst-{}: text={}", requestEntity.type, responseEntity.getText());
+			}
+		}
+		return responseEntity;
+	}
+
+	private static String decode(final String value) {
+		try {
+			return URLDecoder.decode(value, "utf-8");
+		} catch (final UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
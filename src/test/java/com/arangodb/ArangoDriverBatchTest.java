@@ -18,6 +18,7 @@ package com.arangodb;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
 import java.util.List;
 
@@ -27,6 +28,7 @@ import org.junit.Test;
 
 import com.arangodb.entity.AqlFunctionsEntity;
 import com.arangodb.entity.BaseEntity;
+import com.arangodb.entity.CursorEntity;
 import com.arangodb.entity.DefaultEntity;
 import com.arangodb.entity.DocumentEntity;
 
@@ -190,4 +192,40 @@ public class ArangoDriverBatchTest extends BaseTest {
 
 	}
 
+	@Test
+	public void test_execBatchMode_typedResults() throws ArangoException {
+
+		driver.startBatchMode();
+
+		for (int i = 0; i < 10; i++) {
+			final TestComplexEntity01 value = new TestComplexEntity01("user-" + i, "data:" + i, i);
+			driver.createDocument(COLLECTION_NAME, value, false);
+		}
+		final BaseEntity missing = driver.getDocument(COLLECTION_NAME + "/missing", TestComplexEntity01.class);
+		assertThat(missing.getRequestId(), is("request11"));
+		driver.getDocuments(COLLECTION_NAME);
+
+		driver.executeBatch();
+
+		for (int i = 0; i < 10; i++) {
+			final DeferredResult<DocumentEntity<TestComplexEntity01>> created = driver
+					.getBatchResult("request" + (i + 1));
+			assertThat(created.isDone(), is(true));
+			assertThat(created.get().getStatusCode(), is(202));
+			assertThat(created.get().getDocumentHandle().startsWith(COLLECTION_NAME + "/"), is(true));
+		}
+
+		final DeferredResult<DocumentEntity<TestComplexEntity01>> notFound = driver
+				.getBatchResult(missing.getRequestId());
+		try {
+			notFound.get();
+			fail();
+		} catch (final ArangoException e) {
+			assertThat(e.getCode(), is(404));
+		}
+
+		final DeferredResult<CursorEntity<String>> documents = driver.getBatchResult("request12");
+		assertThat(documents.get().getResults().size(), is(10));
+	}
+
 }
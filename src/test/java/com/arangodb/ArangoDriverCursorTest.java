@@ -21,13 +21,22 @@ import static org.hamcrest.Matchers.not;
 import static org.hamcrest.core.StringStartsWith.startsWith;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Ignore;
 import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
 
 import com.arangodb.entity.CursorEntity;
 import com.arangodb.entity.WarningEntity;
@@ -76,6 +85,133 @@ public class ArangoDriverCursorTest extends BaseTest {
 	public void test_validateQuery_400_2() throws ArangoException {
 	}
 
+	@Test
+	public void test_publisher() throws Exception {
+
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		final CursorPublisher<Integer> publisher = driver.executeAqlQueryPublisher("FOR i IN 1..10 RETURN i", null,
+			driver.getDefaultAqlQueryOptions().setBatchSize(3), Integer.class, executor);
+
+		final List<Integer> results = Collections.synchronizedList(new ArrayList<Integer>());
+		final CountDownLatch completed = new CountDownLatch(1);
+		publisher.subscribe(new Subscriber<Integer>() {
+			private Subscription subscription;
+
+			@Override
+			public void onSubscribe(final Subscription s) {
+				subscription = s;
+				subscription.request(2);
+			}
+
+			@Override
+			public void onNext(final Integer t) {
+				results.add(t);
+				if (results.size() % 2 == 0) {
+					subscription.request(2);
+				}
+			}
+
+			@Override
+			public void onError(final Throwable t) {
+				completed.countDown();
+			}
+
+			@Override
+			public void onComplete() {
+				completed.countDown();
+			}
+		});
+
+		try {
+			assertTrue(completed.await(10, TimeUnit.SECONDS));
+			assertThat(results.size(), is(10));
+			assertThat(results.get(9), is(10));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void test_publisher_cancel() throws Exception {
+
+		final CursorPublisher<Integer> publisher = driver.executeAqlQueryPublisher("FOR i IN 1..10 RETURN i", null,
+			driver.getDefaultAqlQueryOptions().setBatchSize(3), Integer.class, null);
+
+		final List<Integer> results = new ArrayList<Integer>();
+		publisher.subscribe(new Subscriber<Integer>() {
+			private Subscription subscription;
+
+			@Override
+			public void onSubscribe(final Subscription s) {
+				subscription = s;
+				subscription.request(Long.MAX_VALUE);
+			}
+
+			@Override
+			public void onNext(final Integer t) {
+				results.add(t);
+				if (results.size() == 4) {
+					subscription.cancel();
+				}
+			}
+
+			@Override
+			public void onError(final Throwable t) {
+			}
+
+			@Override
+			public void onComplete() {
+			}
+		});
+
+		assertThat(results.size(), is(4));
+	}
+
+	@Test
+	public void test_publisher_subscriber_fails() throws Exception {
+
+		final CursorPublisher<Integer> publisher = driver.executeAqlQueryPublisher("FOR i IN 1..10 RETURN i", null,
+			driver.getDefaultAqlQueryOptions().setBatchSize(3), Integer.class, null);
+
+		final List<Integer> results = new ArrayList<Integer>();
+		final List<Throwable> errors = new ArrayList<Throwable>();
+		final Subscription[] subscription = new Subscription[1];
+		publisher.subscribe(new Subscriber<Integer>() {
+
+			@Override
+			public void onSubscribe(final Subscription s) {
+				subscription[0] = s;
+				s.request(5);
+			}
+
+			@Override
+			public void onNext(final Integer t) {
+				results.add(t);
+				if (results.size() == 4) {
+					throw new IllegalStateException("subscriber failed");
+				}
+			}
+
+			@Override
+			public void onError(final Throwable t) {
+				errors.add(t);
+			}
+
+			@Override
+			public void onComplete() {
+			}
+		});
+
+		assertThat(results.size(), is(4));
+		assertThat(errors.size(), is(1));
+		assertThat(errors.get(0).getMessage(), is("subscriber failed"));
+
+		// the subscription is terminated
+		subscription[0].request(5);
+		assertThat(results.size(), is(4));
+		assertThat(errors.size(), is(1));
+	}
+
 	@Test
 	public void test_executeQuery() throws ArangoException {
 
@@ -17,11 +17,13 @@
 package com.arangodb;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -285,6 +287,48 @@ public class ArangoDriverDocumentCursorTest extends BaseTest {
 
 	}
 
+	@Test
+	public void test7_nextBatch() throws Exception {
+
+		final String query = "FOR t IN unit_test_query_test FILTER t.age >= @age SORT t.age RETURN t";
+		final Map<String, Object> bindVars = new MapBuilder().put("age", 90).get();
+
+		final DocumentCursor<TestComplexEntity01> rs = driver.executeDocumentQuery(query, bindVars,
+			getAqlQueryOptions(true, 3, null), TestComplexEntity01.class);
+
+		// workers take batches from the cursor concurrently
+		final AtomicInteger count = new AtomicInteger();
+		final Thread[] workers = new Thread[3];
+		for (int i = 0; i < workers.length; i++) {
+			workers[i] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						List<DocumentEntity<TestComplexEntity01>> batch;
+						while ((batch = rs.nextBatch()) != null) {
+							count.addAndGet(batch.size());
+						}
+					} catch (final ArangoException e) {
+						logger.error(e.getMessage(), e);
+					}
+				}
+			};
+			workers[i].start();
+		}
+		for (final Thread worker : workers) {
+			worker.join();
+		}
+		assertThat(count.get(), is(10));
+		assertThat(rs.nextBatch(), is(nullValue()));
+
+		// closing stops fetching
+		final DocumentCursor<TestComplexEntity01> rs2 = driver.executeDocumentQuery(query, bindVars,
+			getAqlQueryOptions(true, 3, null), TestComplexEntity01.class);
+		assertThat(rs2.nextBatch().size(), is(3));
+		rs2.close();
+		assertThat(rs2.nextBatch(), is(nullValue()));
+	}
+
 	@Test
 	public void test7_EntityCursor() throws ArangoException {
 
@@ -32,13 +32,17 @@ import java.util.Map;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.arangodb.entity.BaseDocument;
 import com.arangodb.entity.EdgeEntity;
 import com.arangodb.entity.GraphEntity;
+import com.arangodb.entity.NeighborsEntity;
 import com.arangodb.entity.PlainEdgeEntity;
 import com.arangodb.entity.ShortestPathEntity;
 import com.arangodb.entity.marker.VertexEntity;
 import com.arangodb.util.AqlQueryOptions;
+import com.arangodb.util.CsrGraph;
 import com.arangodb.util.GraphEdgesOptions;
+import com.arangodb.util.GraphExportOptions;
 import com.arangodb.util.ShortestPathOptions;
 
 /**
@@ -470,4 +474,46 @@ public class ArangoDriverGraphEdgesGetCursorTest extends BaseGraphTest {
 		assertEquals(1, entity.getEdges().size());
 		assertEquals(2, entity.getVertices().size());
 	}
+
+	@Test
+	public void graphGetNeighbors() throws ArangoException {
+		final GraphEntity graph = this.createTestGraph();
+
+		final List<String> frontier = new ArrayList<String>();
+		frontier.add("Country/Germany");
+		frontier.add("Country/Brasil");
+		frontier.add("Country/Australia");
+
+		final CursorResult<NeighborsEntity<BaseDocument>> cursor = driver.graphGetNeighbors(graph.getName(),
+			BaseDocument.class, frontier, new GraphEdgesOptions().setDirection(Direction.OUTBOUND), null);
+
+		final List<NeighborsEntity<BaseDocument>> results = cursor.asList();
+		assertThat(results.size(), is(3));
+		assertThat(results.get(0).getSource(), is("Country/Germany"));
+		assertThat(results.get(0).getNeighbors().size(), is(2));
+		assertThat(results.get(0).getNeighbors().get(0).getDocumentHandle(), startsWith("Country/"));
+		assertThat(results.get(1).getSource(), is("Country/Brasil"));
+		assertThat(results.get(1).getNeighbors().size(), is(2));
+		assertThat(results.get(2).getSource(), is("Country/Australia"));
+		assertThat(results.get(2).getNeighbors().size(), is(0));
+	}
+
+	@Test
+	public void graphExport() throws ArangoException {
+		final GraphEntity graph = this.createTestGraph();
+
+		final CsrGraph csr = driver.graphExport(graph.getName(),
+			new GraphExportOptions().setIncludeAllVertices(true).setOffHeap(true));
+		assertThat(csr.getVertexCount(), is(10));
+		assertThat(csr.getEdgeCount(), is(8));
+		assertThat(csr.getDegree(csr.getVertex("Country/Germany")), is(2));
+		assertThat(csr.getDegree(csr.getVertex("Country/Austria")), is(0));
+		assertThat(csr.getDegree(csr.getVertex("Country/Australia")), is(0));
+
+		final CsrGraph any = driver.graphExport(graph.getName(), new GraphExportOptions().setDirection(Direction.ANY));
+		assertThat(any.getVertexCount(), is(9));
+		assertThat(any.getEdgeCount(), is(16));
+		assertThat(any.getDegree(any.getVertex("Country/Austria")), is(2));
+	}
+
 }
@@ -18,6 +18,8 @@ package com.arangodb;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.startsWith;
 import static org.junit.Assert.assertThat;
@@ -451,4 +453,30 @@ public class ArangoDriverGraphTest extends BaseGraphTest {
 
 	}
 
+	@Test
+	public void test_graphTopologyCache() throws ArangoException {
+		configure.setGraphTopologyCacheTtl(60000L);
+		try {
+			driver.createGraph(this.graphName, this.createEdgeDefinitions(2, 0), this.createOrphanCollections(2),
+				true);
+			assertThat(driver.graphGetVertexCollections(this.graphName).size(), is(14));
+			assertThat(driver.graphGetVertexCollections(this.graphName, true).size(), is(12));
+			assertThat(configure.getGraphTopologyCache().get(DATABASE_NAME, this.graphName), is(notNullValue()));
+
+			// own modifications invalidate the cached topology
+			driver.graphCreateVertexCollection(this.graphName, collectionName);
+			assertThat(configure.getGraphTopologyCache().get(DATABASE_NAME, this.graphName), is(nullValue()));
+			assertThat(driver.graphGetVertexCollections(this.graphName).contains(collectionName), is(true));
+
+			driver.graphDeleteEdgeDefinition(this.graphName, "edge-1", false);
+			assertThat(driver.graphGetEdgeCollections(this.graphName).contains("edge-1"), is(false));
+			assertThat(driver.graphGetEdgeCollections(this.graphName).contains("edge-2"), is(true));
+
+			driver.deleteGraph(this.graphName);
+			assertThat(configure.getGraphTopologyCache().get(DATABASE_NAME, this.graphName), is(nullValue()));
+		} finally {
+			configure.setGraphTopologyCacheTtl(0L);
+		}
+	}
+
 }
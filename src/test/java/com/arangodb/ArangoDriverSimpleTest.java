@@ -22,11 +22,16 @@ import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.Matchers.startsWith;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -38,6 +43,7 @@ import com.arangodb.entity.IndexType;
 import com.arangodb.entity.ScalarExampleEntity;
 import com.arangodb.entity.SimpleByResultEntity;
 import com.arangodb.util.MapBuilder;
+import com.arangodb.util.ScanHandler;
 import com.arangodb.util.TestUtils;
 
 /**
@@ -98,6 +104,49 @@ public class ArangoDriverSimpleTest extends BaseTest {
 		assertThat(count, is(100));
 	}
 
+	@Test
+	public void test_parallel_scan() throws ArangoException {
+
+		final Set<String> keys = Collections.synchronizedSet(new HashSet<String>());
+		final long count = driver.executeParallelScan(COLLECTION_NAME, TestComplexEntity01.class, 4,
+			new ScanHandler<TestComplexEntity01>() {
+				@Override
+				public boolean handle(final int partition, final DocumentEntity<TestComplexEntity01> document) {
+					assertThat(document.getEntity(), is(notNullValue()));
+					keys.add(document.getDocumentKey());
+					return true;
+				}
+			}, driver.getDefaultAqlQueryOptions().setBatchSize(10));
+
+		assertThat(count, is(100L));
+		assertThat(keys.size(), is(100));
+	}
+
+	@Test
+	public void test_parallel_scan_failure() throws Exception {
+
+		final AtomicInteger calls = new AtomicInteger();
+		try {
+			driver.executeParallelScan(COLLECTION_NAME, TestComplexEntity01.class, 4,
+				new ScanHandler<TestComplexEntity01>() {
+					@Override
+					public boolean handle(final int partition, final DocumentEntity<TestComplexEntity01> document) {
+						if (calls.incrementAndGet() == 5) {
+							throw new IllegalStateException("handler failed");
+						}
+						return true;
+					}
+				}, driver.getDefaultAqlQueryOptions().setBatchSize(10));
+			fail();
+		} catch (final ArangoException e) {
+			assertThat(e.getCause().getMessage(), is("handler failed"));
+		}
+		// the other partitions stopped before the method returned
+		final int callsAfterFailure = calls.get();
+		Thread.sleep(200);
+		assertThat(calls.get(), is(callsAfterFailure));
+	}
+
 	@Test
 	public void test_example_by() throws ArangoException {
 
@@ -31,11 +31,13 @@ import java.util.Map;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.arangodb.InternalTraversalDriver.Strategy;
 import com.arangodb.entity.BaseEntity;
 import com.arangodb.entity.EdgeDefinitionEntity;
 import com.arangodb.entity.PathEntity;
 import com.arangodb.entity.TraversalEntity;
 import com.arangodb.entity.marker.VertexEntity;
+import com.arangodb.util.AqlQueryOptions;
 import com.arangodb.util.TraversalQueryOptions;
 
 /**
@@ -124,6 +126,49 @@ public class ArangoDriverTraversalTest extends BaseGraphTest {
 		assertThat(paths.get(3).getVertices().size(), is(3));
 	}
 
+	@SuppressWarnings("rawtypes")
+	@Test
+	public void test_traversal_cursor() throws ArangoException {
+		final TraversalQueryOptions traversalQueryOptions = new TraversalQueryOptions();
+
+		traversalQueryOptions.setGraphName(graphName);
+		traversalQueryOptions.setStartVertex("person/Alice");
+		traversalQueryOptions.setDirection(Direction.OUTBOUND);
+		traversalQueryOptions.setMinDepth(1L);
+		traversalQueryOptions.setMaxDepth(10L);
+		traversalQueryOptions.setStrategy(Strategy.BREADTHFIRST);
+
+		final AqlQueryOptions aqlQueryOptions = driver.getDefaultAqlQueryOptions().setBatchSize(1);
+
+		final VertexCursor<Person> vertexCursor = driver.getTraversalVertexCursor(traversalQueryOptions,
+			Person.class, aqlQueryOptions);
+		final List<String> names = new ArrayList<String>();
+		for (final VertexEntity<Person> vertex : vertexCursor) {
+			names.add(vertex.getEntity().getName());
+		}
+		assertThat(names.size(), is(3));
+		assertThat(names.get(0), is("Bob"));
+
+		final CursorResult<PathEntity<Person, Map>> pathCursor = driver.getTraversalPathCursor(traversalQueryOptions,
+			Person.class, Map.class, aqlQueryOptions);
+		final List<PathEntity<Person, Map>> paths = pathCursor.asList();
+		assertThat(paths.size(), is(3));
+		assertThat(paths.get(0).getEdges().size(), is(1));
+		assertThat(paths.get(0).getVertices().size(), is(2));
+		assertThat(paths.get(0).getVertices().get(0).getEntity().getName(), is("Alice"));
+		assertThat(paths.get(2).getEdges().size(), is(2));
+	}
+
+	@Test(expected = ArangoException.class)
+	public void test_traversal_cursor_unsupported_option() throws ArangoException {
+		final TraversalQueryOptions traversalQueryOptions = new TraversalQueryOptions();
+		traversalQueryOptions.setGraphName(graphName);
+		traversalQueryOptions.setStartVertex("person/Alice");
+		traversalQueryOptions.setVisitor("result.visited++;");
+
+		driver.getTraversalVertexCursor(traversalQueryOptions, Person.class, null);
+	}
+
 	private VertexEntity<Person> createPerson(final String name) throws ArangoException {
 		return driver.graphCreateVertex(graphName, vertexCollectionName, name, new Person(name), true);
 	}
@@ -23,7 +23,21 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 import com.arangodb.example.ExamplesTestSuite;
+import com.arangodb.http.AdmissionControlTest;
+import com.arangodb.http.AsyncJobCollectorTest;
+import com.arangodb.http.AutoBatcherTest;
+import com.arangodb.http.DeadlineTest;
+import com.arangodb.http.DefaultRetryPolicyTest;
+import com.arangodb.http.FireAndForgetWindowTest;
+import com.arangodb.http.HedgedReadsTest;
+import com.arangodb.http.HostListUpdaterTest;
+import com.arangodb.http.JwtAuthenticationTest;
+import com.arangodb.http.NioHttpTransportTest;
+import com.arangodb.util.CsrGraphBuilderTest;
+import com.arangodb.util.PooledByteArrayOutputStreamTest;
 import com.arangodb.util.StringJoinTest;
+import com.arangodb.vst.VPackTest;
+import com.arangodb.vst.VstTransportTest;
 
 /**
  * Starts all unit tests
@@ -37,6 +51,20 @@ import com.arangodb.util.StringJoinTest;
 
 		// Utils Test
 		StringJoinTest.class,
+		CsrGraphBuilderTest.class,
+		PooledByteArrayOutputStreamTest.class,
+		VPackTest.class,
+		VstTransportTest.class,
+		NioHttpTransportTest.class,
+		JwtAuthenticationTest.class,
+		AutoBatcherTest.class,
+		AsyncJobCollectorTest.class,
+		FireAndForgetWindowTest.class,
+		DefaultRetryPolicyTest.class,
+		DeadlineTest.class,
+		AdmissionControlTest.class,
+		HedgedReadsTest.class,
+		HostListUpdaterTest.class,
 
 		// Drivers Test
 		ArangoConfigureTest.class,
@@ -0,0 +1,75 @@
+package com.arangodb.bench;
+
+import org.junit.Test;
+
+import com.arangodb.ArangoConfigure;
+import com.arangodb.ArangoDriver;
+import com.arangodb.ArangoException;
+import com.arangodb.entity.BaseDocument;
+
+/**
+ * Measures the throughput of stacking calls in batch mode and of switching
+ * into and out of batch mode. The calls are only stacked, no ArangoDB server
+ * is needed.
+ */
+public class BenchmarkBatchStacking {
+
+	private static final int CALLS = 1000;
+	private static final int ROUNDS = 200;
+	private static final int ITERATIONS = 5;
+
+	@Test
+	public void BenchmarkBatchStackingTest() throws ArangoException {
+		final ArangoConfigure configure = new ArangoConfigure();
+		configure.init();
+		final ArangoDriver driver = new ArangoDriver(configure);
+		final BaseDocument document = new BaseDocument();
+		document.addAttribute("name", "value");
+
+		try {
+			// warm up
+			stack(driver, document, ROUNDS);
+			switchModes(driver, ROUNDS * CALLS);
+
+			// the best of some iterations, the first ones are still compiled
+			long stacking = Long.MAX_VALUE;
+			long switching = Long.MAX_VALUE;
+			for (int i = 0; i < ITERATIONS; i++) {
+				stacking = Math.min(stacking, stack(driver, document, ROUNDS));
+				switching = Math.min(switching, switchModes(driver, ROUNDS * CALLS));
+			}
+
+			final int calls = ROUNDS * CALLS * 2;
+			System.out.println("stacking:  " + (calls * 1000L / Math.max(1L, stacking)) + " calls/s (" + calls
+					+ " calls in " + stacking + " ms)");
+			System.out.println("switching: " + (ROUNDS * CALLS * 1000L / Math.max(1L, switching))
+					+ " mode switches/s (" + ROUNDS * CALLS + " switches in " + switching + " ms)");
+		} finally {
+			configure.shutdown();
+		}
+	}
+
+	private long stack(final ArangoDriver driver, final BaseDocument document, final int rounds)
+			throws ArangoException {
+		final long t = System.currentTimeMillis();
+		for (int i = 0; i < rounds; i++) {
+			driver.startBatchMode();
+			for (int j = 0; j < CALLS; j++) {
+				driver.createDocument("collection", document);
+				driver.getDocument("collection", String.valueOf(j), BaseDocument.class);
+			}
+			driver.cancelBatchMode();
+		}
+		return System.currentTimeMillis() - t;
+	}
+
+	private long switchModes(final ArangoDriver driver, final int switches) throws ArangoException {
+		final long t = System.currentTimeMillis();
+		for (int i = 0; i < switches; i++) {
+			driver.startBatchMode();
+			driver.cancelBatchMode();
+		}
+		return System.currentTimeMillis() - t;
+	}
+
+}
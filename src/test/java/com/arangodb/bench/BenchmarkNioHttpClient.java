@@ -0,0 +1,77 @@
+package com.arangodb.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.arangodb.ArangoConfigure;
+import com.arangodb.ArangoDriver;
+import com.arangodb.example.document.BaseExample;
+
+/**
+ * Compares the Apache HttpClient with the NIO HTTP client, single threaded and
+ * with concurrent requests.
+ */
+public class BenchmarkNioHttpClient extends BaseExample {
+
+	private static final int REQUESTS = 10000;
+	private static final int THREADS = 8;
+
+	@Test
+	public void BenchmarkNioHttpClientTest() throws Exception {
+		final ArangoConfigure nioConfigure = new ArangoConfigure();
+		nioConfigure.setUseNioHttpClient(true);
+		nioConfigure.init();
+		final ArangoDriver nioDriver = new ArangoDriver(nioConfigure);
+
+		try {
+			// warm up
+			bench(driver, 2000, 1);
+			bench(nioDriver, 2000, 1);
+
+			final long apache = bench(driver, REQUESTS, 1);
+			final long nio = bench(nioDriver, REQUESTS, 1);
+			final long apacheConcurrent = bench(driver, REQUESTS, THREADS);
+			final long nioConcurrent = bench(nioDriver, REQUESTS, THREADS);
+
+			printHeadline("results");
+			System.out.println("apache:                " + apache + " ms (" + REQUESTS + " requests)");
+			System.out.println("nio:                   " + nio + " ms (" + REQUESTS + " requests)");
+			System.out.println("apache (" + THREADS + " threads):   " + apacheConcurrent + " ms");
+			System.out.println("nio (" + THREADS + " threads):      " + nioConcurrent + " ms");
+		} finally {
+			nioConfigure.shutdown();
+		}
+	}
+
+	private long bench(final ArangoDriver arangoDriver, final int requests, final int threads) throws Exception {
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			final long t = System.currentTimeMillis();
+			final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+			for (int i = 0; i < threads; i++) {
+				futures.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						for (int j = 0; j < requests / threads; j++) {
+							arangoDriver.getVersion();
+						}
+						return null;
+					}
+				}));
+			}
+			for (final Future<Void> future : futures) {
+				future.get();
+			}
+			return System.currentTimeMillis() - t;
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+}
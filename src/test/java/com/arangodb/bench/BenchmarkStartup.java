@@ -0,0 +1,190 @@
+package com.arangodb.bench;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.arangodb.ArangoConfigure;
+import com.arangodb.ArangoDriver;
+import com.arangodb.ArangoException;
+import com.arangodb.ArangoHost;
+
+/**
+ * Measures the time to the first request: creating the configuration and the
+ * driver and sending a version request to a stub server, with and without
+ * warm-up. The first measurement includes the class loading, run the
+ * benchmark in its own JVM for cold start numbers. Each request includes the
+ * 20 ms of the stub server. No ArangoDB server is needed.
+ */
+public class BenchmarkStartup {
+
+	private static final int CONNECTIONS = 4;
+
+	private StubServer server;
+
+	@Before
+	public void setUp() throws IOException {
+		server = new StubServer();
+	}
+
+	@After
+	public void tearDown() {
+		server.close();
+	}
+
+	@Test
+	public void BenchmarkStartupTest() throws ArangoException {
+		final long cold = firstRequest();
+		final long warm = firstRequest();
+		System.out.println("time to first request (first in JVM): " + cold / 1000L + " us");
+		System.out.println("time to first request:                " + warm / 1000L + " us");
+
+		final int accepted = server.getConnections();
+		final ArangoConfigure configure = createConfigure();
+		try {
+			final ArangoDriver driver = new ArangoDriver(configure);
+			long t = System.nanoTime();
+			driver.warmUp(CONNECTIONS);
+			final long warmUp = System.nanoTime() - t;
+			assertThat(server.getConnections() - accepted, is(CONNECTIONS));
+
+			t = System.nanoTime();
+			driver.getVersion();
+			final long request = System.nanoTime() - t;
+			System.out.println("warm-up with " + CONNECTIONS + " connections:       " + warmUp / 1000L + " us");
+			System.out.println("first request after warm-up:          " + request / 1000L + " us");
+		} finally {
+			configure.shutdown();
+		}
+	}
+
+	private long firstRequest() throws ArangoException {
+		final long t = System.nanoTime();
+		final ArangoConfigure configure = createConfigure();
+		try {
+			final ArangoDriver driver = new ArangoDriver(configure);
+			driver.getVersion();
+			return System.nanoTime() - t;
+		} finally {
+			configure.shutdown();
+		}
+	}
+
+	private ArangoConfigure createConfigure() {
+		final ArangoConfigure configure = new ArangoConfigure();
+		configure.setArangoHost(new ArangoHost("127.0.0.1", server.getPort()));
+		configure.setUser(null);
+		configure.init();
+		return configure;
+	}
+
+	/**
+	 * Answers every request with a version, each request waits 20 ms, so that
+	 * concurrent requests need their own connections
+	 */
+	private static class StubServer implements Runnable {
+
+		private static final String VERSION = "{\"server\":\"arango\",\"version\":\"3.0.0\"}";
+
+		private final ServerSocket serverSocket;
+		private final ExecutorService executor = Executors.newCachedThreadPool();
+		private final AtomicInteger connections = new AtomicInteger();
+
+		StubServer() throws IOException {
+			serverSocket = new ServerSocket(0);
+			executor.execute(this);
+		}
+
+		int getPort() {
+			return serverSocket.getLocalPort();
+		}
+
+		int getConnections() {
+			return connections.get();
+		}
+
+		void close() {
+			try {
+				serverSocket.close();
+			} catch (final IOException e) {
+				// ignore
+			}
+			executor.shutdownNow();
+		}
+
+		@Override
+		public void run() {
+			try {
+				while (true) {
+					final Socket socket = serverSocket.accept();
+					connections.incrementAndGet();
+					executor.execute(new Runnable() {
+						@Override
+						public void run() {
+							handle(socket);
+						}
+					});
+				}
+			} catch (final IOException e) {
+				// closed
+			}
+		}
+
+		private void handle(final Socket socket) {
+			try {
+				final DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+				final OutputStream out = socket.getOutputStream();
+				while (readLine(in) != null) {
+					int contentLength = 0;
+					String line;
+					while ((line = readLine(in)).length() > 0) {
+						final String[] header = line.split(":\\s*", 2);
+						if ("Content-Length".equalsIgnoreCase(header[0])) {
+							contentLength = Integer.parseInt(header[1]);
+						}
+					}
+					in.readFully(new byte[contentLength]);
+					Thread.sleep(20);
+					// a single write, the reused connections would wait for the
+					// delayed ACK of the client otherwise
+					out.write(("HTTP/1.1 200 OK\r\nContent-Type: application/json\r\nContent-Length: "
+							+ VERSION.length() + "\r\n\r\n" + VERSION).getBytes("utf-8"));
+					out.flush();
+				}
+			} catch (final IOException e) {
+				// closed
+			} catch (final InterruptedException e) {
+				// closed
+			}
+		}
+
+		private String readLine(final DataInputStream in) throws IOException {
+			final StringBuilder line = new StringBuilder();
+			int b;
+			while ((b = in.read()) != '\n') {
+				if (b < 0) {
+					return null;
+				}
+				if (b != '\r') {
+					line.append((char) b);
+				}
+			}
+			return line.toString();
+		}
+
+	}
+
+}
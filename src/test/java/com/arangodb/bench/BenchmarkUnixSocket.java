@@ -0,0 +1,58 @@
+package com.arangodb.bench;
+
+import java.io.File;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import com.arangodb.ArangoConfigure;
+import com.arangodb.ArangoDriver;
+import com.arangodb.example.document.BaseExample;
+import com.arangodb.http.UnixSocketConnectionFactory;
+
+/**
+ * Compares requests over loopback TCP with requests over a unix domain
+ * socket. Requires a local server listening on the socket given by the system
+ * property arangodb.unixSocket (default /tmp/arangodb.sock) and junixsocket on
+ * the classpath, otherwise the benchmark is skipped.
+ */
+public class BenchmarkUnixSocket extends BaseExample {
+
+	private static final int REQUESTS = 10000;
+
+	@Test
+	public void BenchmarkUnixSocketTest() throws Exception {
+		final String socket = System.getProperty("arangodb.unixSocket", "/tmp/arangodb.sock");
+		Assume.assumeTrue(UnixSocketConnectionFactory.isSupported());
+		Assume.assumeTrue(new File(socket).exists());
+
+		final ArangoConfigure unixConfigure = new ArangoConfigure();
+		unixConfigure.setUnixSocket(socket);
+		unixConfigure.init();
+		final ArangoDriver unixDriver = new ArangoDriver(unixConfigure);
+
+		try {
+			// warm up
+			bench(driver, 1000);
+			bench(unixDriver, 1000);
+
+			final long tcp = bench(driver, REQUESTS);
+			final long unix = bench(unixDriver, REQUESTS);
+
+			printHeadline("results");
+			System.out.println("tcp:  " + tcp + " ms (" + REQUESTS + " requests)");
+			System.out.println("unix: " + unix + " ms (" + REQUESTS + " requests)");
+		} finally {
+			unixConfigure.shutdown();
+		}
+	}
+
+	private long bench(final ArangoDriver arangoDriver, final int requests) throws Exception {
+		final long t = System.currentTimeMillis();
+		for (int i = 0; i < requests; i++) {
+			arangoDriver.getVersion();
+		}
+		return System.currentTimeMillis() - t;
+	}
+
+}
@@ -0,0 +1,271 @@
+package com.arangodb.bench;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.arangodb.ArangoConfigure;
+import com.arangodb.ArangoDriver;
+import com.arangodb.ArangoException;
+import com.arangodb.ArangoHost;
+import com.arangodb.entity.BaseDocument;
+
+/**
+ * Runs 100000 concurrent virtual threads (property stress.threads) with one
+ * driver against a stub server and fails, if a virtual thread was pinned to
+ * its carrier thread (JFR event jdk.VirtualThreadPinned). The virtual threads
+ * and JFR are used by reflection, on a JVM without virtual threads the test
+ * is skipped. No ArangoDB server is needed.
+ */
+public class StressVirtualThreads {
+
+	private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+	private StubServer server;
+	private ArangoConfigure configure;
+
+	@Before
+	public void setUp() throws IOException {
+		server = new StubServer();
+		configure = new ArangoConfigure();
+		configure.setArangoHost(new ArangoHost("127.0.0.1", server.getPort()));
+		configure.setUser(null);
+		configure.setMaxPerConnection(64);
+		configure.setMaxTotalConnection(64);
+		// the threads wait in the queue of the connection pool
+		configure.setTimeout(10 * 60 * 1000);
+		configure.init();
+	}
+
+	@After
+	public void tearDown() {
+		configure.shutdown();
+		server.close();
+	}
+
+	@Test
+	public void StressVirtualThreadsTest() throws Exception {
+		final ThreadFactory factory = virtualThreadFactory();
+		Assume.assumeTrue(factory != null);
+
+		final int count = Integer.getInteger("stress.threads", 100000);
+		final ArangoDriver driver = new ArangoDriver(configure);
+		final AtomicInteger failures = new AtomicInteger();
+		final PinnedRecording recording = new PinnedRecording();
+
+		final long t = System.currentTimeMillis();
+		final List<Thread> threads = new ArrayList<Thread>(count);
+		for (int i = 0; i < count; i++) {
+			final int n = i;
+			final Thread thread = factory.newThread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						if (n % 2 == 0) {
+							driver.getVersion();
+						} else {
+							final BaseDocument document = new BaseDocument();
+							document.addAttribute("n", n);
+							driver.createDocument("stress", document);
+						}
+					} catch (final ArangoException e) {
+						failures.incrementAndGet();
+					}
+				}
+			});
+			thread.start();
+			threads.add(thread);
+		}
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+		final long time = System.currentTimeMillis() - t;
+		final List<String> pinned = recording.stop();
+
+		System.out.println(count + " virtual threads in " + time + " ms, " + server.getConnections()
+				+ " connections, " + pinned.size() + " pinned");
+		for (final String event : pinned.subList(0, Math.min(3, pinned.size()))) {
+			System.out.println(event);
+		}
+		assertThat(failures.get(), is(0));
+		assertThat(pinned.size(), is(0));
+	}
+
+	/**
+	 * @return Thread.ofVirtual().factory() or null, if the JVM has no virtual
+	 *         threads
+	 */
+	private ThreadFactory virtualThreadFactory() {
+		try {
+			final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+		} catch (final Exception e) {
+			return null;
+		}
+	}
+
+	/**
+	 * A JFR recording of the pinned virtual threads, without threshold
+	 */
+	private static class PinnedRecording {
+
+		private final Class<?> recordingClass;
+		private final Object recording;
+
+		PinnedRecording() throws Exception {
+			recordingClass = Class.forName("jdk.jfr.Recording");
+			recording = recordingClass.newInstance();
+			final Object settings = recordingClass.getMethod("enable", String.class).invoke(recording, PINNED_EVENT);
+			final Class<?> durationClass = Class.forName("java.time.Duration");
+			Class.forName("jdk.jfr.EventSettings").getMethod("withThreshold", durationClass).invoke(settings,
+				durationClass.getField("ZERO").get(null));
+			recordingClass.getMethod("start").invoke(recording);
+		}
+
+		/**
+		 * @return the recorded events
+		 */
+		List<String> stop() throws Exception {
+			recordingClass.getMethod("stop").invoke(recording);
+			final File file = File.createTempFile("pinned", ".jfr");
+			try {
+				// the Path of the file, java.nio.file is not available in
+				// Java 6
+				final Class<?> pathClass = Class.forName("java.nio.file.Path");
+				final Object path = File.class.getMethod("toPath").invoke(file);
+				recordingClass.getMethod("dump", pathClass).invoke(recording, path);
+				final List<?> events = (List<?>) Class.forName("jdk.jfr.consumer.RecordingFile")
+						.getMethod("readAllEvents", pathClass).invoke(null, path);
+				final Method getEventType = Class.forName("jdk.jfr.consumer.RecordedEvent").getMethod("getEventType");
+				final Method getName = Class.forName("jdk.jfr.EventType").getMethod("getName");
+				final List<String> pinned = new ArrayList<String>();
+				for (final Object event : events) {
+					if (PINNED_EVENT.equals(getName.invoke(getEventType.invoke(event)))) {
+						pinned.add(event.toString());
+					}
+				}
+				return pinned;
+			} finally {
+				recordingClass.getMethod("close").invoke(recording);
+				file.delete();
+			}
+		}
+
+	}
+
+	/**
+	 * Answers version requests and document creations, one platform thread
+	 * per connection
+	 */
+	private static class StubServer implements Runnable {
+
+		private static final String VERSION = "{\"server\":\"arango\",\"version\":\"3.0.0\"}";
+		private static final String DOCUMENT = "{\"error\":false,\"_id\":\"stress/1\",\"_key\":\"1\",\"_rev\":\"1\"}";
+
+		private final ServerSocket serverSocket;
+		private final ExecutorService executor = Executors.newCachedThreadPool();
+		private final AtomicInteger connections = new AtomicInteger();
+
+		StubServer() throws IOException {
+			serverSocket = new ServerSocket(0, 1024);
+			executor.execute(this);
+		}
+
+		int getPort() {
+			return serverSocket.getLocalPort();
+		}
+
+		int getConnections() {
+			return connections.get();
+		}
+
+		void close() {
+			try {
+				serverSocket.close();
+			} catch (final IOException e) {
+				// ignore
+			}
+			executor.shutdownNow();
+		}
+
+		@Override
+		public void run() {
+			try {
+				while (true) {
+					final Socket socket = serverSocket.accept();
+					connections.incrementAndGet();
+					executor.execute(new Runnable() {
+						@Override
+						public void run() {
+							handle(socket);
+						}
+					});
+				}
+			} catch (final IOException e) {
+				// closed
+			}
+		}
+
+		private void handle(final Socket socket) {
+			try {
+				final DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+				final OutputStream out = socket.getOutputStream();
+				String requestLine;
+				while ((requestLine = readLine(in)) != null) {
+					int contentLength = 0;
+					String line;
+					while ((line = readLine(in)).length() > 0) {
+						final String[] header = line.split(":\\s*", 2);
+						if ("Content-Length".equalsIgnoreCase(header[0])) {
+							contentLength = Integer.parseInt(header[1]);
+						}
+					}
+					in.readFully(new byte[contentLength]);
+					final boolean create = requestLine.startsWith("POST");
+					final String body = create ? DOCUMENT : VERSION;
+					out.write(("HTTP/1.1 " + (create ? "202 Accepted" : "200 OK")
+							+ "\r\nContent-Type: application/json\r\nContent-Length: " + body.length() + "\r\n\r\n"
+							+ body).getBytes("utf-8"));
+					out.flush();
+				}
+			} catch (final IOException e) {
+				// closed
+			}
+		}
+
+		private String readLine(final DataInputStream in) throws IOException {
+			final StringBuilder line = new StringBuilder();
+			int b;
+			while ((b = in.read()) != '\n') {
+				if (b < 0) {
+					return null;
+				}
+				if (b != '\r') {
+					line.append((char) b);
+				}
+			}
+			return line.toString();
+		}
+
+	}
+
+}
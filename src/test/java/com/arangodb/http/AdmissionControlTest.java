@@ -0,0 +1,213 @@
+package com.arangodb.http;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.arangodb.ArangoConfigure;
+import com.arangodb.ArangoException;
+import com.arangodb.ArangoHost;
+import com.arangodb.http.AdmissionControl.Admission;
+import com.arangodb.http.HttpRequestEntity.RequestType;
+import com.arangodb.http.StubHttpServer.Request;
+import com.arangodb.http.StubHttpServer.Response;
+import com.arangodb.util.RequestOptions.Priority;
+
+/**
+ * Test of the client side admission control, partly against a stub server.
+ * No ArangoDB server is needed.
+ */
+public class AdmissionControlTest {
+
+	@Test
+	public void test_endpointClass() {
+		assertThat(AdmissionControl.getEndpointClass("/_api/document/c/1"), is("document"));
+		assertThat(AdmissionControl.getEndpointClass("/_db/db1/_api/document?collection=c"), is("document"));
+		assertThat(AdmissionControl.getEndpointClass("/_db/db1/_api/cursor/42"), is("cursor"));
+		assertThat(AdmissionControl.getEndpointClass("/_db/db1/_api/import"), is("import"));
+		assertThat(AdmissionControl.getEndpointClass("/_api/gharial/g/vertex/v"), is("graph"));
+		assertThat(AdmissionControl.getEndpointClass("/_api/version"), is("other"));
+		assertThat(AdmissionControl.getEndpointClass("/_admin/echo"), is("other"));
+
+		assertThat(AdmissionControl.getDatabase("/_db/db1/_api/document"), is("db1"));
+		assertThat(AdmissionControl.getDatabase("/_api/document"), is("_system"));
+	}
+
+	@Test
+	public void test_priority() throws Exception {
+		final AdmissionControl admissionControl = new AdmissionControl(Collections.<RequestLimit> emptyList(), 1,
+				0L);
+		final Admission first = admissionControl.acquire(createRequest("/_api/document/c/1", null, null));
+
+		final List<Priority> order = Collections.synchronizedList(new ArrayList<Priority>());
+		final Thread low = start(admissionControl, Priority.LOW, order);
+		awaitWaiting(admissionControl, 1);
+		final Thread normal = start(admissionControl, null, order);
+		awaitWaiting(admissionControl, 2);
+		final Thread high = start(admissionControl, Priority.HIGH, order);
+		awaitWaiting(admissionControl, 3);
+
+		first.release();
+		low.join(5000);
+		normal.join(5000);
+		high.join(5000);
+		assertThat(order, is(Arrays.asList(Priority.HIGH, Priority.NORMAL, Priority.LOW)));
+
+		final AdmissionStatistics statistics = admissionControl.getStatistics();
+		assertThat(statistics.getAdmitted(), is(4L));
+		assertThat(statistics.getDelayed(), is(3L));
+		assertThat(statistics.getWaiting(), is(0));
+		assertTrue(statistics.getAverageQueueTime(Priority.LOW) >= statistics.getAverageQueueTime(Priority.HIGH));
+	}
+
+	@Test
+	public void test_rateLimit() throws Exception {
+		final AdmissionControl admissionControl = new AdmissionControl(
+				Arrays.asList(new RequestLimit("database.db1", 20.0, 1, 0)), 0, 0L);
+		final long t = System.currentTimeMillis();
+		for (int i = 0; i < 5; i++) {
+			admissionControl.acquire(createRequest("/_db/db1/_api/document/c/1", null, null)).release();
+		}
+		// the first request takes the burst, the following wait 50 ms each
+		assertTrue(System.currentTimeMillis() - t >= 180);
+
+		// other databases are not limited
+		final long t2 = System.currentTimeMillis();
+		for (int i = 0; i < 5; i++) {
+			admissionControl.acquire(createRequest("/_db/db2/_api/document/c/1", null, null)).release();
+		}
+		assertTrue(System.currentTimeMillis() - t2 < 100);
+	}
+
+	@Test
+	public void test_concurrencyLimit() throws Exception {
+		final AdmissionControl admissionControl = new AdmissionControl(
+				Arrays.asList(new RequestLimit("tag.bulk", 0.0, 1, 1)), 0, 100L);
+		final Admission first = admissionControl.acquire(createRequest("/_api/import", "bulk", null));
+		try {
+			admissionControl.acquire(createRequest("/_api/import", "bulk", null));
+			fail();
+		} catch (final ArangoException e) {
+			// not admitted in time
+		}
+		// untagged requests are not limited
+		admissionControl.acquire(createRequest("/_api/import", null, null)).release();
+		first.release();
+		admissionControl.acquire(createRequest("/_api/import", "bulk", null)).release();
+		assertThat(admissionControl.getStatistics().getRejected(), is(1L));
+	}
+
+	@Test
+	public void test_httpManager() throws Exception {
+		final SlowHandler handler = new SlowHandler();
+		final StubHttpServer server = new StubHttpServer(handler);
+		final ArangoConfigure configure = new ArangoConfigure();
+		configure.setArangoHost(new ArangoHost("127.0.0.1", server.getPort()));
+		configure.setUser(null);
+		configure.setConcurrencyLimit("endpoint.document", 1);
+		final HttpManager httpManager = new HttpManager(configure);
+		httpManager.init();
+		try {
+			final List<Thread> threads = new ArrayList<Thread>();
+			for (int i = 0; i < 4; i++) {
+				final Thread thread = new Thread(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							httpManager.doGet("/_api/document/c/1").release();
+						} catch (final ArangoException e) {
+							// counted by the server
+						}
+					}
+				});
+				thread.start();
+				threads.add(thread);
+			}
+			for (final Thread thread : threads) {
+				thread.join(5000);
+			}
+			assertThat(server.getRequests(), is(4));
+			assertThat(handler.getMaxConcurrent(), is(1));
+			assertThat(httpManager.getAdmissionStatistics().getAdmitted(), is(4L));
+		} finally {
+			httpManager.destroy();
+			server.close();
+		}
+	}
+
+	private static Thread start(
+		final AdmissionControl admissionControl,
+		final Priority priority,
+		final List<Priority> order) {
+		final Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					final Admission admission = admissionControl
+							.acquire(createRequest("/_api/document/c/1", null, priority));
+					order.add(priority != null ? priority : Priority.NORMAL);
+					admission.release();
+				} catch (final ArangoException e) {
+					// the order is incomplete
+				}
+			}
+		});
+		thread.start();
+		return thread;
+	}
+
+	private static void awaitWaiting(final AdmissionControl admissionControl, final int waiting)
+			throws InterruptedException {
+		final long end = System.currentTimeMillis() + 5000;
+		while (admissionControl.getStatistics().getWaiting() < waiting && System.currentTimeMillis() < end) {
+			Thread.sleep(5);
+		}
+	}
+
+	private static HttpRequestEntity createRequest(final String url, final String tag, final Priority priority) {
+		final HttpRequestEntity requestEntity = new HttpRequestEntity();
+		requestEntity.type = RequestType.GET;
+		requestEntity.url = url;
+		requestEntity.tag = tag;
+		requestEntity.priority = priority;
+		return requestEntity;
+	}
+
+	/**
+	 * Answers every request slowly and counts the concurrent requests
+	 */
+	private static class SlowHandler implements StubHttpServer.Handler {
+
+		private static final String DOCUMENT = "{\"_id\":\"c/1\",\"_key\":\"1\",\"_rev\":\"1\"}";
+
+		private final AtomicInteger concurrent = new AtomicInteger();
+		private final AtomicInteger maxConcurrent = new AtomicInteger();
+
+		int getMaxConcurrent() {
+			return maxConcurrent.get();
+		}
+
+		@Override
+		public Response handle(final Request request) throws InterruptedException {
+			final int current = concurrent.incrementAndGet();
+			int max;
+			while ((max = maxConcurrent.get()) < current && !maxConcurrent.compareAndSet(max, current)) {
+				// retry
+			}
+			Thread.sleep(50);
+			concurrent.decrementAndGet();
+			return Response.ok(DOCUMENT);
+		}
+
+	}
+
+}
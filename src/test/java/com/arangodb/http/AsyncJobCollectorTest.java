@@ -0,0 +1,332 @@
+package com.arangodb.http;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.arangodb.ArangoConfigure;
+import com.arangodb.ArangoDriver;
+import com.arangodb.ArangoException;
+import com.arangodb.ArangoHost;
+import com.arangodb.DeferredResult;
+import com.arangodb.entity.ArangoVersion;
+import com.arangodb.entity.CursorEntity;
+import com.arangodb.http.StubHttpServer.Request;
+import com.arangodb.http.StubHttpServer.Response;
+
+/**
+ * Test of the typed handles of the async mode and the limit of the
+ * fire-and-forget mode against a stub server. No ArangoDB server is needed.
+ */
+public class AsyncJobCollectorTest {
+
+	private JobHandler jobs;
+	private StubHttpServer server;
+	private ArangoConfigure configure;
+	private ArangoDriver driver;
+
+	@Before
+	public void setUp() throws IOException {
+		jobs = new JobHandler();
+		server = new StubHttpServer(jobs);
+		configure = new ArangoConfigure();
+		configure.setArangoHost(new ArangoHost("127.0.0.1", server.getPort()));
+		configure.setUser(null);
+		configure.setAsyncJobPollInterval(10);
+		configure.init();
+		driver = new ArangoDriver(configure);
+	}
+
+	@After
+	public void tearDown() {
+		configure.shutdown();
+		server.close();
+	}
+
+	@Test
+	public void test_batchedCollection() throws Exception {
+		driver.startAsyncMode(false);
+		for (int i = 0; i < 5; i++) {
+			driver.getVersion();
+		}
+		driver.stopAsyncMode();
+		assertThat(driver.getJobIds().size(), is(5));
+
+		jobs.finishJobs();
+		for (int i = 0; i < 5; i++) {
+			final String jobId = driver.getJobIds().get(i);
+			final DeferredResult<ArangoVersion> result = driver.getAsyncResult(jobId);
+			assertThat(result.getEntityClass().getName(), is(ArangoVersion.class.getName()));
+			final ArangoVersion version = result.get(5, TimeUnit.SECONDS);
+			assertThat(version.getVersion(), is("3.0." + jobId));
+		}
+
+		// every result is fetched once. A poll, which started while the jobs
+		// were created, may fetch a part of the jobs, so the jobs are fetched
+		// in at most two groups, one of them with at least three jobs.
+		assertThat(jobs.getFetchedJobs(), is(5));
+		assertTrue(jobs.getBatches() >= 1);
+		assertTrue(jobs.getBatches() + jobs.getSingleFetches() <= 2);
+	}
+
+	@Test
+	public void test_getJobResult() throws Exception {
+		driver.startAsyncMode(false);
+		driver.getVersion();
+		driver.stopAsyncMode();
+		final String jobId = driver.getLastJobId();
+
+		// the caller waits until the collector fetched the result, the
+		// result is fetched once
+		final Thread finisher = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(100);
+				} catch (final InterruptedException e) {
+					return;
+				}
+				jobs.finishJobs();
+			}
+		});
+		finisher.start();
+		final ArangoVersion version = driver.getJobResult(jobId);
+		assertThat(version.getVersion(), is("3.0." + jobId));
+		final DeferredResult<ArangoVersion> result = driver.getAsyncResult(jobId);
+		assertThat(result.isDone(), is(true));
+		assertThat(result.get().getVersion(), is("3.0." + jobId));
+		assertThat(jobs.getFetchedJobs(), is(1));
+		assertThat(jobs.getSingleFetches(), is(1));
+	}
+
+	@Test
+	public void test_foreignDoneJobs() throws Exception {
+		// the list of done jobs is full of the jobs of other clients
+		jobs.addForeignJobs(1000);
+		driver.startAsyncMode(false);
+		for (int i = 0; i < 150; i++) {
+			driver.getVersion();
+		}
+		driver.stopAsyncMode();
+
+		jobs.finishJobs();
+		for (final String jobId : driver.getJobIds()) {
+			final DeferredResult<ArangoVersion> result = driver.getAsyncResult(jobId);
+			assertThat(result.get(5, TimeUnit.SECONDS).getVersion(), is("3.0." + jobId));
+		}
+		assertThat(jobs.getFetchedJobs(), is(150));
+	}
+
+	@Test
+	public void test_getJobResult_postProcessed() throws Exception {
+		driver.startAsyncMode(false);
+		driver.getDocuments("c");
+		driver.stopAsyncMode();
+		final String jobId = driver.getLastJobId();
+		jobs.finishJobs();
+
+		// the call returns the keys of the cursor, not the cursor
+		final List<String> documents = driver.getJobResult(jobId);
+		assertThat(documents, is(Arrays.asList("c/1", "c/2")));
+		final DeferredResult<CursorEntity<String>> result = driver.getAsyncResult(jobId);
+		assertThat(result.get().getResults().size(), is(2));
+	}
+
+	@Test
+	public void test_deletedJob() throws Exception {
+		driver.startAsyncMode(false);
+		driver.getVersion();
+		driver.stopAsyncMode();
+		final String jobId = driver.getLastJobId();
+
+		driver.deleteJobById(jobId);
+		try {
+			driver.getAsyncResult(jobId).get();
+			fail();
+		} catch (final ArangoException e) {
+			assertThat(e.getMessage(), is("The job " + jobId + " has been deleted."));
+		}
+
+		try {
+			driver.getAsyncResult("unknown");
+			fail();
+		} catch (final ArangoException e) {
+			assertThat(e.getMessage(), is("No result for JobId."));
+		}
+	}
+
+	@Test
+	public void test_fireAndForgetLimit() throws Exception {
+		configure.shutdown();
+		configure = new ArangoConfigure();
+		configure.setArangoHost(new ArangoHost("127.0.0.1", server.getPort()));
+		configure.setUser(null);
+		configure.setAsyncJobPollInterval(10);
+		configure.setFireAndForgetMaxInFlight(4);
+		configure.setFireAndForgetShed(true);
+		configure.init();
+		driver = new ArangoDriver(configure);
+
+		driver.startAsyncMode(true);
+		for (int i = 0; i < 4; i++) {
+			assertThat(driver.getVersion(), is(nullValue()));
+		}
+		try {
+			driver.getVersion();
+			fail();
+		} catch (final ArangoException e) {
+			assertThat(e.getMessage(), is("the limit of 4 fire-and-forget requests is reached"));
+		}
+		FireAndForgetStatistics statistics = driver.getFireAndForgetStatistics();
+		assertThat(statistics.getAccepted(), is(4L));
+		assertThat(statistics.getRejected(), is(1L));
+		assertThat(statistics.getQueued(), is(4L));
+
+		// every second request is stored, the requests are executed with the
+		// last sample
+		jobs.finishJobs();
+		final long deadline = System.currentTimeMillis() + 5000L;
+		while (driver.getFireAndForgetStatistics().getQueued() > 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		statistics = driver.getFireAndForgetStatistics();
+		assertThat(statistics.getQueued(), is(0L));
+		assertThat(statistics.getCompleted(), is(4L));
+		assertTrue(statistics.getLag() >= 0);
+		driver.getVersion();
+		driver.stopAsyncMode();
+		assertThat(driver.getFireAndForgetStatistics().getAccepted(), is(5L));
+	}
+
+	/**
+	 * Stores the version requests of the async mode as jobs, fire-and-forget
+	 * requests are only accepted. The jobs are pending until finishJobs(),
+	 * the list of done jobs starts with the foreign jobs.
+	 */
+	private static class JobHandler implements StubHttpServer.Handler {
+
+		private final AtomicInteger jobIds = new AtomicInteger();
+		private final AtomicInteger batches = new AtomicInteger();
+		private final AtomicInteger singleFetches = new AtomicInteger();
+		private final AtomicInteger fetchedJobs = new AtomicInteger();
+		private final Map<String, String> results = new ConcurrentHashMap<String, String>();
+		private final List<String> foreignJobs = new ArrayList<String>();
+		private volatile boolean finished;
+
+		/**
+		 * @return the batches, which fetched a result
+		 */
+		int getBatches() {
+			return batches.get();
+		}
+
+		/**
+		 * @return the single requests, which fetched a result
+		 */
+		int getSingleFetches() {
+			return singleFetches.get();
+		}
+
+		int getFetchedJobs() {
+			return fetchedJobs.get();
+		}
+
+		void finishJobs() {
+			finished = true;
+		}
+
+		void addForeignJobs(final int count) {
+			for (int i = 0; i < count; i++) {
+				foreignJobs.add("foreign" + i);
+			}
+		}
+
+		@Override
+		public Response handle(final Request request) throws IOException, InterruptedException {
+			final String async = request.getHeader("x-arango-async");
+			final String method = request.getMethod();
+			final String path = request.getPath();
+			if ("true".equals(async)) {
+				return new Response("202 Accepted", "");
+			} else if ("store".equals(async)) {
+				final String jobId = String.valueOf(jobIds.incrementAndGet());
+				if (path.startsWith("/_api/simple/all-keys")) {
+					results.put(jobId, "{\"result\":[\"c/1\",\"c/2\"],\"hasMore\":false,\"code\":201}");
+				} else {
+					results.put(jobId, "{\"server\":\"arango\",\"version\":\"3.0." + jobId + "\"}");
+				}
+				return new Response("202 Accepted", "").header("x-arango-async-id", jobId);
+			} else if (path.equals("/_api/job/done")) {
+				final List<String> done = new ArrayList<String>(foreignJobs);
+				if (finished) {
+					done.addAll(results.keySet());
+				}
+				final int count = Integer.parseInt(request.getUri().replaceAll(".*[?&]count=(\\d+).*", "$1"));
+				return Response.ok(toJson(done.subList(0, Math.min(count, done.size()))));
+			} else if (path.startsWith("/_api/job/") && method.equals("PUT")) {
+				final int before = fetchedJobs.get();
+				final Response response = fetch(path);
+				if (fetchedJobs.get() > before) {
+					singleFetches.incrementAndGet();
+				}
+				return response;
+			} else if (path.startsWith("/_api/job/") && method.equals("DELETE")) {
+				results.remove(path.substring(10));
+				return Response.ok("{\"result\":true}");
+			} else if (path.equals("/_api/batch")) {
+				final int before = fetchedJobs.get();
+				final Response response = StubHttpServer.answerBatch(request, new StubHttpServer.Handler() {
+					@Override
+					public Response handle(final Request part) {
+						return fetch(part.getPath());
+					}
+				});
+				if (fetchedJobs.get() > before) {
+					batches.incrementAndGet();
+				}
+				return response;
+			}
+			return new Response("404 Not Found", "");
+		}
+
+		/**
+		 * @return the result of the job, 204 if the job is pending
+		 */
+		private Response fetch(final String path) {
+			if (!finished) {
+				return new Response("204 No Content", "");
+			}
+			final String result = results.remove(path.substring(10));
+			if (result == null) {
+				return Response.ok("");
+			}
+			fetchedJobs.incrementAndGet();
+			return Response.ok(result);
+		}
+
+		private String toJson(final Iterable<String> jobIds) {
+			final List<String> quoted = new ArrayList<String>();
+			for (final String jobId : jobIds) {
+				quoted.add("\"" + jobId + "\"");
+			}
+			return quoted.toString().replace(" ", "");
+		}
+
+	}
+
+}
@@ -0,0 +1,217 @@
+package com.arangodb.http;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.arangodb.ArangoConfigure;
+import com.arangodb.ArangoHost;
+import com.arangodb.entity.BatchResponseEntity;
+import com.arangodb.http.StubHttpServer.Request;
+import com.arangodb.http.StubHttpServer.Response;
+
+/**
+ * Test of the automatic batching and the batch codec against a stub server.
+ * No ArangoDB server is needed.
+ */
+public class AutoBatcherTest {
+
+	private UrlHandler handler;
+	private StubHttpServer server;
+	private BatchHttpManager httpManager;
+
+	@Before
+	public void setUp() throws IOException {
+		handler = new UrlHandler();
+		server = new StubHttpServer(handler);
+		final ArangoConfigure configure = new ArangoConfigure();
+		configure.setArangoHost(new ArangoHost("127.0.0.1", server.getPort()));
+		configure.setUser(null);
+		configure.setMaxPerConnection(2);
+		configure.setAutoBatchSize(50);
+		configure.setAutoBatchWindow(5);
+		// without budget, every failed request can be retried
+		configure.setRetryBudget(0);
+		httpManager = new BatchHttpManager(configure);
+		httpManager.init();
+	}
+
+	@After
+	public void tearDown() {
+		httpManager.destroy();
+		server.close();
+	}
+
+	@Test
+	public void test_single() throws Exception {
+		final HttpResponseEntity response = httpManager.doGet("/_db/test/_api/document/c/1");
+		assertThat(response.getStatusCode(), is(200));
+		assertThat(response.getText(), is("{\"url\":\"/_db/test/_api/document/c/1\"}"));
+		assertThat(handler.getBatches(), is(0));
+	}
+
+	@Test
+	public void test_concurrent() throws Exception {
+		final ExecutorService executor = Executors.newFixedThreadPool(40);
+		try {
+			final List<Future<String>> results = new ArrayList<Future<String>>();
+			for (int i = 0; i < 200; i++) {
+				final String url = "/_db/test/_api/document/c/" + i;
+				results.add(executor.submit(new Callable<String>() {
+					@Override
+					public String call() throws Exception {
+						return httpManager.doGet(url).getText();
+					}
+				}));
+			}
+			for (int i = 0; i < results.size(); i++) {
+				assertThat(results.get(i).get(), is("{\"url\":\"/_db/test/_api/document/c/" + i + "\"}"));
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertTrue(handler.getBatches() > 0);
+		assertTrue(server.getRequests() < 200);
+	}
+
+	@Test
+	public void test_retryParts() throws Exception {
+		handler.setUnavailableOnce(true);
+		final ExecutorService executor = Executors.newFixedThreadPool(40);
+		try {
+			final List<Future<HttpResponseEntity>> results = new ArrayList<Future<HttpResponseEntity>>();
+			for (int i = 0; i < 100; i++) {
+				final String url = "/_db/test/_api/document/c/" + i;
+				results.add(executor.submit(new Callable<HttpResponseEntity>() {
+					@Override
+					public HttpResponseEntity call() throws Exception {
+						return httpManager.doGet(url);
+					}
+				}));
+			}
+			// every request is answered with 503 once, the parts of the
+			// batches are retried like single requests
+			for (int i = 0; i < results.size(); i++) {
+				assertThat(results.get(i).get().getStatusCode(), is(200));
+				assertThat(results.get(i).get().getText(), is("{\"url\":\"/_db/test/_api/document/c/" + i + "\"}"));
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertTrue(handler.getUnavailableParts() > 0);
+	}
+
+	@Test
+	public void test_codec() throws Exception {
+		final Map<String, Object> headers = new HashMap<String, Object>();
+		headers.put("If-Match", "\"12\"");
+		final List<BatchPart> parts = new ArrayList<BatchPart>();
+		parts.add(new BatchPart("PUT", "/_api/document/c/1", "{\"a\":1}", headers, 1));
+		parts.add(new BatchPart("GET", "/_api/document/c/2", null, null, 2));
+
+		final String body = BatchCodec.encode(parts, "localhost");
+		assertTrue(body.contains("Content-Id: request1"));
+		assertTrue(body.contains("PUT /_api/document/c/1 HTTP/1.1"));
+		assertTrue(body.contains("If-Match: \"12\""));
+
+		// bodies are read by their length, header-like text is not parsed
+		final String text = "{\"x\":\"HTTP/1.1 Etag\"}";
+		final HttpResponseEntity res = new HttpResponseEntity();
+		res.setText("--" + BatchCodec.BOUNDARY + "\r\nContent-Type: application/x-arango-batchpart\r\n"
+				+ "Content-Id: request1\r\n\r\nHTTP/1.1 202 Accepted\r\nContent-Type: application/json\r\n"
+				+ "Etag: \"34\"\r\nContent-Length: " + text.length() + "\r\n\r\n" + text + "\r\n--"
+				+ BatchCodec.BOUNDARY + "\r\nContent-Type: application/x-arango-batchpart\r\n"
+				+ "Content-Id: request2\r\n\r\nHTTP/1.1 404 Not Found\r\nContent-Length: 0\r\n\r\n\r\n--"
+				+ BatchCodec.BOUNDARY + "--");
+		final List<BatchResponseEntity> responses = BatchCodec.decode(res);
+		assertThat(responses.size(), is(2));
+		assertThat(responses.get(0).getRequestId(), is("request1"));
+		assertThat(responses.get(0).getHttpResponseEntity().getStatusCode(), is(202));
+		assertThat(responses.get(0).getHttpResponseEntity().getEtag(), is(34L));
+		assertThat(responses.get(0).getHttpResponseEntity().getText(), is(text));
+		assertThat(responses.get(1).getRequestId(), is("request2"));
+		assertThat(responses.get(1).getHttpResponseEntity().getStatusCode(), is(404));
+	}
+
+	/**
+	 * Answers single requests and batches with the url of the request, each
+	 * HTTP request takes 20 ms. Optionally every url is answered with 503
+	 * once.
+	 */
+	private static class UrlHandler implements StubHttpServer.Handler {
+
+		private static final String UNAVAILABLE = "{\"error\":true,\"code\":503,\"errorNum\":503,"
+				+ "\"errorMessage\":\"service unavailable\"}";
+
+		private final AtomicInteger batches = new AtomicInteger();
+		private final AtomicInteger unavailableParts = new AtomicInteger();
+		private final Set<String> unavailableUrls = Collections.synchronizedSet(new HashSet<String>());
+		private volatile boolean unavailableOnce;
+
+		int getBatches() {
+			return batches.get();
+		}
+
+		/**
+		 * @return the parts of batches, which were answered with 503
+		 */
+		int getUnavailableParts() {
+			return unavailableParts.get();
+		}
+
+		void setUnavailableOnce(final boolean unavailableOnce) {
+			this.unavailableOnce = unavailableOnce;
+		}
+
+		@Override
+		public Response handle(final Request request) throws IOException, InterruptedException {
+			Thread.sleep(20);
+			if (request.getPath().endsWith("/_api/batch")) {
+				batches.incrementAndGet();
+				return StubHttpServer.answerBatch(request, new StubHttpServer.Handler() {
+					@Override
+					public Response handle(final Request part) {
+						final Response response = answer(part);
+						if (response == null) {
+							unavailableParts.incrementAndGet();
+							return new Response("503 Service Unavailable", UNAVAILABLE);
+						}
+						return response;
+					}
+				});
+			}
+			final Response response = answer(request);
+			return response != null ? response : new Response("503 Service Unavailable", UNAVAILABLE);
+		}
+
+		/**
+		 * @return the response or null, if the url is unavailable once
+		 */
+		private Response answer(final Request request) {
+			if (unavailableOnce && unavailableUrls.add(request.getUri())) {
+				return null;
+			}
+			return Response.ok("{\"url\":\"" + request.getUri() + "\"}");
+		}
+
+	}
+
+}
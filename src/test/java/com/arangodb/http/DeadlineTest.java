@@ -0,0 +1,234 @@
+package com.arangodb.http;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.arangodb.ArangoConfigure;
+import com.arangodb.ArangoDriver;
+import com.arangodb.ArangoException;
+import com.arangodb.ArangoHost;
+import com.arangodb.ArangoTimeoutException;
+import com.arangodb.CursorResult;
+import com.arangodb.entity.BaseDocument;
+import com.arangodb.http.StubHttpServer.Request;
+import com.arangodb.http.StubHttpServer.Response;
+import com.arangodb.util.AqlQueryOptions;
+import com.arangodb.util.RequestOptions;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Test of the per-call deadlines against a stub server, which answers slowly.
+ * No ArangoDB server is needed.
+ */
+public class DeadlineTest {
+
+	private static final int TIMEOUT = 200;
+	private static final String QUERY = "FOR x IN c FILTER x.value == @value RETURN x";
+
+	private SlowHandler handler;
+	private StubHttpServer server;
+	private ArangoConfigure configure;
+	private ArangoDriver driver;
+
+	@Before
+	public void setUp() throws IOException {
+		handler = new SlowHandler();
+		server = new StubHttpServer(handler);
+		init(0);
+	}
+
+	private void init(final int autoBatchSize) {
+		configure = new ArangoConfigure();
+		configure.setArangoHost(new ArangoHost("127.0.0.1", server.getPort()));
+		configure.setUser(null);
+		configure.setAutoBatchSize(autoBatchSize);
+		configure.init();
+		driver = new ArangoDriver(configure);
+	}
+
+	@After
+	public void tearDown() {
+		configure.shutdown();
+		server.close();
+	}
+
+	@Test
+	public void test_killQuery() throws Exception {
+		handler.setDelay(5000);
+		final long t = System.currentTimeMillis();
+		try {
+			driver.executeAqlQuery(QUERY, bindVars(1), new AqlQueryOptions().setTimeout(TIMEOUT), Object.class);
+			fail();
+		} catch (final ArangoTimeoutException e) {
+			assertTrue(System.currentTimeMillis() - t < 2000);
+		}
+		// the tagged query with the bind parameters was found and killed, the
+		// same query with other bind parameters or an older start runs on
+		assertThat(handler.getKilledQueries(), is(1));
+		assertThat(handler.getOtherKilledQueries(), is(0));
+	}
+
+	@Test
+	public void test_stableQueryText() throws Exception {
+		driver.executeAqlQuery(QUERY, bindVars(1), new AqlQueryOptions().setTimeout(TIMEOUT), Object.class);
+		final String query = handler.getQuery();
+		driver.executeAqlQuery(QUERY, bindVars(2), new AqlQueryOptions().setTimeout(TIMEOUT), Object.class);
+		// the query cache and the plan reuse of the server see the same text
+		assertThat(handler.getQuery(), is(query));
+		assertTrue(query.startsWith(QUERY));
+	}
+
+	private static Map<String, Object> bindVars(final int value) {
+		final Map<String, Object> bindVars = new HashMap<String, Object>();
+		bindVars.put("value", value);
+		return bindVars;
+	}
+
+	@Test
+	public void test_finishCursor() throws Exception {
+		final CursorResult<Object> cursor = driver.executeAqlQuery(QUERY, bindVars(1),
+			new AqlQueryOptions().setTimeout(TIMEOUT), Object.class);
+		assertThat(cursor.nextBatch(), is(notNullValue()));
+
+		handler.setDelay(5000);
+		try {
+			cursor.nextBatch();
+			fail();
+		} catch (final ArangoTimeoutException e) {
+			// the following batch timed out
+		}
+		assertThat(handler.getDeletedCursors(), is(1));
+		assertThat(handler.getKilledQueries(), is(0));
+	}
+
+	@Test
+	public void test_documentTimeout() throws Exception {
+		handler.setDelay(5000);
+		try {
+			driver.getDocument("c/1", BaseDocument.class, null, null, new RequestOptions().setTimeout(TIMEOUT));
+			fail();
+		} catch (final ArangoTimeoutException e) {
+			// aborted
+		}
+
+		// the following calls of the thread have no deadline
+		handler.setDelay(TIMEOUT * 2);
+		try {
+			assertThat(driver.getDocument("c/1", BaseDocument.class).getDocumentKey(), is("1"));
+		} catch (final ArangoException e) {
+			fail(e.getMessage());
+		}
+	}
+
+	@Test
+	public void test_documentTimeout_autoBatch() throws Exception {
+		configure.shutdown();
+		init(50);
+
+		handler.setDelay(5000);
+		final long t = System.currentTimeMillis();
+		try {
+			driver.getDocument("c/1", BaseDocument.class, null, null, new RequestOptions().setTimeout(TIMEOUT));
+			fail();
+		} catch (final ArangoTimeoutException e) {
+			// the options of the calling thread are applied before the
+			// request is queued
+			assertTrue(System.currentTimeMillis() - t < 2000);
+		}
+	}
+
+	/**
+	 * Answers cursor, query and document requests, the cursor and document
+	 * requests wait for the delay. The running queries are the last cursor
+	 * query (id 7), the query with other bind parameters (id 8) and the query
+	 * started long ago (id 9).
+	 */
+	private static class SlowHandler implements StubHttpServer.Handler {
+
+		private static final String CURSOR = "{\"result\":[1],\"hasMore\":true,\"id\":\"42\",\"error\":false,"
+				+ "\"code\":201}";
+		private static final String DOCUMENT = "{\"_id\":\"c/1\",\"_key\":\"1\",\"_rev\":\"1\"}";
+		private static final String OK = "{\"error\":false,\"code\":200}";
+
+		private final AtomicInteger killedQueries = new AtomicInteger();
+		private final AtomicInteger otherKilledQueries = new AtomicInteger();
+		private final AtomicInteger deletedCursors = new AtomicInteger();
+		private volatile int delay;
+		private volatile JsonObject cursor = new JsonObject();
+
+		int getKilledQueries() {
+			return killedQueries.get();
+		}
+
+		int getOtherKilledQueries() {
+			return otherKilledQueries.get();
+		}
+
+		String getQuery() {
+			return cursor.get("query").getAsString();
+		}
+
+		int getDeletedCursors() {
+			return deletedCursors.get();
+		}
+
+		void setDelay(final int delay) {
+			this.delay = delay;
+		}
+
+		@Override
+		public Response handle(final Request request) throws InterruptedException {
+			final String method = request.getMethod();
+			final String path = request.getPath();
+			if (method.equals("GET") && path.equals("/_api/query/current")) {
+				final JsonObject otherBindVars = new JsonObject();
+				otherBindVars.add("value", new JsonPrimitive(3));
+				return Response.ok("[" + running("7", cursor.get("bindVars"), 0.1) + ","
+						+ running("8", otherBindVars, 0.1) + "," + running("9", cursor.get("bindVars"), 100.0) + "]");
+			} else if (method.equals("DELETE") && path.equals("/_api/query/7")) {
+				killedQueries.incrementAndGet();
+				return Response.ok(OK);
+			} else if (method.equals("DELETE") && path.startsWith("/_api/query/")) {
+				otherKilledQueries.incrementAndGet();
+				return Response.ok(OK);
+			} else if (method.equals("DELETE") && path.startsWith("/_api/cursor/")) {
+				deletedCursors.incrementAndGet();
+				return Response.ok(OK);
+			} else if (path.startsWith("/_api/cursor")) {
+				if (method.equals("POST")) {
+					cursor = new JsonParser().parse(request.getBody()).getAsJsonObject();
+				}
+				Thread.sleep(delay);
+				return Response.ok(CURSOR);
+			}
+			Thread.sleep(delay);
+			return Response.ok(DOCUMENT);
+		}
+
+		private JsonObject running(final String id, final JsonElement bindVars, final double runTime) {
+			final JsonObject running = new JsonObject();
+			running.add("id", new JsonPrimitive(id));
+			running.add("query", cursor.get("query"));
+			running.add("bindVars", bindVars);
+			running.add("runTime", new JsonPrimitive(runTime));
+			return running;
+		}
+
+	}
+
+}
@@ -0,0 +1,180 @@
+package com.arangodb.http;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.arangodb.ArangoConfigure;
+import com.arangodb.ArangoHost;
+import com.arangodb.http.HttpRequestEntity.RequestType;
+import com.arangodb.http.StubHttpServer.Request;
+import com.arangodb.http.StubHttpServer.Response;
+
+/**
+ * Test of the retry policy and of the retries of the HttpManager against a
+ * stub server. No ArangoDB server is needed.
+ */
+public class DefaultRetryPolicyTest {
+
+	private UnavailableHandler handler;
+	private StubHttpServer server;
+	private ArangoConfigure configure;
+	private HttpManager httpManager;
+
+	@Before
+	public void setUp() throws IOException {
+		handler = new UnavailableHandler();
+		server = new StubHttpServer(handler);
+		configure = new ArangoConfigure();
+		configure.setArangoHost(new ArangoHost("127.0.0.1", server.getPort()));
+		configure.setUser(null);
+		configure.setConnectRetryWait(10);
+	}
+
+	@After
+	public void tearDown() {
+		if (httpManager != null) {
+			httpManager.destroy();
+		}
+		server.close();
+	}
+
+	@Test
+	public void test_classification() {
+		final DefaultRetryPolicy policy = new DefaultRetryPolicy(3, 3, 0L, 0L, 0.0, 0);
+		final HttpRequestEntity get = createRequest(RequestType.GET);
+		final HttpRequestEntity post = createRequest(RequestType.POST);
+
+		// nothing was sent
+		assertThat(policy.getRetryDelay(post, 1, null, new ConnectException()), is(0L));
+		// the server may have executed the request
+		assertThat(policy.getRetryDelay(get, 1, null, new SocketException()), is(0L));
+		assertThat(policy.getRetryDelay(post, 1, null, new SocketException()), is(-1L));
+
+		assertThat(policy.getRetryDelay(post, 1, createResponse(503, 503), null), is(0L));
+		assertThat(policy.getRetryDelay(post, 1, createResponse(403, 1004), null), is(0L));
+		assertThat(policy.getRetryDelay(get, 1, createResponse(504, 1457), null), is(0L));
+		assertThat(policy.getRetryDelay(post, 1, createResponse(504, 1457), null), is(-1L));
+		assertThat(policy.getRetryDelay(post, 1, createResponse(500, 4), null), is(-1L));
+		assertThat(policy.getRetryDelay(get, 1, createResponse(404, 1202), null), is(-1L));
+		assertThat(policy.getRetryDelay(get, 1, createResponse(200, 0), null), is(-1L));
+
+		assertThat(policy.getRetryDelay(get, 4, createResponse(503, 503), null), is(-1L));
+		assertThat(policy.getRetryDelay(post, 4, null, new ConnectException()), is(-1L));
+		// connectRetryCount 0 means infinite
+		assertThat(new DefaultRetryPolicy(0, 3, 0L, 0L, 0.0, 0).getRetryDelay(post, 100, null,
+			new ConnectException()), is(0L));
+	}
+
+	@Test
+	public void test_backoff() {
+		final DefaultRetryPolicy policy = new DefaultRetryPolicy(3, 3, 100L, 1000L, 0.0, 0);
+		long max = 0;
+		for (int i = 0; i < 1000; i++) {
+			final long first = policy.getBackoff(1);
+			assertTrue(first >= 0 && first <= 100);
+			final long fifth = policy.getBackoff(5);
+			assertTrue(fifth >= 0 && fifth <= 1000);
+			max = Math.max(max, fifth);
+		}
+		// spread over the whole interval
+		assertTrue(max > 500);
+		assertTrue(policy.getBackoff(100) <= 1000);
+	}
+
+	@Test
+	public void test_budget() {
+		final DefaultRetryPolicy policy = new DefaultRetryPolicy(3, 3, 0L, 0L, 0.5, 2);
+		final HttpRequestEntity get = createRequest(RequestType.GET);
+		assertThat(policy.getBudget(), is(2));
+		assertThat(policy.getRetryDelay(get, 1, createResponse(503, 503), null), is(0L));
+		assertThat(policy.getRetryDelay(get, 1, createResponse(503, 503), null), is(0L));
+		assertThat(policy.getRetryDelay(get, 1, createResponse(503, 503), null), is(-1L));
+
+		// two successful requests allow one retry
+		policy.getRetryDelay(get, 1, createResponse(200, 0), null);
+		policy.getRetryDelay(get, 1, createResponse(200, 0), null);
+		assertThat(policy.getBudget(), is(1));
+		assertThat(policy.getRetryDelay(get, 1, createResponse(503, 503), null), is(0L));
+		assertThat(policy.getBudget(), is(0));
+	}
+
+	@Test
+	public void test_retryUnavailable() throws Exception {
+		handler.setFailures(2);
+		httpManager = createHttpManager();
+		final HttpResponseEntity response = httpManager.doPost("/_api/document", null, "{}");
+		assertThat(response.getStatusCode(), is(200));
+		assertThat(server.getRequests(), is(3));
+	}
+
+	@Test
+	public void test_deadline() throws Exception {
+		handler.setFailures(100);
+		configure.setConnectRetryCount(0);
+		configure.setRetryCount(100);
+		configure.setRetryBudget(0.0);
+		configure.setRetryTimeout(300);
+		httpManager = createHttpManager();
+		final long t = System.currentTimeMillis();
+		final HttpResponseEntity response = httpManager.doGet("/_api/version");
+		assertThat(response.getStatusCode(), is(503));
+		assertTrue(System.currentTimeMillis() - t < 1000);
+	}
+
+	private HttpManager createHttpManager() {
+		final HttpManager manager = new HttpManager(configure);
+		manager.init();
+		return manager;
+	}
+
+	private static HttpRequestEntity createRequest(final RequestType type) {
+		final HttpRequestEntity requestEntity = new HttpRequestEntity();
+		requestEntity.type = type;
+		requestEntity.url = "/_api/document";
+		return requestEntity;
+	}
+
+	private static HttpResponseEntity createResponse(final int code, final int errorNum) {
+		final HttpResponseEntity responseEntity = new HttpResponseEntity();
+		responseEntity.setStatusCode(code);
+		responseEntity.setContentType("application/json; charset=utf-8");
+		responseEntity.setText("{\"error\":" + (code >= 400) + ",\"errorNum\":" + errorNum + ",\"code\":" + code + "}");
+		return responseEntity;
+	}
+
+	/**
+	 * Answers the first requests with 503 service unavailable, the following
+	 * ones with 200
+	 */
+	private static class UnavailableHandler implements StubHttpServer.Handler {
+
+		private static final String UNAVAILABLE = "{\"error\":true,\"errorNum\":503,\"code\":503}";
+
+		private final AtomicInteger requests = new AtomicInteger();
+		private volatile int failures;
+
+		void setFailures(final int failures) {
+			this.failures = failures;
+		}
+
+		@Override
+		public Response handle(final Request request) {
+			if (requests.incrementAndGet() <= failures) {
+				return new Response("503 Service Unavailable", UNAVAILABLE);
+			}
+			return Response.ok("{}");
+		}
+
+	}
+
+}
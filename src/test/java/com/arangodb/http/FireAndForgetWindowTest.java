@@ -0,0 +1,101 @@
+package com.arangodb.http;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.arangodb.ArangoException;
+
+/**
+ * Test of the in-flight limit of the fire-and-forget mode. No ArangoDB server
+ * is needed.
+ */
+public class FireAndForgetWindowTest {
+
+	private AsyncJobCollector collector;
+
+	@Before
+	public void setUp() {
+		// nothing is registered, the collector never sends a request
+		collector = new AsyncJobCollector(null, 1000);
+	}
+
+	@After
+	public void tearDown() {
+		collector.shutdown();
+	}
+
+	@Test
+	public void test_sampleRate() {
+		assertThat(FireAndForgetWindow.getSampleRate(0, 0), is(0));
+		assertThat(FireAndForgetWindow.getSampleRate(0, 100), is(100));
+		assertThat(FireAndForgetWindow.getSampleRate(1000, 100), is(100));
+		assertThat(FireAndForgetWindow.getSampleRate(100, 0), is(50));
+		assertThat(FireAndForgetWindow.getSampleRate(100, 1000), is(50));
+		assertThat(FireAndForgetWindow.getSampleRate(1, 0), is(1));
+	}
+
+	@Test
+	public void test_block() throws Exception {
+		final FireAndForgetWindow window = new FireAndForgetWindow(2, 0, false, 0);
+		assertThat(window.acquire(), is(true));
+		final AsyncJob first = window.accept(true, "1", "", collector);
+		assertThat(window.acquire(), is(true));
+		window.accept(true, "2", "", collector);
+
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			final Future<Boolean> third = executor.submit(new Callable<Boolean>() {
+				@Override
+				public Boolean call() throws Exception {
+					return window.acquire();
+				}
+			});
+			try {
+				third.get(100, TimeUnit.MILLISECONDS);
+				fail();
+			} catch (final TimeoutException e) {
+				// waits at the limit
+			}
+			first.complete(new HttpResponseEntity());
+			assertThat(third.get(5, TimeUnit.SECONDS), is(true));
+		} finally {
+			executor.shutdownNow();
+		}
+
+		final FireAndForgetStatistics statistics = window.getStatistics();
+		assertThat(statistics.getAccepted(), is(2L));
+		assertThat(statistics.getCompleted(), is(1L));
+		assertThat(statistics.getQueued(), is(1L));
+		assertThat(statistics.getRejected(), is(0L));
+	}
+
+	@Test
+	public void test_timeout() throws Exception {
+		final FireAndForgetWindow window = new FireAndForgetWindow(1, 0, false, 50);
+		window.acquire();
+		try {
+			window.acquire();
+			fail();
+		} catch (final ArangoException e) {
+			assertThat(window.getStatistics().getRejected(), is(1L));
+		}
+
+		// a failed request leaves the window
+		window.reject();
+		window.acquire();
+		assertThat(window.getStatistics().getRejected(), is(2L));
+	}
+
+}
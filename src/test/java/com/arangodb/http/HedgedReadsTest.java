@@ -0,0 +1,218 @@
+package com.arangodb.http;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.arangodb.ArangoConfigure;
+import com.arangodb.ArangoDriver;
+import com.arangodb.ArangoHost;
+import com.arangodb.CursorResult;
+import com.arangodb.entity.BaseDocument;
+import com.arangodb.http.StubHttpServer.Request;
+import com.arangodb.http.StubHttpServer.Response;
+import com.arangodb.util.AqlQueryOptions;
+
+/**
+ * Test of the hedged reads against two stub servers, the current host
+ * answers slowly. No ArangoDB server is needed.
+ */
+public class HedgedReadsTest {
+
+	private static final String QUERY = "FOR x IN c RETURN x";
+
+	private DelayHandler slow;
+	private DelayHandler fast;
+	private StubHttpServer slowServer;
+	private StubHttpServer fastServer;
+	private ArangoConfigure configure;
+	private ArangoDriver driver;
+
+	@Before
+	public void setUp() throws IOException {
+		slow = new DelayHandler(1000);
+		fast = new DelayHandler(0);
+		slowServer = new StubHttpServer(slow);
+		fastServer = new StubHttpServer(fast);
+		configure = new ArangoConfigure();
+		configure.setArangoHost(new ArangoHost("127.0.0.1", slowServer.getPort()));
+		configure.addFallbackArangoHost(new ArangoHost("127.0.0.1", fastServer.getPort()));
+		configure.setUser(null);
+		configure.setHedgedReads(true);
+		configure.setHedgeDelay(50);
+		configure.setHedgeBudget(1.0);
+	}
+
+	@After
+	public void tearDown() {
+		configure.shutdown();
+		slowServer.close();
+		fastServer.close();
+	}
+
+	@Test
+	public void test_hedgedDocument() throws Exception {
+		init();
+		final long t = System.currentTimeMillis();
+		assertThat(driver.getDocument("c/1", BaseDocument.class).getDocumentKey(), is("1"));
+		assertThat(driver.checkDocument("c/1"), is(1L));
+		// both answered by the next host
+		assertTrue(System.currentTimeMillis() - t < 1000);
+		assertThat(fast.getRequests(), is(2));
+	}
+
+	@Test
+	public void test_primaryOnCallingThread() throws Exception {
+		// the current host answers fast
+		configure = new ArangoConfigure();
+		configure.setArangoHost(new ArangoHost("127.0.0.1", fastServer.getPort()));
+		configure.addFallbackArangoHost(new ArangoHost("127.0.0.1", slowServer.getPort()));
+		configure.setUser(null);
+		configure.setHedgedReads(true);
+		configure.setHedgeDelay(50);
+		configure.setHedgeBudget(1.0);
+		init();
+		final long end = System.currentTimeMillis() + 1000;
+		while (getHedgeThreads() > 0 && System.currentTimeMillis() < end) {
+			Thread.sleep(10);
+		}
+		for (int i = 0; i < 3; i++) {
+			assertThat(driver.getDocument("c/1", BaseDocument.class).getDocumentKey(), is("1"));
+		}
+		// the current host answered within the hedge delay, no thread was
+		// needed
+		assertThat(getHedgeThreads(), is(0));
+		assertThat(slow.getRequests(), is(0));
+	}
+
+	@Test
+	public void test_budget() throws Exception {
+		configure.setHedgeBudget(0.0);
+		init();
+		final long t = System.currentTimeMillis();
+		assertThat(driver.getDocument("c/1", BaseDocument.class).getDocumentKey(), is("1"));
+		assertTrue(System.currentTimeMillis() - t >= 1000);
+		assertThat(fast.getRequests(), is(0));
+	}
+
+	@Test
+	public void test_writesAreNotHedged() throws Exception {
+		init();
+		driver.executeAqlQuery(QUERY, new HashMap<String, Object>(), new AqlQueryOptions(), Object.class);
+		assertThat(fast.getRequests(), is(0));
+	}
+
+	@Test
+	public void test_readOnlyQuery() throws Exception {
+		init();
+		final long t = System.currentTimeMillis();
+		CursorResult<Object> cursor = driver.executeAqlQuery(QUERY, new HashMap<String, Object>(),
+			new AqlQueryOptions().setReadOnly(true), Object.class);
+		assertThat(cursor.getCount(), is(1));
+		assertTrue(System.currentTimeMillis() - t < 1000);
+
+		// an open cursor of the next host is not used and deleted
+		slow.setHasMore(true);
+		fast.setHasMore(true);
+		final long t2 = System.currentTimeMillis();
+		cursor = driver.executeAqlQuery(QUERY, new HashMap<String, Object>(), new AqlQueryOptions().setReadOnly(true),
+			Object.class);
+		assertThat(cursor.getEntity().getCursorId(), is(42L));
+		assertTrue(System.currentTimeMillis() - t2 >= 1000);
+		final long end = System.currentTimeMillis() + 5000;
+		while (fast.getDeletedCursors() == 0 && System.currentTimeMillis() < end) {
+			Thread.sleep(10);
+		}
+		assertThat(fast.getDeletedCursors(), is(1));
+		assertThat(slow.getDeletedCursors(), is(0));
+	}
+
+	@Test
+	public void test_percentile() {
+		final HedgedReads hedgedReads = new HedgedReads(0L, 0.05, true);
+		try {
+			assertThat(hedgedReads.getDelay(), is(-1L));
+			for (int i = 1; i <= 100; i++) {
+				hedgedReads.record(TimeUnit.MILLISECONDS.toNanos(i));
+			}
+			assertThat(hedgedReads.getDelay(), is(96L));
+		} finally {
+			hedgedReads.shutdown();
+		}
+	}
+
+	/**
+	 * @return the number of pooled threads of hedged reads
+	 */
+	private static int getHedgeThreads() {
+		int count = 0;
+		for (final Thread thread : Thread.getAllStackTraces().keySet()) {
+			if (thread.getName().matches("arangodb-hedge-\\d+")) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private void init() {
+		configure.init();
+		driver = new ArangoDriver(configure);
+	}
+
+	/**
+	 * Answers document and cursor requests after a delay
+	 */
+	private static class DelayHandler implements StubHttpServer.Handler {
+
+		private static final String DOCUMENT = "{\"_id\":\"c/1\",\"_key\":\"1\",\"_rev\":\"1\"}";
+		private static final String OK = "{\"error\":false,\"code\":200}";
+
+		private final AtomicInteger requests = new AtomicInteger();
+		private final AtomicInteger deletedCursors = new AtomicInteger();
+		private final int delay;
+		private volatile boolean hasMore;
+
+		DelayHandler(final int delay) {
+			this.delay = delay;
+		}
+
+		int getRequests() {
+			return requests.get();
+		}
+
+		int getDeletedCursors() {
+			return deletedCursors.get();
+		}
+
+		void setHasMore(final boolean hasMore) {
+			this.hasMore = hasMore;
+		}
+
+		@Override
+		public Response handle(final Request request) throws InterruptedException {
+			final String path = request.getPath();
+			final String response;
+			if (request.getMethod().equals("DELETE") && path.startsWith("/_api/cursor/")) {
+				deletedCursors.incrementAndGet();
+				response = OK;
+			} else {
+				requests.incrementAndGet();
+				Thread.sleep(delay);
+				response = path.startsWith("/_api/cursor") ? "{\"result\":[1],\"hasMore\":" + hasMore
+						+ ",\"count\":1,\"id\":\"42\",\"error\":false,\"code\":201}" : DOCUMENT;
+			}
+			return Response.ok(response).header("Etag", "\"1\"");
+		}
+
+	}
+
+}
@@ -0,0 +1,183 @@
+package com.arangodb.http;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.arangodb.ArangoConfigure;
+import com.arangodb.ArangoDriver;
+import com.arangodb.ArangoHost;
+import com.arangodb.entity.BaseDocument;
+import com.arangodb.http.StubHttpServer.Request;
+import com.arangodb.http.StubHttpServer.Response;
+
+/**
+ * Test of the acquired host list against stub servers, which report the
+ * coordinators of a cluster. No ArangoDB server is needed.
+ */
+public class HostListUpdaterTest {
+
+	private final AtomicReference<String> endpoints = new AtomicReference<String>();
+	private Coordinator seed;
+	private Coordinator coordinator1;
+	private Coordinator coordinator2;
+	private ArangoConfigure configure;
+
+	@Before
+	public void setUp() throws IOException {
+		seed = new Coordinator(endpoints);
+		coordinator1 = new Coordinator(endpoints);
+		coordinator2 = new Coordinator(endpoints);
+		configure = new ArangoConfigure();
+		configure.setArangoHost(new ArangoHost("127.0.0.1", seed.getPort()));
+		configure.setUser(null);
+		configure.setAcquireHostList(true);
+		configure.setAcquireHostListInterval(50);
+	}
+
+	@After
+	public void tearDown() {
+		configure.shutdown();
+		seed.close();
+		coordinator1.close();
+		coordinator2.close();
+	}
+
+	@Test
+	public void test_parseEndpoint() {
+		assertThat(HostListUpdater.parseEndpoint("tcp://127.0.0.1:8530"), is(new ArangoHost("127.0.0.1", 8530)));
+		assertThat(HostListUpdater.parseEndpoint("ssl://[::1]:8531"), is(new ArangoHost("[::1]", 8531)));
+		assertThat(HostListUpdater.parseEndpoint("unix:///tmp/arangod.sock"), is(nullValue()));
+		assertThat(HostListUpdater.parseEndpoint("tcp://[::1]"), is(nullValue()));
+
+		final List<ArangoHost> hosts = HostListUpdater.parseEndpoints(
+			"{\"endpoints\":[{\"endpoint\":\"tcp://a:1\"},{\"endpoint\":\"tcp://b:2\"},{\"endpoint\":\"tcp://a:1\"}]}");
+		assertThat(hosts, is(Arrays.asList(new ArangoHost("a", 1), new ArangoHost("b", 2))));
+	}
+
+	@Test
+	public void test_updateArangoHosts() {
+		final ArangoHost host1 = new ArangoHost("127.0.0.1", 1);
+		final ArangoHost host2 = new ArangoHost("127.0.0.1", 2);
+		final ArangoHost host3 = new ArangoHost("127.0.0.1", 3);
+		configure.updateArangoHosts(Arrays.asList(host1, host2));
+		configure.changeCurrentHost();
+		assertThat(configure.getBaseUrl(), is("http://127.0.0.1:2"));
+
+		// the current host is kept
+		final List<ArangoHost> removed = configure.updateArangoHosts(Arrays.asList(host3, host2));
+		assertThat(removed, is(Arrays.asList(host1)));
+		assertThat(configure.getBaseUrl(), is("http://127.0.0.1:2"));
+		assertThat(configure.getNextBaseUrl(), is("http://127.0.0.1:3"));
+
+		configure.updateArangoHosts(Arrays.asList(host1));
+		assertThat(configure.getBaseUrl(), is("http://127.0.0.1:1"));
+		assertThat(configure.getNextBaseUrl(), is(nullValue()));
+	}
+
+	@Test
+	public void test_acquireHostList() throws Exception {
+		endpoints.set(endpoints(coordinator1, coordinator2));
+		configure.init();
+		assertThat(configure.getArangoHosts(), is(Arrays.asList(host(coordinator1), host(coordinator2))));
+
+		final ArangoDriver driver = new ArangoDriver(configure);
+		assertThat(driver.getDocument("c/1", BaseDocument.class).getDocumentKey(), is("1"));
+		assertThat(coordinator1.getDocumentRequests(), is(1));
+
+		// a coordinator is removed
+		endpoints.set(endpoints(coordinator2));
+		final long end = System.currentTimeMillis() + 5000;
+		while (configure.getArangoHosts().size() > 1 && System.currentTimeMillis() < end) {
+			Thread.sleep(10);
+		}
+		assertThat(configure.getArangoHosts(), is(Arrays.asList(host(coordinator2))));
+		assertThat(driver.getDocument("c/1", BaseDocument.class).getDocumentKey(), is("1"));
+		assertThat(coordinator1.getDocumentRequests(), is(1));
+		assertThat(coordinator2.getDocumentRequests(), is(1));
+	}
+
+	@Test
+	public void test_singleServer() throws Exception {
+		// the server answers 404
+		configure.init();
+		assertThat(configure.getArangoHosts(), is(Arrays.asList(host(seed))));
+		Thread.sleep(200);
+		assertThat(seed.getEndpointRequests(), is(1));
+	}
+
+	private static ArangoHost host(final Coordinator server) {
+		return new ArangoHost("127.0.0.1", server.getPort());
+	}
+
+	private static String endpoints(final Coordinator... servers) {
+		final StringBuilder json = new StringBuilder("{\"error\":false,\"code\":200,\"endpoints\":[");
+		for (int i = 0; i < servers.length; i++) {
+			json.append(i > 0 ? "," : "").append("{\"endpoint\":\"tcp://127.0.0.1:").append(servers[i].getPort())
+					.append("\"}");
+		}
+		return json.append("]}").toString();
+	}
+
+	/**
+	 * A stub server, which answers document requests and the cluster
+	 * endpoints
+	 */
+	private static class Coordinator implements StubHttpServer.Handler {
+
+		private static final String DOCUMENT = "{\"_id\":\"c/1\",\"_key\":\"1\",\"_rev\":\"1\"}";
+		private static final String NOT_FOUND = "{\"error\":true,\"code\":404,\"errorNum\":404}";
+
+		private final AtomicReference<String> endpoints;
+		private final AtomicInteger documentRequests = new AtomicInteger();
+		private final AtomicInteger endpointRequests = new AtomicInteger();
+		private final StubHttpServer server;
+
+		Coordinator(final AtomicReference<String> endpoints) throws IOException {
+			this.endpoints = endpoints;
+			this.server = new StubHttpServer(this);
+		}
+
+		int getPort() {
+			return server.getPort();
+		}
+
+		int getDocumentRequests() {
+			return documentRequests.get();
+		}
+
+		int getEndpointRequests() {
+			return endpointRequests.get();
+		}
+
+		void close() {
+			server.close();
+		}
+
+		@Override
+		public Response handle(final Request request) {
+			if (request.getPath().startsWith("/_api/cluster/endpoints")) {
+				endpointRequests.incrementAndGet();
+				final String response = endpoints.get();
+				if (response == null) {
+					return new Response("404 Not Found", NOT_FOUND);
+				}
+				return Response.ok(response);
+			}
+			documentRequests.incrementAndGet();
+			return Response.ok(DOCUMENT).header("Etag", "\"1\"");
+		}
+
+	}
+
+}
@@ -0,0 +1,164 @@
+package com.arangodb.http;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.codec.binary.Base64;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.arangodb.ArangoConfigure;
+import com.arangodb.ArangoException;
+import com.arangodb.ArangoHost;
+import com.arangodb.http.StubHttpServer.Request;
+import com.arangodb.http.StubHttpServer.Response;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Test of the JWT authentication against a stub server. No ArangoDB server is
+ * needed.
+ */
+public class JwtAuthenticationTest {
+
+	private TokenHandler tokens;
+	private StubHttpServer server;
+	private ArangoConfigure configure;
+	private HttpManager httpManager;
+
+	@Before
+	public void setUp() throws IOException {
+		tokens = new TokenHandler();
+		server = new StubHttpServer(tokens);
+		configure = new ArangoConfigure();
+		configure.setArangoHost(new ArangoHost("127.0.0.1", server.getPort()));
+		configure.setUser("root");
+		configure.setPassword("secret");
+		configure.setUseJwt(true);
+		httpManager = new HttpManager(configure);
+		httpManager.init();
+	}
+
+	@After
+	public void tearDown() {
+		httpManager.destroy();
+		server.close();
+	}
+
+	@Test
+	public void test_sharedToken() throws Exception {
+		for (int i = 0; i < 10; i++) {
+			final HttpResponseEntity response = httpManager.doGet("/_api/version");
+			assertThat(response.getStatusCode(), is(200));
+			assertThat(response.getText(), is("bearer " + tokens.getToken()));
+		}
+		assertThat(tokens.getAuthRequests(), is(1));
+	}
+
+	@Test
+	public void test_reauthenticate() throws Exception {
+		httpManager.doGet("/_api/version");
+
+		// the server rejects the old token
+		tokens.invalidateToken();
+		final HttpResponseEntity response = httpManager.doGet("/_api/version");
+		assertThat(response.getStatusCode(), is(200));
+		assertThat(tokens.getAuthRequests(), is(2));
+	}
+
+	@Test
+	public void test_refreshBeforeExpiry() throws Exception {
+		tokens.setLifetime(2);
+		httpManager.doGet("/_api/version");
+		httpManager.doGet("/_api/version");
+		assertThat(tokens.getAuthRequests(), is(1));
+
+		// renewed after half of the lifetime
+		Thread.sleep(1100);
+		httpManager.doGet("/_api/version");
+		assertThat(tokens.getAuthRequests(), is(2));
+	}
+
+	@Test
+	public void test_wrongPassword() throws Exception {
+		configure.setPassword("wrong");
+		try {
+			httpManager.doGet("/_api/version");
+			fail();
+		} catch (final ArangoException e) {
+			assertThat(e.isUnauthorized(), is(true));
+			assertThat(e.getErrorMessage(), is("Wrong credentials"));
+		}
+	}
+
+	@Test
+	public void test_lifetime() {
+		assertThat(JwtAuthentication.getLifetime(createToken(100, 160)), is(60000L));
+		assertThat(JwtAuthentication.getLifetime("invalid"), is(-1L));
+		assertThat(JwtAuthentication.getLifetime(
+			"eyJhbGciOiJIUzI1NiJ9." + Base64.encodeBase64URLSafeString("{}".getBytes()) + ".x"), is(-1L));
+	}
+
+	private static String createToken(final long iat, final long exp) {
+		final JsonObject claims = new JsonObject();
+		claims.addProperty("iss", "arangodb");
+		claims.addProperty("iat", iat);
+		claims.addProperty("exp", exp);
+		return "eyJhbGciOiJIUzI1NiJ9." + Base64.encodeBase64URLSafeString(claims.toString().getBytes()) + ".sig";
+	}
+
+	/**
+	 * Issues tokens at /_open/auth and answers other requests with the
+	 * authorization header, or 401 if the token is not the current one
+	 */
+	private static class TokenHandler implements StubHttpServer.Handler {
+
+		private static final String UNAUTHORIZED = "401 Unauthorized";
+
+		private final AtomicInteger authRequests = new AtomicInteger();
+		private volatile String token = "none";
+		private volatile long lifetime = 3600;
+
+		int getAuthRequests() {
+			return authRequests.get();
+		}
+
+		String getToken() {
+			return token;
+		}
+
+		void invalidateToken() {
+			token = "none";
+		}
+
+		void setLifetime(final long lifetime) {
+			this.lifetime = lifetime;
+		}
+
+		@Override
+		public Response handle(final Request request) {
+			final String authorization = request.getHeader("Authorization");
+			if (request.getPath().equals("/_open/auth")) {
+				authRequests.incrementAndGet();
+				final JsonObject credentials = new JsonParser().parse(request.getBody()).getAsJsonObject();
+				if (authorization == null && "secret".equals(credentials.get("password").getAsString())) {
+					final long now = System.currentTimeMillis() / 1000L;
+					token = createToken(now, now + lifetime);
+					return Response.ok("{\"jwt\":\"" + token + "\",\"must_change_password\":false}");
+				}
+				return new Response(UNAUTHORIZED,
+						"{\"error\":true,\"errorNum\":401,\"errorMessage\":\"Wrong credentials\",\"code\":401}");
+			} else if (("bearer " + token).equals(authorization)) {
+				return Response.ok(authorization);
+			}
+			return new Response(UNAUTHORIZED, "");
+		}
+
+	}
+
+}
@@ -0,0 +1,197 @@
+package com.arangodb.http;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.net.SocketException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.arangodb.ArangoConfigure;
+import com.arangodb.ArangoException;
+import com.arangodb.ArangoHost;
+import com.arangodb.http.HttpRequestEntity.RequestType;
+import com.arangodb.http.StubHttpServer.Request;
+import com.arangodb.http.StubHttpServer.Response;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Protocol test of the NIO HTTP client against a stub server. No ArangoDB
+ * server is needed.
+ */
+public class NioHttpTransportTest {
+
+	private StubHttpServer server;
+	private NioHttpTransport transport;
+	private String baseUrl;
+
+	@Before
+	public void setUp() throws IOException {
+		server = new StubHttpServer(new EchoHandler());
+		final ArangoConfigure configure = new ArangoConfigure();
+		configure.setTimeout(10000);
+		transport = new NioHttpTransport(configure);
+		baseUrl = "http://127.0.0.1:" + server.getPort();
+	}
+
+	@After
+	public void tearDown() {
+		transport.destroy();
+		server.close();
+	}
+
+	@Test
+	public void test_contentLength() throws Exception {
+		final HttpRequestEntity request = createRequest(RequestType.POST, "/_api/document");
+		request.parameters = new HashMap<String, Object>();
+		request.parameters.put("collection", "test");
+		request.bodyText = "{\"name\":\"äöü\"}";
+		final Map<String, String> headers = new HashMap<String, String>();
+		headers.put("x-arango-async", "store");
+
+		final HttpResponseEntity response = execute(transport, request, headers);
+		assertThat(response.getStatusCode(), is(200));
+		assertThat(response.getStatusPhrase(), is("OK"));
+		assertThat(response.isJsonResponse(), is(true));
+		assertThat(response.getHeaders().get("X-Arango-Async-Id"), is("42"));
+		assertThat(response.getEtag(), is(123L));
+
+		final JsonObject echo = new JsonParser().parse(response.getText()).getAsJsonObject();
+		assertThat(echo.get("requestLine").getAsString(), is("POST /_api/document?collection=test HTTP/1.1"));
+		assertThat(echo.get("async").getAsString(), is("store"));
+		assertThat(echo.get("body").getAsString(), is("{\"name\":\"äöü\"}"));
+	}
+
+	@Test
+	public void test_chunked() throws Exception {
+		final HttpResponseEntity response = execute(transport, createRequest(RequestType.GET, "/chunked"),
+			null);
+		assertThat(response.getText(), is("{\"chunked\":true}"));
+	}
+
+	@Test
+	public void test_head() throws Exception {
+		final HttpResponseEntity response = execute(transport, createRequest(RequestType.HEAD, "/head"), null);
+		assertThat(response.getStatusCode(), is(200));
+		assertThat(response.getText(), is(nullValue()));
+	}
+
+	@Test
+	public void test_keepAlive() throws Exception {
+		for (int i = 0; i < 10; i++) {
+			execute(transport, createRequest(RequestType.GET, "/_api/version"), null);
+		}
+		assertThat(server.getConnections(), is(1));
+
+		// the server closes the connection after the response
+		execute(transport, createRequest(RequestType.GET, "/close"), null);
+		execute(transport, createRequest(RequestType.GET, "/_api/version"), null);
+		assertThat(server.getConnections(), is(2));
+
+		// the server closes the idle connection, the request is retried on a
+		// new connection
+		server.closeConnections();
+		final HttpResponseEntity response = execute(transport, createRequest(RequestType.GET, "/_api/version"), null);
+		assertThat(response.getStatusCode(), is(200));
+		assertThat(server.getConnections(), is(3));
+	}
+
+	@Test
+	public void test_httpManager() throws Exception {
+		final ArangoConfigure configure = new ArangoConfigure();
+		configure.setArangoHost(new ArangoHost("127.0.0.1", server.getPort()));
+		configure.setUser("root");
+		configure.setPassword("secret");
+		configure.setUseNioHttpClient(true);
+		final HttpManager httpManager = new HttpManager(configure);
+		httpManager.init();
+		try {
+			final Map<String, Object> params = new HashMap<String, Object>();
+			params.put("details", true);
+			final HttpResponseEntity response = httpManager.doGet("/_api/version", params);
+			final JsonObject echo = new JsonParser().parse(response.getText()).getAsJsonObject();
+			assertThat(echo.get("requestLine").getAsString(), is("GET /_api/version?details=true HTTP/1.1"));
+			assertThat(echo.get("authorization").getAsString(), is("Basic cm9vdDpzZWNyZXQ="));
+			assertThat(echo.get("userAgent").getAsString().contains("ArangoDB-JavaDriver"), is(true));
+		} finally {
+			httpManager.destroy();
+		}
+	}
+
+	@Test
+	public void test_timeoutIsNotRetried() throws Exception {
+		final ArangoConfigure configure = new ArangoConfigure();
+		configure.setTimeout(200);
+		final NioHttpTransport slowTransport = new NioHttpTransport(configure);
+		try {
+			execute(slowTransport, createRequest(RequestType.GET, "/_api/version"), null);
+			final HttpRequestEntity request = createRequest(RequestType.POST, "/slow");
+			request.bodyText = "{}";
+			try {
+				execute(slowTransport, request, null);
+				fail();
+			} catch (final ArangoException e) {
+				// the server may still execute the request, it is not sent
+				// again on a new connection
+			}
+			assertThat(server.getRequests(), is(2));
+			assertThat(server.getConnections(), is(1));
+		} finally {
+			slowTransport.destroy();
+		}
+	}
+
+	private HttpResponseEntity execute(
+		final NioHttpTransport transport,
+		final HttpRequestEntity request,
+		final Map<String, String> headers) throws ArangoException, SocketException {
+		return transport.execute(baseUrl, HttpManager.buildUrl("", request), request, headers);
+	}
+
+	private static HttpRequestEntity createRequest(final RequestType type, final String url) {
+		final HttpRequestEntity request = new HttpRequestEntity();
+		request.type = type;
+		request.url = url;
+		return request;
+	}
+
+	/**
+	 * Answers every request with an echo of the request line, the async
+	 * header and the body
+	 */
+	private static class EchoHandler implements StubHttpServer.Handler {
+
+		@Override
+		public Response handle(final Request request) throws InterruptedException {
+			final String path = request.getPath();
+			if (path.startsWith("/slow")) {
+				Thread.sleep(500);
+			}
+			if (path.startsWith("/chunked")) {
+				return Response.raw("HTTP/1.1 200 OK\r\nContent-Type: application/json\r\n"
+						+ "Transfer-Encoding: chunked\r\n\r\n6\r\n{\"chun\r\na;ext=1\r\nked\":true}\r\n0\r\n\r\n");
+			} else if (path.startsWith("/head")) {
+				return Response.raw("HTTP/1.1 200 OK\r\nContent-Length: 100\r\n\r\n");
+			}
+			final JsonObject echo = new JsonObject();
+			echo.addProperty("requestLine", request.getRequestLine());
+			echo.addProperty("async", request.getHeader("x-arango-async"));
+			echo.addProperty("authorization", request.getHeader("Authorization"));
+			echo.addProperty("userAgent", request.getHeader("User-Agent"));
+			echo.addProperty("body", request.getBody());
+			final Response response = Response.ok(echo.toString()).header("Etag", "\"123\"")
+					.header("X-Arango-Async-Id", "42");
+			return path.startsWith("/close") ? response.close() : response;
+		}
+
+	}
+
+}
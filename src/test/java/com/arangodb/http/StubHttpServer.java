@@ -0,0 +1,275 @@
+package com.arangodb.http;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.arangodb.util.PooledByteArrayOutputStream;
+
+/**
+ * Minimal HTTP/1.1 server of the server-free tests. The requests of the
+ * keep-alive connections are answered by a {@link Handler}.
+ */
+public class StubHttpServer extends StubServer {
+
+	private static final String CRLF = "\r\n";
+
+	/**
+	 * Answers the requests of a stub server
+	 */
+	public interface Handler {
+
+		/**
+		 * @param request
+		 *            the request
+		 * @return the response or null to close the connection without a
+		 *         response
+		 */
+		Response handle(Request request) throws IOException, InterruptedException;
+
+	}
+
+	private final Handler handler;
+	private final AtomicInteger requests = new AtomicInteger();
+
+	public StubHttpServer(final Handler handler) throws IOException {
+		this.handler = handler;
+		start();
+	}
+
+	/**
+	 * @return the number of received requests (a batch counts as one)
+	 */
+	public int getRequests() {
+		return requests.get();
+	}
+
+	@Override
+	protected void handle(final Socket socket) {
+		try {
+			final DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			final OutputStream out = socket.getOutputStream();
+			String requestLine;
+			while ((requestLine = readLine(in)) != null) {
+				final Map<String, String> headers = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
+				String line;
+				while ((line = readLine(in)).length() > 0) {
+					final String[] header = line.split(":\\s*", 2);
+					headers.put(header[0], header.length > 1 ? header[1] : "");
+				}
+				final String contentLength = headers.get("Content-Length");
+				final byte[] body = new byte[contentLength != null ? Integer.parseInt(contentLength) : 0];
+				in.readFully(body);
+
+				requests.incrementAndGet();
+				final Request request = new Request(requestLine, headers, body);
+				final Response response = handler.handle(request);
+				if (response == null) {
+					socket.close();
+					return;
+				}
+				response.write(out, request);
+				if (response.close) {
+					socket.close();
+					return;
+				}
+			}
+		} catch (final IOException e) {
+			// closed
+		} catch (final InterruptedException e) {
+			// closed
+		}
+	}
+
+	/**
+	 * Answers the parts of a batch request with the handler
+	 *
+	 * @param request
+	 *            the request to /_api/batch
+	 * @param handler
+	 *            answers the parts
+	 * @return the multipart response
+	 */
+	public static Response answerBatch(final Request request, final Handler handler)
+			throws IOException, InterruptedException {
+		final StringBuilder response = new StringBuilder();
+		for (final String part : request.getBody().split("--" + BatchCodec.BOUNDARY)) {
+			// the headers of the part, the request line and headers, the body
+			final String[] sections = part.split("\r?\n\r?\n", 3);
+			if (sections.length < 2) {
+				continue;
+			}
+			String contentId = null;
+			for (final String line : sections[0].trim().split("\r?\n")) {
+				if (line.startsWith("Content-Id: ")) {
+					contentId = line.substring(12);
+				}
+			}
+			final String[] head = sections[1].split("\r?\n");
+			final Map<String, String> headers = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
+			for (int i = 1; i < head.length; i++) {
+				final String[] header = head[i].split(":\\s*", 2);
+				headers.put(header[0], header.length > 1 ? header[1] : "");
+			}
+			final String body = sections.length > 2 ? sections[2].trim() : "";
+			final Response partResponse = handler.handle(new Request(head[0], headers,
+					body.getBytes(PooledByteArrayOutputStream.UTF_8)));
+
+			final byte[] content = partResponse.body.getBytes(PooledByteArrayOutputStream.UTF_8);
+			response.append("--").append(BatchCodec.BOUNDARY).append(CRLF)
+					.append("Content-Type: application/x-arango-batchpart").append(CRLF).append("Content-Id: ")
+					.append(contentId).append(CRLF).append(CRLF).append("HTTP/1.1 ").append(partResponse.status)
+					.append(CRLF).append(partResponse.getHeaders()).append("Content-Length: ")
+					.append(content.length).append(CRLF).append(CRLF).append(partResponse.body).append(CRLF);
+		}
+		response.append("--").append(BatchCodec.BOUNDARY).append("--");
+		return Response.ok(response.toString()).header("Content-Type", BatchCodec.CONTENT_TYPE);
+	}
+
+	private static String readLine(final DataInputStream in) throws IOException {
+		final StringBuilder line = new StringBuilder();
+		int b;
+		while ((b = in.read()) != '\n') {
+			if (b < 0) {
+				return null;
+			}
+			if (b != '\r') {
+				line.append((char) b);
+			}
+		}
+		return line.toString();
+	}
+
+	/**
+	 * A request of the stub server
+	 */
+	public static class Request {
+
+		private final String requestLine;
+		private final String method;
+		private final String uri;
+		private final Map<String, String> headers;
+		private final byte[] body;
+
+		Request(final String requestLine, final Map<String, String> headers, final byte[] body) {
+			this.requestLine = requestLine;
+			final String[] parts = requestLine.split(" ");
+			this.method = parts[0];
+			this.uri = parts.length > 1 ? parts[1] : "";
+			this.headers = headers;
+			this.body = body;
+		}
+
+		public String getRequestLine() {
+			return requestLine;
+		}
+
+		public String getMethod() {
+			return method;
+		}
+
+		/**
+		 * @return the path and the query string
+		 */
+		public String getUri() {
+			return uri;
+		}
+
+		/**
+		 * @return the path without the query string
+		 */
+		public String getPath() {
+			final int query = uri.indexOf('?');
+			return query < 0 ? uri : uri.substring(0, query);
+		}
+
+		public String getHeader(final String name) {
+			return headers.get(name);
+		}
+
+		public String getBody() {
+			return new String(body, PooledByteArrayOutputStream.UTF_8);
+		}
+
+	}
+
+	/**
+	 * A response of the stub server. The content type is JSON unless a
+	 * Content-Type header is set.
+	 */
+	public static class Response {
+
+		private final String status;
+		private final String body;
+		private final StringBuilder headers = new StringBuilder();
+		private boolean contentType;
+		private boolean raw;
+		private boolean close;
+
+		/**
+		 * @param status
+		 *            the status code and phrase, e.g. "200 OK"
+		 * @param body
+		 *            the body
+		 */
+		public Response(final String status, final String body) {
+			this.status = status;
+			this.body = body;
+		}
+
+		public static Response ok(final String body) {
+			return new Response("200 OK", body);
+		}
+
+		/**
+		 * @return a response, which is written as it is (status line, headers
+		 *         and body)
+		 */
+		public static Response raw(final String text) {
+			final Response response = new Response(null, text);
+			response.raw = true;
+			return response;
+		}
+
+		public Response header(final String name, final String value) {
+			if ("Content-Type".equalsIgnoreCase(name)) {
+				contentType = true;
+			}
+			headers.append(name).append(": ").append(value).append(CRLF);
+			return this;
+		}
+
+		/**
+		 * The connection is closed after the response
+		 */
+		public Response close() {
+			close = true;
+			return header("Connection", "close");
+		}
+
+		private String getHeaders() {
+			return contentType ? headers.toString() : "Content-Type: application/json; charset=utf-8" + CRLF + headers;
+		}
+
+		private void write(final OutputStream out, final Request request) throws IOException {
+			if (raw) {
+				out.write(body.getBytes(PooledByteArrayOutputStream.UTF_8));
+			} else {
+				final byte[] content = body.getBytes(PooledByteArrayOutputStream.UTF_8);
+				out.write(("HTTP/1.1 " + status + CRLF + getHeaders() + "Content-Length: " + content.length + CRLF
+						+ CRLF).getBytes(PooledByteArrayOutputStream.UTF_8));
+				if (!"HEAD".equals(request.getMethod())) {
+					out.write(content);
+				}
+			}
+			out.flush();
+		}
+
+	}
+
+}
@@ -0,0 +1,104 @@
+package com.arangodb.http;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Base class of the stub servers of the server-free tests. The server listens
+ * on a free local port and handles every connection in a thread of its own.
+ */
+public abstract class StubServer implements Runnable {
+
+	private final ServerSocket serverSocket;
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+	private final List<Socket> sockets = new ArrayList<Socket>();
+	private final AtomicInteger connections = new AtomicInteger();
+
+	protected StubServer() throws IOException {
+		serverSocket = new ServerSocket(0);
+	}
+
+	/**
+	 * Starts to accept connections, called at the end of the constructor of
+	 * the subclass
+	 */
+	protected void start() {
+		executor.execute(this);
+	}
+
+	/**
+	 * Handles a connection until it is closed
+	 */
+	protected abstract void handle(Socket socket);
+
+	/**
+	 * Executes a task in the thread pool of the server
+	 */
+	protected void execute(final Runnable task) {
+		executor.execute(task);
+	}
+
+	public int getPort() {
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * @return the number of accepted connections
+	 */
+	public int getConnections() {
+		return connections.get();
+	}
+
+	/**
+	 * Closes the open connections, like a server which closes idle
+	 * connections
+	 */
+	public synchronized void closeConnections() {
+		for (final Socket socket : sockets) {
+			try {
+				socket.close();
+			} catch (final IOException e) {
+				// ignore
+			}
+		}
+		sockets.clear();
+	}
+
+	public void close() {
+		try {
+			serverSocket.close();
+		} catch (final IOException e) {
+			// ignore
+		}
+		closeConnections();
+		executor.shutdownNow();
+	}
+
+	@Override
+	public void run() {
+		try {
+			while (true) {
+				final Socket socket = serverSocket.accept();
+				connections.incrementAndGet();
+				synchronized (this) {
+					sockets.add(socket);
+				}
+				executor.execute(new Runnable() {
+					@Override
+					public void run() {
+						handle(socket);
+					}
+				});
+			}
+		} catch (final IOException e) {
+			// closed
+		}
+	}
+
+}
@@ -0,0 +1,75 @@
+package com.arangodb.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class CsrGraphBuilderTest {
+
+	@Test
+	public void test_build() {
+		for (final boolean offHeap : new boolean[] { false, true }) {
+			final CsrGraph graph = createBuilder().build(offHeap);
+
+			assertThat(graph.isOffHeap(), is(offHeap));
+			assertThat(graph.getVertexCount(), is(4));
+			assertThat(graph.getEdgeCount(), is(4));
+
+			final int a = graph.getVertex("v/a");
+			final int c = graph.getVertex("v/c");
+			final int d = graph.getVertex("v/d");
+			assertThat(graph.getVertexId(a), is("v/a"));
+			assertThat(graph.getVertex("v/x"), is(-1));
+
+			assertThat(graph.getDegree(a), is(2));
+			assertThat(graph.getDegree(d), is(0));
+			final int[] neighbors = graph.getNeighbors(a);
+			assertThat(graph.getVertexId(neighbors[0]), is("v/b"));
+			assertThat(graph.getVertexId(neighbors[1]), is("v/c"));
+
+			final int first = (int) graph.getOffset(a);
+			assertThat(graph.getEdgeAttribute("weight", first), is(1.0));
+			assertThat(graph.getEdgeAttribute("weight", first + 1), is(3.0));
+			assertTrue(Double.isNaN(graph.getEdgeAttribute("weight", (int) graph.getOffset(c))));
+			assertThat(graph.getOffset(graph.getVertexCount()), is(4L));
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void test_buildTwice() {
+		final CsrGraphBuilder builder = new CsrGraphBuilder(null);
+		builder.addEdge("v/a", "v/b");
+		builder.build(false);
+		builder.build(false);
+	}
+
+	@Test
+	public void test_manyVertices() {
+		final CsrGraphBuilder builder = new CsrGraphBuilder(null);
+		for (int i = 0; i < 10000; i++) {
+			builder.addEdge("v/" + i, "v/" + (i + 1));
+		}
+		final CsrGraph graph = builder.build(false);
+		assertThat(graph.getVertexCount(), is(10001));
+		assertThat(graph.getEdgeCount(), is(10000));
+		for (int i = 0; i < 10000; i++) {
+			final int v = graph.getVertex("v/" + i);
+			assertThat(graph.getVertexId(graph.getTarget((int) graph.getOffset(v))), is("v/" + (i + 1)));
+		}
+	}
+
+	private CsrGraphBuilder createBuilder() {
+		final CsrGraphBuilder builder = new CsrGraphBuilder(Arrays.asList("weight"));
+		builder.addEdge("v/a", "v/b", 1.0);
+		builder.addEdge("v/b", "v/c", 2.0);
+		builder.addEdge("v/a", "v/c", 3.0);
+		builder.addEdge("v/c", "v/a");
+		builder.addVertex("v/d");
+		return builder;
+	}
+
+}
@@ -0,0 +1,61 @@
+package com.arangodb.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+
+import org.junit.Test;
+
+public class PooledByteArrayOutputStreamTest {
+
+	@Test
+	public void test_encode() throws Exception {
+		final StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 5000; i++) {
+			text.append("aä€𝄞");
+		}
+		final PooledByteArrayOutputStream out = PooledByteArrayOutputStream.encode(text.toString());
+		final byte[] expected = text.toString().getBytes("utf-8");
+		assertThat(out.size(), is(expected.length));
+		assertThat(out.toByteArray(), is(expected));
+		assertThat(out.toString(), is(text.toString()));
+		out.release();
+	}
+
+	@Test
+	public void test_read() throws Exception {
+		final byte[] data = new byte[100000];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte) i;
+		}
+		// without and with the expected size
+		for (final long expectedSize : new long[] { -1, data.length }) {
+			final PooledByteArrayOutputStream out = PooledByteArrayOutputStream.read(new ByteArrayInputStream(data),
+				expectedSize);
+			assertThat(out.toByteArray(), is(data));
+			out.release();
+		}
+	}
+
+	@Test
+	public void test_pool() {
+		final BufferPool pool = new BufferPool();
+		final byte[] small = pool.acquire(100);
+		assertThat(small.length, is(1024));
+		final byte[] medium = pool.acquire(1025);
+		assertThat(medium.length, is(2048));
+		assertThat(pool.acquire(5000000).length, is(5000000));
+
+		pool.release(medium);
+		assertThat(pool.acquire(2000), is(sameInstance(medium)));
+		assertThat(pool.acquire(2000), is(not(sameInstance(medium))));
+
+		// arrays that do not match a size class are not pooled
+		pool.release(new byte[3000]);
+		assertThat(pool.acquire(3000).length, is(4096));
+	}
+
+}
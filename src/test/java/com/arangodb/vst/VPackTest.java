@@ -0,0 +1,64 @@
+package com.arangodb.vst;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
+public class VPackTest {
+
+	@Test
+	public void test_roundTrip() {
+		final StringBuilder longString = new StringBuilder();
+		for (int i = 0; i < 200; i++) {
+			longString.append('x');
+		}
+		final JsonElement value = new JsonParser().parse("{\"a\":1,\"b\":-3,\"c\":-200,\"d\":1234567890123,"
+				+ "\"e\":1.5,\"f\":true,\"g\":false,\"h\":null,\"i\":[],\"j\":{},\"k\":\"äöü\","
+				+ "\"l\":[1,[2,{\"m\":\"n\"}]],\"o\":\"" + longString + "\",\"p\":127,\"q\":-129,\"r\":2147483648}");
+		assertThat(VPack.decode(VPack.encode(value), 0), is(value));
+	}
+
+	@Test
+	public void test_largeArray() {
+		final JsonArray array = new JsonArray();
+		for (int i = 0; i < 1000; i++) {
+			array.add(new JsonPrimitive("value" + i));
+		}
+		final byte[] data = VPack.encode(array);
+		assertThat(VPack.byteSize(data, 0), is(data.length));
+		assertThat(VPack.decode(data, 0), is((JsonElement) array));
+	}
+
+	@Test
+	public void test_indexedFormats() {
+		// array without index table
+		assertThat(VPack.decode(bytes(0x02, 0x05, 0x31, 0x32, 0x33), 0).toString(), is("[1,2,3]"));
+		// array with index table
+		assertThat(VPack.decode(bytes(0x06, 0x09, 0x03, 0x31, 0x32, 0x33, 0x03, 0x04, 0x05), 0).toString(),
+			is("[1,2,3]"));
+		// sorted object with index table
+		final JsonObject object = VPack
+				.decode(bytes(0x0b, 0x0b, 0x02, 0x41, 'a', 0x31, 0x41, 'b', 0x32, 0x03, 0x06), 0).getAsJsonObject();
+		assertThat(object.get("a").getAsInt(), is(1));
+		assertThat(object.get("b").getAsInt(), is(2));
+		// translated attribute name
+		assertThat(VPack.decode(bytes(0x0b, 0x07, 0x01, 0x31, 0x41, 'x', 0x03), 0).toString(),
+			is("{\"_key\":\"x\"}"));
+	}
+
+	private static byte[] bytes(final int... values) {
+		final byte[] result = new byte[values.length];
+		for (int i = 0; i < values.length; i++) {
+			result[i] = (byte) values[i];
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,269 @@
+package com.arangodb.vst;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.arangodb.ArangoConfigure;
+import com.arangodb.ArangoException;
+import com.arangodb.http.BatchCodec;
+import com.arangodb.http.BatchPart;
+import com.arangodb.http.HttpManager;
+import com.arangodb.http.HttpRequestEntity;
+import com.arangodb.http.HttpRequestEntity.RequestType;
+import com.arangodb.http.HttpResponseEntity;
+import com.arangodb.http.StubServer;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Protocol test of the VelocyStream transport against a stub server, which
+ * echoes the requests. No ArangoDB server is needed.
+ */
+public class VstTransportTest {
+
+	private static final Charset UTF_8 = Charset.forName("utf-8");
+
+	private EchoServer server;
+	private VstTransport transport;
+	private String baseUrl;
+
+	@Before
+	public void setUp() throws IOException {
+		server = new EchoServer();
+		final ArangoConfigure configure = new ArangoConfigure();
+		configure.setVstConnections(2);
+		configure.setTimeout(10000);
+		transport = new VstTransport(configure);
+		baseUrl = "http://127.0.0.1:" + server.getPort();
+	}
+
+	@After
+	public void tearDown() {
+		transport.destroy();
+		server.close();
+	}
+
+	@Test
+	public void test_request() throws Exception {
+		final HttpRequestEntity request = createRequest(RequestType.GET, "/_db/my%20db/_api/version?details=true");
+		request.parameters = new HashMap<String, Object>();
+		request.parameters.put("waitForSync", true);
+		final Map<String, String> headers = new HashMap<String, String>();
+		headers.put("X-Arango-Async", "store");
+
+		final HttpResponseEntity response = execute(transport, request, headers);
+		assertThat(response.getStatusCode(), is(200));
+		assertThat(response.isJsonResponse(), is(true));
+		assertThat(response.getHeaders().get("X-Arango-Async-Id"), is("42"));
+
+		final JsonObject echo = new JsonParser().parse(response.getText()).getAsJsonObject();
+		assertThat(echo.get("database").getAsString(), is("my db"));
+		assertThat(echo.get("path").getAsString(), is("/_api/version"));
+		assertThat(echo.get("requestType").getAsInt(), is(1));
+		assertThat(echo.get("parameters").getAsJsonObject().get("details").getAsString(), is("true"));
+		assertThat(echo.get("parameters").getAsJsonObject().get("waitForSync").getAsString(), is("true"));
+		assertThat(echo.get("meta").getAsJsonObject().get("x-arango-async").getAsString(), is("store"));
+		assertThat(echo.get("body").isJsonNull(), is(true));
+		assertThat(server.getAuthentications() > 0, is(true));
+	}
+
+	@Test
+	public void test_chunkedBody() throws Exception {
+		final StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 100000; i++) {
+			text.append((char) ('a' + i % 26));
+		}
+		final JsonObject body = new JsonObject();
+		body.addProperty("text", text.toString());
+		final HttpRequestEntity request = createRequest(RequestType.POST, "/_api/document");
+		request.bodyText = body.toString();
+
+		final HttpResponseEntity response = execute(transport, request, null);
+		final JsonObject echo = new JsonParser().parse(response.getText()).getAsJsonObject();
+		assertThat(echo.get("database").getAsString(), is("_system"));
+		assertThat(echo.get("requestType").getAsInt(), is(2));
+		assertThat(echo.get("body"), is((JsonElement) body));
+	}
+
+	@Test
+	public void test_batchBody() throws Exception {
+		final String body = BatchCodec.encode(
+			Arrays.asList(new BatchPart("GET", "/_api/version", null, null, 1)), "127.0.0.1");
+		final HttpRequestEntity request = createRequest(RequestType.POST, "/_api/batch");
+		request.headers = new HashMap<String, Object>();
+		request.headers.put("Content-Type", BatchCodec.CONTENT_TYPE);
+		request.bodyText = body;
+		final Map<String, String> headers = new HashMap<String, String>();
+		headers.put("Content-Type", BatchCodec.CONTENT_TYPE);
+
+		final HttpResponseEntity response = execute(transport, request, headers);
+		final JsonObject echo = new JsonParser().parse(response.getText()).getAsJsonObject();
+		assertThat(echo.get("meta").getAsJsonObject().get("content-type").getAsString(), is(BatchCodec.CONTENT_TYPE));
+		assertThat(echo.get("body").getAsString(), is(body));
+	}
+
+	@Test
+	public void test_multiplexing() throws Exception {
+		final ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			final List<Future<String>> futures = new ArrayList<Future<String>>();
+			for (int i = 0; i < 50; i++) {
+				final String path = "/_api/document/c/" + i;
+				futures.add(executor.submit(new Callable<String>() {
+					@Override
+					public String call() throws Exception {
+						final HttpResponseEntity response = execute(transport, createRequest(RequestType.GET, path),
+							null);
+						return new JsonParser().parse(response.getText()).getAsJsonObject().get("path").getAsString();
+					}
+				}));
+			}
+			for (int i = 0; i < futures.size(); i++) {
+				assertThat(futures.get(i).get(), is("/_api/document/c/" + i));
+			}
+			assertThat(server.getConnections(), is(2));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void test_connectionFailure() throws Exception {
+		execute(transport, createRequest(RequestType.GET, "/_api/version"), null);
+		server.close();
+		try {
+			execute(transport, createRequest(RequestType.GET, "/_api/version"), null);
+			execute(transport, createRequest(RequestType.GET, "/_api/version"), null);
+			fail();
+		} catch (final SocketException e) {
+			// expected, the request is retried by the HttpManager
+		}
+	}
+
+	private HttpResponseEntity execute(
+		final VstTransport transport,
+		final HttpRequestEntity request,
+		final Map<String, String> headers) throws ArangoException, SocketException {
+		return transport.execute(baseUrl, HttpManager.buildUrl("", request), request, headers);
+	}
+
+	private static HttpRequestEntity createRequest(final RequestType type, final String url) {
+		final HttpRequestEntity request = new HttpRequestEntity();
+		request.type = type;
+		request.url = url;
+		return request;
+	}
+
+	/**
+	 * Answers every request with an echo of the request. The responses are
+	 * sent by a thread pool, so they may arrive out of order.
+	 */
+	private static class EchoServer extends StubServer {
+
+		private int authentications;
+
+		EchoServer() throws IOException {
+			start();
+		}
+
+		synchronized int getAuthentications() {
+			return authentications;
+		}
+
+		@Override
+		protected void handle(final Socket socket) {
+			try {
+				final byte[] protocol = new byte[VstConnection.PROTOCOL_HEADER.length];
+				new DataInputStream(socket.getInputStream()).readFully(protocol);
+				final VstMessageReader reader = new VstMessageReader(socket.getInputStream());
+				final OutputStream out = socket.getOutputStream();
+				while (true) {
+					final VstMessage request = reader.read();
+					execute(new Runnable() {
+						@Override
+						public void run() {
+							respond(request, out);
+						}
+					});
+				}
+			} catch (final IOException e) {
+				// closed
+			}
+		}
+
+		private void respond(final VstMessage request, final OutputStream out) {
+			final byte[] data = request.getData();
+			final JsonArray header = VPack.decode(data, 0).getAsJsonArray();
+
+			final JsonArray responseHeader = new JsonArray();
+			responseHeader.add(new JsonPrimitive(1));
+			responseHeader.add(new JsonPrimitive(2));
+			responseHeader.add(new JsonPrimitive(200));
+			final JsonObject meta = new JsonObject();
+			responseHeader.add(meta);
+
+			final JsonObject echo = new JsonObject();
+			if (header.get(1).getAsInt() == 1000) {
+				synchronized (this) {
+					authentications++;
+				}
+			} else {
+				meta.addProperty("x-arango-async-id", "42");
+				echo.add("database", header.get(2));
+				echo.add("requestType", header.get(3));
+				echo.add("path", header.get(4));
+				echo.add("parameters", header.get(5));
+				echo.add("meta", header.get(6));
+				final int bodyStart = VPack.byteSize(data, 0);
+				if (bodyStart == data.length) {
+					echo.add("body", JsonNull.INSTANCE);
+				} else if (header.get(6).getAsJsonObject().has("content-type")) {
+					// a body which is not VelocyPack
+					echo.addProperty("body", new String(data, bodyStart, data.length - bodyStart, UTF_8));
+				} else {
+					echo.add("body", VPack.decode(data, bodyStart));
+				}
+			}
+
+			final byte[] head = VPack.encode(responseHeader);
+			final byte[] body = VPack.encode(echo);
+			final byte[] message = new byte[head.length + body.length];
+			System.arraycopy(head, 0, message, 0, head.length);
+			System.arraycopy(body, 0, message, head.length, body.length);
+			try {
+				synchronized (out) {
+					new VstMessage(request.getId(), message).write(out, 1000);
+				}
+			} catch (final IOException e) {
+				// closed
+			}
+		}
+
+	}
+
+}